@@ -0,0 +1,164 @@
+package com.hrsystem.hrsystem.benchmarks;
+
+import com.hrsystem.hrsystem.api.ApiConfig;
+import com.hrsystem.hrsystem.api.ApiServer;
+import com.hrsystem.hrsystem.metrics.LatencyHistogram;
+import com.hrsystem.hrsystem.storage.StorageManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Drives the HTTP API with a fixed number of concurrent clients for a fixed time and reports requests per
+ * second and latency percentiles per kind of request. Each client sends its next request as soon as the last
+ * one finished: a page of 100 employees, one employee by id, the department list, or one whole department.
+ *
+ * Without a URL it starts the API itself over an embedded database filled with {@link SyntheticData}, so it
+ * measures the server, the cache and the SQL together without a MySQL server:
+ * <pre>
+ * java -cp target/benchmarks.jar com.hrsystem.hrsystem.benchmarks.ApiLoadDriver 64 30 100000
+ * java -cp target/benchmarks.jar com.hrsystem.hrsystem.benchmarks.ApiLoadDriver 64 30 100000 http://host:8080
+ * </pre>
+ * With a URL, the employee count only sets the range of ids asked for.
+ */
+public class ApiLoadDriver {
+
+    private static final String[] ROUTES = {"page", "byId", "departments", "department"};
+    private static final Pattern DEPARTMENT_ID = Pattern.compile("\"id\":(\\d+)");
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final String baseUrl;
+    private final int employees;
+    private final List<Integer> departmentIds = new ArrayList<>();
+    private final Map<String, LatencyHistogram> latencies = new LinkedHashMap<>();
+    private final AtomicLong errors = new AtomicLong();
+
+    ApiLoadDriver(String baseUrl, int employees) {
+        this.baseUrl = baseUrl;
+        this.employees = employees;
+        for (String route : ROUTES) {
+            latencies.put(route, new LatencyHistogram());
+        }
+    }
+
+    void run(int clients, int seconds) throws IOException, InterruptedException {
+        String departments = get("/api/departments");
+        Matcher matcher = DEPARTMENT_ID.matcher(departments);
+        while (matcher.find()) {
+            departmentIds.add(Integer.parseInt(matcher.group(1)));
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < clients; i++) {
+            Thread thread = new Thread(() -> {
+                while (System.nanoTime() < deadline) {
+                    sendOne();
+                }
+            }, "client-" + i);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        report(seconds);
+    }
+
+    private void sendOne() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String route = ROUTES[random.nextInt(ROUTES.length)];
+        String path;
+        switch (route) {
+            case "page":
+                path = "/api/employees?after=" + random.nextInt(Math.max(1, employees)) + "&limit=100";
+                break;
+            case "byId":
+                path = "/api/employees/" + (1 + random.nextInt(Math.max(1, employees)));
+                break;
+            case "department":
+                path = departmentIds.isEmpty() ? "/api/employees?department=0"
+                        : "/api/employees?department=" + departmentIds.get(random.nextInt(departmentIds.size()));
+                break;
+            default:
+                path = "/api/departments";
+        }
+        long start = System.nanoTime();
+        try {
+            HttpResponse<InputStream> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + path)).build(),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            // Read the whole body, so a streamed listing is timed to its last byte
+            try (InputStream body = response.body()) {
+                body.transferTo(OutputStream.nullOutputStream());
+            }
+            if (response.statusCode() != 200 && response.statusCode() != 404) {
+                errors.incrementAndGet();
+            }
+        } catch (IOException e) {
+            errors.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        latencies.get(route).record(System.nanoTime() - start);
+    }
+
+    private String get(String path) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(URI.create(baseUrl + path)).build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    private void report(int seconds) {
+        long total = 0;
+        System.out.printf("%-12s %10s %10s %10s %10s %10s%n", "request", "count", "req/s", "p50 ms", "p99 ms", "max ms");
+        for (Map.Entry<String, LatencyHistogram> entry : latencies.entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            total += histogram.getCount();
+            System.out.printf("%-12s %,10d %,10.0f %10.2f %10.2f %10.2f%n", entry.getKey(), histogram.getCount(),
+                    histogram.getCount() / (double) seconds, histogram.percentileNanos(50) / 1e6,
+                    histogram.percentileNanos(99) / 1e6, histogram.getMaxNanos() / 1e6);
+        }
+        System.out.printf("%-12s %,10d %,10.0f   errors: %,d%n", "total", total, total / (double) seconds, errors.get());
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: ApiLoadDriver <clients> <seconds> <employees> [url]");
+            System.exit(2);
+        }
+        int clients = Integer.parseInt(args[0]);
+        int seconds = Integer.parseInt(args[1]);
+        int employees = Integer.parseInt(args[2]);
+        if (args.length > 3) {
+            new ApiLoadDriver(args[3].replaceAll("/+$", ""), employees).run(clients, seconds);
+            return;
+        }
+
+        ApiServer server = null;
+        try {
+            EmbeddedDatabase.install();
+            new SyntheticData(SyntheticData.DEFAULT_SEED).populate(employees);
+            ApiConfig config = new ApiConfig();
+            config.setPort(0);
+            server = ApiServer.start(config);
+            new ApiLoadDriver("http://localhost:" + server.getPort(), employees).run(clients, seconds);
+        } finally {
+            if (server != null) server.stop();
+            StorageManager.shutdown();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.hrsystem.hrsystem.benchmarks;
+
+import com.hrsystem.hrsystem.storage.StorageManager;
+import com.hrsystem.hrsystem.util.Database;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Borrowing a connection from {@link Database#getConnection()} and handing it back, alone and with more
+ * threads than the pool has connections. Does not depend on the table size, so it uses an empty database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConnectionAcquireBenchmark {
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        EmbeddedDatabase.install();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        StorageManager.shutdown();
+    }
+
+    @Benchmark
+    public void acquireAndRelease() throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            conn.isClosed();
+        }
+    }
+
+    @Benchmark
+    @Threads(16)
+    public void acquireAndReleaseContended() throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            conn.isClosed();
+        }
+    }
+}
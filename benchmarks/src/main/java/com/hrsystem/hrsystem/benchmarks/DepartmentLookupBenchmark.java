@@ -0,0 +1,58 @@
+package com.hrsystem.hrsystem.benchmarks;
+
+import com.hrsystem.hrsystem.model.Department;
+import com.hrsystem.hrsystem.repository.DepartmentRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resolving an employee's department id, as the employee form does when a row is selected and as every
+ * department cell does when it is painted. Ids are drawn at random so the lookups do not hit one entry.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DepartmentLookupBenchmark {
+
+    private static final int IDS = 4096;
+
+    private final int[] ids = new int[IDS];
+    private int next;
+
+    @Setup(Level.Trial)
+    public void pickIds(EmbeddedDatabase db) throws SQLException {
+        DepartmentRepository.getInstance().ensureDictionary();
+        List<Integer> departmentIds = db.departmentIds;
+        Random random = new Random(SyntheticData.DEFAULT_SEED);
+        for (int i = 0; i < IDS; i++) {
+            ids[i] = departmentIds.get(random.nextInt(departmentIds.size()));
+        }
+    }
+
+    @Benchmark
+    public Department find() {
+        return DepartmentRepository.getInstance().find(ids[next++ & (IDS - 1)]);
+    }
+
+    @Benchmark
+    public String nameOf() {
+        return DepartmentRepository.getInstance().nameOf(ids[next++ & (IDS - 1)]);
+    }
+}
@@ -0,0 +1,75 @@
+package com.hrsystem.hrsystem.benchmarks;
+
+import com.hrsystem.hrsystem.storage.MySqlSchema;
+import com.hrsystem.hrsystem.storage.MySqlStorage;
+import com.hrsystem.hrsystem.storage.StorageConfig;
+import com.hrsystem.hrsystem.storage.StorageManager;
+import com.hrsystem.hrsystem.util.Database;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * An in-memory H2 database in MySQL mode behind the application's own MySQL storage and connection pool,
+ * filled with {@link SyntheticData}. The benchmarks then exercise the same SQL, pooling and row mapping as
+ * the application does, without a MySQL server.
+ *
+ * JMH runs every parameter combination in a fresh JVM, so the repositories' singletons never see two sizes.
+ */
+@State(Scope.Benchmark)
+public class EmbeddedDatabase {
+
+    static final String URL = "jdbc:h2:mem:hrsystem;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    @Param({"10000", "100000", "1000000"})
+    public int employees;
+
+    List<Integer> departmentIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        install();
+        departmentIds = new SyntheticData(SyntheticData.DEFAULT_SEED).populate(employees);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Connection conn = Database.getConnection(); Statement stmt = conn.createStatement()) {
+            stmt.execute("DROP ALL OBJECTS");
+        }
+        StorageManager.shutdown();
+    }
+
+    /** Points the application at an empty embedded database with the application's schema. */
+    static void install() throws SQLException {
+        StorageConfig config = new StorageConfig();
+        config.setJdbcUrl(URL);
+        config.setJdbcUser("sa");
+        config.setJdbcPassword("");
+        StorageManager.install(new MySqlStorage(config));
+        createSchema();
+    }
+
+    /**
+     * The application's schema, from the statements the MySQL storage runs on an empty database. Its
+     * migrations are skipped: they use MySQL-only {@code ALTER TABLE} syntax and have nothing to migrate.
+     */
+    private static void createSchema() throws SQLException {
+        try (Connection conn = Database.getConnection(); Statement stmt = conn.createStatement()) {
+            for (String table : MySqlSchema.createTables(false)) {
+                stmt.execute(table);
+            }
+            for (String index : MySqlSchema.createIndexes()) {
+                stmt.execute(index);
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.hrsystem.hrsystem.benchmarks;
+
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.repository.EmployeeRepository;
+import com.hrsystem.hrsystem.repository.EmployeeSort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading employees and mapping each {@code ResultSet} row to an {@link Employee}: the whole table, as the
+ * background indexes and the CSV export read it, and the first window the employee tables load.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeLoadBenchmark {
+
+    private static final int WINDOW = 200;
+
+    @Benchmark
+    public void readAllRows(EmbeddedDatabase db, Blackhole blackhole) throws SQLException {
+        EmployeeRepository.getInstance().forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public List<Employee> firstWindowByName(EmbeddedDatabase db) throws SQLException {
+        return EmployeeRepository.getInstance().findPageAfter(EmployeeSort.NAME, true, null, WINDOW);
+    }
+
+    @Benchmark
+    public List<Employee> firstWindowByDepartment(EmbeddedDatabase db) throws SQLException {
+        return EmployeeRepository.getInstance().findPageAfter(EmployeeSort.DEPARTMENT, true, null, WINDOW);
+    }
+}
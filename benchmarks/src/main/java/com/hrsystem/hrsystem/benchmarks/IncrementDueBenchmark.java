@@ -0,0 +1,58 @@
+package com.hrsystem.hrsystem.benchmarks;
+
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.repository.EmployeeRepository;
+import com.hrsystem.hrsystem.service.IncrementSchedule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The "Check Increments" button on the dashboard: answered by the database when the due-date index is not
+ * built, otherwise from the index. Building the index is measured too, since the dashboard pays for it once.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IncrementDueBenchmark {
+
+    private final LocalDate today = LocalDate.now();
+
+    @Setup(Level.Trial)
+    public void buildSchedule(EmbeddedDatabase db) throws SQLException {
+        IncrementSchedule.getInstance().build();
+    }
+
+    @Benchmark
+    public List<Employee> dueFromDatabase(EmbeddedDatabase db) throws SQLException {
+        return EmployeeRepository.getInstance().findDueForIncrement(today);
+    }
+
+    @Benchmark
+    public List<IncrementSchedule.Entry> dueFromSchedule(EmbeddedDatabase db) {
+        return IncrementSchedule.getInstance().dueAsOf(today);
+    }
+
+    @Benchmark
+    public IncrementSchedule buildScheduleIndex(EmbeddedDatabase db) throws SQLException {
+        IncrementSchedule schedule = IncrementSchedule.getInstance();
+        schedule.build();
+        return schedule;
+    }
+}
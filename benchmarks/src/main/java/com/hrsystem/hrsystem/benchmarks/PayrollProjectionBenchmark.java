@@ -0,0 +1,54 @@
+package com.hrsystem.hrsystem.benchmarks;
+
+import com.hrsystem.hrsystem.analytics.EmployeeColumns;
+import com.hrsystem.hrsystem.analytics.PayrollProjection;
+import com.hrsystem.hrsystem.analytics.ProjectionConfig;
+import com.hrsystem.hrsystem.repository.EmployeeRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The dashboard's payroll projection, on employees already loaded into columns. Loading them is what
+ * {@link EmployeeLoadBenchmark} measures.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PayrollProjectionBenchmark {
+
+    @Param({"10"})
+    public int years;
+
+    private final YearMonth firstMonth = YearMonth.of(2025, 1);
+    private EmployeeColumns columns;
+    private ProjectionConfig config;
+
+    @Setup(Level.Trial)
+    public void loadColumns(EmbeddedDatabase db) throws SQLException {
+        columns = EmployeeColumns.load(EmployeeRepository.getInstance());
+        config = new ProjectionConfig();
+        config.setYears(years);
+    }
+
+    @Benchmark
+    public PayrollProjection project(EmbeddedDatabase db) {
+        return PayrollProjection.project(columns, config, firstMonth);
+    }
+}
@@ -0,0 +1,103 @@
+package com.hrsystem.hrsystem.benchmarks;
+
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.repository.DepartmentRepository;
+import com.hrsystem.hrsystem.repository.EmployeeBulkWriter;
+import com.hrsystem.hrsystem.repository.EmployeeRepository;
+import com.hrsystem.hrsystem.storage.StorageManager;
+import com.hrsystem.hrsystem.storage.WriteBatch;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Fills the configured storage with reproducible fake departments and employees. The same seed and size
+ * always give the same rows, so benchmark runs on different machines or commits compare like with like.
+ *
+ * Departments are written in one storage transaction and employees through the repository's bulk writer,
+ * so this works against any storage. To fill a MySQL database for manual testing:
+ * <pre>
+ * java -cp target/benchmarks.jar -Dhrsystem.jdbc.url=... com.hrsystem.hrsystem.benchmarks.SyntheticData 100000
+ * </pre>
+ */
+public class SyntheticData {
+
+    public static final long DEFAULT_SEED = 20240601L;
+
+    private static final String[] FIRST_NAMES = {
+            "Aisha", "Ben", "Carlos", "Dana", "Elif", "Farid", "Grace", "Hiro", "Ines", "Jonas",
+            "Kemal", "Lena", "Mateo", "Nadia", "Omar", "Priya", "Quinn", "Rosa", "Sven", "Tara"};
+    private static final String[] LAST_NAMES = {
+            "Ahmed", "Brown", "Costa", "Dubois", "Evans", "Fischer", "Garcia", "Hansen", "Ito", "Jensen",
+            "Khan", "Lopez", "Muller", "Nguyen", "Okafor", "Patel", "Rossi", "Silva", "Tanaka", "Weber"};
+    // The policies the application knows; anything else is treated as half-yearly
+    private static final String[] POLICIES = {"Yearly", "Half-Yearly"};
+
+    private final Random random;
+
+    public SyntheticData(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /** One department per thousand employees, at least ten, like a company that grows by teams. */
+    public static int departmentsFor(int employees) {
+        return Math.max(10, employees / 1000);
+    }
+
+    /**
+     * Inserts the departments and then the employees into empty tables.
+     * @return the ids of the inserted departments.
+     */
+    public List<Integer> populate(int employees) throws SQLException {
+        List<Integer> departmentIds = new ArrayList<>();
+        try (WriteBatch batch = StorageManager.get().openWriteBatch()) {
+            for (int i = 1; i <= departmentsFor(employees); i++) {
+                departmentIds.add(batch.insertDepartment(String.format("Department %04d", i)));
+            }
+            batch.commit();
+        }
+        DepartmentRepository.getInstance().invalidate();
+        try (EmployeeBulkWriter writer = EmployeeRepository.getInstance().openBulkWriter(1000, 10_000)) {
+            for (int i = 0; i < employees; i++) {
+                writer.add(nextEmployee(departmentIds));
+            }
+            writer.commit();
+        }
+        return departmentIds;
+    }
+
+    /**
+     * A random employee: 5% without a department, 3% without a join date, salaries between 30,000 and
+     * 150,000 with cents, and join dates spread over the last fifteen years.
+     */
+    public Employee nextEmployee(List<Integer> departmentIds) {
+        String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                + LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+        int departmentId = random.nextInt(100) < 5 ? 0 : departmentIds.get(random.nextInt(departmentIds.size()));
+        double salary = (3_000_000 + random.nextInt(12_000_001)) / 100.0;
+        LocalDate joinDate = random.nextInt(100) < 3 ? null : LocalDate.now().minusDays(random.nextInt(15 * 365));
+        String policy = POLICIES[random.nextInt(POLICIES.length)];
+        return new Employee(0, name, departmentId, salary, joinDate, policy);
+    }
+
+    public static void main(String[] args) throws SQLException {
+        if (args.length < 1) {
+            System.err.println("Usage: SyntheticData <employees> [seed]");
+            System.exit(2);
+        }
+        int employees = Integer.parseInt(args[0]);
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : DEFAULT_SEED;
+        try {
+            StorageManager.get().bootstrap();
+            long start = System.nanoTime();
+            new SyntheticData(seed).populate(employees);
+            System.out.printf("Inserted %,d employees into %s in %,d ms%n", employees,
+                    StorageManager.get().describe(), (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            StorageManager.shutdown();
+        }
+    }
+}
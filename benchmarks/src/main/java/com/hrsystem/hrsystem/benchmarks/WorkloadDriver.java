@@ -0,0 +1,354 @@
+package com.hrsystem.hrsystem.benchmarks;
+
+import com.hrsystem.hrsystem.metrics.LatencyHistogram;
+import com.hrsystem.hrsystem.model.Department;
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.repository.AuditConfig;
+import com.hrsystem.hrsystem.repository.AuditTrail;
+import com.hrsystem.hrsystem.repository.CommandConfig;
+import com.hrsystem.hrsystem.repository.CommandQueue;
+import com.hrsystem.hrsystem.repository.DepartmentRepository;
+import com.hrsystem.hrsystem.repository.EmployeeRepository;
+import com.hrsystem.hrsystem.repository.EmployeeSort;
+import com.hrsystem.hrsystem.storage.StaleRowException;
+import com.hrsystem.hrsystem.storage.StorageManager;
+
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Simulates clerks working at the same time: each one lists employees and departments, adds, updates and
+ * deletes employees, checks whether a department is in use and who is due for an increment, picked at
+ * random in a configurable mix. The calls are the ones the screens make, through the repositories and the
+ * {@link CommandQueue}, so the SQL, the connection pool, the write grouping and the audit trail are all
+ * under load; only JavaFX is left out. It reports operations per second, p50/p99 latencies, and how many
+ * operations failed on an edit conflict, a deadlock, a lock wait timeout, or anything else.
+ *
+ * Each clerk runs on a virtual thread when the JVM has them, otherwise on a platform thread. Against the
+ * embedded database it fills an empty one with {@link SyntheticData}; against the configured database it
+ * fills the tables only if there are no employees yet:
+ * <pre>
+ * java -cp target/benchmarks.jar com.hrsystem.hrsystem.benchmarks.WorkloadDriver 50 60 100000
+ * java -cp target/benchmarks.jar -Dhrsystem.jdbc.url=... com.hrsystem.hrsystem.benchmarks.WorkloadDriver 50 60 100000 configured
+ * </pre>
+ * Further settings, as {@code -D} options:
+ * <pre>
+ * hrsystem.load.mix=list:30,departments:10,add:10,update:25,delete:5,inUse:5,due:15   (relative weights)
+ * hrsystem.load.think.millis=0    (mean pause between a clerk's operations)
+ * hrsystem.load.hot.rows=0        (update only the first this many ids, to provoke conflicts; 0: all)
+ * </pre>
+ */
+public class WorkloadDriver {
+
+    /** What one clerk can do; the names are the ones used in {@code hrsystem.load.mix}. */
+    enum Operation {
+        LIST("list"), DEPARTMENTS("departments"), ADD("add"), UPDATE("update"), DELETE("delete"),
+        IN_USE("inUse"), DUE("due");
+
+        final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+    }
+
+    /** Why an operation failed. */
+    enum Failure { CONFLICT, DEADLOCK, LOCK_TIMEOUT, ERROR }
+
+    private static final String DEFAULT_MIX = "list:30,departments:10,add:10,update:25,delete:5,inUse:5,due:15";
+    private static final int PAGE_SIZE = 100;
+    private static final int ERRORS_SHOWN = 5;
+    // Thread.ofVirtual() and its builder, or null before Java 21
+    private static final Method OF_VIRTUAL;
+    private static final Method UNSTARTED;
+
+    static {
+        Method ofVirtual = null;
+        Method unstarted = null;
+        try {
+            ofVirtual = Thread.class.getMethod("ofVirtual");
+            unstarted = Class.forName("java.lang.Thread$Builder").getMethod("unstarted", Runnable.class);
+            // Preview-only releases have the method but refuse to run it
+            ofVirtual.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            ofVirtual = null;
+        }
+        OF_VIRTUAL = ofVirtual;
+        UNSTARTED = unstarted;
+    }
+
+    private final EmployeeRepository employees = EmployeeRepository.getInstance();
+    private final Operation[] mix;
+    private final long thinkMillis;
+    private final int hotRows;
+    private final Map<Operation, LatencyHistogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong[]> failures = new EnumMap<>(Operation.class);
+    private final Queue<String> errorMessages = new ConcurrentLinkedQueue<>();
+    private final AtomicLong errorsKept = new AtomicLong();
+    private List<Integer> departmentIds;
+    private int rows;
+    private int maxId;
+
+    WorkloadDriver(Operation[] mix, long thinkMillis, int hotRows) {
+        this.mix = mix;
+        this.thinkMillis = thinkMillis;
+        this.hotRows = hotRows;
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new LatencyHistogram());
+            AtomicLong[] counts = new AtomicLong[Failure.values().length];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = new AtomicLong();
+            }
+            failures.put(operation, counts);
+        }
+    }
+
+    /**
+     * Reads {@code "list:30,add:10"} into a table of operations, each appearing as often as its weight, to
+     * pick from with one random index.
+     * @throws IllegalArgumentException for an unknown operation or a weight that is not a number.
+     */
+    static Operation[] parseMix(String text) {
+        List<Operation> table = new ArrayList<>();
+        for (String part : text.split(",")) {
+            if (part.isBlank()) continue;
+            String[] pair = part.trim().split(":");
+            Operation operation = null;
+            for (Operation candidate : Operation.values()) {
+                if (candidate.key.equalsIgnoreCase(pair[0].trim())) operation = candidate;
+            }
+            if (operation == null || pair.length != 2) {
+                throw new IllegalArgumentException("Unknown operation in the mix: " + part.trim());
+            }
+            for (int i = Integer.parseInt(pair[1].trim()); i > 0; i--) {
+                table.add(operation);
+            }
+        }
+        if (table.isEmpty()) throw new IllegalArgumentException("The mix gives every operation a weight of 0.");
+        return table.toArray(new Operation[0]);
+    }
+
+    void run(int users, int seconds) throws SQLException, InterruptedException {
+        departmentIds = new ArrayList<>();
+        for (Department department : DepartmentRepository.getInstance().findAll()) {
+            departmentIds.add(department.getId());
+        }
+        rows = employees.countAll();
+        List<Employee> last = employees.findPageAfter(EmployeeSort.ID, false, null, 1);
+        maxId = last.isEmpty() ? 0 : last.get(0).getId();
+
+        long started = System.nanoTime();
+        long deadline = started + TimeUnit.SECONDS.toNanos(seconds);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            SyntheticData data = new SyntheticData(SyntheticData.DEFAULT_SEED + 1 + i);
+            Thread thread = newThread(() -> work(data, deadline), "clerk-" + i);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        report(users, (System.nanoTime() - started) / 1e9);
+    }
+
+    /**
+     * One clerk's loop. Deletes remove employees this clerk added, as a clerk undoing a mistake would, so the
+     * synthetic rows keep their size; a delete with nothing to remove is skipped.
+     */
+    private void work(SyntheticData data, long deadline) {
+        Deque<Employee> added = new ArrayDeque<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            Operation operation = mix[random.nextInt(mix.length)];
+            long start = System.nanoTime();
+            try {
+                start = perform(operation, data, added, random);
+            } catch (Exception e) {
+                fail(operation, e);
+            }
+            if (start >= 0) latencies.get(operation).record(System.nanoTime() - start);
+            if (thinkMillis > 0) {
+                try {
+                    Thread.sleep(random.nextLong(2 * thinkMillis + 1));
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return when the timed part began, or -1 if there was nothing to do: updates and deletes first read
+     * the row, as the screen has it loaded before the clerk saves, and only the save is timed.
+     */
+    private long perform(Operation operation, SyntheticData data, Deque<Employee> added,
+                         ThreadLocalRandom random) throws Exception {
+        long start = System.nanoTime();
+        switch (operation) {
+            case LIST: {
+                EmployeeSort[] sorts = EmployeeSort.values();
+                employees.findPageAt(sorts[random.nextInt(sorts.length)], random.nextBoolean(),
+                        random.nextInt(Math.max(1, rows - PAGE_SIZE)), PAGE_SIZE);
+                return start;
+            }
+            case DEPARTMENTS:
+                DepartmentRepository.getInstance().findAll();
+                return start;
+            case ADD:
+                added.push(CommandQueue.insertEmployee(data.nextEmployee(departmentIds)).get());
+                return start;
+            case UPDATE: {
+                Employee previous = randomRow(random);
+                if (previous == null) return -1;
+                Employee employee = new Employee(previous.getId(), previous.getName(), previous.getDepartmentId(),
+                        Math.round(previous.getSalary() * 101) / 100.0, previous.getJoinDate(), previous.getIncrementPolicy());
+                employee.setVersion(previous.getVersion());
+                employee.setLastIncrementDate(previous.getLastIncrementDate());
+                start = System.nanoTime();
+                CommandQueue.updateEmployee(employee, previous).get();
+                return start;
+            }
+            case DELETE: {
+                Employee employee = added.poll();
+                if (employee == null) return -1;
+                start = System.nanoTime();
+                CommandQueue.deleteEmployee(employee).get();
+                return start;
+            }
+            case IN_USE:
+                employees.isDepartmentInUse(departmentIds.isEmpty() ? 0 : departmentIds.get(random.nextInt(departmentIds.size())));
+                return start;
+            case DUE:
+                employees.findDueForIncrement(LocalDate.now());
+                return start;
+            default:
+                throw new IllegalStateException(operation.name());
+        }
+    }
+
+    /** @return a random existing employee, or null if the id drawn has been deleted. */
+    private Employee randomRow(ThreadLocalRandom random) throws SQLException {
+        int range = hotRows > 0 ? Math.min(hotRows, maxId) : maxId;
+        if (range < 1) return null;
+        List<Employee> found = employees.findByIds(new int[] {1 + random.nextInt(range)});
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    private void fail(Operation operation, Exception e) {
+        Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof InterruptedException) Thread.currentThread().interrupt();
+        Failure failure = classify(cause);
+        failures.get(operation)[failure.ordinal()].incrementAndGet();
+        if (failure == Failure.ERROR && errorsKept.getAndIncrement() < ERRORS_SHOWN) {
+            errorMessages.add(operation.key + ": " + cause);
+        }
+    }
+
+    /**
+     * Sorts a failure by its cause. Deadlocks are SQLSTATE 40001 (MySQL error 1213, H2 40001); lock wait
+     * timeouts are MySQL error 1205 or H2's HYT00.
+     */
+    static Failure classify(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof StaleRowException) return Failure.CONFLICT;
+            if (!(cause instanceof SQLException)) continue;
+            for (SQLException sql = (SQLException) cause; sql != null; sql = sql.getNextException()) {
+                if (sql.getErrorCode() == 1213 || "40001".equals(sql.getSQLState())) return Failure.DEADLOCK;
+                if (sql.getErrorCode() == 1205 || "HYT00".equals(sql.getSQLState())) return Failure.LOCK_TIMEOUT;
+            }
+        }
+        return Failure.ERROR;
+    }
+
+    private static Thread newThread(Runnable body, String name) {
+        if (OF_VIRTUAL != null) {
+            try {
+                Thread thread = (Thread) UNSTARTED.invoke(OF_VIRTUAL.invoke(null), body);
+                thread.setName(name);
+                return thread;
+            } catch (ReflectiveOperationException e) {
+                // Fall through to a platform thread
+            }
+        }
+        return new Thread(body, name);
+    }
+
+    private void report(int users, double seconds) {
+        System.out.printf("%d clerks on %s threads for %.1f s%n", users, OF_VIRTUAL != null ? "virtual" : "platform", seconds);
+        System.out.printf("%-12s %10s %10s %10s %10s %10s %10s %10s %10s %10s%n", "operation", "count", "ops/s",
+                "p50 ms", "p99 ms", "max ms", "conflicts", "deadlocks", "lock waits", "errors");
+        long total = 0;
+        long[] failed = new long[Failure.values().length];
+        for (Operation operation : Operation.values()) {
+            LatencyHistogram histogram = latencies.get(operation);
+            if (histogram.getCount() == 0) continue;
+            total += histogram.getCount();
+            AtomicLong[] counts = failures.get(operation);
+            for (int i = 0; i < failed.length; i++) {
+                failed[i] += counts[i].get();
+            }
+            System.out.printf("%-12s %,10d %,10.0f %10.2f %10.2f %10.2f %,10d %,10d %,10d %,10d%n", operation.key,
+                    histogram.getCount(), histogram.getCount() / seconds, histogram.percentileNanos(50) / 1e6,
+                    histogram.percentileNanos(99) / 1e6, histogram.getMaxNanos() / 1e6, counts[0].get(),
+                    counts[1].get(), counts[2].get(), counts[3].get());
+        }
+        System.out.printf("%-12s %,10d %,10.0f %32s %,10d %,10d %,10d %,10d%n", "total", total, total / seconds, "",
+                failed[0], failed[1], failed[2], failed[3]);
+        for (String message : errorMessages) {
+            System.out.println("  " + message);
+        }
+        if (errorsKept.get() > ERRORS_SHOWN) {
+            System.out.printf("  ... and %,d more errors%n", errorsKept.get() - ERRORS_SHOWN);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: WorkloadDriver <users> <seconds> <employees> [embedded|configured]");
+            System.exit(2);
+        }
+        int users = Integer.parseInt(args[0]);
+        int seconds = Integer.parseInt(args[1]);
+        int employees = Integer.parseInt(args[2]);
+        boolean embedded = args.length < 4 || "embedded".equals(args[3].toLowerCase(Locale.ROOT));
+        WorkloadDriver driver = new WorkloadDriver(parseMix(System.getProperty("hrsystem.load.mix", DEFAULT_MIX)),
+                Long.getLong("hrsystem.load.think.millis", 0), Integer.getInteger("hrsystem.load.hot.rows", 0));
+
+        try {
+            if (embedded) {
+                EmbeddedDatabase.install();
+            } else {
+                StorageManager.get().bootstrap();
+            }
+            if (EmployeeRepository.getInstance().countAll() == 0) {
+                long start = System.nanoTime();
+                new SyntheticData(SyntheticData.DEFAULT_SEED).populate(employees);
+                System.out.printf("Inserted %,d employees into %s in %,d ms%n", employees,
+                        StorageManager.get().describe(), (System.nanoTime() - start) / 1_000_000);
+            }
+            // Saves take the same path as in the application
+            AuditTrail.start(AuditConfig.load());
+            CommandQueue.start(CommandConfig.load());
+            driver.run(users, seconds);
+        } finally {
+            CommandQueue.stop();
+            AuditTrail.stop();
+            StorageManager.shutdown();
+        }
+    }
+}
@@ -0,0 +1,5 @@
+@echo off
+rem Starts the application from this runtime image with the class-data-sharing archive recorded at build time.
+rem A missing or outdated archive is ignored.
+set DIR=%~dp0
+"%DIR%java" -XX:SharedArchiveFile="%DIR%..\lib\hrsystem.jsa" -Xshare:auto -cp "%DIR%..\jdbc\*" -m com.hrsystem.hrsystem/com.hrsystem.hrsystem.Main %*
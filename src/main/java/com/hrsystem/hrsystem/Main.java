@@ -1,21 +1,109 @@
 package com.hrsystem.hrsystem;
 
+import com.hrsystem.hrsystem.controller.MainController;
+import com.hrsystem.hrsystem.metrics.FxWatchdog;
+import com.hrsystem.hrsystem.metrics.Metrics;
+import com.hrsystem.hrsystem.metrics.MetricsConfig;
+import com.hrsystem.hrsystem.metrics.MetricsReporter;
+import com.hrsystem.hrsystem.repository.AuditConfig;
+import com.hrsystem.hrsystem.repository.AuditTrail;
+import com.hrsystem.hrsystem.repository.ChangePoller;
+import com.hrsystem.hrsystem.repository.CommandConfig;
+import com.hrsystem.hrsystem.repository.CommandQueue;
+import com.hrsystem.hrsystem.repository.SyncConfig;
+import com.hrsystem.hrsystem.storage.SnapshotStorage;
+import com.hrsystem.hrsystem.storage.Storage;
+import com.hrsystem.hrsystem.storage.StorageManager;
+import com.hrsystem.hrsystem.util.AsyncRunner;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
 import javafx.stage.Stage;
 
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
 public class Main extends Application {
 
+    private static final String TITLE = "Simple HR Management System";
+    private static final CompletableFuture<Void> READY = new CompletableFuture<>();
+
+    @Override
+    public void init() {
+        MetricsConfig metrics = MetricsConfig.load();
+        Metrics.get().registerMBean();
+        MetricsReporter.start(metrics);
+        FxWatchdog.start(metrics.getFxStallMillis());
+
+        // Runs while the window opens; screens wait for it before their first query
+        CompletableFuture.runAsync(() -> {
+            Storage storage = StorageManager.get();
+            try {
+                storage.bootstrap();
+            } catch (SQLException e) {
+                System.err.println("Could not prepare the schema in " + storage.describe() + ": " + e.getMessage());
+            }
+            AuditTrail.start(AuditConfig.load());
+            CommandQueue.start(CommandConfig.load());
+            ChangePoller.start(SyncConfig.load());
+        }, AsyncRunner.executor()).whenComplete((ignored, e) -> {
+            if (e == null) {
+                READY.complete(null);
+                return;
+            }
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            System.err.println("Could not start the background services: " + cause);
+            READY.completeExceptionally(cause);
+        });
+    }
+
+    /**
+     * Completes once the schema is in place and other clients' changes are being picked up, or exceptionally
+     * if starting the services behind that failed.
+     */
+    public static CompletableFuture<Void> ready() {
+        return READY;
+    }
+
     @Override
     public void start(Stage primaryStage) throws Exception{
         Parent root = FXMLLoader.load(getClass().getResource("MainLayout.fxml"));
-        primaryStage.setTitle("Simple HR Management System");
+        primaryStage.setTitle(TITLE);
+        if (StorageManager.get() instanceof SnapshotStorage) {
+            SnapshotStorage storage = (SnapshotStorage) StorageManager.get();
+            storage.addModeListener(mode -> Platform.runLater(() -> primaryStage.setTitle(titleFor(mode))));
+            primaryStage.setTitle(titleFor(storage.getMode()));
+        }
         primaryStage.setScene(new Scene(root, 800, 600));
+        primaryStage.setOnShown(event -> MainController.afterNextPulse(primaryStage.getScene(),
+                () -> MainController.startupStep("ui.firstWindow", "First window")));
         primaryStage.show();
     }
 
+    private static String titleFor(SnapshotStorage.Mode mode) {
+        switch (mode) {
+            case CATCHING_UP:
+                return TITLE + " (local copy, catching up...)";
+            case OFFLINE:
+                return TITLE + " (offline, read-only)";
+            default:
+                return TITLE;
+        }
+    }
+
+    @Override
+    public void stop() {
+        ChangePoller.stop();
+        CommandQueue.stop();
+        AuditTrail.stop();
+        FxWatchdog.stop();
+        MetricsReporter.stop();
+        StorageManager.shutdown();
+    }
+
 
     public static void main(String[] args) {
         launch(args);
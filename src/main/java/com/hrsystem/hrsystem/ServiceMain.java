@@ -0,0 +1,56 @@
+package com.hrsystem.hrsystem;
+
+import com.hrsystem.hrsystem.api.ApiConfig;
+import com.hrsystem.hrsystem.api.ApiServer;
+import com.hrsystem.hrsystem.metrics.Metrics;
+import com.hrsystem.hrsystem.metrics.MetricsConfig;
+import com.hrsystem.hrsystem.metrics.MetricsReporter;
+import com.hrsystem.hrsystem.repository.ChangePoller;
+import com.hrsystem.hrsystem.repository.SyncConfig;
+import com.hrsystem.hrsystem.storage.Storage;
+import com.hrsystem.hrsystem.storage.StorageManager;
+
+import java.io.IOException;
+import java.sql.SQLException;
+
+/**
+ * Runs without the JavaFX UI and serves the data over HTTP instead; see {@link ApiServer}. Uses the same
+ * storage, metrics and sync settings as {@link Main}, so edits made in the desktop clients show up here
+ * within one poll interval.
+ */
+public class ServiceMain {
+
+    public static void main(String[] args) {
+        MetricsConfig metrics = MetricsConfig.load();
+        Metrics.get().registerMBean();
+        MetricsReporter.start(metrics);
+
+        Storage storage = StorageManager.get();
+        try {
+            storage.bootstrap();
+        } catch (SQLException e) {
+            System.err.println("Could not prepare the schema in " + storage.describe() + ": " + e.getMessage());
+        }
+        ChangePoller.start(SyncConfig.load());
+
+        ApiServer server;
+        try {
+            server = ApiServer.start(ApiConfig.load());
+        } catch (IOException e) {
+            System.err.println("Could not start the API server: " + e.getMessage());
+            ChangePoller.stop();
+            MetricsReporter.stop();
+            StorageManager.shutdown();
+            System.exit(1);
+            return;
+        }
+        System.out.println("Serving " + storage.describe() + " on port " + server.getPort());
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            ChangePoller.stop();
+            MetricsReporter.stop();
+            StorageManager.shutdown();
+        }, "shutdown"));
+    }
+}
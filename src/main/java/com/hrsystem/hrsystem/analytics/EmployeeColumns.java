@@ -0,0 +1,254 @@
+package com.hrsystem.hrsystem.analytics;
+
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.repository.EmployeeRepository;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * A column-oriented copy of the employee table holding only what aggregates need, in primitive arrays:
+ * ids as {@code int}, salaries as {@code long} cents (exact for {@code DECIMAL(10,2)}), join and last
+ * increment dates as {@code int} epoch days, and department and policy as small dictionary codes. That is
+ * about 27 bytes per employee, id index included, against roughly 180 for an {@link Employee} with its {@code LocalDate} and
+ * strings. Names are not kept; nothing here aggregates them.
+ *
+ * Sums, averages and group-bys are plain loops over the arrays that allocate nothing; callers pass in the
+ * arrays to group into. Rows can be added, changed and removed in place, so the snapshot can follow the
+ * repository without being rebuilt. Row order is not meaningful: a removal moves the last row into the gap.
+ *
+ * All methods are synchronized; a full scan of 500k rows takes about a millisecond.
+ */
+public class EmployeeColumns {
+
+    /** The join or last increment date of an employee without one. */
+    public static final int NO_DATE = Integer.MIN_VALUE;
+    /** The department code of employees without a department. */
+    public static final int NO_DEPARTMENT = 0;
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private int size;
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private long[] salaryCents = new long[INITIAL_CAPACITY];
+    private int[] joinDays = new int[INITIAL_CAPACITY];
+    private int[] incrementDays = new int[INITIAL_CAPACITY];
+    private short[] departmentCodes = new short[INITIAL_CAPACITY];
+    private byte[] policyCodes = new byte[INITIAL_CAPACITY];
+
+    // Row of each employee id, or -1. Auto-increment ids are dense enough for a direct-mapped array.
+    private int[] rowOfId = new int[0];
+
+    // Code 0 stands for "no department" / "no policy"
+    private int[] departmentIdOfCode = {0};
+    private int[] codeOfDepartmentId = new int[0];
+    private String[] policyOfCode = {null};
+
+    public static EmployeeColumns load(EmployeeRepository repository) throws SQLException {
+        EmployeeColumns columns = new EmployeeColumns();
+        repository.forEach(columns::add);
+        return columns;
+    }
+
+    public static long toCents(double salary) {
+        return Math.round(salary * 100);
+    }
+
+    /** Adds a row, or overwrites it if the id is already present. */
+    public synchronized void add(Employee employee) {
+        int existing = rowOf(employee.getId());
+        if (existing >= 0) {
+            write(existing, employee);
+            return;
+        }
+        if (size == ids.length) grow();
+        int row = size++;
+        ids[row] = employee.getId();
+        setRowOfId(employee.getId(), row);
+        write(row, employee);
+    }
+
+    public synchronized void update(Employee employee) {
+        int row = rowOf(employee.getId());
+        if (row < 0) {
+            add(employee);
+        } else {
+            write(row, employee);
+        }
+    }
+
+    public synchronized void remove(int id) {
+        int row = rowOf(id);
+        if (row < 0) return;
+        int last = --size;
+        if (row != last) {
+            ids[row] = ids[last];
+            salaryCents[row] = salaryCents[last];
+            joinDays[row] = joinDays[last];
+            incrementDays[row] = incrementDays[last];
+            departmentCodes[row] = departmentCodes[last];
+            policyCodes[row] = policyCodes[last];
+            rowOfId[ids[row]] = row;
+        }
+        rowOfId[id] = -1;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized boolean contains(int id) {
+        return rowOf(id) >= 0;
+    }
+
+    public synchronized long totalSalaryCents() {
+        long total = 0;
+        for (int i = 0; i < size; i++) {
+            total += salaryCents[i];
+        }
+        return total;
+    }
+
+    /** @return the mean salary in cents, rounded half up, or 0 with no employees. */
+    public synchronized long averageSalaryCents() {
+        return size == 0 ? 0 : Math.floorDiv(2 * totalSalaryCents() + size, 2L * size);
+    }
+
+    /** The number of department codes in use; group-by arrays need at least this many slots. */
+    public synchronized int departmentCodeCount() {
+        return departmentIdOfCode.length;
+    }
+
+    /** @return the department id behind a code, or 0 for {@link #NO_DEPARTMENT}. */
+    public synchronized int departmentIdOf(int code) {
+        return departmentIdOfCode[code];
+    }
+
+    public synchronized int policyCodeCount() {
+        return policyOfCode.length;
+    }
+
+    /** @return the policy behind a code, or null for employees without one. */
+    public synchronized String policyOf(int code) {
+        return policyOfCode[code];
+    }
+
+    /**
+     * Sums salaries and counts employees per department code into the given arrays, which are cleared first.
+     * Both need at least {@link #departmentCodeCount()} slots.
+     */
+    public synchronized void sumByDepartment(long[] sums, int[] counts) {
+        Arrays.fill(sums, 0, departmentIdOfCode.length, 0);
+        Arrays.fill(counts, 0, departmentIdOfCode.length, 0);
+        for (int i = 0; i < size; i++) {
+            int code = departmentCodes[i];
+            sums[code] += salaryCents[i];
+            counts[code]++;
+        }
+    }
+
+    /** Like {@link #sumByDepartment} but per policy code; needs {@link #policyCodeCount()} slots. */
+    public synchronized void sumByPolicy(long[] sums, int[] counts) {
+        Arrays.fill(sums, 0, policyOfCode.length, 0);
+        Arrays.fill(counts, 0, policyOfCode.length, 0);
+        for (int i = 0; i < size; i++) {
+            int code = policyCodes[i];
+            sums[code] += salaryCents[i];
+            counts[code]++;
+        }
+    }
+
+    /** @return the salary in cents of the employee with this id, or -1 if absent. */
+    public synchronized long salaryCentsOf(int id) {
+        int row = rowOf(id);
+        return row < 0 ? -1 : salaryCents[row];
+    }
+
+    /** @return the department id of the employee with this id, or 0 if absent or without one. */
+    public synchronized int departmentIdOfEmployee(int id) {
+        int row = rowOf(id);
+        return row < 0 ? 0 : departmentIdOfCode[departmentCodes[row]];
+    }
+
+    /** @return the increment policy of the employee with this id, or null. */
+    public synchronized String policyOfEmployee(int id) {
+        int row = rowOf(id);
+        return row < 0 ? null : policyOfCode[policyCodes[row]];
+    }
+
+    /** @return the join date of the employee with this id as epoch days, or {@link #NO_DATE}. */
+    public synchronized int joinDayOf(int id) {
+        int row = rowOf(id);
+        return row < 0 ? NO_DATE : joinDays[row];
+    }
+
+    // Raw columns for parallel scans in this package. Only valid while nothing modifies the snapshot;
+    // rows at index size() and beyond are garbage.
+    long[] salaryColumn() { return salaryCents; }
+    int[] joinDayColumn() { return joinDays; }
+    int[] incrementDayColumn() { return incrementDays; }
+    short[] departmentColumn() { return departmentCodes; }
+    byte[] policyColumn() { return policyCodes; }
+
+    private int rowOf(int id) {
+        return id >= 0 && id < rowOfId.length ? rowOfId[id] : -1;
+    }
+
+    private void setRowOfId(int id, int row) {
+        if (id >= rowOfId.length) {
+            int old = rowOfId.length;
+            rowOfId = Arrays.copyOf(rowOfId, Math.max(id + 1, old * 2));
+            Arrays.fill(rowOfId, old, rowOfId.length, -1);
+        }
+        rowOfId[id] = row;
+    }
+
+    private void write(int row, Employee employee) {
+        salaryCents[row] = toCents(employee.getSalary());
+        LocalDate joinDate = employee.getJoinDate();
+        joinDays[row] = joinDate != null ? (int) joinDate.toEpochDay() : NO_DATE;
+        LocalDate incrementDate = employee.getLastIncrementDate();
+        incrementDays[row] = incrementDate != null ? (int) incrementDate.toEpochDay() : NO_DATE;
+        departmentCodes[row] = (short) departmentCode(employee.getDepartmentId());
+        policyCodes[row] = (byte) policyCode(employee.getIncrementPolicy());
+    }
+
+    private int departmentCode(int departmentId) {
+        if (departmentId <= 0) return NO_DEPARTMENT;
+        if (departmentId < codeOfDepartmentId.length && codeOfDepartmentId[departmentId] > 0) {
+            return codeOfDepartmentId[departmentId];
+        }
+        int code = departmentIdOfCode.length;
+        if (code > Short.MAX_VALUE) throw new IllegalStateException("More than " + Short.MAX_VALUE + " departments.");
+        departmentIdOfCode = Arrays.copyOf(departmentIdOfCode, code + 1);
+        departmentIdOfCode[code] = departmentId;
+        if (departmentId >= codeOfDepartmentId.length) {
+            codeOfDepartmentId = Arrays.copyOf(codeOfDepartmentId, Math.max(departmentId + 1, codeOfDepartmentId.length * 2));
+        }
+        codeOfDepartmentId[departmentId] = code;
+        return code;
+    }
+
+    private int policyCode(String policy) {
+        if (policy == null) return 0;
+        for (int code = 1; code < policyOfCode.length; code++) {
+            if (policyOfCode[code].equals(policy)) return code;
+        }
+        int code = policyOfCode.length;
+        if (code > Byte.MAX_VALUE) throw new IllegalStateException("More than " + Byte.MAX_VALUE + " increment policies.");
+        policyOfCode = Arrays.copyOf(policyOfCode, code + 1);
+        policyOfCode[code] = policy;
+        return code;
+    }
+
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        salaryCents = Arrays.copyOf(salaryCents, capacity);
+        joinDays = Arrays.copyOf(joinDays, capacity);
+        incrementDays = Arrays.copyOf(incrementDays, capacity);
+        departmentCodes = Arrays.copyOf(departmentCodes, capacity);
+        policyCodes = Arrays.copyOf(policyCodes, capacity);
+    }
+}
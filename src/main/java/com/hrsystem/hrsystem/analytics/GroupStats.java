@@ -0,0 +1,40 @@
+package com.hrsystem.hrsystem.analytics;
+
+/**
+ * Payroll figures for one group of employees. Amounts are in cents; percentiles are -1 when they were not
+ * computed (see {@link PayrollSummary#hasPercentiles()}).
+ */
+public class GroupStats {
+
+    private final String dimension;
+    private final String label;
+    private final long headcount;
+    private final long totalCents;
+    private final long p10Cents;
+    private final long medianCents;
+    private final long p90Cents;
+
+    GroupStats(String dimension, String label, long headcount, long totalCents, long p10Cents, long medianCents, long p90Cents) {
+        this.dimension = dimension;
+        this.label = label;
+        this.headcount = headcount;
+        this.totalCents = totalCents;
+        this.p10Cents = p10Cents;
+        this.medianCents = medianCents;
+        this.p90Cents = p90Cents;
+    }
+
+    /** What the group is formed by, e.g. "Department" or "Policy". */
+    public String getDimension() { return dimension; }
+    public String getLabel() { return label; }
+    public long getHeadcount() { return headcount; }
+    public long getTotalCents() { return totalCents; }
+    public long getP10Cents() { return p10Cents; }
+    public long getMedianCents() { return medianCents; }
+    public long getP90Cents() { return p90Cents; }
+
+    /** The mean salary in cents, rounded half up. */
+    public long getAverageCents() {
+        return headcount == 0 ? 0 : Math.floorDiv(2 * totalCents + headcount, 2 * headcount);
+    }
+}
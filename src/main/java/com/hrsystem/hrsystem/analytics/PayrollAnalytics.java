@@ -0,0 +1,369 @@
+package com.hrsystem.hrsystem.analytics;
+
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.repository.DepartmentRepository;
+import com.hrsystem.hrsystem.repository.EmployeeIndex;
+import com.hrsystem.hrsystem.repository.EmployeeRepository;
+import com.hrsystem.hrsystem.storage.EmployeeGrouping;
+import com.hrsystem.hrsystem.storage.GroupTotal;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Headcount, salary totals and salary percentiles per department and per increment policy, plus join-year
+ * cohorts, kept live for the dashboard.
+ *
+ * Up to {@link #MAX_INDEXED_EMPLOYEES} the table is loaded into an {@link EmployeeColumns} snapshot and
+ * aggregated with a fork-join scan; the per-group salaries are kept sorted, so every later insert, update or
+ * delete adjusts the figures in place instead of recomputing them. Larger tables are grouped by the
+ * database, without percentiles, and regrouped after changes.
+ */
+public class PayrollAnalytics extends EmployeeIndex {
+
+    // Below this many rows one thread is faster than splitting the scan
+    static final int PARALLEL_THRESHOLD = 50_000;
+    private static final int LEAF_ROWS = 16_384;
+
+    private static final PayrollAnalytics INSTANCE = new PayrollAnalytics(EmployeeRepository.getInstance());
+
+    public static PayrollAnalytics getInstance() {
+        return INSTANCE;
+    }
+
+    /** Running figures for one group. {@code salaries} is null when percentiles are not kept. */
+    private static final class Group {
+        long headcount;
+        long totalCents;
+        final SortedLongs salaries;
+
+        Group(SortedLongs salaries) {
+            this.salaries = salaries;
+        }
+    }
+
+    private final EmployeeRepository repository;
+    // Null when the database computed the totals
+    private EmployeeColumns columns;
+    private Group overall;
+    private Map<Integer, Group> byDepartment = new HashMap<>();
+    private Map<String, Group> byPolicy = new HashMap<>();
+    private TreeMap<Integer, Long> byJoinYear = new TreeMap<>();
+    private long withoutJoinDate;
+
+    PayrollAnalytics(EmployeeRepository repository) {
+        this.repository = repository;
+        repository.addListener(this);
+    }
+
+    /**
+     * Computes every figure from scratch. If the repository is invalidated meanwhile, e.g. by an import or an
+     * increment run, what was read is stale and the figures are computed again.
+     */
+    @Override
+    protected Runnable read() throws SQLException {
+        DepartmentRepository.getInstance().ensureDictionary();
+        if (repository.countAll() <= MAX_INDEXED_EMPLOYEES) {
+            return readInMemory();
+        }
+        return readFromDatabase();
+    }
+
+    private Runnable readInMemory() throws SQLException {
+        EmployeeColumns snapshot = EmployeeColumns.load(repository);
+        int rows = snapshot.size();
+        int[] joinDays = snapshot.joinDayColumn();
+        int firstYear = Integer.MAX_VALUE;
+        int lastYear = Integer.MIN_VALUE;
+        for (int i = 0; i < rows; i++) {
+            if (joinDays[i] == EmployeeColumns.NO_DATE) continue;
+            int year = yearOfEpochDay(joinDays[i]);
+            firstYear = Math.min(firstYear, year);
+            lastYear = Math.max(lastYear, year);
+        }
+        int years = firstYear <= lastYear ? lastYear - firstYear + 1 : 0;
+
+        Scan scan = new Scan(snapshot, firstYear, years, 0, rows);
+        Totals totals = rows < PARALLEL_THRESHOLD ? scan.compute() : ForkJoinPool.commonPool().invoke(scan);
+
+        long[][] byDepartmentCode = sortedSalaries(snapshot.salaryColumn(), snapshot.departmentColumn(), null, rows, totals.departmentCounts);
+        long[][] byPolicyCode = sortedSalaries(snapshot.salaryColumn(), null, snapshot.policyColumn(), rows, totals.policyCounts);
+        long[] all = Arrays.copyOf(snapshot.salaryColumn(), rows);
+        Arrays.parallelSort(all);
+
+        Group newOverall = new Group(new SortedLongs(all, rows));
+        newOverall.headcount = rows;
+        for (long sum : totals.departmentSums) {
+            newOverall.totalCents += sum;
+        }
+        Map<Integer, Group> departments = new HashMap<>();
+        for (int code = 0; code < totals.departmentCounts.length; code++) {
+            if (totals.departmentCounts[code] == 0) continue;
+            Group group = new Group(new SortedLongs(byDepartmentCode[code], totals.departmentCounts[code]));
+            group.headcount = totals.departmentCounts[code];
+            group.totalCents = totals.departmentSums[code];
+            departments.put(snapshot.departmentIdOf(code), group);
+        }
+        Map<String, Group> policies = new HashMap<>();
+        for (int code = 0; code < totals.policyCounts.length; code++) {
+            if (totals.policyCounts[code] == 0) continue;
+            Group group = new Group(new SortedLongs(byPolicyCode[code], totals.policyCounts[code]));
+            group.headcount = totals.policyCounts[code];
+            group.totalCents = totals.policySums[code];
+            policies.put(snapshot.policyOf(code), group);
+        }
+        TreeMap<Integer, Long> cohorts = new TreeMap<>();
+        for (int i = 0; i < years; i++) {
+            if (totals.yearCounts[i] > 0) cohorts.put(firstYear + i, (long) totals.yearCounts[i]);
+        }
+
+        return () -> {
+            columns = snapshot;
+            overall = newOverall;
+            byDepartment = departments;
+            byPolicy = policies;
+            byJoinYear = cohorts;
+            withoutJoinDate = totals.withoutJoinDate;
+        };
+    }
+
+    private Runnable readFromDatabase() throws SQLException {
+        Map<Integer, Group> departments = new HashMap<>();
+        Group newOverall = new Group(null);
+        for (GroupTotal total : repository.groupTotals(EmployeeGrouping.DEPARTMENT)) {
+            Group group = new Group(null);
+            group.headcount = total.getHeadcount();
+            group.totalCents = total.getSalaryCents();
+            departments.put((Integer) total.getKey(), group);
+            newOverall.headcount += group.headcount;
+            newOverall.totalCents += group.totalCents;
+        }
+        Map<String, Group> policies = new HashMap<>();
+        for (GroupTotal total : repository.groupTotals(EmployeeGrouping.POLICY)) {
+            Group group = new Group(null);
+            group.headcount = total.getHeadcount();
+            group.totalCents = total.getSalaryCents();
+            policies.put((String) total.getKey(), group);
+        }
+        TreeMap<Integer, Long> cohorts = new TreeMap<>();
+        long noDate = 0;
+        for (GroupTotal total : repository.groupTotals(EmployeeGrouping.JOIN_YEAR)) {
+            if (total.getKey() == null) {
+                noDate = total.getHeadcount();
+            } else {
+                cohorts.put((Integer) total.getKey(), total.getHeadcount());
+            }
+        }
+        long withoutDate = noDate;
+        return () -> {
+            columns = null;
+            overall = newOverall;
+            byDepartment = departments;
+            byPolicy = policies;
+            byJoinYear = cohorts;
+            withoutJoinDate = withoutDate;
+        };
+    }
+
+    /** The current figures, or null until {@link #build()} has run. */
+    public synchronized PayrollSummary summary() {
+        if (!isBuilt()) return null;
+        boolean percentiles = columns != null;
+        DepartmentRepository departments = DepartmentRepository.getInstance();
+        List<GroupStats> departmentStats = new ArrayList<>();
+        byDepartment.forEach((id, group) -> departmentStats.add(
+                stats("Department", id == 0 ? "(none)" : departments.nameOf(id), group)));
+        departmentStats.sort(Comparator.comparing(GroupStats::getLabel, String.CASE_INSENSITIVE_ORDER));
+        List<GroupStats> policyStats = new ArrayList<>();
+        byPolicy.forEach((policy, group) -> policyStats.add(stats("Policy", policy == null ? "(none)" : policy, group)));
+        policyStats.sort(Comparator.comparing(GroupStats::getLabel));
+        return new PayrollSummary(stats("All", "All employees", overall), departmentStats, policyStats,
+                new TreeMap<>(byJoinYear), withoutJoinDate, percentiles);
+    }
+
+    private static GroupStats stats(String dimension, String label, Group group) {
+        SortedLongs salaries = group.salaries;
+        return new GroupStats(dimension, label, group.headcount, group.totalCents,
+                salaries != null ? salaries.percentile(10) : -1,
+                salaries != null ? salaries.percentile(50) : -1,
+                salaries != null ? salaries.percentile(90) : -1);
+    }
+
+    @Override
+    protected void clear() {
+        columns = null;
+    }
+
+    /**
+     * Moves one employee's contribution from its old values to its new ones. Database totals cannot be adjusted
+     * row by row, so a change marks them stale.
+     */
+    @Override
+    protected boolean apply(int id, Employee current) {
+        if (columns == null) return false;
+        if (columns.contains(id)) {
+            adjust(columns.departmentIdOfEmployee(id), columns.policyOfEmployee(id), columns.joinDayOf(id),
+                    columns.salaryCentsOf(id), -1);
+        }
+        if (current != null) {
+            columns.add(current);
+            adjust(current.getDepartmentId(), current.getIncrementPolicy(), columns.joinDayOf(id),
+                    columns.salaryCentsOf(id), 1);
+        } else {
+            columns.remove(id);
+        }
+        return true;
+    }
+
+    private void adjust(int departmentId, String policy, int joinDay, long cents, int sign) {
+        adjust(overall, cents, sign);
+        Group department = byDepartment.computeIfAbsent(departmentId, k -> new Group(new SortedLongs()));
+        if (adjust(department, cents, sign)) byDepartment.remove(departmentId);
+        Group policyGroup = byPolicy.computeIfAbsent(policy, k -> new Group(new SortedLongs()));
+        if (adjust(policyGroup, cents, sign)) byPolicy.remove(policy);
+        if (joinDay == EmployeeColumns.NO_DATE) {
+            withoutJoinDate += sign;
+        } else {
+            int year = yearOfEpochDay(joinDay);
+            long headcount = byJoinYear.getOrDefault(year, 0L) + sign;
+            if (headcount > 0) {
+                byJoinYear.put(year, headcount);
+            } else {
+                byJoinYear.remove(year);
+            }
+        }
+    }
+
+    /** @return true if the group is now empty. */
+    private static boolean adjust(Group group, long cents, int sign) {
+        group.headcount += sign;
+        group.totalCents += sign * cents;
+        if (sign > 0) {
+            group.salaries.add(cents);
+        } else {
+            group.salaries.remove(cents);
+        }
+        return group.headcount == 0;
+    }
+
+    /**
+     * Gathers the salaries of each department code (or policy code) into its own array and sorts them.
+     * Exactly one of {@code departmentCodes} and {@code policyCodes} is given.
+     */
+    private static long[][] sortedSalaries(long[] salaries, short[] departmentCodes, byte[] policyCodes, int rows, int[] counts) {
+        long[][] groups = new long[counts.length][];
+        for (int code = 0; code < counts.length; code++) {
+            groups[code] = new long[counts[code]];
+        }
+        int[] filled = new int[counts.length];
+        for (int i = 0; i < rows; i++) {
+            int code = departmentCodes != null ? departmentCodes[i] : policyCodes[i];
+            groups[code][filled[code]++] = salaries[i];
+        }
+        for (long[] group : groups) {
+            Arrays.parallelSort(group);
+        }
+        return groups;
+    }
+
+    /** The calendar year of an epoch day, without allocating a {@code LocalDate}. */
+    static int yearOfEpochDay(int epochDay) {
+        // Days-to-civil conversion on 400-year eras, with years starting on 1 March
+        long z = epochDay + 719_468L;
+        long era = Math.floorDiv(z, 146_097L);
+        long dayOfEra = z - era * 146_097L;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long monthIndex = (5 * dayOfYear + 2) / 153;
+        long year = yearOfEra + era * 400;
+        return (int) (monthIndex >= 10 ? year + 1 : year);
+    }
+
+    /** Per-group counts and sums for a range of rows. */
+    private static final class Totals {
+        final long[] departmentSums;
+        final int[] departmentCounts;
+        final long[] policySums;
+        final int[] policyCounts;
+        final int[] yearCounts;
+        long withoutJoinDate;
+
+        Totals(int departmentCodes, int policyCodes, int years) {
+            departmentSums = new long[departmentCodes];
+            departmentCounts = new int[departmentCodes];
+            policySums = new long[policyCodes];
+            policyCounts = new int[policyCodes];
+            yearCounts = new int[years];
+        }
+
+        void add(Totals other) {
+            for (int i = 0; i < departmentSums.length; i++) {
+                departmentSums[i] += other.departmentSums[i];
+                departmentCounts[i] += other.departmentCounts[i];
+            }
+            for (int i = 0; i < policySums.length; i++) {
+                policySums[i] += other.policySums[i];
+                policyCounts[i] += other.policyCounts[i];
+            }
+            for (int i = 0; i < yearCounts.length; i++) {
+                yearCounts[i] += other.yearCounts[i];
+            }
+            withoutJoinDate += other.withoutJoinDate;
+        }
+    }
+
+    /** Splits the rows in halves until they are small enough to scan on one thread. */
+    private static final class Scan extends RecursiveTask<Totals> {
+        private final EmployeeColumns columns;
+        private final int firstYear;
+        private final int years;
+        private final int from;
+        private final int to;
+
+        Scan(EmployeeColumns columns, int firstYear, int years, int from, int to) {
+            this.columns = columns;
+            this.firstYear = firstYear;
+            this.years = years;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from > LEAF_ROWS) {
+                int middle = (from + to) >>> 1;
+                Scan left = new Scan(columns, firstYear, years, from, middle);
+                left.fork();
+                Totals totals = new Scan(columns, firstYear, years, middle, to).compute();
+                totals.add(left.join());
+                return totals;
+            }
+            Totals totals = new Totals(columns.departmentCodeCount(), columns.policyCodeCount(), years);
+            long[] salaries = columns.salaryColumn();
+            int[] joinDays = columns.joinDayColumn();
+            short[] departments = columns.departmentColumn();
+            byte[] policies = columns.policyColumn();
+            for (int i = from; i < to; i++) {
+                long cents = salaries[i];
+                totals.departmentSums[departments[i]] += cents;
+                totals.departmentCounts[departments[i]]++;
+                totals.policySums[policies[i]] += cents;
+                totals.policyCounts[policies[i]]++;
+                if (joinDays[i] == EmployeeColumns.NO_DATE) {
+                    totals.withoutJoinDate++;
+                } else {
+                    totals.yearCounts[yearOfEpochDay(joinDays[i]) - firstYear]++;
+                }
+            }
+            return totals;
+        }
+    }
+}
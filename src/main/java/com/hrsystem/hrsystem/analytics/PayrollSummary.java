@@ -0,0 +1,39 @@
+package com.hrsystem.hrsystem.analytics;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+
+/**
+ * An immutable snapshot of the payroll analytics, safe to hand to the JavaFX thread.
+ */
+public class PayrollSummary {
+
+    private final GroupStats overall;
+    private final List<GroupStats> departments;
+    private final List<GroupStats> policies;
+    private final SortedMap<Integer, Long> headcountByJoinYear;
+    private final long withoutJoinDate;
+    private final boolean percentiles;
+
+    PayrollSummary(GroupStats overall, List<GroupStats> departments, List<GroupStats> policies,
+                   SortedMap<Integer, Long> headcountByJoinYear, long withoutJoinDate, boolean percentiles) {
+        this.overall = overall;
+        this.departments = Collections.unmodifiableList(departments);
+        this.policies = Collections.unmodifiableList(policies);
+        this.headcountByJoinYear = Collections.unmodifiableSortedMap(headcountByJoinYear);
+        this.withoutJoinDate = withoutJoinDate;
+        this.percentiles = percentiles;
+    }
+
+    public GroupStats getOverall() { return overall; }
+    /** Ordered by department name. */
+    public List<GroupStats> getDepartments() { return departments; }
+    public List<GroupStats> getPolicies() { return policies; }
+    /** Join-date cohorts: headcount per join year. */
+    public SortedMap<Integer, Long> getHeadcountByJoinYear() { return headcountByJoinYear; }
+    public long getWithoutJoinDate() { return withoutJoinDate; }
+
+    /** False when the table was too large to hold in memory and the database computed the totals. */
+    public boolean hasPercentiles() { return percentiles; }
+}
@@ -0,0 +1,49 @@
+package com.hrsystem.hrsystem.analytics;
+
+import com.hrsystem.hrsystem.storage.IncrementRule;
+import com.hrsystem.hrsystem.util.AppProperties;
+
+import java.util.Properties;
+
+/**
+ * The assumptions behind a {@link PayrollProjection}: how far ahead it looks and how much each increment
+ * raises a salary. The dashboard starts from these and lets the user change them for one run. Read from
+ * {@code hrsystem.properties} and {@code -D} overrides:
+ * <pre>
+ * hrsystem.projection.years=10                  (how many years ahead, from the current month)
+ * hrsystem.projection.raise.yearly=5%           (per increment on the Yearly policy; 5% or an amount such as 1500)
+ * hrsystem.projection.raise.half-yearly=2.5%    (per increment on every other policy, which is due every 6 months)
+ * </pre>
+ */
+public class ProjectionConfig {
+
+    /** The longest projection the dashboard offers. */
+    public static final int MAX_YEARS = 40;
+
+    private int years = 10;
+    private IncrementRule yearlyRaise = IncrementRule.parse("5%");
+    private IncrementRule halfYearlyRaise = IncrementRule.parse("2.5%");
+
+    public static ProjectionConfig load() {
+        return from(AppProperties.load());
+    }
+
+    /** @throws IllegalArgumentException if a raise is neither a percentage nor an amount. */
+    public static ProjectionConfig from(Properties properties) {
+        ProjectionConfig config = new ProjectionConfig();
+        config.setYears(Integer.parseInt(properties.getProperty("hrsystem.projection.years",
+                String.valueOf(config.years)).trim()));
+        String yearly = properties.getProperty("hrsystem.projection.raise.yearly");
+        if (yearly != null) config.setYearlyRaise(IncrementRule.parse(yearly));
+        String halfYearly = properties.getProperty("hrsystem.projection.raise.half-yearly");
+        if (halfYearly != null) config.setHalfYearlyRaise(IncrementRule.parse(halfYearly));
+        return config;
+    }
+
+    public int getYears() { return years; }
+    public void setYears(int years) { this.years = Math.max(1, Math.min(MAX_YEARS, years)); }
+    public IncrementRule getYearlyRaise() { return yearlyRaise; }
+    public void setYearlyRaise(IncrementRule yearlyRaise) { this.yearlyRaise = yearlyRaise; }
+    public IncrementRule getHalfYearlyRaise() { return halfYearlyRaise; }
+    public void setHalfYearlyRaise(IncrementRule halfYearlyRaise) { this.halfYearlyRaise = halfYearlyRaise; }
+}
@@ -0,0 +1,58 @@
+package com.hrsystem.hrsystem.analytics;
+
+import java.util.Arrays;
+
+/**
+ * A sorted multiset of longs in one array, for exact percentiles that can be kept up to date one value at a
+ * time. Adding or removing a value is a binary search plus an array shift, well under a millisecond at
+ * half a million values.
+ */
+class SortedLongs {
+
+    private long[] values;
+    private int size;
+
+    /** Takes ownership of {@code sorted}, whose first {@code size} values must be in ascending order. */
+    SortedLongs(long[] sorted, int size) {
+        this.values = sorted;
+        this.size = size;
+    }
+
+    SortedLongs() {
+        this(new long[16], 0);
+    }
+
+    int size() {
+        return size;
+    }
+
+    void add(long value) {
+        int index = insertionPoint(value);
+        if (size == values.length) values = Arrays.copyOf(values, Math.max(16, size * 2));
+        System.arraycopy(values, index, values, index + 1, size - index);
+        values[index] = value;
+        size++;
+    }
+
+    void remove(long value) {
+        int index = Arrays.binarySearch(values, 0, size, value);
+        if (index < 0) return;
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+    }
+
+    /**
+     * The nearest-rank percentile: the smallest value with at least {@code percent}% of values at or below it.
+     * @return the value, or -1 if empty.
+     */
+    long percentile(double percent) {
+        if (size == 0) return -1;
+        int rank = (int) Math.ceil(percent / 100.0 * size);
+        return values[Math.min(size, Math.max(1, rank)) - 1];
+    }
+
+    private int insertionPoint(long value) {
+        int index = Arrays.binarySearch(values, 0, size, value);
+        return index >= 0 ? index : -index - 1;
+    }
+}
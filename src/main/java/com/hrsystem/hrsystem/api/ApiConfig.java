@@ -0,0 +1,41 @@
+package com.hrsystem.hrsystem.api;
+
+import com.hrsystem.hrsystem.util.AppProperties;
+
+import java.util.Properties;
+
+/**
+ * Settings of the headless HTTP API, read from {@code hrsystem.properties} and {@code -D} overrides:
+ * <pre>
+ * hrsystem.api.port=8080
+ * hrsystem.api.threads=64             (request threads where virtual threads are unavailable)
+ * hrsystem.api.cache.entries=512      (cached GET responses; 0: no cache)
+ * </pre>
+ */
+public class ApiConfig {
+
+    private int port = 8080;
+    private int threads = 64;
+    private int cacheEntries = 512;
+
+    public static ApiConfig load() {
+        return from(AppProperties.load());
+    }
+
+    public static ApiConfig from(Properties properties) {
+        ApiConfig config = new ApiConfig();
+        config.setPort(Integer.parseInt(properties.getProperty("hrsystem.api.port", String.valueOf(config.port)).trim()));
+        config.setThreads(Integer.parseInt(properties.getProperty("hrsystem.api.threads", String.valueOf(config.threads)).trim()));
+        config.setCacheEntries(Integer.parseInt(properties.getProperty("hrsystem.api.cache.entries",
+                String.valueOf(config.cacheEntries)).trim()));
+        return config;
+    }
+
+    /** 0 picks a free port; see {@link ApiServer#getPort()}. */
+    public int getPort() { return port; }
+    public void setPort(int port) { this.port = port; }
+    public int getThreads() { return threads; }
+    public void setThreads(int threads) { this.threads = threads; }
+    public int getCacheEntries() { return cacheEntries; }
+    public void setCacheEntries(int cacheEntries) { this.cacheEntries = cacheEntries; }
+}
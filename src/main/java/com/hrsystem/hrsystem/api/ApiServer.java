@@ -0,0 +1,328 @@
+package com.hrsystem.hrsystem.api;
+
+import com.hrsystem.hrsystem.metrics.Metrics;
+import com.hrsystem.hrsystem.model.Department;
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.repository.DepartmentRepository;
+import com.hrsystem.hrsystem.repository.EmployeeRepository;
+import com.hrsystem.hrsystem.storage.EmployeeStore;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.Method;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A read-only HTTP/JSON view of the employee and department tables on the JDK's built-in HTTP server, for
+ * systems that need the data without database access of their own:
+ * <pre>
+ * GET /api/employees?department=3&amp;after=1200&amp;limit=100   employees in id order
+ * GET /api/employees/42                                   one employee
+ * GET /api/departments                                    all departments
+ * </pre>
+ * {@code department=0} lists employees without a department. Listings are keyset-paged: pass the returned
+ * {@code next} id as {@code after} to continue. Without a {@code limit} the whole listing is streamed, read
+ * from the database a page at a time, so memory stays flat however many rows it has.
+ *
+ * Small responses are cached until either table changes and carry an {@code ETag}.
+ */
+public final class ApiServer {
+
+    // Rows read from the database per query while streaming a listing
+    private static final int PAGE_SIZE = 1000;
+    private static final int MAX_LIMIT = 10_000;
+    // Read once, when the first server is created
+    private static final String NO_DELAY = "sun.net.httpserver.nodelay";
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ResponseCache cache;
+
+    private ApiServer(HttpServer server, ExecutorService executor, ResponseCache cache) {
+        this.server = server;
+        this.executor = executor;
+        this.cache = cache;
+    }
+
+    /** Binds the port and starts serving. The storage must be bootstrapped already. */
+    public static ApiServer start(ApiConfig config) throws IOException {
+        // The server writes headers and body separately; with Nagle's algorithm on, every small response
+        // then waits for the client's delayed ACK, about 40 ms
+        if (System.getProperty(NO_DELAY) == null) System.setProperty(NO_DELAY, "true");
+        HttpServer server = HttpServer.create(new InetSocketAddress(config.getPort()), 0);
+        ExecutorService executor = newExecutor(config.getThreads());
+        ApiServer api = new ApiServer(server, executor, new ResponseCache(config.getCacheEntries()));
+        server.createContext("/api/", api::handle);
+        server.setExecutor(executor);
+        server.start();
+        return api;
+    }
+
+    /** The bound port, which differs from the configured one if that was 0. */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /** Stops accepting requests and gives running ones a second to finish. */
+    public void stop() {
+        server.stop(1);
+        executor.shutdownNow();
+    }
+
+    /**
+     * A virtual thread per request where the runtime has them (Java 21 and later); requests mostly wait on
+     * the database, so blocking one is cheap. The module targets Java 17, so they are looked up reflectively,
+     * with a bounded pool as the fallback that makes the accepting thread serve requests itself when full.
+     */
+    private static ExecutorService newExecutor(int threads) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger count = new AtomicInteger();
+            return new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(threads * 4), runnable -> {
+                        Thread thread = new Thread(runnable, "api-" + count.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    }, new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        boolean dropped = false;
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "GET");
+                sendError(exchange, 405, "Only GET is supported");
+                return;
+            }
+            String path = exchange.getRequestURI().getPath();
+            String route;
+            if (path.equals("/api/employees")) {
+                route = "employees";
+            } else if (path.startsWith("/api/employees/")) {
+                route = "employee";
+            } else if (path.equals("/api/departments")) {
+                route = "departments";
+            } else {
+                sendError(exchange, 404, "No such resource: " + path);
+                return;
+            }
+            try (Metrics.Timer timer = Metrics.get().start("api." + route)) {
+                respond(exchange, route);
+            } catch (IllegalArgumentException e) {
+                sendError(exchange, 400, e.getMessage());
+            } catch (SQLException e) {
+                System.err.println("API request " + exchange.getRequestURI() + " failed: " + e.getMessage());
+                if (exchange.getResponseCode() != -1) {
+                    // Part of a streamed body is out already. Closing the exchange would end it like a complete
+                    // response; leaving it open makes the server drop the connection, which the client sees
+                    dropped = true;
+                    throw new IOException("Response cut short by a database error", e);
+                }
+                sendError(exchange, 500, "Database error");
+            }
+        } finally {
+            if (!dropped) exchange.close();
+        }
+    }
+
+    private void respond(HttpExchange exchange, String route) throws IOException, SQLException {
+        URI uri = exchange.getRequestURI();
+        String key = uri.getRawPath() + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "");
+        ResponseCache.Entry cached = cache.get(key);
+        if (cached != null) {
+            if (cached.etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.getResponseHeaders().set("ETag", cached.etag);
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            send(exchange, 200, cached.body, cached.etag);
+            return;
+        }
+
+        long generation = cache.generation();
+        ResponseBody body = new ResponseBody(exchange);
+        Writer out = new OutputStreamWriter(body, StandardCharsets.UTF_8);
+        switch (route) {
+            case "employees":
+                Map<String, String> query = parseQuery(uri.getRawQuery());
+                writeEmployees(out, intParam(query, "department", EmployeeStore.ANY_DEPARTMENT),
+                        intParam(query, "after", 0), intParam(query, "limit", -1));
+                break;
+            case "employee":
+                int id = parseInt(uri.getPath().substring("/api/employees/".length()), "id");
+                List<Employee> rows = EmployeeRepository.getInstance().findByIds(new int[] {id});
+                if (rows.isEmpty()) {
+                    sendError(exchange, 404, "No employee with id " + id);
+                    return;
+                }
+                Json.writeEmployee(out, rows.get(0));
+                break;
+            default:
+                writeDepartments(out);
+        }
+        out.flush();
+        if (body.isStreaming()) {
+            body.close();
+        } else {
+            byte[] bytes = body.buffered();
+            cache.put(key, generation, bytes);
+            ResponseCache.Entry entry = cache.get(key);
+            send(exchange, 200, bytes, entry != null ? entry.etag : null);
+        }
+    }
+
+    private static void writeEmployees(Writer out, int departmentId, int after, int limit) throws IOException, SQLException {
+        if (limit == 0 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIMIT);
+        }
+        EmployeeRepository employees = EmployeeRepository.getInstance();
+        int remaining = limit > 0 ? limit : Integer.MAX_VALUE;
+        int last = after;
+        boolean more = true;
+        out.write("{\"employees\":[");
+        boolean first = true;
+        while (remaining > 0 && more) {
+            int pageSize = Math.min(PAGE_SIZE, remaining);
+            List<Employee> page = employees.findAfterId(last, departmentId, pageSize);
+            for (Employee employee : page) {
+                if (!first) out.write(',');
+                first = false;
+                Json.writeEmployee(out, employee);
+                last = employee.getId();
+            }
+            remaining -= page.size();
+            more = page.size() == pageSize;
+        }
+        // A full last page may or may not be followed by more rows; the next call finds out
+        out.write("],\"next\":");
+        out.write(more ? Integer.toString(last) : "null");
+        out.write('}');
+    }
+
+    private static void writeDepartments(Writer out) throws IOException, SQLException {
+        out.write("{\"departments\":[");
+        boolean first = true;
+        for (Department department : DepartmentRepository.getInstance().findAll()) {
+            if (!first) out.write(',');
+            first = false;
+            Json.writeDepartment(out, department);
+        }
+        out.write("]}");
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body, String etag) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        if (etag != null) exchange.getResponseHeaders().set("ETag", etag);
+        exchange.sendResponseHeaders(status, body.length);
+        exchange.getResponseBody().write(body);
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        if (exchange.getResponseCode() != -1) {
+            // Part of a streamed body is out already; the status cannot change any more
+            return;
+        }
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (Writer out = new OutputStreamWriter(body, StandardCharsets.UTF_8)) {
+            out.write("{\"error\":");
+            Json.writeString(out, message);
+            out.write('}');
+        }
+        send(exchange, status, body.toByteArray(), null);
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null) return params;
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static int intParam(Map<String, String> params, String name, int defaultValue) {
+        String value = params.get(name);
+        return value == null || value.isEmpty() ? defaultValue : parseInt(value, name);
+    }
+
+    private static int parseInt(String value, String name) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number: " + value);
+        }
+    }
+
+    /**
+     * Buffers a response while it is small enough to cache and send with a length; past that, sends the
+     * headers for a chunked response and streams the rest straight to the client.
+     */
+    private static final class ResponseBody extends OutputStream {
+        private final HttpExchange exchange;
+        private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private OutputStream stream;
+
+        ResponseBody(HttpExchange exchange) {
+            this.exchange = exchange;
+        }
+
+        boolean isStreaming() {
+            return stream != null;
+        }
+
+        byte[] buffered() {
+            return buffer.toByteArray();
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (stream == null && buffer.size() + len > ResponseCache.MAX_ENTRY_BYTES) {
+                exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+                exchange.sendResponseHeaders(200, 0);
+                stream = exchange.getResponseBody();
+                buffer.writeTo(stream);
+                buffer = null;
+            }
+            if (stream != null) {
+                stream.write(b, off, len);
+            } else {
+                buffer.write(b, off, len);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (stream != null) stream.close();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.hrsystem.hrsystem.api;
+
+import com.hrsystem.hrsystem.model.Department;
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.repository.DepartmentRepository;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/** Writes the API's JSON by hand, field by field, so large listings never exist as one tree in memory. */
+final class Json {
+
+    private Json() {
+    }
+
+    static void writeEmployee(Writer out, Employee employee) throws IOException {
+        out.write("{\"id\":");
+        out.write(Integer.toString(employee.getId()));
+        out.write(",\"name\":");
+        writeString(out, employee.getName());
+        out.write(",\"departmentId\":");
+        out.write(employee.getDepartmentId() != 0 ? Integer.toString(employee.getDepartmentId()) : "null");
+        out.write(",\"department\":");
+        writeString(out, employee.getDepartmentId() != 0
+                ? DepartmentRepository.getInstance().nameOf(employee.getDepartmentId()) : null);
+        out.write(",\"salary\":");
+        // Salaries are DECIMAL(10, 2); print them that way rather than as a binary double
+        out.write(BigDecimal.valueOf(employee.getSalary()).setScale(2, RoundingMode.HALF_UP).toPlainString());
+        out.write(",\"joinDate\":");
+        writeString(out, employee.getJoinDate() != null ? employee.getJoinDate().toString() : null);
+        out.write(",\"incrementPolicy\":");
+        writeString(out, employee.getIncrementPolicy());
+        out.write(",\"version\":");
+        out.write(Integer.toString(employee.getVersion()));
+        out.write('}');
+    }
+
+    static void writeDepartment(Writer out, Department department) throws IOException {
+        out.write("{\"id\":");
+        out.write(Integer.toString(department.getId()));
+        out.write(",\"name\":");
+        writeString(out, department.getName());
+        out.write('}');
+    }
+
+    static void writeString(Writer out, String value) throws IOException {
+        if (value == null) {
+            out.write("null");
+            return;
+        }
+        out.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': out.write("\\\""); break;
+                case '\\': out.write("\\\\"); break;
+                case '\n': out.write("\\n"); break;
+                case '\r': out.write("\\r"); break;
+                case '\t': out.write("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+            }
+        }
+        out.write('"');
+    }
+}
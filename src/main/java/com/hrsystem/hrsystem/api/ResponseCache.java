@@ -0,0 +1,93 @@
+package com.hrsystem.hrsystem.api;
+
+import com.hrsystem.hrsystem.repository.DepartmentRepository;
+import com.hrsystem.hrsystem.repository.EmployeeRepository;
+import com.hrsystem.hrsystem.repository.RepositoryListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rendered GET responses keyed by path and query, dropped wholesale by any change to either table, whether
+ * made here or picked up from another client. Every change bumps a generation; a response rendered while a
+ * change happened is not stored, so the cache never serves rows older than the last change it heard of.
+ */
+final class ResponseCache {
+
+    /** Larger responses are streamed to the client and not kept. */
+    static final int MAX_ENTRY_BYTES = 1 << 20;
+
+    static final class Entry {
+        final byte[] body;
+        final String etag;
+
+        Entry(byte[] body, String etag) {
+            this.body = body;
+            this.etag = etag;
+        }
+    }
+
+    private final int maxEntries;
+    private final Map<String, Entry> entries;
+    private long generation;
+
+    ResponseCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ResponseCache.this.maxEntries;
+            }
+        };
+        EmployeeRepository.getInstance().addListener(new Invalidator<>());
+        DepartmentRepository.getInstance().addListener(new Invalidator<>());
+    }
+
+    synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    /** Call before rendering a response, and pass the result to {@link #put}. */
+    synchronized long generation() {
+        return generation;
+    }
+
+    synchronized void put(String key, long renderedAt, byte[] body) {
+        if (maxEntries <= 0 || renderedAt != generation || body.length > MAX_ENTRY_BYTES) return;
+        String etag = "\"" + Long.toHexString(generation) + "-" + Integer.toHexString(java.util.Arrays.hashCode(body)) + "\"";
+        entries.put(key, new Entry(body, etag));
+    }
+
+    synchronized void invalidate() {
+        generation++;
+        entries.clear();
+    }
+
+    private class Invalidator<T> implements RepositoryListener<T> {
+        @Override
+        public void onReloaded(List<T> items) {
+            invalidate();
+        }
+
+        @Override
+        public void onInvalidated() {
+            invalidate();
+        }
+
+        @Override
+        public void onAdded(T item) {
+            invalidate();
+        }
+
+        @Override
+        public void onUpdated(T previous, T current) {
+            invalidate();
+        }
+
+        @Override
+        public void onRemoved(int id, T previous) {
+            invalidate();
+        }
+    }
+}
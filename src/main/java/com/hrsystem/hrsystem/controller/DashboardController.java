@@ -1,93 +1,463 @@
 package com.hrsystem.hrsystem.controller;
 
+import com.hrsystem.hrsystem.analytics.GroupStats;
+import com.hrsystem.hrsystem.analytics.PayrollAnalytics;
+import com.hrsystem.hrsystem.analytics.PayrollProjection;
+import com.hrsystem.hrsystem.analytics.PayrollSummary;
+import com.hrsystem.hrsystem.analytics.ProjectionConfig;
 import com.hrsystem.hrsystem.model.Employee;
-import com.hrsystem.hrsystem.util.Database;
-import javafx.collections.FXCollections;
-import javafx.collections.ObservableList;
+import com.hrsystem.hrsystem.repository.DepartmentRepository;
+import com.hrsystem.hrsystem.repository.EmployeeIndex;
+import com.hrsystem.hrsystem.repository.EmployeeRepository;
+import com.hrsystem.hrsystem.repository.EmployeeSort;
+import com.hrsystem.hrsystem.repository.PagedEmployeeList;
+import com.hrsystem.hrsystem.service.IncrementSchedule;
+import com.hrsystem.hrsystem.service.ProjectionCsvExporter;
+import com.hrsystem.hrsystem.storage.IncrementResult;
+import com.hrsystem.hrsystem.storage.IncrementRule;
+import com.hrsystem.hrsystem.storage.SalaryChange;
+import com.hrsystem.hrsystem.util.AsyncRunner;
+import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.StringBinding;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringWrapper;
 import javafx.fxml.FXML;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.XYChart;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.FileChooser;
 
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
+import java.io.File;
 import java.sql.SQLException;
-import java.sql.Date;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.ToLongFunction;
 
 public class DashboardController {
 
+    // Raises listed when confirming an increment run
+    private static final int INCREMENT_PREVIEW_ROWS = 50;
+
     @FXML private TableView<Employee> employeeTable;
-    @FXML private TableColumn<Employee, Integer> idColumn;
+    @FXML private TableColumn<Employee, Number> idColumn;
     @FXML private TableColumn<Employee, String> nameColumn;
     @FXML private TableColumn<Employee, String> departmentColumn;
-    @FXML private TableColumn<Employee, Double> salaryColumn;
+    @FXML private TableColumn<Employee, Number> salaryColumn;
     @FXML private TableColumn<Employee, LocalDate> joinDateColumn;
     @FXML private Button notificationButton;
+    @FXML private Button incrementButton;
+    @FXML private Label statusLabel;
+    @FXML private ProgressIndicator progressIndicator;
+    @FXML private Label analyticsLabel;
+    @FXML private TableView<GroupStats> analyticsTable;
+    @FXML private TableColumn<GroupStats, String> groupDimensionColumn;
+    @FXML private TableColumn<GroupStats, String> groupLabelColumn;
+    @FXML private TableColumn<GroupStats, Long> groupHeadcountColumn;
+    @FXML private TableColumn<GroupStats, String> groupTotalColumn;
+    @FXML private TableColumn<GroupStats, String> groupAverageColumn;
+    @FXML private TableColumn<GroupStats, String> groupP10Column;
+    @FXML private TableColumn<GroupStats, String> groupMedianColumn;
+    @FXML private TableColumn<GroupStats, String> groupP90Column;
+    @FXML private BarChart<String, Number> cohortChart;
+    @FXML private Spinner<Integer> projectionYearsSpinner;
+    @FXML private TextField yearlyRaiseField;
+    @FXML private TextField halfYearlyRaiseField;
+    @FXML private Button projectButton;
+    @FXML private Button projectionExportButton;
+    @FXML private Label projectionLabel;
+    @FXML private TableView<ProjectionRow> projectionTable;
+    @FXML private TableColumn<ProjectionRow, String> projectionDepartmentColumn;
+    @FXML private TableColumn<ProjectionRow, Long> projectionHeadcountColumn;
+    @FXML private TableColumn<ProjectionRow, String> projectionFirstYearColumn;
+    @FXML private TableColumn<ProjectionRow, String> projectionLastYearColumn;
+    @FXML private TableColumn<ProjectionRow, String> projectionTotalColumn;
+    @FXML private BarChart<String, Number> projectionChart;
     // The policyComboBox has been removed as it is no longer in the FXML
 
-    private ObservableList<Employee> employeeList = FXCollections.observableArrayList();
+    private final EmployeeRepository employeeRepository = EmployeeRepository.getInstance();
+    private final DepartmentRepository departmentRepository = DepartmentRepository.getInstance();
+    private final PagedEmployeeList employeeList = new PagedEmployeeList(employeeRepository);
+    private final IncrementSchedule schedule = IncrementSchedule.getInstance();
+    private final PayrollAnalytics analytics = PayrollAnalytics.getInstance();
+    private final ProjectionCsvExporter projectionExporter = new ProjectionCsvExporter(departmentRepository);
+    private final AsyncRunner runner = new AsyncRunner();
+    private StatusBar status;
+    // The last projection shown, for export
+    private PayrollProjection projection;
+
+    // FX thread only: the schedule is being built
+    private boolean scheduleIndexing;
+    // FX thread only: a computation is running, and another change arrived since it started
+    private boolean analyticsRunning;
+    private boolean analyticsDirty;
+    // Collapses a burst of changes into one pending refresh on the FX thread
+    private final AtomicBoolean analyticsRefreshPosted = new AtomicBoolean();
 
     @FXML
     public void initialize() {
+        status = new StatusBar(statusLabel, progressIndicator, runner);
+
         // Setup table columns
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
-        nameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
-        departmentColumn.setCellValueFactory(new PropertyValueFactory<>("department"));
-        salaryColumn.setCellValueFactory(new PropertyValueFactory<>("salary"));
-        joinDateColumn.setCellValueFactory(new PropertyValueFactory<>("joinDate"));
+        idColumn.setCellValueFactory(cell -> cell.getValue() == null ? null : cell.getValue().idProperty());
+        nameColumn.setCellValueFactory(cell -> cell.getValue() == null ? null : cell.getValue().nameProperty());
+        departmentColumn.setCellValueFactory(cell -> cell.getValue() == null ? null
+                : departmentName(cell.getValue()));
+        salaryColumn.setCellValueFactory(cell -> cell.getValue() == null ? null : cell.getValue().salaryProperty());
+        joinDateColumn.setCellValueFactory(cell -> cell.getValue() == null ? null : cell.getValue().joinDateProperty());
+
+        employeeList.attach(employeeTable, Map.of(
+                idColumn, EmployeeSort.ID,
+                nameColumn, EmployeeSort.NAME,
+                departmentColumn, EmployeeSort.DEPARTMENT,
+                salaryColumn, EmployeeSort.SALARY,
+                joinDateColumn, EmployeeSort.JOIN_DATE));
+        employeeList.setOnError(e -> status.error("Could not load employees", e));
+
+        setupAnalytics();
+        setupProjection();
 
         loadEmployeeData();
+        // An import, increment run or reload from another client drops the schedule
+        schedule.addChangeListener(() -> {
+            if (!schedule.isBuilt()) Platform.runLater(this::buildSchedule);
+        });
+        buildSchedule();
+        refreshAnalytics();
+    }
+
+    /** Follows the row's department id; renames are picked up by the list redrawing the table. */
+    private StringBinding departmentName(Employee employee) {
+        ReadOnlyIntegerProperty departmentId = employee.departmentIdProperty();
+        return Bindings.createStringBinding(() -> departmentRepository.nameOf(departmentId.get()), departmentId);
     }
 
     private void loadEmployeeData() {
-        employeeList.clear();
-        String query = "SELECT * FROM employees ORDER BY id";
-        try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement(query);
-             ResultSet rs = ps.executeQuery()) {
-            while (rs.next()) {
-                Date joinSqlDate = rs.getDate("join_date");
-                LocalDate joinLocalDate = (joinSqlDate != null) ? joinSqlDate.toLocalDate() : null;
-
-                // **FIX:** Now loading the increment_policy and using the correct constructor
-                employeeList.add(new Employee(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getString("department"),
-                        rs.getDouble("salary"),
-                        joinLocalDate,
-                        rs.getString("increment_policy")
-                ));
-            }
-            employeeTable.setItems(employeeList);
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        employeeList.refresh();
     }
 
     @FXML
     private void handleNotifications() {
+        notificationButton.setDisable(true);
+        runner.submit("notifications", this::findEmployeesDue, employeesDue -> {
+            notificationButton.setDisable(false);
+            showNotificationAlert(employeesDue);
+        }, e -> {
+            notificationButton.setDisable(false);
+            status.error("Could not check increments", e);
+        });
+    }
+
+    /**
+     * Runs on a background thread. Answers from the in-memory due-date index when it is built, otherwise
+     * lets the database return only the due rows.
+     */
+    private List<String> findEmployeesDue() throws SQLException {
+        LocalDate today = LocalDate.now();
         List<String> employeesDue = new ArrayList<>();
+        if (schedule.isBuilt()) {
+            for (IncrementSchedule.Entry entry : schedule.dueAsOf(today)) {
+                employeesDue.add(entry.getName() + " (Policy: " + entry.getPolicy() + ")");
+            }
+        } else {
+            for (Employee emp : employeeRepository.findDueForIncrement(today)) {
+                employeesDue.add(emp.getName() + " (Policy: " + emp.getIncrementPolicy() + ")");
+            }
+        }
+        return employeesDue;
+    }
 
-        for (Employee emp : employeeList) {
-            // Skip if join date or policy is missing
-            if (emp.getJoinDate() == null || emp.getIncrementPolicy() == null) continue;
+    /**
+     * Asks for a percentage or amount, shows a dry run of raising everyone due today by it, and applies it in
+     * one go once the user confirms.
+     */
+    @FXML
+    private void handleApplyIncrements() {
+        TextInputDialog dialog = new TextInputDialog("5%");
+        dialog.setTitle("Apply Salary Increments");
+        dialog.setHeaderText("Raise the salary of every employee due for an increment today.");
+        dialog.setContentText("Increase (e.g. 5% or 1500):");
+        Optional<String> input = dialog.showAndWait();
+        if (input.isEmpty()) return;
 
-            // **FIX:** Logic now uses the individual employee's policy
-            long monthsRequired = "Yearly".equals(emp.getIncrementPolicy()) ? 12 : 6;
+        IncrementRule rule;
+        try {
+            rule = IncrementRule.parse(input.get());
+        } catch (IllegalArgumentException e) {
+            status.error(e.getMessage());
+            return;
+        }
+        LocalDate today = LocalDate.now();
+        incrementButton.setDisable(true);
+        runner.submit("increments", () -> employeeRepository.previewIncrements(rule, today, INCREMENT_PREVIEW_ROWS), preview -> {
+            if (preview.getCount() == 0) {
+                incrementButton.setDisable(false);
+                status.info("No employees are due for a salary increment.");
+            } else if (confirmIncrements(rule, preview)) {
+                applyIncrements(rule, today);
+            } else {
+                incrementButton.setDisable(false);
+            }
+        }, e -> {
+            incrementButton.setDisable(false);
+            status.error("Could not preview increments", e);
+        });
+    }
 
-            long monthsSinceJoined = ChronoUnit.MONTHS.between(emp.getJoinDate(), LocalDate.now());
+    private void applyIncrements(IncrementRule rule, LocalDate asOf) {
+        runner.submit("increments", () -> employeeRepository.applyIncrements(rule, asOf, 0), result -> {
+            incrementButton.setDisable(false);
+            status.info(String.format("Raised %,d salaries by %s; their total went from %,.2f to %,.2f.",
+                    result.getCount(), rule, result.getTotalBefore(), result.getTotalAfter()));
+            buildSchedule();
+        }, e -> {
+            incrementButton.setDisable(false);
+            status.error("Could not apply increments", e);
+        });
+    }
 
-            if (monthsSinceJoined >= monthsRequired) {
-                employeesDue.add(emp.getName() + " (Policy: " + emp.getIncrementPolicy() + ")");
+    private boolean confirmIncrements(IncrementRule rule, IncrementResult preview) {
+        StringBuilder text = new StringBuilder(String.format("Total salaries: %,.2f \u2192 %,.2f (+%,.2f)%n%n",
+                preview.getTotalBefore(), preview.getTotalAfter(), preview.getTotalAfter().subtract(preview.getTotalBefore())));
+        for (SalaryChange change : preview.getSample()) {
+            text.append(String.format("%s: %,.2f \u2192 %,.2f%n", change.getName(), change.getOldSalary(), change.getNewSalary()));
+        }
+        if (preview.getCount() > preview.getSample().size()) {
+            text.append(String.format("... and %,d more", preview.getCount() - preview.getSample().size()));
+        }
+
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
+        alert.setTitle("Apply Salary Increments");
+        alert.setHeaderText(String.format("Raise %,d salaries by %s?", preview.getCount(), rule));
+        alert.getDialogPane().setContent(new ScrollPane(new Label(text.toString())));
+        return alert.showAndWait().filter(ButtonType.OK::equals).isPresent();
+    }
+
+    /**
+     * Builds the due-date index in the background unless a build is already running or the table is too large
+     * to hold in memory. Until it is built, due employees are read from the database.
+     */
+    private void buildSchedule() {
+        if (scheduleIndexing) return;
+        scheduleIndexing = true;
+        runner.submit("schedule", () -> {
+            if (employeeRepository.countAll() > EmployeeIndex.MAX_INDEXED_EMPLOYEES) return false;
+            schedule.build();
+            return true;
+        }, indexed -> {
+            scheduleIndexing = false;
+            // Dropped again after the build finished, before this ran
+            if (indexed && !schedule.isBuilt()) buildSchedule();
+        }, e -> {
+            scheduleIndexing = false;
+            status.error("Could not index increment dates", e);
+        });
+    }
+
+    private void setupAnalytics() {
+        groupDimensionColumn.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().getDimension()));
+        groupLabelColumn.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().getLabel()));
+        groupHeadcountColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().getHeadcount()));
+        centsColumn(groupTotalColumn, GroupStats::getTotalCents);
+        centsColumn(groupAverageColumn, GroupStats::getAverageCents);
+        centsColumn(groupP10Column, GroupStats::getP10Cents);
+        centsColumn(groupMedianColumn, GroupStats::getMedianCents);
+        centsColumn(groupP90Column, GroupStats::getP90Cents);
+
+        analytics.addChangeListener(() -> {
+            if (analyticsRefreshPosted.compareAndSet(false, true)) {
+                Platform.runLater(() -> {
+                    analyticsRefreshPosted.set(false);
+                    refreshAnalytics();
+                });
+            }
+        });
+    }
+
+    private static void centsColumn(TableColumn<GroupStats, String> column, ToLongFunction<GroupStats> cents) {
+        column.setCellValueFactory(cell -> new ReadOnlyStringWrapper(formatCents(cents.applyAsLong(cell.getValue()))));
+    }
+
+    private static String formatCents(long cents) {
+        return cents < 0 ? "\u2014" : String.format("%,.2f", cents / 100.0);
+    }
+
+    /**
+     * Recomputes the analytics in the background, or takes the incrementally maintained figures if they are
+     * current. A change during a full build does not cancel it; the view refreshes once more when it ends.
+     */
+    private void refreshAnalytics() {
+        if (analyticsRunning) {
+            analyticsDirty = true;
+            return;
+        }
+        analyticsRunning = true;
+        runner.submit("analytics", () -> {
+            if (!analytics.isBuilt()) analytics.build();
+            return analytics.summary();
+        }, summary -> {
+            analyticsDone();
+            if (summary != null) showAnalytics(summary);
+        }, e -> {
+            analyticsDone();
+            status.error("Could not compute payroll analytics", e);
+        });
+    }
+
+    private void analyticsDone() {
+        analyticsRunning = false;
+        if (analyticsDirty) {
+            analyticsDirty = false;
+            refreshAnalytics();
+        }
+    }
+
+    private void showAnalytics(PayrollSummary summary) {
+        GroupStats overall = summary.getOverall();
+        String text = String.format("%,d employees, total salaries %s, average %s.", overall.getHeadcount(),
+                formatCents(overall.getTotalCents()), formatCents(overall.getAverageCents()));
+        if (!summary.hasPercentiles()) {
+            text += " Percentiles are not shown above " + String.format("%,d", EmployeeIndex.MAX_INDEXED_EMPLOYEES) + " employees.";
+        }
+        analyticsLabel.setText(text);
+
+        List<GroupStats> rows = new ArrayList<>();
+        rows.add(overall);
+        rows.addAll(summary.getDepartments());
+        rows.addAll(summary.getPolicies());
+        analyticsTable.getItems().setAll(rows);
+
+        XYChart.Series<String, Number> cohorts = new XYChart.Series<>();
+        summary.getHeadcountByJoinYear().forEach((year, headcount) ->
+                cohorts.getData().add(new XYChart.Data<>(String.valueOf(year), headcount)));
+        if (summary.getWithoutJoinDate() > 0) {
+            cohorts.getData().add(new XYChart.Data<>("Unknown", summary.getWithoutJoinDate()));
+        }
+        cohortChart.getData().setAll(List.of(cohorts));
+    }
+
+    /** One line of the projection table: a department, or all of them. */
+    private static final class ProjectionRow {
+        final String label;
+        final long headcount;
+        final long firstYearCents;
+        final long lastYearCents;
+        final long totalCents;
+
+        ProjectionRow(String label, long headcount, long firstYearCents, long lastYearCents, long totalCents) {
+            this.label = label;
+            this.headcount = headcount;
+            this.firstYearCents = firstYearCents;
+            this.lastYearCents = lastYearCents;
+            this.totalCents = totalCents;
+        }
+    }
+
+    private void setupProjection() {
+        ProjectionConfig defaults = ProjectionConfig.load();
+        projectionYearsSpinner.setValueFactory(new SpinnerValueFactory.IntegerSpinnerValueFactory(
+                1, ProjectionConfig.MAX_YEARS, defaults.getYears()));
+        yearlyRaiseField.setText(ruleText(defaults.getYearlyRaise()));
+        halfYearlyRaiseField.setText(ruleText(defaults.getHalfYearlyRaise()));
+
+        projectionDepartmentColumn.setCellValueFactory(cell -> new ReadOnlyStringWrapper(cell.getValue().label));
+        projectionHeadcountColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().headcount));
+        projectionFirstYearColumn.setCellValueFactory(cell -> new ReadOnlyStringWrapper(formatCents(cell.getValue().firstYearCents)));
+        projectionLastYearColumn.setCellValueFactory(cell -> new ReadOnlyStringWrapper(formatCents(cell.getValue().lastYearCents)));
+        projectionTotalColumn.setCellValueFactory(cell -> new ReadOnlyStringWrapper(formatCents(cell.getValue().totalCents)));
+    }
+
+    /** The rule as {@link IncrementRule#parse} reads it back, without grouping separators. */
+    private static String ruleText(IncrementRule rule) {
+        return rule.getType() == IncrementRule.Type.PERCENT ? rule.getValue().stripTrailingZeros().toPlainString() + "%"
+                : rule.getValue().toPlainString();
+    }
+
+    @FXML
+    private void handleProject() {
+        ProjectionConfig config = new ProjectionConfig();
+        try {
+            config.setYearlyRaise(IncrementRule.parse(yearlyRaiseField.getText()));
+            config.setHalfYearlyRaise(IncrementRule.parse(halfYearlyRaiseField.getText()));
+        } catch (IllegalArgumentException e) {
+            status.error(e.getMessage());
+            return;
+        }
+        config.setYears(projectionYearsSpinner.getValue());
+
+        long started = System.currentTimeMillis();
+        projectButton.setDisable(true);
+        status.info("Projecting payroll cost...");
+        runner.submit("projection", () -> {
+            departmentRepository.ensureDictionary();
+            return PayrollProjection.run(employeeRepository, config, YearMonth.now());
+        }, result -> {
+            projectButton.setDisable(false);
+            projection = result;
+            projectionExportButton.setDisable(false);
+            showProjection(result, config);
+            status.info(String.format("Projected %,d employees over %d years in %.1f s.", result.totalHeadcount(),
+                    result.getYears(), (System.currentTimeMillis() - started) / 1000.0));
+        }, e -> {
+            projectButton.setDisable(false);
+            status.error("Could not project payroll cost", e);
+        });
+    }
+
+    private void showProjection(PayrollProjection result, ProjectionConfig config) {
+        int lastYear = result.getYears() - 1;
+        List<ProjectionRow> rows = new ArrayList<>();
+        long total = 0;
+        for (int index = 0; index < result.departmentCount(); index++) {
+            int id = result.departmentId(index);
+            long departmentTotal = 0;
+            for (int year = 0; year <= lastYear; year++) {
+                departmentTotal += result.yearCostCents(index, year);
             }
+            total += departmentTotal;
+            rows.add(new ProjectionRow(id == 0 ? "(none)" : departmentRepository.nameOf(id), result.headcount(index),
+                    result.yearCostCents(index, 0), result.yearCostCents(index, lastYear), departmentTotal));
+        }
+        rows.sort(Comparator.comparing(row -> row.label, String.CASE_INSENSITIVE_ORDER));
+        rows.add(0, new ProjectionRow("All", result.totalHeadcount(), result.yearCostCents(0),
+                result.yearCostCents(lastYear), total));
+        projectionTable.getItems().setAll(rows);
+
+        XYChart.Series<String, Number> years = new XYChart.Series<>();
+        for (int year = 0; year <= lastYear; year++) {
+            years.getData().add(new XYChart.Data<>(result.getFirstMonth().plusYears(year).toString(),
+                    result.yearCostCents(year) / 100.0));
         }
+        projectionChart.getData().setAll(List.of(years));
+
+        projectionLabel.setText(String.format("From %s, raising Yearly salaries by %s and the others by %s: %s in the first"
+                        + " year, %s in year %d, %s in total.", result.getFirstMonth(), config.getYearlyRaise(),
+                config.getHalfYearlyRaise(), formatCents(result.yearCostCents(0)), formatCents(result.yearCostCents(lastYear)),
+                result.getYears(), formatCents(total)));
+    }
+
+    @FXML
+    private void handleExportProjection() {
+        PayrollProjection current = projection;
+        if (current == null) return;
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Export Payroll Projection");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV files", "*.csv"));
+        chooser.setInitialFileName("payroll-projection.csv");
+        File file = chooser.showSaveDialog(projectionTable.getScene().getWindow());
+        if (file == null) return;
 
-        showNotificationAlert(employeesDue);
+        status.info("Exporting to " + file.getName() + "...");
+        runner.submit("projection-export", () -> projectionExporter.exportFile(current, file.toPath()),
+                records -> status.info(String.format("Exported %,d records to %s.", records, file.getName())),
+                e -> status.error("Export failed", e));
     }
 
     private void showNotificationAlert(List<String> employeesDue) {
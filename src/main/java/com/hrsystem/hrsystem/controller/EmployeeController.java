@@ -2,80 +2,159 @@ package com.hrsystem.hrsystem.controller;
 
 import com.hrsystem.hrsystem.model.Department;
 import com.hrsystem.hrsystem.model.Employee;
-import com.hrsystem.hrsystem.util.Database;
+import com.hrsystem.hrsystem.repository.CommandQueue;
+import com.hrsystem.hrsystem.repository.DepartmentRepository;
+import com.hrsystem.hrsystem.repository.EmployeeIndex;
+import com.hrsystem.hrsystem.repository.EmployeeRepository;
+import com.hrsystem.hrsystem.repository.EmployeeSort;
+import com.hrsystem.hrsystem.repository.ObservableRepositoryList;
+import com.hrsystem.hrsystem.repository.PagedEmployeeList;
+import com.hrsystem.hrsystem.repository.SelectedEmployeeList;
+import com.hrsystem.hrsystem.service.EmployeeCsvExporter;
+import com.hrsystem.hrsystem.service.EmployeeCsvImporter;
+import com.hrsystem.hrsystem.service.EmployeeSearchIndex;
+import com.hrsystem.hrsystem.service.ImportReport;
+import com.hrsystem.hrsystem.storage.ChangeRecord;
+import com.hrsystem.hrsystem.storage.StaleRowException;
+import com.hrsystem.hrsystem.util.AsyncRunner;
+import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.StringBinding;
+import javafx.beans.property.ReadOnlyIntegerProperty;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
-import javafx.scene.control.cell.PropertyValueFactory;
+import javafx.stage.FileChooser;
 
-import java.sql.Connection;
-import java.sql.Date;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.time.LocalDate;
+import java.io.File;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class EmployeeController {
 
+    @FXML private TextField searchField;
     @FXML private TableView<Employee> employeeTable;
-    @FXML private TableColumn<Employee, Integer> idColumn;
+    @FXML private TableColumn<Employee, Number> idColumn;
     @FXML private TableColumn<Employee, String> nameColumn;
     @FXML private TableColumn<Employee, String> departmentColumn;
-    @FXML private TableColumn<Employee, Double> salaryColumn;
+    @FXML private TableColumn<Employee, Number> salaryColumn;
     @FXML private TextField nameField;
     @FXML private ComboBox<Department> departmentComboBox;
     @FXML private TextField salaryField;
     @FXML private DatePicker joinDatePicker;
     @FXML private ComboBox<String> policyComboBox; // New UI element
     @FXML private Button addButton;
+    @FXML private Label statusLabel;
+    @FXML private ProgressIndicator progressIndicator;
 
-    private ObservableList<Employee> employeeList = FXCollections.observableArrayList();
-    private ObservableList<Department> departmentList = FXCollections.observableArrayList();
+    private final EmployeeRepository employeeRepository = EmployeeRepository.getInstance();
+    private final DepartmentRepository departmentRepository = DepartmentRepository.getInstance();
+    private final PagedEmployeeList employeeList = new PagedEmployeeList(employeeRepository);
+    private final SelectedEmployeeList searchResults = new SelectedEmployeeList(employeeRepository);
+    private final EmployeeSearchIndex searchIndex = EmployeeSearchIndex.getInstance();
+    // Collapses a burst of index changes into one pending re-search on the FX thread
+    private final AtomicBoolean searchRefreshPosted = new AtomicBoolean();
+    // FX thread only: a build of the search index is running
+    private boolean searchIndexing;
+    private final ObservableRepositoryList<Department> departments = new ObservableRepositoryList<>(departmentRepository);
+    private final ObservableList<Department> departmentList = departments.getItems();
+    private final AsyncRunner runner = new AsyncRunner();
+    private final EmployeeCsvImporter importer = new EmployeeCsvImporter(employeeRepository, departmentRepository);
+    private final EmployeeCsvExporter exporter = new EmployeeCsvExporter(employeeRepository, departmentRepository);
+    private StatusBar status;
     private Employee selectedEmployee = null;
 
     @FXML
     public void initialize() {
-        idColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
-        nameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
-        departmentColumn.setCellValueFactory(new PropertyValueFactory<>("department"));
-        salaryColumn.setCellValueFactory(new PropertyValueFactory<>("salary"));
+        status = new StatusBar(statusLabel, progressIndicator, runner);
+        idColumn.setCellValueFactory(cell -> cell.getValue() == null ? null : cell.getValue().idProperty());
+        nameColumn.setCellValueFactory(cell -> cell.getValue() == null ? null : cell.getValue().nameProperty());
+        departmentColumn.setCellValueFactory(cell -> cell.getValue() == null ? null
+                : departmentName(cell.getValue()));
+        salaryColumn.setCellValueFactory(cell -> cell.getValue() == null ? null : cell.getValue().salaryProperty());
 
         loadDepartmentData();
         departmentComboBox.setItems(departmentList);
 
         policyComboBox.setItems(FXCollections.observableArrayList("Yearly", "Half-Yearly"));
 
+        employeeList.attach(employeeTable, Map.of(
+                idColumn, EmployeeSort.ID,
+                nameColumn, EmployeeSort.NAME,
+                departmentColumn, EmployeeSort.DEPARTMENT,
+                salaryColumn, EmployeeSort.SALARY));
+        employeeList.setOnError(e -> status.error("Could not load employees", e));
         loadEmployeeData();
+        setupSearch();
 
         employeeTable.getSelectionModel().selectedItemProperty().addListener(
                 (obs, oldVal, newVal) -> showEmployeeDetails(newVal));
     }
 
+    /** Follows the row's department id; renames are picked up by the list redrawing the table. */
+    private StringBinding departmentName(Employee employee) {
+        ReadOnlyIntegerProperty departmentId = employee.departmentIdProperty();
+        return Bindings.createStringBinding(() -> departmentRepository.nameOf(departmentId.get()), departmentId);
+    }
+
     private void loadEmployeeData() {
-        employeeList.clear();
-        String query = "SELECT * FROM employees ORDER BY id";
-        try (Connection conn = Database.getConnection();
-             PreparedStatement ps = conn.prepareStatement(query);
-             ResultSet rs = ps.executeQuery()) {
-
-            while (rs.next()) {
-                Date joinSqlDate = rs.getDate("join_date");
-                LocalDate joinLocalDate = (joinSqlDate != null) ? joinSqlDate.toLocalDate() : null;
-
-                employeeList.add(new Employee(
-                        rs.getInt("id"),
-                        rs.getString("name"),
-                        rs.getString("department"),
-                        rs.getDouble("salary"),
-                        joinLocalDate,
-                        rs.getString("increment_policy")
-                ));
+        employeeList.refresh();
+    }
+
+    private void setupSearch() {
+        searchResults.setOnError(e -> status.error("Could not load employees", e));
+        searchField.textProperty().addListener((obs, oldVal, newVal) -> runSearch());
+        searchIndex.addChangeListener(() -> {
+            if (searchRefreshPosted.compareAndSet(false, true)) {
+                Platform.runLater(() -> {
+                    searchRefreshPosted.set(false);
+                    // An import, increment run or reload from another client drops the index
+                    if (!searchIndex.isBuilt()) buildSearchIndex();
+                    runSearch();
+                });
+            }
+        });
+        if (!searchIndex.isBuilt()) buildSearchIndex();
+    }
+
+    /** Builds the index in the background unless a build is already running or the table is too large. */
+    private void buildSearchIndex() {
+        if (searchIndexing) return;
+        searchIndexing = true;
+        runner.submit("search-index", () -> {
+            if (employeeRepository.countAll() > EmployeeIndex.MAX_INDEXED_EMPLOYEES) return false;
+            searchIndex.build();
+            return true;
+        }, indexed -> {
+            searchIndexing = false;
+            if (!indexed) searchField.setPromptText("Search is not available for more than "
+                    + EmployeeIndex.MAX_INDEXED_EMPLOYEES + " employees");
+            searchField.setDisable(!indexed);
+        }, e -> {
+            searchIndexing = false;
+            status.error("Could not build the search index", e);
+        });
+    }
+
+    /**
+     * Shows the employees matching the search box, or the whole table when it is empty. The index answers
+     * on the JavaFX thread in well under a millisecond; only the rows on screen are read from the database.
+     */
+    private void runSearch() {
+        String query = searchField.getText();
+        EmployeeSearchIndex.Matches matches = searchIndex.search(query);
+        if (matches == null) {
+            if (employeeTable.getItems() != employeeList) {
+                employeeTable.setItems(employeeList);
+                status.clear();
             }
-            employeeTable.setItems(employeeList);
-        } catch (SQLException e) {
-            e.printStackTrace();
+            if (query != null && !query.isBlank() && !searchIndex.isBuilt()) status.info("Indexing employees for search...");
+            return;
         }
+        searchResults.setSelection(matches);
+        if (employeeTable.getItems() != searchResults) employeeTable.setItems(searchResults);
+        status.info(matches.size() == 1 ? "1 match." : String.format("%,d matches.", matches.size()));
     }
 
     private void showEmployeeDetails(Employee employee) {
@@ -85,12 +164,7 @@ public class EmployeeController {
             salaryField.setText(String.valueOf(employee.getSalary()));
             joinDatePicker.setValue(employee.getJoinDate());
             policyComboBox.setValue(employee.getIncrementPolicy()); // Set policy
-            for (Department d : departmentComboBox.getItems()) {
-                if (d.getName().equals(employee.getDepartment())) {
-                    departmentComboBox.setValue(d);
-                    break;
-                }
-            }
+            departmentComboBox.setValue(departmentRepository.find(employee.getDepartmentId()));
             addButton.setDisable(true);
         } else {
             clearFields();
@@ -101,42 +175,59 @@ public class EmployeeController {
     private void handleAddEmployee() {
         if (!validateInput()) return;
 
-        String sql = "INSERT INTO employees(name, department, salary, join_date, increment_policy) VALUES(?,?,?,?,?)";
-        try (Connection conn = Database.getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, nameField.getText());
-            pstmt.setString(2, departmentComboBox.getValue().getName());
-            pstmt.setDouble(3, Double.parseDouble(salaryField.getText()));
-            pstmt.setDate(4, Date.valueOf(joinDatePicker.getValue()));
-            pstmt.setString(5, policyComboBox.getValue());
-            pstmt.executeUpdate();
-
-            loadEmployeeData();
+        Employee employee = readForm(0);
+        runner.track(CommandQueue.insertEmployee(employee), saved -> {
             clearFields();
-        } catch (SQLException | NumberFormatException e) { e.printStackTrace(); }
+            status.info("Added " + saved.getName() + ".");
+        }, e -> status.error("Could not add employee", e));
     }
 
     @FXML
     private void handleUpdateEmployee() {
-        if (selectedEmployee == null || !validateInput()) return;
-
-        String sql = "UPDATE employees SET name = ?, department = ?, salary = ?, join_date = ?, increment_policy = ? WHERE id = ?";
-        try (Connection conn = Database.getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, nameField.getText());
-            pstmt.setString(2, departmentComboBox.getValue().getName());
-            pstmt.setDouble(3, Double.parseDouble(salaryField.getText()));
-            pstmt.setDate(4, Date.valueOf(joinDatePicker.getValue()));
-            pstmt.setString(5, policyComboBox.getValue());
-            pstmt.setInt(6, selectedEmployee.getId());
-            pstmt.executeUpdate();
-
-            loadEmployeeData();
+        if (selectedEmployee == null) {
+            status.error("Please select an employee to update.");
+            return;
+        }
+        if (!validateInput()) return;
+
+        Employee previous = selectedEmployee;
+        Employee employee = readForm(previous.getId());
+        employee.setVersion(previous.getVersion());
+        employee.setLastIncrementDate(previous.getLastIncrementDate());
+        runner.track(CommandQueue.updateEmployee(employee, previous), saved -> {
             clearFields();
-        } catch (SQLException | NumberFormatException e) { e.printStackTrace(); }
+            status.info("Updated " + saved.getName() + ".");
+        }, e -> {
+            if (e instanceof StaleRowException) {
+                // The table row already holds what is stored now; show it instead of the user's edit
+                showEmployeeDetails(employeeTable.getSelectionModel().getSelectedItem());
+                status.error(e.getMessage() + " Its current values are shown; make your change again.");
+            } else {
+                status.error("Could not update employee", e);
+            }
+        });
+    }
+
+    private Employee readForm(int id) {
+        return new Employee(
+                id,
+                nameField.getText(),
+                departmentComboBox.getValue().getId(),
+                Double.parseDouble(salaryField.getText()),
+                joinDatePicker.getValue(),
+                policyComboBox.getValue()
+        );
     }
 
     private boolean validateInput() {
         if (nameField.getText().isEmpty() || departmentComboBox.getValue() == null || salaryField.getText().isEmpty() || joinDatePicker.getValue() == null || policyComboBox.getValue() == null) {
-            System.out.println("All fields are required.");
+            status.error("All fields are required.");
+            return false;
+        }
+        try {
+            Double.parseDouble(salaryField.getText());
+        } catch (NumberFormatException e) {
+            status.error("Salary must be a number.");
             return false;
         }
         return true;
@@ -156,38 +247,82 @@ public class EmployeeController {
 
     // --- Other methods (loadDepartmentData, handleDelete) remain the same ---
     private void loadDepartmentData() {
-        departmentList.clear();
-        String query = "SELECT * FROM departments ORDER BY name";
-        try (Connection conn = Database.getConnection();
-             PreparedStatement preparedStatement = conn.prepareStatement(query);
-             ResultSet resultSet = preparedStatement.executeQuery()) {
-
-            while (resultSet.next()) {
-                departmentList.add(new Department(
-                        resultSet.getInt("id"),
-                        resultSet.getString("name")
-                ));
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        runner.submit("loadDepartments", () -> {
+            departments.load();
+            return null;
+        }, done -> { }, e -> status.error("Could not load departments", e));
     }
 
     @FXML
     private void handleDeleteEmployee() {
-        if (selectedEmployee == null) return;
+        if (selectedEmployee == null) {
+            status.error("Please select an employee to delete.");
+            return;
+        }
 
-        String sql = "DELETE FROM employees WHERE id = ?";
-        try (Connection conn = Database.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        Employee employee = selectedEmployee;
+        runner.track(CommandQueue.deleteEmployee(employee), deleted -> {
+            clearFields();
+            status.info("Deleted " + deleted.getName() + ".");
+        }, e -> status.error("Could not delete employee", e));
+    }
 
-            pstmt.setInt(1, selectedEmployee.getId());
-            pstmt.executeUpdate();
+    @FXML
+    private void handleShowHistory() {
+        if (selectedEmployee == null) {
+            status.error("Please select an employee to see their history.");
+            return;
+        }
+        HistoryDialog.show(employeeTable.getScene().getWindow(), ChangeRecord.Table.EMPLOYEES,
+                selectedEmployee.getId(), "Changes to " + selectedEmployee.getName());
+    }
 
-            loadEmployeeData();
-            clearFields();
-        } catch (SQLException e) {
-            e.printStackTrace();
+    @FXML
+    private void handleImportCsv() {
+        File file = csvChooser("Import Employees").showOpenDialog(employeeTable.getScene().getWindow());
+        if (file == null) return;
+
+        status.info("Importing " + file.getName() + "...");
+        runner.submit("import", () -> importer.importFile(file.toPath(),
+                rows -> Platform.runLater(() -> status.info(String.format("Importing... %,d rows read", rows)))),
+                report -> {
+                    status.info(report.toString());
+                    if (report.getRowsRejected() > 0) showRejections(report);
+                }, e -> status.error("Import failed", e));
+    }
+
+    @FXML
+    private void handleExportCsv() {
+        FileChooser chooser = csvChooser("Export Employees");
+        chooser.setInitialFileName("employees.csv");
+        File file = chooser.showSaveDialog(employeeTable.getScene().getWindow());
+        if (file == null) return;
+
+        long started = System.currentTimeMillis();
+        status.info("Exporting to " + file.getName() + "...");
+        runner.submit("export", () -> exporter.exportFile(file.toPath(),
+                rows -> Platform.runLater(() -> status.info(String.format("Exporting... %,d rows written", rows)))),
+                rows -> status.info(String.format("Exported %,d employees in %.1f s.",
+                        rows, (System.currentTimeMillis() - started) / 1000.0)),
+                e -> status.error("Export failed", e));
+    }
+
+    private static FileChooser csvChooser(String title) {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle(title);
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("CSV files", "*.csv"));
+        return chooser;
+    }
+
+    private void showRejections(ImportReport report) {
+        Alert alert = new Alert(Alert.AlertType.WARNING);
+        alert.setTitle("Import Employees");
+        alert.setHeaderText(String.format("%,d rows were skipped:", report.getRowsRejected()));
+        String lines = String.join("\n", report.getRejections());
+        if (report.getRowsRejected() > report.getRejections().size()) {
+            lines += String.format("\n... and %,d more", report.getRowsRejected() - report.getRejections().size());
         }
+        alert.getDialogPane().setContent(new ScrollPane(new Label(lines)));
+        alert.showAndWait();
     }
 }
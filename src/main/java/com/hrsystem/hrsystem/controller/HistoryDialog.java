@@ -0,0 +1,131 @@
+package com.hrsystem.hrsystem.controller;
+
+import com.hrsystem.hrsystem.repository.AuditTrail;
+import com.hrsystem.hrsystem.storage.AuditEntry;
+import com.hrsystem.hrsystem.storage.ChangeRecord;
+import com.hrsystem.hrsystem.util.AsyncRunner;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.ButtonType;
+import javafx.scene.control.Dialog;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.stage.Window;
+
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * The audit history of one row, newest first, read a page at a time as the user asks for older entries.
+ * Built in code; it is one table and a button.
+ */
+final class HistoryDialog {
+
+    private static final int PAGE_SIZE = 50;
+    private static final DateTimeFormatter WHEN = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
+            .withZone(ZoneId.systemDefault());
+
+    private final ChangeRecord.Table table;
+    private final int rowId;
+    private final ObservableList<AuditEntry> entries = FXCollections.observableArrayList();
+    private final AsyncRunner runner = new AsyncRunner();
+    private final Button olderButton = new Button("Show Older");
+    private final StatusBar status;
+    private long beforeId = Long.MAX_VALUE;
+
+    private HistoryDialog(ChangeRecord.Table table, int rowId, Label statusLabel, ProgressIndicator progress) {
+        this.table = table;
+        this.rowId = rowId;
+        this.status = new StatusBar(statusLabel, progress, runner);
+    }
+
+    static void show(Window owner, ChangeRecord.Table table, int rowId, String title) {
+        Label statusLabel = new Label();
+        ProgressIndicator progress = new ProgressIndicator();
+        progress.setPrefSize(20, 20);
+        HistoryDialog history = new HistoryDialog(table, rowId, statusLabel, progress);
+
+        TableView<AuditEntry> view = new TableView<>(history.entries);
+        view.setPlaceholder(new Label("No changes recorded."));
+        view.getColumns().add(column("When", 140, entry -> WHEN.format(entry.getChangedAt())));
+        view.getColumns().add(column("By", 90, AuditEntry::getUser));
+        view.getColumns().add(column("Action", 70, entry -> entry.getAction().name().toLowerCase(Locale.ROOT)));
+        view.getColumns().add(column("Changes", 420, HistoryDialog::describe));
+        VBox.setVgrow(view, Priority.ALWAYS);
+
+        history.olderButton.setOnAction(event -> history.loadPage());
+        HBox footer = new HBox(10, history.olderButton, progress, statusLabel);
+        footer.setAlignment(Pos.CENTER_LEFT);
+        VBox content = new VBox(10, view, footer);
+        content.setPadding(new Insets(10));
+        content.setPrefSize(760, 420);
+
+        Dialog<Void> dialog = new Dialog<>();
+        dialog.initOwner(owner);
+        dialog.setTitle("History");
+        dialog.setHeaderText(title);
+        dialog.getDialogPane().setContent(content);
+        dialog.getDialogPane().getButtonTypes().add(ButtonType.CLOSE);
+        dialog.setResizable(true);
+        dialog.setOnHidden(event -> history.runner.cancelAll());
+        history.loadPage();
+        dialog.show();
+    }
+
+    private void loadPage() {
+        olderButton.setDisable(true);
+        runner.submit("history", () -> AuditTrail.history(table, rowId, beforeId, PAGE_SIZE), page -> {
+            entries.addAll(page);
+            if (!page.isEmpty()) beforeId = page.get(page.size() - 1).getId();
+            olderButton.setDisable(page.size() < PAGE_SIZE);
+            status.clear();
+        }, e -> {
+            olderButton.setDisable(false);
+            status.error("Could not load the history", e);
+        });
+    }
+
+    private static TableColumn<AuditEntry, String> column(String title, double width,
+                                                          Function<AuditEntry, String> value) {
+        TableColumn<AuditEntry, String> column = new TableColumn<>(title);
+        column.setPrefWidth(width);
+        column.setSortable(false);
+        column.setCellValueFactory(cell -> new ReadOnlyStringWrapper(value.apply(cell.getValue())));
+        return column;
+    }
+
+    /** The fields that changed for an update, all of them otherwise. */
+    static String describe(AuditEntry entry) {
+        Map<String, String> before = AuditEntry.decode(entry.getBefore());
+        Map<String, String> after = AuditEntry.decode(entry.getAfter());
+        StringBuilder text = new StringBuilder();
+        if (entry.getAction() == AuditEntry.Action.UPDATE) {
+            for (Map.Entry<String, String> field : after.entrySet()) {
+                String old = before.get(field.getKey());
+                if (Objects.equals(old, field.getValue())) continue;
+                if (text.length() > 0) text.append("; ");
+                text.append(field.getKey()).append(": ").append(old != null ? old : "?")
+                        .append(" → ").append(field.getValue());
+            }
+            return text.length() > 0 ? text.toString() : "no visible change";
+        }
+        for (Map.Entry<String, String> field : (after.isEmpty() ? before : after).entrySet()) {
+            if (text.length() > 0) text.append("; ");
+            text.append(field.getKey()).append(": ").append(field.getValue());
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,111 @@
+package com.hrsystem.hrsystem.controller;
+
+import com.hrsystem.hrsystem.Main;
+import com.hrsystem.hrsystem.metrics.Metrics;
+import javafx.application.Platform;
+import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Scene;
+import javafx.scene.control.Label;
+import javafx.scene.control.Tab;
+import javafx.scene.control.TabPane;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The main window's tabs. Each tab's screen is parsed from FXML, and so starts its queries, only when the
+ * tab is first selected; until then, and while it loads, the tab shows a {@link Skeleton}. The window thus
+ * appears before any screen exists, and screens nobody opens cost nothing.
+ *
+ * The time from JVM start to the first window and to the first screen is recorded as the
+ * {@code ui.firstWindow} and {@code ui.firstScreen} metrics. With {@code -Dhrsystem.startup.exit=true} the
+ * application prints both and quits once the first screen is up, for timing start-up and for recording
+ * class-data-sharing archives; {@code -Dhrsystem.startup.timing=true} prints them without quitting.
+ */
+public class MainController {
+
+    @FXML private TabPane tabPane;
+
+    private final Set<Tab> loaded = new HashSet<>();
+    private boolean firstScreenShown;
+
+    @FXML
+    public void initialize() {
+        for (Tab tab : tabPane.getTabs()) {
+            tab.setContent(Skeleton.create());
+        }
+        tabPane.getSelectionModel().selectedItemProperty().addListener((obs, previous, tab) -> load(tab));
+        load(tabPane.getSelectionModel().getSelectedItem());
+    }
+
+    private void load(Tab tab) {
+        if (tab == null || !loaded.add(tab)) return;
+        // Screens query as they initialize, so wait for the schema; then let the skeleton paint first
+        Main.ready().whenComplete((ignored, e) -> Platform.runLater(() -> {
+            if (e != null) {
+                tab.setContent(new Label("The application could not start: " + e.getMessage()));
+                if (Boolean.getBoolean("hrsystem.startup.exit")) Platform.exit();
+                return;
+            }
+            afterNextPulse(tabPane.getScene(), () -> build(tab));
+        }));
+    }
+
+    private void build(Tab tab) {
+        String source = (String) tab.getUserData();
+        try (Metrics.Timer timer = Metrics.get().start("ui.tabLoad")) {
+            tab.setContent(FXMLLoader.load(Main.class.getResource(source)));
+        } catch (IOException e) {
+            System.err.println("Could not load " + source + ": " + e.getMessage());
+            tab.setContent(new Label("This screen could not be loaded: " + e.getMessage()));
+        }
+        if (!firstScreenShown) {
+            firstScreenShown = true;
+            afterNextPulse(tabPane.getScene(), () -> {
+                startupStep("ui.firstScreen", "First screen");
+                if (Boolean.getBoolean("hrsystem.startup.exit")) Platform.exit();
+            });
+        }
+    }
+
+    /**
+     * Records the time since JVM start as the metric {@code name}, and prints it when start-up is being
+     * timed.
+     */
+    public static void startupStep(String name, String description) {
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        Metrics.get().record(name, TimeUnit.MILLISECONDS.toNanos(uptime), 0);
+        if (Boolean.getBoolean("hrsystem.startup.exit") || Boolean.getBoolean("hrsystem.startup.timing")) {
+            System.out.println(description + " shown " + uptime + " ms after JVM start");
+        }
+    }
+
+    /**
+     * Runs the action on the FX thread once the next frame has been laid out and handed to the renderer,
+     * e.g. so a placeholder shows before a slow change to the scene graph. Runs it straight away without a
+     * scene.
+     */
+    public static void afterNextPulse(Scene scene, Runnable action) {
+        if (scene == null) {
+            action.run();
+            return;
+        }
+        boolean[] fired = new boolean[1];
+        Runnable[] listener = new Runnable[1];
+        listener[0] = () -> {
+            if (fired[0]) return;
+            fired[0] = true;
+            Platform.runLater(() -> {
+                // Not from inside the listener: the scene is iterating over its listeners then
+                scene.removePostLayoutPulseListener(listener[0]);
+                action.run();
+            });
+        };
+        scene.addPostLayoutPulseListener(listener[0]);
+        Platform.requestNextPulse();
+    }
+}
@@ -0,0 +1,49 @@
+package com.hrsystem.hrsystem.controller;
+
+import com.hrsystem.hrsystem.util.AsyncRunner;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+
+import java.sql.SQLException;
+
+/**
+ * The status line at the bottom of each tab: a spinner while background work runs and the last message.
+ */
+class StatusBar {
+
+    private static final String ERROR_STYLE = "-fx-text-fill: #c0392b;";
+    private static final String INFO_STYLE = "-fx-text-fill: #2c3e50;";
+
+    private final Label label;
+
+    StatusBar(Label label, ProgressIndicator progress, AsyncRunner runner) {
+        this.label = label;
+        progress.visibleProperty().bind(runner.busyProperty());
+        label.setText("");
+    }
+
+    void info(String message) {
+        label.setStyle(INFO_STYLE);
+        label.setText(message);
+    }
+
+    void error(String message) {
+        label.setStyle(ERROR_STYLE);
+        label.setText(message);
+    }
+
+    void error(String action, Throwable e) {
+        error(action + ": " + describe(e));
+    }
+
+    void clear() {
+        label.setText("");
+    }
+
+    private static String describe(Throwable e) {
+        if (e instanceof SQLException) {
+            return "database error (" + e.getMessage() + ")";
+        }
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+}
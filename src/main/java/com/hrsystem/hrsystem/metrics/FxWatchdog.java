@@ -0,0 +1,83 @@
+package com.hrsystem.hrsystem.metrics;
+
+import javafx.application.Platform;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notices when the JavaFX application thread stops processing events. A background thread keeps one
+ * heartbeat queued with {@link Platform#runLater}; if it has not run after the threshold, the thread is
+ * stalled and its current stack is logged, which names the handler that blocked it. When the heartbeat
+ * finally runs, the whole stall is logged and recorded as {@code fx.stall}.
+ */
+public final class FxWatchdog {
+
+    private static ScheduledExecutorService scheduler;
+
+    // Written by the watchdog thread, cleared by the heartbeat on the FX thread
+    private static volatile long postedAt;
+    private static volatile boolean pending;
+    private static volatile boolean reported;
+    private static volatile Thread fxThread;
+
+    private FxWatchdog() {
+    }
+
+    public static synchronized void start(long thresholdMillis) {
+        stop();
+        if (thresholdMillis <= 0) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "fx-watchdog");
+            t.setDaemon(true);
+            return t;
+        });
+        long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        long period = Math.max(10, thresholdMillis / 4);
+        scheduler.scheduleWithFixedDelay(() -> check(thresholdNanos), period, period, TimeUnit.MILLISECONDS);
+    }
+
+    public static synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        pending = false;
+    }
+
+    private static void check(long thresholdNanos) {
+        long now = System.nanoTime();
+        if (!pending) {
+            postedAt = now;
+            reported = false;
+            pending = true;
+            Platform.runLater(FxWatchdog::heartbeat);
+        } else if (!reported && now - postedAt > thresholdNanos) {
+            reported = true;
+            MetricsReporter.log(String.format("JavaFX thread blocked for %d ms so far%s",
+                    TimeUnit.NANOSECONDS.toMillis(now - postedAt), stackOf(fxThread)));
+        }
+    }
+
+    private static void heartbeat() {
+        fxThread = Thread.currentThread();
+        long blocked = System.nanoTime() - postedAt;
+        if (reported) {
+            Metrics.get().record("fx.stall", blocked, 0);
+            MetricsReporter.log(String.format("JavaFX thread responsive again after %d ms",
+                    TimeUnit.NANOSECONDS.toMillis(blocked)));
+        }
+        pending = false;
+    }
+
+    private static String stackOf(Thread thread) {
+        if (thread == null) return "";
+        StringBuilder out = new StringBuilder(", at:");
+        StackTraceElement[] stack = thread.getStackTrace();
+        for (int i = 0; i < Math.min(stack.length, 25); i++) {
+            out.append(System.lineSeparator()).append("    ").append(stack[i]);
+        }
+        return out.toString();
+    }
+}
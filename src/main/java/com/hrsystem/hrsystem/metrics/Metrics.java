@@ -0,0 +1,164 @@
+package com.hrsystem.hrsystem.metrics;
+
+import com.hrsystem.hrsystem.util.ConnectionPool;
+import com.hrsystem.hrsystem.util.Database;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Latency histograms and row counts per named operation, e.g. {@code employee.load} or
+ * {@code connection.acquire}. Recording is lock-free and costs well under a microsecond, so it stays on in
+ * production. Read through {@link #snapshot()}, the periodic {@link MetricsReporter} dump, or JMX as
+ * {@value #OBJECT_NAME}.
+ */
+public class Metrics implements MetricsMXBean {
+
+    public static final String OBJECT_NAME = "com.hrsystem:type=Metrics";
+
+    private static final Metrics INSTANCE = new Metrics();
+
+    public static Metrics get() {
+        return INSTANCE;
+    }
+
+    /** Times one call from {@link #start} until {@link #close()}. Use with try-with-resources on one thread. */
+    public final class Timer implements AutoCloseable {
+        private final String name;
+        private final long start = System.nanoTime();
+        private long rows;
+
+        private Timer(String name) {
+            this.name = name;
+        }
+
+        /** Counts one mapped row. */
+        public void row() {
+            rows++;
+        }
+
+        /** Counts the rows of a result and returns it unchanged. */
+        public <T> List<T> rows(List<T> result) {
+            rows += result.size();
+            return result;
+        }
+
+        /** Wraps a row consumer so every row it is given is counted. */
+        public <T> Consumer<T> counting(Consumer<T> action) {
+            return row -> {
+                rows++;
+                action.accept(row);
+            };
+        }
+
+        @Override
+        public void close() {
+            record(name, System.nanoTime() - start, rows);
+        }
+    }
+
+    private static final class Entry {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder rows = new LongAdder();
+    }
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder rowsMapped = new LongAdder();
+
+    Metrics() {
+    }
+
+    public Timer start(String name) {
+        return new Timer(name);
+    }
+
+    public void record(String name, long nanos, long rows) {
+        Entry entry = entries.computeIfAbsent(name, n -> new Entry());
+        entry.latency.record(nanos);
+        if (rows > 0) {
+            entry.rows.add(rows);
+            rowsMapped.add(rows);
+        }
+    }
+
+    /** Every operation recorded so far, by name. */
+    public List<QueryStats> snapshot() {
+        List<QueryStats> stats = new ArrayList<>();
+        entries.forEach((name, entry) -> {
+            LatencyHistogram latency = entry.latency;
+            stats.add(new QueryStats(name, latency.getCount(), entry.rows.sum(), latency.getTotalNanos(),
+                    latency.percentileNanos(50), latency.percentileNanos(95), latency.percentileNanos(99),
+                    latency.getMaxNanos()));
+        });
+        stats.sort(Comparator.comparing(QueryStats::getName));
+        return stats;
+    }
+
+    /** Registers with the platform MBean server so JConsole and VisualVM can read the figures. */
+    public void registerMBean() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) server.registerMBean(this, name);
+        } catch (JMException e) {
+            System.err.println("Could not register metrics with JMX: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public List<QueryStats> getQueries() {
+        return snapshot();
+    }
+
+    @Override
+    public long getRowsMapped() {
+        return rowsMapped.sum();
+    }
+
+    @Override
+    public int getPoolConnectionsInUse() {
+        ConnectionPool pool = Database.currentPool();
+        return pool != null ? pool.getInUseConnections() : 0;
+    }
+
+    @Override
+    public int getPoolConnectionsOpen() {
+        ConnectionPool pool = Database.currentPool();
+        return pool != null ? pool.getTotalConnections() : 0;
+    }
+
+    @Override
+    public long getPoolAcquireTimeouts() {
+        ConnectionPool pool = Database.currentPool();
+        return pool != null ? pool.getAcquireTimeouts() : 0;
+    }
+
+    @Override
+    public String report() {
+        StringBuilder out = new StringBuilder(String.format("%-24s %8s %10s %9s %9s %9s %9s %9s %12s%n",
+                "operation", "count", "rows", "mean ms", "p50 ms", "p95 ms", "p99 ms", "max ms", "rows/s"));
+        for (QueryStats stats : snapshot()) {
+            out.append(String.format("%-24s %8d %10d %9.2f %9.2f %9.2f %9.2f %9.2f %12.0f%n", stats.getName(),
+                    stats.getCount(), stats.getRows(), stats.getMeanMillis(), stats.getP50Millis(),
+                    stats.getP95Millis(), stats.getP99Millis(), stats.getMaxMillis(), stats.getRowsPerSecond()));
+        }
+        out.append(String.format("pool: %d open, %d in use, %d acquire timeouts",
+                getPoolConnectionsOpen(), getPoolConnectionsInUse(), getPoolAcquireTimeouts()));
+        return out.toString();
+    }
+
+    @Override
+    public void reset() {
+        entries.clear();
+        rowsMapped.reset();
+    }
+}
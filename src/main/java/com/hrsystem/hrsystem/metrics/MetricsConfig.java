@@ -0,0 +1,42 @@
+package com.hrsystem.hrsystem.metrics;
+
+import com.hrsystem.hrsystem.util.AppProperties;
+
+import java.util.Properties;
+
+/**
+ * Where and how often metrics are dumped, and when the JavaFX thread counts as stalled. Read from the same
+ * {@code hrsystem.properties} and {@code -D} overrides as the storage settings:
+ * <pre>
+ * hrsystem.metrics.file=hrsystem-metrics.log   (empty: standard error)
+ * hrsystem.metrics.interval.seconds=60         (0: no periodic dump)
+ * hrsystem.fx.stall.millis=250                 (0: no watchdog)
+ * </pre>
+ */
+public class MetricsConfig {
+
+    private String file = "hrsystem-metrics.log";
+    private long intervalSeconds = 60;
+    private long fxStallMillis = 250;
+
+    public static MetricsConfig load() {
+        return from(AppProperties.load());
+    }
+
+    public static MetricsConfig from(Properties properties) {
+        MetricsConfig config = new MetricsConfig();
+        config.setFile(properties.getProperty("hrsystem.metrics.file", config.file).trim());
+        config.setIntervalSeconds(Long.parseLong(properties.getProperty("hrsystem.metrics.interval.seconds",
+                String.valueOf(config.intervalSeconds)).trim()));
+        config.setFxStallMillis(Long.parseLong(properties.getProperty("hrsystem.fx.stall.millis",
+                String.valueOf(config.fxStallMillis)).trim()));
+        return config;
+    }
+
+    public String getFile() { return file; }
+    public void setFile(String file) { this.file = file; }
+    public long getIntervalSeconds() { return intervalSeconds; }
+    public void setIntervalSeconds(long intervalSeconds) { this.intervalSeconds = intervalSeconds; }
+    public long getFxStallMillis() { return fxStallMillis; }
+    public void setFxStallMillis(long fxStallMillis) { this.fxStallMillis = fxStallMillis; }
+}
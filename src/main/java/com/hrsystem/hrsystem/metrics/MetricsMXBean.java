@@ -0,0 +1,25 @@
+package com.hrsystem.hrsystem.metrics;
+
+import java.util.List;
+
+/**
+ * The JMX view of {@link Metrics}, registered as {@value Metrics#OBJECT_NAME}.
+ */
+public interface MetricsMXBean {
+
+    /** Latency percentiles and row counts per operation since start-up or the last {@link #reset()}. */
+    List<QueryStats> getQueries();
+
+    long getRowsMapped();
+
+    int getPoolConnectionsInUse();
+
+    int getPoolConnectionsOpen();
+
+    long getPoolAcquireTimeouts();
+
+    /** The same table the periodic dump writes. */
+    String report();
+
+    void reset();
+}
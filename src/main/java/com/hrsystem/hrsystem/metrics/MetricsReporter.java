@@ -0,0 +1,83 @@
+package com.hrsystem.hrsystem.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends the {@link Metrics#report()} table to the metrics log at a fixed interval and once more on
+ * shutdown, together with how many rows were mapped per second since the previous dump. The watchdog writes
+ * its stall reports to the same log.
+ */
+public final class MetricsReporter {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+
+    private static volatile Path file;
+    private static ScheduledExecutorService scheduler;
+    private static long lastRows;
+    private static long lastNanos;
+
+    private MetricsReporter() {
+    }
+
+    public static synchronized void start(MetricsConfig config) {
+        stop();
+        file = config.getFile().isEmpty() ? null : Path.of(config.getFile());
+        lastRows = Metrics.get().getRowsMapped();
+        lastNanos = System.nanoTime();
+        if (config.getIntervalSeconds() <= 0) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-reporter");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = config.getIntervalSeconds();
+        scheduler.scheduleAtFixedRate(MetricsReporter::dump, interval, interval, TimeUnit.SECONDS);
+    }
+
+    /** Stops the periodic dump after writing a final one. */
+    public static synchronized void stop() {
+        if (scheduler == null) return;
+        scheduler.shutdownNow();
+        scheduler = null;
+        dump();
+    }
+
+    public static synchronized void dump() {
+        Metrics metrics = Metrics.get();
+        long rows = metrics.getRowsMapped();
+        long now = System.nanoTime();
+        double seconds = (now - lastNanos) / 1e9;
+        double rate = seconds > 0 ? (rows - lastRows) / seconds : 0;
+        lastRows = rows;
+        lastNanos = now;
+        log(String.format("metrics (%.0f rows mapped/s over the last %.0f s)%n%s", rate, seconds, metrics.report()));
+    }
+
+    /** Writes a timestamped entry to the metrics log, or to standard error if there is none. */
+    public static void log(String message) {
+        String entry = LocalDateTime.now().format(TIMESTAMP) + " " + message + System.lineSeparator();
+        Path target = file;
+        if (target == null) {
+            System.err.print(entry);
+            return;
+        }
+        synchronized (MetricsReporter.class) {
+            try (Writer writer = Files.newBufferedWriter(target, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(entry);
+            } catch (IOException e) {
+                System.err.print(entry);
+            }
+        }
+    }
+}
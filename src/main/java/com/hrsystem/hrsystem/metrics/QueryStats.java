@@ -0,0 +1,46 @@
+package com.hrsystem.hrsystem.metrics;
+
+/**
+ * A snapshot of one timed operation: how often it ran, how long it took and how many rows it mapped.
+ * Durations are in milliseconds. Also the row type of the JMX {@code Queries} attribute.
+ */
+public class QueryStats {
+
+    private final String name;
+    private final long count;
+    private final long rows;
+    private final double totalMillis;
+    private final double p50Millis;
+    private final double p95Millis;
+    private final double p99Millis;
+    private final double maxMillis;
+
+    QueryStats(String name, long count, long rows, long totalNanos, long p50Nanos, long p95Nanos, long p99Nanos, long maxNanos) {
+        this.name = name;
+        this.count = count;
+        this.rows = rows;
+        this.totalMillis = totalNanos / 1e6;
+        this.p50Millis = p50Nanos / 1e6;
+        this.p95Millis = p95Nanos / 1e6;
+        this.p99Millis = p99Nanos / 1e6;
+        this.maxMillis = maxNanos / 1e6;
+    }
+
+    public String getName() { return name; }
+    public long getCount() { return count; }
+    public long getRows() { return rows; }
+    public double getTotalMillis() { return totalMillis; }
+    public double getP50Millis() { return p50Millis; }
+    public double getP95Millis() { return p95Millis; }
+    public double getP99Millis() { return p99Millis; }
+    public double getMaxMillis() { return maxMillis; }
+
+    public double getMeanMillis() {
+        return count == 0 ? 0 : totalMillis / count;
+    }
+
+    /** Rows mapped per second spent in this operation. */
+    public double getRowsPerSecond() {
+        return totalMillis == 0 ? 0 : rows / (totalMillis / 1000);
+    }
+}
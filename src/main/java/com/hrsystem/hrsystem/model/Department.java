@@ -1,9 +1,22 @@
 package com.hrsystem.hrsystem.model;
 
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.ReadOnlyStringWrapper;
+
+/**
+ * One department row. Like {@link Employee}, the JavaFX properties for table cells are created on first use
+ * and the plain fields stay the source of truth.
+ */
 public class Department {
     private int id;
     private String name;
 
+    // Created on first use by a table cell
+    private ReadOnlyIntegerWrapper idProperty;
+    private ReadOnlyStringWrapper nameProperty;
+
     public Department(int id, String name) {
         this.id = id;
         this.name = name;
@@ -15,6 +28,7 @@ public class Department {
 
     public void setId(int id) {
         this.id = id;
+        if (idProperty != null) idProperty.set(id);
     }
 
     public String getName() {
@@ -23,6 +37,17 @@ public class Department {
 
     public void setName(String name) {
         this.name = name;
+        if (nameProperty != null) nameProperty.set(name);
+    }
+
+    public ReadOnlyIntegerProperty idProperty() {
+        if (idProperty == null) idProperty = new ReadOnlyIntegerWrapper(this, "id", id);
+        return idProperty.getReadOnlyProperty();
+    }
+
+    public ReadOnlyStringProperty nameProperty() {
+        if (nameProperty == null) nameProperty = new ReadOnlyStringWrapper(this, "name", name);
+        return nameProperty.getReadOnlyProperty();
     }
 
     // This is important for the ComboBox to display the name correctly
@@ -1,36 +1,126 @@
 package com.hrsystem.hrsystem.model;
 
+import javafx.beans.property.ReadOnlyDoubleProperty;
+import javafx.beans.property.ReadOnlyDoubleWrapper;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.beans.property.ReadOnlyObjectProperty;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.ReadOnlyStringWrapper;
+
 import java.time.LocalDate;
 
+/**
+ * One employee row. The fields are plain values; the read-only JavaFX properties that table cells bind to
+ * are only created when a cell first asks for one, so the rows held by storage and indexes stay small.
+ * Once a property exists, its setter updates it too and only the cells showing that field repaint.
+ *
+ * Properties fire on the thread that calls the setter, so rows on screen must only be changed on the
+ * JavaFX thread.
+ */
 public class Employee {
 
     private int id;
     private String name;
-    private String department;
+    // id of the row in departments, or 0 for none; resolve the name through DepartmentRepository
+    private int departmentId;
     private double salary;
     private LocalDate joinDate;
     private String incrementPolicy;
+    // Bumped by every stored update; an update made from an older version is refused
+    private int version;
+    // When the salary was last raised, or null if never; the next increment interval counts from here
+    private LocalDate lastIncrementDate;
+
+    // Created on first use by a table cell
+    private ReadOnlyIntegerWrapper idProperty;
+    private ReadOnlyStringWrapper nameProperty;
+    private ReadOnlyIntegerWrapper departmentIdProperty;
+    private ReadOnlyDoubleWrapper salaryProperty;
+    private ReadOnlyObjectWrapper<LocalDate> joinDateProperty;
+    private ReadOnlyStringWrapper incrementPolicyProperty;
 
-    public Employee(int id, String name, String department, double salary, LocalDate joinDate, String incrementPolicy) {
+    public Employee(int id, String name, int departmentId, double salary, LocalDate joinDate, String incrementPolicy) {
         this.id = id;
         this.name = name;
-        this.department = department;
+        this.departmentId = departmentId;
         this.salary = salary;
         this.joinDate = joinDate;
         this.incrementPolicy = incrementPolicy;
     }
 
+    /** Copies every field of {@code other}; properties that exist fire only for the fields that changed. */
+    public void updateFrom(Employee other) {
+        setId(other.id);
+        setName(other.name);
+        setDepartmentId(other.departmentId);
+        setSalary(other.salary);
+        setJoinDate(other.joinDate);
+        setIncrementPolicy(other.incrementPolicy);
+        version = other.version;
+        lastIncrementDate = other.lastIncrementDate;
+    }
+
     // --- Getters and Setters ---
     public int getId() { return id; }
-    public void setId(int id) { this.id = id; }
+    public void setId(int id) {
+        this.id = id;
+        if (idProperty != null) idProperty.set(id);
+    }
     public String getName() { return name; }
-    public void setName(String name) { this.name = name; }
-    public String getDepartment() { return department; }
-    public void setDepartment(String department) { this.department = department; }
+    public void setName(String name) {
+        this.name = name;
+        if (nameProperty != null) nameProperty.set(name);
+    }
+    public int getDepartmentId() { return departmentId; }
+    public void setDepartmentId(int departmentId) {
+        this.departmentId = departmentId;
+        if (departmentIdProperty != null) departmentIdProperty.set(departmentId);
+    }
     public double getSalary() { return salary; }
-    public void setSalary(double salary) { this.salary = salary; }
+    public void setSalary(double salary) {
+        this.salary = salary;
+        if (salaryProperty != null) salaryProperty.set(salary);
+    }
     public LocalDate getJoinDate() { return joinDate; }
-    public void setJoinDate(LocalDate joinDate) { this.joinDate = joinDate; }
+    public void setJoinDate(LocalDate joinDate) {
+        this.joinDate = joinDate;
+        if (joinDateProperty != null) joinDateProperty.set(joinDate);
+    }
     public String getIncrementPolicy() { return incrementPolicy; }
-    public void setIncrementPolicy(String incrementPolicy) { this.incrementPolicy = incrementPolicy; }
+    public void setIncrementPolicy(String incrementPolicy) {
+        this.incrementPolicy = incrementPolicy;
+        if (incrementPolicyProperty != null) incrementPolicyProperty.set(incrementPolicy);
+    }
+    public int getVersion() { return version; }
+    public void setVersion(int version) { this.version = version; }
+    public LocalDate getLastIncrementDate() { return lastIncrementDate; }
+    public void setLastIncrementDate(LocalDate lastIncrementDate) { this.lastIncrementDate = lastIncrementDate; }
+
+    // --- Properties ---
+    public ReadOnlyIntegerProperty idProperty() {
+        if (idProperty == null) idProperty = new ReadOnlyIntegerWrapper(this, "id", id);
+        return idProperty.getReadOnlyProperty();
+    }
+    public ReadOnlyStringProperty nameProperty() {
+        if (nameProperty == null) nameProperty = new ReadOnlyStringWrapper(this, "name", name);
+        return nameProperty.getReadOnlyProperty();
+    }
+    public ReadOnlyIntegerProperty departmentIdProperty() {
+        if (departmentIdProperty == null) departmentIdProperty = new ReadOnlyIntegerWrapper(this, "departmentId", departmentId);
+        return departmentIdProperty.getReadOnlyProperty();
+    }
+    public ReadOnlyDoubleProperty salaryProperty() {
+        if (salaryProperty == null) salaryProperty = new ReadOnlyDoubleWrapper(this, "salary", salary);
+        return salaryProperty.getReadOnlyProperty();
+    }
+    public ReadOnlyObjectProperty<LocalDate> joinDateProperty() {
+        if (joinDateProperty == null) joinDateProperty = new ReadOnlyObjectWrapper<>(this, "joinDate", joinDate);
+        return joinDateProperty.getReadOnlyProperty();
+    }
+    public ReadOnlyStringProperty incrementPolicyProperty() {
+        if (incrementPolicyProperty == null) incrementPolicyProperty = new ReadOnlyStringWrapper(this, "incrementPolicy", incrementPolicy);
+        return incrementPolicyProperty.getReadOnlyProperty();
+    }
 }
@@ -0,0 +1,60 @@
+package com.hrsystem.hrsystem.repository;
+
+import com.hrsystem.hrsystem.util.AppProperties;
+
+import java.util.Properties;
+
+/**
+ * Where {@link AuditTrail} keeps its entries and how much it buffers. Read from {@code hrsystem.properties}
+ * and {@code -D} overrides:
+ * <pre>
+ * hrsystem.audit.enabled=true
+ * hrsystem.audit.file=                 (empty: the audit_log table next to the data)
+ * hrsystem.audit.user=                 (empty: the operating system user)
+ * hrsystem.audit.queue=10000           (entries not yet written before changes wait)
+ * hrsystem.audit.batch=500             (entries written per transaction at most)
+ * hrsystem.audit.wait.millis=5000      (how long a change waits for room before it is refused)
+ * </pre>
+ */
+public class AuditConfig {
+
+    private boolean enabled = true;
+    private String file = "";
+    private String user = System.getProperty("user.name", "unknown");
+    private int queueSize = 10_000;
+    private int batchSize = 500;
+    private long waitMillis = 5000;
+
+    public static AuditConfig load() {
+        return from(AppProperties.load());
+    }
+
+    public static AuditConfig from(Properties properties) {
+        AuditConfig config = new AuditConfig();
+        config.setEnabled(Boolean.parseBoolean(properties.getProperty("hrsystem.audit.enabled",
+                String.valueOf(config.enabled)).trim()));
+        config.setFile(properties.getProperty("hrsystem.audit.file", config.file).trim());
+        String user = properties.getProperty("hrsystem.audit.user", "").trim();
+        if (!user.isEmpty()) config.setUser(user);
+        config.setQueueSize(Integer.parseInt(properties.getProperty("hrsystem.audit.queue",
+                String.valueOf(config.queueSize)).trim()));
+        config.setBatchSize(Integer.parseInt(properties.getProperty("hrsystem.audit.batch",
+                String.valueOf(config.batchSize)).trim()));
+        config.setWaitMillis(Long.parseLong(properties.getProperty("hrsystem.audit.wait.millis",
+                String.valueOf(config.waitMillis)).trim()));
+        return config;
+    }
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public String getFile() { return file; }
+    public void setFile(String file) { this.file = file; }
+    public String getUser() { return user; }
+    public void setUser(String user) { this.user = user; }
+    public int getQueueSize() { return queueSize; }
+    public void setQueueSize(int queueSize) { this.queueSize = queueSize; }
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+    public long getWaitMillis() { return waitMillis; }
+    public void setWaitMillis(long waitMillis) { this.waitMillis = waitMillis; }
+}
@@ -0,0 +1,239 @@
+package com.hrsystem.hrsystem.repository;
+
+import com.hrsystem.hrsystem.metrics.Metrics;
+import com.hrsystem.hrsystem.model.Department;
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.storage.AuditEntry;
+import com.hrsystem.hrsystem.storage.AuditLog;
+import com.hrsystem.hrsystem.storage.ChangeRecord;
+import com.hrsystem.hrsystem.storage.FileAuditLog;
+import com.hrsystem.hrsystem.storage.StorageManager;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records who changed which employee or department, with the row before and after, in an {@link AuditLog}.
+ *
+ * The repositories hand each change to a bounded queue instead of writing the entry in the change's own
+ * transaction, so auditing adds no round trip to a save. A background thread drains the queue and writes
+ * whatever has piled up in one transaction, so a burst of changes costs a few commits rather than one each.
+ *
+ * Room in the queue is reserved before a change is made and released once its entry is written. When the
+ * writer falls behind, e.g. because the audit table cannot be reached, changes wait for room and are
+ * refused after {@link AuditConfig#getWaitMillis()}, so no change is ever made without its entry being kept.
+ */
+public final class AuditTrail {
+
+    private static final long RETRY_MIN_MILLIS = 500;
+    private static final long RETRY_MAX_MILLIS = 30_000;
+    private static final long POLL_MILLIS = 200;
+    private static final long STOP_WAIT_MILLIS = 10_000;
+
+    private static volatile AuditTrail running;
+
+    private final AuditLog log;
+    private final String user;
+    private final int batchSize;
+    private final long waitMillis;
+    private final int capacity;
+    private final BlockingQueue<AuditEntry> queue;
+    // One permit per entry that may still be queued or written; taken before the change, returned once written
+    private final Semaphore room;
+    private final Thread writer;
+    private volatile long stopDeadline;
+
+    private AuditTrail(AuditLog log, AuditConfig config) {
+        this.log = log;
+        this.user = config.getUser();
+        this.batchSize = Math.max(1, config.getBatchSize());
+        this.waitMillis = config.getWaitMillis();
+        this.capacity = Math.max(batchSize, config.getQueueSize());
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.room = new Semaphore(capacity);
+        this.writer = new Thread(this::write, "audit-writer");
+        writer.setDaemon(true);
+    }
+
+    /**
+     * Starts recording changes. Call after the storage is installed and before any change is made; changes
+     * made while the trail is stopped are not recorded.
+     */
+    public static synchronized void start(AuditConfig config) {
+        stop();
+        if (!config.isEnabled()) return;
+        AuditLog log = StorageManager.get().auditLog();
+        if (!config.getFile().isEmpty()) {
+            try {
+                log = new FileAuditLog(Path.of(config.getFile()));
+            } catch (IOException e) {
+                System.err.println("Could not open the audit log " + config.getFile()
+                        + ", keeping the audit trail in the database instead: " + e.getMessage());
+            }
+        }
+        AuditTrail trail = new AuditTrail(log, config);
+        trail.writer.start();
+        running = trail;
+    }
+
+    /** Writes what is still queued, giving up after a few seconds if the log cannot be written. */
+    public static synchronized void stop() {
+        AuditTrail trail = running;
+        if (trail == null) return;
+        running = null;
+        trail.stopDeadline = System.currentTimeMillis() + STOP_WAIT_MILLIS;
+        try {
+            trail.writer.join(STOP_WAIT_MILLIS + POLL_MILLIS);
+            trail.writer.interrupt();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (trail.log instanceof FileAuditLog) ((FileAuditLog) trail.log).close();
+    }
+
+    /** Entries reserved or queued but not written yet. */
+    public static int getPending() {
+        AuditTrail trail = running;
+        return trail == null ? 0 : trail.capacity - trail.room.availablePermits();
+    }
+
+    /**
+     * Reads one row's history, newest first, from wherever the trail writes it. Entries still queued are
+     * not included; they are normally written within milliseconds.
+     * @param beforeId {@link Long#MAX_VALUE} for the first page, then the id of the last entry shown.
+     */
+    public static List<AuditEntry> history(ChangeRecord.Table table, int rowId, long beforeId, int limit) throws SQLException {
+        AuditTrail trail = running;
+        AuditLog log = trail != null ? trail.log : StorageManager.get().auditLog();
+        try (Metrics.Timer timer = Metrics.get().start("audit.history")) {
+            return timer.rows(log.findByRow(table, rowId, beforeId, limit));
+        }
+    }
+
+    /**
+     * Takes room for one entry before a change is made, waiting while the queue is full.
+     * @throws SQLException if there is still no room after the configured wait; the change must not be made.
+     */
+    static Slot reserve() throws SQLException {
+        AuditTrail trail = running;
+        if (trail == null) return Slot.NONE;
+        if (!trail.room.tryAcquire()) {
+            long start = System.nanoTime();
+            boolean acquired;
+            try {
+                acquired = trail.room.tryAcquire(trail.waitMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+            Metrics.get().record("audit.wait", System.nanoTime() - start, 0);
+            if (!acquired) {
+                throw new SQLException("The audit trail is not keeping up, so the change was not made. Try again shortly.");
+            }
+        }
+        return new Slot(trail);
+    }
+
+    /** Room for one entry, taken by {@link #reserve()}: either record the change with it or cancel it. */
+    static final class Slot {
+
+        static final Slot NONE = new Slot(null);
+
+        private final AuditTrail trail;
+
+        private Slot(AuditTrail trail) {
+            this.trail = trail;
+        }
+
+        void record(ChangeRecord.Table table, int rowId, AuditEntry.Action action, String before, String after) {
+            if (trail == null) return;
+            // Cannot fail: the slot's permit guarantees room
+            trail.queue.add(new AuditEntry(table, rowId, action, trail.user, before, after));
+        }
+
+        /** The change was not made after all. */
+        void cancel() {
+            if (trail != null) trail.room.release();
+        }
+    }
+
+    static String imageOf(Employee employee) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("name", employee.getName());
+        fields.put("department", departmentLabel(employee.getDepartmentId()));
+        fields.put("salary", String.format(Locale.ROOT, "%.2f", employee.getSalary()));
+        fields.put("joinDate", employee.getJoinDate() != null ? employee.getJoinDate().toString() : "");
+        fields.put("incrementPolicy", employee.getIncrementPolicy());
+        fields.put("lastIncrementDate", employee.getLastIncrementDate() != null ? employee.getLastIncrementDate().toString() : "");
+        return AuditEntry.encode(fields);
+    }
+
+    static String imageOf(Department department) {
+        return AuditEntry.encode(Map.of("name", department.getName()));
+    }
+
+    /** The name as well as the id, so the entry still reads correctly after a rename or delete. */
+    private static String departmentLabel(int departmentId) {
+        if (departmentId == 0) return "";
+        String name = DepartmentRepository.getInstance().nameOf(departmentId);
+        return name.isEmpty() ? "#" + departmentId : name + " (#" + departmentId + ")";
+    }
+
+    private void write() {
+        List<AuditEntry> batch = new ArrayList<>(batchSize);
+        long retryMillis = RETRY_MIN_MILLIS;
+        while (true) {
+            if (batch.isEmpty()) {
+                AuditEntry first;
+                try {
+                    first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    break;
+                }
+                if (first == null) {
+                    if (stopDeadline != 0) break;
+                    continue;
+                }
+                batch.add(first);
+                // Whatever queued up while the last batch was being written goes out in the same transaction
+                queue.drainTo(batch, batchSize - 1);
+            }
+            try (Metrics.Timer timer = Metrics.get().start("audit.write")) {
+                log.append(batch);
+                timer.rows(batch);
+            } catch (SQLException e) {
+                if (stopDeadline != 0 && System.currentTimeMillis() >= stopDeadline) {
+                    System.err.println("Stopped with " + (batch.size() + queue.size())
+                            + " audit entries that could not be written: " + e.getMessage());
+                    return;
+                }
+                System.err.println("Could not write " + batch.size() + " audit entries, retrying in "
+                        + retryMillis + " ms: " + e.getMessage());
+                long sleep = stopDeadline != 0 ? Math.min(retryMillis, stopDeadline - System.currentTimeMillis()) : retryMillis;
+                try {
+                    Thread.sleep(Math.max(1, sleep));
+                } catch (InterruptedException interrupted) {
+                    break;
+                }
+                retryMillis = Math.min(retryMillis * 2, RETRY_MAX_MILLIS);
+                continue;
+            }
+            room.release(batch.size());
+            batch.clear();
+            retryMillis = RETRY_MIN_MILLIS;
+        }
+        if (!batch.isEmpty() || !queue.isEmpty()) {
+            System.err.println("Stopped with " + (batch.size() + queue.size()) + " audit entries not written.");
+        }
+    }
+}
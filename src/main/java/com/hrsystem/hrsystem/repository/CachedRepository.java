@@ -0,0 +1,113 @@
+package com.hrsystem.hrsystem.repository;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Write-through cache of one table keyed by id. The table is read once per session; afterwards every
+ * committed insert, update and delete, whether saved through the {@link CommandQueue} or picked up by the
+ * {@link ChangePoller}, is applied to the cache and passed on to the listeners.
+ */
+public abstract class CachedRepository<T> {
+
+    private final Map<Integer, T> cache = new HashMap<>();
+    private final List<RepositoryListener<T>> listeners = new CopyOnWriteArrayList<>();
+    private boolean loaded;
+
+    protected abstract int idOf(T item);
+
+    /** Reads every row of the table. Only called when the cache is empty or being refreshed. */
+    protected abstract List<T> loadAll() throws SQLException;
+
+    /** The order rows are presented in, matching the ORDER BY the screens used before. */
+    public abstract Comparator<T> order();
+
+    public synchronized List<T> findAll() throws SQLException {
+        ensureLoaded();
+        List<T> items = new ArrayList<>(cache.values());
+        items.sort(order());
+        return items;
+    }
+
+    public synchronized T findById(int id) throws SQLException {
+        ensureLoaded();
+        return cache.get(id);
+    }
+
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /** Drops the cache and reads the table again, e.g. after another client changed it. */
+    public synchronized void reload() throws SQLException {
+        loaded = false;
+        cache.clear();
+        ensureLoaded();
+    }
+
+    /**
+     * Forgets the cache after a bulk change that bypassed the repository. The next read loads the table again.
+     */
+    public void invalidate() {
+        synchronized (this) {
+            loaded = false;
+            cache.clear();
+        }
+        for (RepositoryListener<T> listener : listeners) {
+            listener.onInvalidated();
+        }
+    }
+
+    private void ensureLoaded() throws SQLException {
+        if (loaded) return;
+        List<T> items = loadAll();
+        for (T item : items) {
+            cache.put(idOf(item), item);
+        }
+        loaded = true;
+        items.sort(order());
+        for (RepositoryListener<T> listener : listeners) {
+            listener.onReloaded(items);
+        }
+    }
+
+    /**
+     * Records a row that has just been inserted. Listeners are told even when the cache itself has not been
+     * loaded, since paged screens read the table directly and only need the change.
+     */
+    protected synchronized void cacheAdded(T item) {
+        if (loaded) cache.put(idOf(item), item);
+        for (RepositoryListener<T> listener : listeners) {
+            listener.onAdded(item);
+        }
+    }
+
+    /** Records a row that has just been updated. */
+    protected synchronized void cacheUpdated(T item) {
+        T previous = loaded ? cache.put(idOf(item), item) : null;
+        for (RepositoryListener<T> listener : listeners) {
+            listener.onUpdated(previous, item);
+        }
+    }
+
+    /** Records a row that has just been deleted. */
+    protected synchronized void cacheRemoved(int id) {
+        T previous = loaded ? cache.remove(id) : null;
+        for (RepositoryListener<T> listener : listeners) {
+            listener.onRemoved(id, previous);
+        }
+    }
+
+    public void addListener(RepositoryListener<T> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(RepositoryListener<T> listener) {
+        listeners.remove(listener);
+    }
+}
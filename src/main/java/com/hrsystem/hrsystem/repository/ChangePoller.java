@@ -0,0 +1,234 @@
+package com.hrsystem.hrsystem.repository;
+
+import com.hrsystem.hrsystem.metrics.Metrics;
+import com.hrsystem.hrsystem.model.Department;
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.storage.ChangeLog;
+import com.hrsystem.hrsystem.storage.ChangeRecord;
+import com.hrsystem.hrsystem.storage.StorageManager;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps this client's repositories in step with what other clients write to the same database. At a fixed
+ * interval it reads the {@link ChangeLog} entries after the last version it has seen, re-reads the rows they
+ * name with one query per table, and applies them through the repositories, so caches and screens update
+ * exactly as after a local edit. When nothing changed, a poll is one primary-key range scan that finds nothing.
+ *
+ * An entry can commit below a version that has already been read, so versions that were skipped over are
+ * looked up again on later polls until they show up or are old enough to have been rolled back.
+ */
+public final class ChangePoller {
+
+    private static final int BATCH_SIZE = 1000;
+    // Beyond this many changed rows in one poll, re-reading the table is cheaper than fetching them by id
+    private static final int RELOAD_THRESHOLD = 5000;
+    private static final int MAX_GAPS = 1000;
+    // Far longer than any single write should stay uncommitted
+    private static final long GAP_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final long PRUNE_INTERVAL_NANOS = TimeUnit.HOURS.toNanos(1);
+
+    private static ScheduledExecutorService scheduler;
+    private static Duration retention = Duration.ofDays(7);
+    // The newest version applied, or -1 while the log has not been read
+    private static long lastSeen = -1;
+    // Skipped versions that may still commit, with when they were skipped
+    private static final TreeMap<Long, Long> gaps = new TreeMap<>();
+    private static long lastPrune;
+
+    private ChangePoller() {
+    }
+
+    /** Starts polling. Call before any screen loads, so nothing committed in between is missed. */
+    public static synchronized void start(SyncConfig config) {
+        stop();
+        if (config.getIntervalMillis() <= 0) return;
+        retention = Duration.ofDays(config.getRetentionDays());
+        lastPrune = System.nanoTime() - PRUNE_INTERVAL_NANOS;
+        gaps.clear();
+        try {
+            // Not live yet: the first poll once it is resynchronises
+            lastSeen = StorageManager.get().isLive() ? log().latestVersion() : -1;
+        } catch (SQLException e) {
+            lastSeen = -1;
+            System.err.println("Could not read the change log: " + e.getMessage());
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "change-poller");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = config.getIntervalMillis();
+        scheduler.scheduleWithFixedDelay(ChangePoller::poll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public static synchronized void stop() {
+        if (scheduler == null) return;
+        scheduler.shutdownNow();
+        scheduler = null;
+    }
+
+    /** Applies every change other clients committed since the last poll. */
+    public static synchronized void poll() {
+        try (Metrics.Timer timer = Metrics.get().start("sync.poll")) {
+            if (!StorageManager.get().isLive()) {
+                // Reads come from a local copy; once they come from the tables again, start over from there
+                lastSeen = -1;
+                return;
+            }
+            ChangeLog log = log();
+            long now = System.nanoTime();
+            if (lastSeen < 0) {
+                // Whatever changed while the log could not be read is unknown
+                resync(log);
+                return;
+            }
+            if (now - lastPrune >= PRUNE_INTERVAL_NANOS) {
+                lastPrune = now;
+                log.prune(retention);
+                if (log.latestVersion() < lastSeen) {
+                    // The log was emptied and its versions started over
+                    resync(log);
+                    return;
+                }
+            }
+
+            // Late entries go in with the first batch, so an insert and a delete of the same row cancel out
+            List<ChangeRecord> late = new ArrayList<>();
+            if (!gaps.isEmpty()) {
+                late = timer.rows(log.readVersions(gaps.keySet()));
+                gaps.values().removeIf(skippedAt -> now - skippedAt > GAP_TIMEOUT_NANOS);
+            }
+
+            boolean first = true;
+            List<ChangeRecord> batch;
+            do {
+                batch = timer.rows(log.readAfter(lastSeen, BATCH_SIZE));
+                List<ChangeRecord> changes = batch;
+                if (first) {
+                    first = false;
+                    if (!batch.isEmpty() && batch.get(0).getVersion() > lastSeen + 1 && log.oldestVersion() > lastSeen) {
+                        // Entries this client never read have been pruned
+                        resync(log);
+                        return;
+                    }
+                    changes = new ArrayList<>(late);
+                    changes.addAll(batch);
+                }
+                apply(changes);
+                for (ChangeRecord record : late) {
+                    gaps.remove(record.getVersion());
+                }
+                late = new ArrayList<>();
+                for (ChangeRecord record : batch) {
+                    long version = record.getVersion();
+                    for (long skipped = Math.max(lastSeen + 1, version - MAX_GAPS); skipped < version; skipped++) {
+                        gaps.put(skipped, now);
+                    }
+                    lastSeen = version;
+                }
+            } while (batch.size() == BATCH_SIZE);
+            while (gaps.size() > MAX_GAPS) {
+                gaps.pollFirstEntry();
+            }
+        } catch (SQLException | RuntimeException e) {
+            System.err.println("Could not pick up changes from other clients: " + e.getMessage());
+        }
+    }
+
+    private static ChangeLog log() {
+        return StorageManager.get().changeLog();
+    }
+
+    private static void resync(ChangeLog log) throws SQLException {
+        lastSeen = log.latestVersion();
+        gaps.clear();
+        DepartmentRepository.getInstance().invalidate();
+        EmployeeRepository.getInstance().invalidate();
+    }
+
+    /**
+     * Folds the entries into one change per row, then applies departments before employees so new employee
+     * rows never reference a department this client has not heard of.
+     */
+    private static void apply(List<ChangeRecord> records) throws SQLException {
+        Map<Integer, ChangeRecord.Kind> departments = new LinkedHashMap<>();
+        Map<Integer, ChangeRecord.Kind> employees = new LinkedHashMap<>();
+        boolean reloadDepartments = false;
+        boolean reloadEmployees = false;
+        for (ChangeRecord record : records) {
+            if (record.isLocal()) continue;
+            boolean isDepartment = record.getTable() == ChangeRecord.Table.DEPARTMENTS;
+            if (record.getKind() == ChangeRecord.Kind.RELOAD) {
+                if (isDepartment) reloadDepartments = true;
+                else reloadEmployees = true;
+            } else {
+                (isDepartment ? departments : employees).merge(record.getRowId(), record.getKind(), ChangePoller::combine);
+            }
+        }
+
+        DepartmentRepository departmentRepository = DepartmentRepository.getInstance();
+        if (reloadDepartments) {
+            departmentRepository.invalidate();
+        } else if (!departments.isEmpty()) {
+            Map<Integer, Department> current = new HashMap<>();
+            // Departments are few; one read of the table is cheaper than a query per row
+            for (Department department : departmentRepository.loadAll()) {
+                current.put(department.getId(), department);
+            }
+            for (Map.Entry<Integer, ChangeRecord.Kind> change : departments.entrySet()) {
+                applyRow(departmentRepository, change.getKey(), change.getValue(), current.get(change.getKey()));
+            }
+        }
+
+        EmployeeRepository employeeRepository = EmployeeRepository.getInstance();
+        if (reloadEmployees || employees.size() > RELOAD_THRESHOLD) {
+            employeeRepository.invalidate();
+        } else if (!employees.isEmpty()) {
+            int[] ids = employees.entrySet().stream()
+                    .filter(change -> change.getValue() != ChangeRecord.Kind.DELETE)
+                    .mapToInt(Map.Entry::getKey)
+                    .toArray();
+            Map<Integer, Employee> current = new HashMap<>();
+            for (int from = 0; from < ids.length; from += BATCH_SIZE) {
+                int[] chunk = Arrays.copyOfRange(ids, from, Math.min(ids.length, from + BATCH_SIZE));
+                for (Employee employee : employeeRepository.findByIds(chunk)) {
+                    current.put(employee.getId(), employee);
+                }
+            }
+            for (Map.Entry<Integer, ChangeRecord.Kind> change : employees.entrySet()) {
+                applyRow(employeeRepository, change.getKey(), change.getValue(), current.get(change.getKey()));
+            }
+        }
+    }
+
+    /** An insert followed by updates is still an insert; an insert followed by a delete is nothing at all. */
+    private static ChangeRecord.Kind combine(ChangeRecord.Kind earlier, ChangeRecord.Kind later) {
+        if (earlier == ChangeRecord.Kind.INSERT) {
+            return later == ChangeRecord.Kind.DELETE ? null : ChangeRecord.Kind.INSERT;
+        }
+        return later;
+    }
+
+    /** @param row the row as stored now, or null if it has been deleted since. */
+    private static <T> void applyRow(CachedRepository<T> repository, int id, ChangeRecord.Kind kind, T row) {
+        if (row == null) {
+            if (kind != ChangeRecord.Kind.INSERT) repository.cacheRemoved(id);
+        } else if (kind == ChangeRecord.Kind.INSERT) {
+            repository.cacheAdded(row);
+        } else {
+            repository.cacheUpdated(row);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.hrsystem.hrsystem.repository;
+
+import com.hrsystem.hrsystem.util.AppProperties;
+
+import java.util.Properties;
+
+/**
+ * How {@link CommandQueue} groups saves into transactions. Read from {@code hrsystem.properties} and
+ * {@code -D} overrides:
+ * <pre>
+ * hrsystem.commands.window.millis=10   (how long a save waits for others to share its commit; 0: none)
+ * hrsystem.commands.batch=100          (saves per transaction at most)
+ * </pre>
+ */
+public class CommandConfig {
+
+    private long windowMillis = 10;
+    private int batchSize = 100;
+
+    public static CommandConfig load() {
+        return from(AppProperties.load());
+    }
+
+    public static CommandConfig from(Properties properties) {
+        CommandConfig config = new CommandConfig();
+        config.setWindowMillis(Long.parseLong(properties.getProperty("hrsystem.commands.window.millis",
+                String.valueOf(config.windowMillis)).trim()));
+        config.setBatchSize(Integer.parseInt(properties.getProperty("hrsystem.commands.batch",
+                String.valueOf(config.batchSize)).trim()));
+        return config;
+    }
+
+    public long getWindowMillis() { return windowMillis; }
+    public void setWindowMillis(long windowMillis) { this.windowMillis = windowMillis; }
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+}
@@ -0,0 +1,439 @@
+package com.hrsystem.hrsystem.repository;
+
+import com.hrsystem.hrsystem.metrics.Metrics;
+import com.hrsystem.hrsystem.model.Department;
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.storage.AuditEntry;
+import com.hrsystem.hrsystem.storage.ChangeRecord;
+import com.hrsystem.hrsystem.storage.StaleRowException;
+import com.hrsystem.hrsystem.storage.StorageManager;
+import com.hrsystem.hrsystem.storage.WriteBatch;
+
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carries the screens' saves to the database in groups. A save waits a few milliseconds for others, and
+ * everything that arrived meanwhile is written in one transaction with one commit, so a burst of data entry
+ * costs one round trip per save and one commit per group instead of a commit per save.
+ *
+ * Each save still succeeds or fails on its own (see {@link WriteBatch}) and reports back through its own
+ * future. A later edit of an employee or department that is still waiting replaces the waiting one, so
+ * only the last values are written. When the database rolls back a whole group, its saves are repeated one
+ * transaction each. Caches, screens and the audit trail hear about a save only once it is committed.
+ */
+public final class CommandQueue {
+
+    private static final long STOP_WAIT_MILLIS = 10_000;
+
+    private static volatile CommandQueue running;
+
+    private final long windowNanos;
+    private final int batchSize;
+    private final ArrayDeque<Command<?>> pending = new ArrayDeque<>();
+    private final Thread worker;
+    private boolean stopping;
+
+    private CommandQueue(CommandConfig config) {
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, config.getWindowMillis()));
+        this.batchSize = Math.max(1, config.getBatchSize());
+        this.worker = new Thread(this::work, "command-queue");
+        worker.setDaemon(true);
+    }
+
+    public static synchronized void start(CommandConfig config) {
+        stop();
+        CommandQueue queue = new CommandQueue(config);
+        queue.worker.start();
+        running = queue;
+    }
+
+    /** Writes the saves still waiting, then stops; later saves are refused. */
+    public static synchronized void stop() {
+        CommandQueue queue = running;
+        if (queue == null) return;
+        running = null;
+        synchronized (queue.pending) {
+            queue.stopping = true;
+            queue.pending.notifyAll();
+        }
+        try {
+            queue.worker.join(STOP_WAIT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** @return the stored employee, carrying its new id. */
+    public static CompletableFuture<Employee> insertEmployee(Employee employee) {
+        return submit(new InsertEmployee(employee));
+    }
+
+    /**
+     * Saves {@code employee} if nobody else has changed the row since its version was read; fails with a
+     * {@link StaleRowException} otherwise, after the screens have been given the current row.
+     * @param previous the row as it was read at that version, for the audit trail.
+     */
+    public static CompletableFuture<Employee> updateEmployee(Employee employee, Employee previous) {
+        return submit(new UpdateEmployee(employee, previous));
+    }
+
+    public static CompletableFuture<Employee> deleteEmployee(Employee employee) {
+        return submit(new DeleteEmployee(employee));
+    }
+
+    public static CompletableFuture<Department> insertDepartment(String name) {
+        return submit(new InsertDepartment(name));
+    }
+
+    public static CompletableFuture<Department> renameDepartment(Department department, String name) {
+        return submit(new RenameDepartment(department, name));
+    }
+
+    /** Fails without deleting if any employee is assigned to the department. */
+    public static CompletableFuture<Department> deleteDepartment(Department department) {
+        return submit(new DeleteDepartment(department));
+    }
+
+    private static <T> CompletableFuture<T> submit(Command<T> command) {
+        CommandQueue queue = running;
+        if (queue == null) {
+            command.future.completeExceptionally(new IllegalStateException("Saving is not available while the application starts or stops."));
+            return command.future;
+        }
+        synchronized (queue.pending) {
+            if (queue.stopping) {
+                command.future.completeExceptionally(new IllegalStateException("The application is shutting down."));
+                return command.future;
+            }
+            for (Command<?> waiting : queue.pending) {
+                if (waiting.absorb(command)) return command.future;
+            }
+            queue.pending.add(command);
+            queue.pending.notifyAll();
+        }
+        return command.future;
+    }
+
+    private void work() {
+        List<Command<?>> batch = new ArrayList<>(batchSize);
+        while (true) {
+            synchronized (pending) {
+                try {
+                    while (pending.isEmpty() && !stopping) {
+                        pending.wait();
+                    }
+                    if (pending.isEmpty()) return;
+                    // Give other saves the window to join this commit
+                    long deadline = System.nanoTime() + windowNanos;
+                    long left;
+                    while (pending.size() < batchSize && !stopping && (left = deadline - System.nanoTime()) > 0) {
+                        TimeUnit.NANOSECONDS.timedWait(pending, left);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                while (batch.size() < batchSize && !pending.isEmpty()) {
+                    batch.add(pending.poll());
+                }
+            }
+            try {
+                execute(batch);
+            } catch (RuntimeException e) {
+                System.err.println("A group of saves failed unexpectedly: " + e);
+                for (Command<?> command : batch) {
+                    command.fail(e);
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    private static void execute(List<Command<?>> batch) {
+        long start = System.nanoTime();
+        List<Command<?>> accepted = new ArrayList<>(batch.size());
+        for (Command<?> command : batch) {
+            try {
+                command.audit = AuditTrail.reserve();
+                accepted.add(command);
+            } catch (SQLException e) {
+                command.fail(e);
+            }
+        }
+        if (accepted.isEmpty()) return;
+
+        try {
+            runInOneTransaction(accepted);
+        } catch (SQLException groupFailure) {
+            if (accepted.size() == 1) {
+                accepted.get(0).failure = groupFailure;
+            } else {
+                // Nothing was kept; repeat each save alone so one cannot fail the others
+                for (Command<?> command : accepted) {
+                    try {
+                        runInOneTransaction(List.of(command));
+                    } catch (SQLException e) {
+                        command.failure = e;
+                    }
+                }
+            }
+        }
+        for (Command<?> command : accepted) {
+            command.finish();
+        }
+        Metrics.get().record("commands.batch", System.nanoTime() - start, accepted.size());
+    }
+
+    /** @throws SQLException if the transaction could not be opened or committed; then nothing was kept. */
+    private static void runInOneTransaction(List<Command<?>> commands) throws SQLException {
+        try (WriteBatch transaction = StorageManager.get().openWriteBatch()) {
+            for (Command<?> command : commands) {
+                command.failure = null;
+                try {
+                    command.execute(transaction);
+                } catch (SQLException | RuntimeException e) {
+                    command.failure = e;
+                }
+            }
+            transaction.commit();
+        }
+    }
+
+    /** One save, with its outcome and the futures of the saves it replaced. */
+    private abstract static class Command<T> {
+
+        final CompletableFuture<T> future = new CompletableFuture<>();
+        final List<CompletableFuture<T>> replaced = new ArrayList<>(0);
+        final long submitted = System.nanoTime();
+        final String metric;
+        AuditTrail.Slot audit;
+        Exception failure;
+        T result;
+
+        Command(String metric) {
+            this.metric = metric;
+        }
+
+        /** Writes the change inside the transaction and keeps the result for {@link #committed()}. */
+        abstract void execute(WriteBatch transaction) throws SQLException;
+
+        /** Passes the committed change on to caches, screens and the audit trail. */
+        abstract void committed();
+
+        /** Called with the waiting list locked. @return whether {@code later} was merged into this one. */
+        boolean absorb(Command<?> later) {
+            return false;
+        }
+
+        void rejected(Exception e) {
+        }
+
+        void finish() {
+            if (failure == null) {
+                committed();
+                complete(result, null);
+            } else {
+                audit.cancel();
+                rejected(failure);
+                complete(null, failure);
+            }
+        }
+
+        void fail(Exception e) {
+            complete(null, e);
+        }
+
+        private void complete(T value, Exception e) {
+            Metrics.get().record(metric, System.nanoTime() - submitted, 1);
+            List<CompletableFuture<T>> all = new ArrayList<>(replaced);
+            all.add(future);
+            for (CompletableFuture<T> f : all) {
+                if (e == null) {
+                    f.complete(value);
+                } else {
+                    f.completeExceptionally(e);
+                }
+            }
+        }
+
+        static EmployeeRepository employees() {
+            return EmployeeRepository.getInstance();
+        }
+
+        static DepartmentRepository departments() {
+            return DepartmentRepository.getInstance();
+        }
+    }
+
+    private static final class InsertEmployee extends Command<Employee> {
+        private final Employee employee;
+
+        InsertEmployee(Employee employee) {
+            super("command.employee.insert");
+            this.employee = employee;
+        }
+
+        @Override
+        void execute(WriteBatch transaction) throws SQLException {
+            employee.setId(transaction.insertEmployee(employee));
+            employee.setVersion(0);
+            result = employee;
+        }
+
+        @Override
+        void committed() {
+            audit.record(ChangeRecord.Table.EMPLOYEES, employee.getId(), AuditEntry.Action.INSERT, null, AuditTrail.imageOf(employee));
+            employees().cacheAdded(employee);
+        }
+    }
+
+    private static final class UpdateEmployee extends Command<Employee> {
+        private Employee employee;
+        private final Employee previous;
+
+        UpdateEmployee(Employee employee, Employee previous) {
+            super("command.employee.update");
+            this.employee = employee;
+            this.previous = previous;
+        }
+
+        /** A later edit made from the same version replaces this one's values; the before image stays. */
+        @Override
+        boolean absorb(Command<?> later) {
+            if (!(later instanceof UpdateEmployee)) return false;
+            UpdateEmployee update = (UpdateEmployee) later;
+            if (update.employee.getId() != employee.getId() || update.employee.getVersion() != employee.getVersion()) return false;
+            employee = update.employee;
+            replaced.add(update.future);
+            return true;
+        }
+
+        @Override
+        void execute(WriteBatch transaction) throws SQLException {
+            transaction.updateEmployee(employee);
+            result = employee;
+        }
+
+        @Override
+        void committed() {
+            employee.setVersion(employee.getVersion() + 1);
+            audit.record(ChangeRecord.Table.EMPLOYEES, employee.getId(), AuditEntry.Action.UPDATE,
+                    AuditTrail.imageOf(previous), AuditTrail.imageOf(employee));
+            employees().cacheUpdated(employee);
+        }
+
+        @Override
+        void rejected(Exception e) {
+            if (!(e instanceof StaleRowException)) return;
+            try {
+                employees().refresh(employee.getId());
+            } catch (SQLException refreshFailure) {
+                e.addSuppressed(refreshFailure);
+            }
+        }
+    }
+
+    private static final class DeleteEmployee extends Command<Employee> {
+        private final Employee employee;
+
+        DeleteEmployee(Employee employee) {
+            super("command.employee.delete");
+            this.employee = employee;
+        }
+
+        @Override
+        void execute(WriteBatch transaction) throws SQLException {
+            transaction.deleteEmployee(employee.getId());
+            result = employee;
+        }
+
+        @Override
+        void committed() {
+            audit.record(ChangeRecord.Table.EMPLOYEES, employee.getId(), AuditEntry.Action.DELETE, AuditTrail.imageOf(employee), null);
+            employees().cacheRemoved(employee.getId());
+        }
+    }
+
+    private static final class InsertDepartment extends Command<Department> {
+        private final String name;
+
+        InsertDepartment(String name) {
+            super("command.department.insert");
+            this.name = name;
+        }
+
+        @Override
+        void execute(WriteBatch transaction) throws SQLException {
+            result = new Department(transaction.insertDepartment(name), name);
+        }
+
+        @Override
+        void committed() {
+            audit.record(ChangeRecord.Table.DEPARTMENTS, result.getId(), AuditEntry.Action.INSERT, null, AuditTrail.imageOf(result));
+            departments().cacheAdded(result);
+        }
+    }
+
+    private static final class RenameDepartment extends Command<Department> {
+        private final Department department;
+        private String name;
+
+        RenameDepartment(Department department, String name) {
+            super("command.department.rename");
+            this.department = department;
+            this.name = name;
+        }
+
+        @Override
+        boolean absorb(Command<?> later) {
+            if (!(later instanceof RenameDepartment)) return false;
+            RenameDepartment rename = (RenameDepartment) later;
+            if (rename.department.getId() != department.getId()) return false;
+            name = rename.name;
+            replaced.add(rename.future);
+            return true;
+        }
+
+        @Override
+        void execute(WriteBatch transaction) throws SQLException {
+            transaction.renameDepartment(department.getId(), name);
+            result = new Department(department.getId(), name);
+        }
+
+        @Override
+        void committed() {
+            audit.record(ChangeRecord.Table.DEPARTMENTS, department.getId(), AuditEntry.Action.UPDATE,
+                    AuditTrail.imageOf(department), AuditTrail.imageOf(result));
+            departments().cacheUpdated(result);
+        }
+    }
+
+    private static final class DeleteDepartment extends Command<Department> {
+        private final Department department;
+
+        DeleteDepartment(Department department) {
+            super("command.department.delete");
+            this.department = department;
+        }
+
+        @Override
+        void execute(WriteBatch transaction) throws SQLException {
+            // Employees added in this transaction are not seen here; the foreign key still refuses the delete
+            if (employees().isDepartmentInUse(department.getId())) {
+                throw new IllegalStateException("It is currently assigned to one or more employees.");
+            }
+            transaction.deleteDepartment(department.getId());
+            result = department;
+        }
+
+        @Override
+        void committed() {
+            audit.record(ChangeRecord.Table.DEPARTMENTS, department.getId(), AuditEntry.Action.DELETE, AuditTrail.imageOf(department), null);
+            departments().cacheRemoved(department.getId());
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.hrsystem.hrsystem.repository;
+
+import com.hrsystem.hrsystem.metrics.Metrics;
+import com.hrsystem.hrsystem.model.Department;
+import com.hrsystem.hrsystem.storage.DepartmentStore;
+import com.hrsystem.hrsystem.storage.StorageManager;
+
+import java.sql.SQLException;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Shared access to the department table for every controller, stored in the configured
+ * {@link com.hrsystem.hrsystem.storage.Storage}.
+ *
+ * Employees reference departments by id. The repository doubles as the id-to-department dictionary that
+ * resolves those ids: {@link #find(int)} and {@link #nameOf(int)} read an immutable snapshot without locking
+ * or touching the database, so table cells can call them while rendering.
+ */
+public class DepartmentRepository extends CachedRepository<Department> {
+
+    private static final DepartmentRepository INSTANCE = new DepartmentRepository();
+
+    public static DepartmentRepository getInstance() {
+        return INSTANCE;
+    }
+
+    // Replaced wholesale on every change; there are few departments and they rarely change
+    private volatile Map<Integer, Department> dictionary = Map.of();
+
+    private DepartmentRepository() {
+        addListener(new RepositoryListener<>() {
+            @Override
+            public void onReloaded(List<Department> items) {
+                Map<Integer, Department> all = new HashMap<>();
+                for (Department department : items) {
+                    all.put(department.getId(), department);
+                }
+                dictionary = Map.copyOf(all);
+            }
+
+            @Override
+            public void onInvalidated() {
+                // Keep resolving names until the next load replaces the snapshot
+            }
+
+            @Override
+            public void onAdded(Department item) {
+                put(item);
+            }
+
+            @Override
+            public void onUpdated(Department previous, Department current) {
+                put(current);
+            }
+
+            @Override
+            public void onRemoved(int id, Department previous) {
+                Map<Integer, Department> copy = new HashMap<>(dictionary);
+                copy.remove(id);
+                dictionary = Map.copyOf(copy);
+            }
+
+            private void put(Department department) {
+                Map<Integer, Department> copy = new HashMap<>(dictionary);
+                copy.put(department.getId(), department);
+                dictionary = Map.copyOf(copy);
+            }
+        });
+    }
+
+    /** Loads the dictionary if no screen has done so yet. Call before resolving ids off the JavaFX thread. */
+    public void ensureDictionary() throws SQLException {
+        if (!isLoaded()) findAll();
+    }
+
+    /** @return the department with this id, or null if it is unknown or the dictionary is not loaded. */
+    public Department find(int id) {
+        return dictionary.get(id);
+    }
+
+    /** @return the name of the department with this id, or an empty string if there is none. */
+    public String nameOf(int id) {
+        Department department = dictionary.get(id);
+        return department != null ? department.getName() : "";
+    }
+
+    @Override
+    protected int idOf(Department department) {
+        return department.getId();
+    }
+
+    @Override
+    public Comparator<Department> order() {
+        return Comparator.comparing(Department::getName, String.CASE_INSENSITIVE_ORDER)
+                .thenComparingInt(Department::getId);
+    }
+
+    private static DepartmentStore store() {
+        return StorageManager.get().departments();
+    }
+
+    private static Metrics.Timer time(String operation) {
+        return Metrics.get().start(operation);
+    }
+
+    @Override
+    protected List<Department> loadAll() throws SQLException {
+        try (Metrics.Timer timer = time("department.load")) {
+            return timer.rows(store().findAll());
+        }
+    }
+}
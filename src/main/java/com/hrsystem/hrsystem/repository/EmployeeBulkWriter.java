@@ -0,0 +1,58 @@
+package com.hrsystem.hrsystem.repository;
+
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.storage.AuditEntry;
+import com.hrsystem.hrsystem.storage.BulkInsert;
+import com.hrsystem.hrsystem.storage.ChangeRecord;
+
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * Inserts many employees in batches, committing every {@code chunkSize} rows. Rows added since the last
+ * commit are rolled back if the writer is closed without committing them.
+ *
+ * Writes bypass the repository cache; {@link #close()} invalidates it so every screen re-reads the table.
+ * The audit trail gets one entry for the whole import, with the number of rows committed.
+ */
+public class EmployeeBulkWriter implements AutoCloseable {
+
+    private final EmployeeRepository repository;
+    private final BulkInsert insert;
+    private final AuditTrail.Slot audit;
+
+    EmployeeBulkWriter(EmployeeRepository repository, BulkInsert insert, AuditTrail.Slot audit) {
+        this.repository = repository;
+        this.insert = insert;
+        this.audit = audit;
+    }
+
+    public void add(Employee employee) throws SQLException {
+        insert.add(employee);
+    }
+
+    /** Sends any pending batch and commits everything added so far. */
+    public void commit() throws SQLException {
+        insert.commit();
+    }
+
+    /** Rows committed so far. */
+    public long getCommitted() {
+        return insert.getCommitted();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            insert.close();
+        } finally {
+            if (insert.getCommitted() > 0) {
+                audit.record(ChangeRecord.Table.EMPLOYEES, 0, AuditEntry.Action.IMPORT, null,
+                        AuditEntry.encode(Map.of("rows", String.valueOf(insert.getCommitted()))));
+                repository.invalidate();
+            } else {
+                audit.cancel();
+            }
+        }
+    }
+}
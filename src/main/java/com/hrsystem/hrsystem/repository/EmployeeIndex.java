@@ -0,0 +1,170 @@
+package com.hrsystem.hrsystem.repository;
+
+import com.hrsystem.hrsystem.model.Employee;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Something derived from every employee, e.g. a sorted index or running totals, that is built by reading the
+ * whole table once and then kept up to date from the employee repository's change events.
+ *
+ * A build reads without holding the lock. Changes that arrive meanwhile are kept and applied once the
+ * result is installed, and a build that overlapped an invalidation throws its result away and reads the
+ * table again. After an invalidation the index is empty until {@link #build()} runs again; change listeners
+ * see that from {@link #isBuilt()}. A reload of the cache is ignored: it reads the table the index already
+ * follows, and a bulk change that made the index stale arrives as an invalidation first.
+ *
+ * Subclasses register themselves with the repository once their own fields are set up.
+ */
+public abstract class EmployeeIndex implements RepositoryListener<Employee> {
+
+    /** Above this headcount indexes are not held in memory; callers ask the database instead. */
+    public static final int MAX_INDEXED_EMPLOYEES = 1_000_000;
+
+    /** A change that arrived while a build was reading; {@code current} is null for a removal. */
+    private static final class Change {
+        final int id;
+        final Employee current;
+
+        Change(int id, Employee current) {
+            this.id = id;
+            this.current = current;
+        }
+    }
+
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+    // Held for a whole build, so two callers never read at once
+    private final Object buildLock = new Object();
+
+    private boolean built;
+    private boolean building;
+    // Counts invalidations, so a build that was running during one knows what it read is out of date
+    private long invalidations;
+    private final List<Change> pending = new ArrayList<>();
+
+    /**
+     * Reads what the index is built from, without the lock.
+     * @return the step that replaces the contents with what was read; it runs with the lock held, unless an
+     * invalidation arrived meanwhile.
+     */
+    protected abstract Runnable read() throws SQLException;
+
+    /**
+     * Applies one employee change with the lock held.
+     * @param current the row after the change, or null if it was removed.
+     * @return false if the index cannot follow single changes and has to be built again.
+     */
+    protected abstract boolean apply(int id, Employee current);
+
+    /** Drops the contents after an invalidation, with the lock held. */
+    protected abstract void clear();
+
+    /** Called on the thread that made the change, after the index reflects it or was dropped. */
+    public void addChangeListener(Runnable listener) {
+        changeListeners.add(listener);
+    }
+
+    public void removeChangeListener(Runnable listener) {
+        changeListeners.remove(listener);
+    }
+
+    public synchronized boolean isBuilt() {
+        return built;
+    }
+
+    /**
+     * Reads every employee once and builds the index. Runs on a background thread; does nothing if the index
+     * is already built, e.g. by a build that was started at the same time.
+     */
+    public void build() throws SQLException {
+        synchronized (buildLock) {
+            if (isBuilt()) return;
+            while (!buildOnce()) {
+                // Invalidated while reading; go again
+            }
+        }
+        fireChanged();
+    }
+
+    /** @return false if an invalidation arrived while reading, in which case nothing was installed. */
+    private boolean buildOnce() throws SQLException {
+        long generation;
+        synchronized (this) {
+            building = true;
+            pending.clear();
+            generation = invalidations;
+        }
+        try {
+            Runnable install = read();
+            synchronized (this) {
+                if (invalidations != generation) return false;
+                install.run();
+                built = true;
+                for (Change change : pending) {
+                    if (!apply(change.id, change.current)) {
+                        built = false;
+                        break;
+                    }
+                }
+                return true;
+            }
+        } finally {
+            synchronized (this) {
+                building = false;
+                pending.clear();
+            }
+        }
+    }
+
+    protected void fireChanged() {
+        for (Runnable listener : changeListeners) {
+            listener.run();
+        }
+    }
+
+    private void changed(int id, Employee current) {
+        synchronized (this) {
+            if (building) {
+                pending.add(new Change(id, current));
+                return;
+            }
+            if (!built) return;
+            if (!apply(id, current)) built = false;
+        }
+        fireChanged();
+    }
+
+    @Override
+    public void onReloaded(List<Employee> items) {
+        // Reloading the cache does not change the table
+    }
+
+    @Override
+    public void onInvalidated() {
+        synchronized (this) {
+            invalidations++;
+            built = false;
+            pending.clear();
+            clear();
+        }
+        fireChanged();
+    }
+
+    @Override
+    public void onAdded(Employee item) {
+        changed(item.getId(), item);
+    }
+
+    @Override
+    public void onUpdated(Employee previous, Employee current) {
+        changed(current.getId(), current);
+    }
+
+    @Override
+    public void onRemoved(int id, Employee previous) {
+        changed(id, null);
+    }
+}
@@ -0,0 +1,230 @@
+package com.hrsystem.hrsystem.repository;
+
+import com.hrsystem.hrsystem.metrics.Metrics;
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.storage.AuditEntry;
+import com.hrsystem.hrsystem.storage.ChangeRecord;
+import com.hrsystem.hrsystem.storage.EmployeeGrouping;
+import com.hrsystem.hrsystem.storage.EmployeeStore;
+import com.hrsystem.hrsystem.storage.GroupTotal;
+import com.hrsystem.hrsystem.storage.IncrementResult;
+import com.hrsystem.hrsystem.storage.IncrementRule;
+import com.hrsystem.hrsystem.storage.StorageManager;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Shared access to the employee table for every controller. Reads and writes go to the configured
+ * {@link com.hrsystem.hrsystem.storage.Storage}; this class adds the cache and the change events.
+ */
+public class EmployeeRepository extends CachedRepository<Employee> {
+
+    private static final EmployeeRepository INSTANCE = new EmployeeRepository();
+
+    public static EmployeeRepository getInstance() {
+        return INSTANCE;
+    }
+
+    private EmployeeRepository() {
+    }
+
+    @Override
+    protected int idOf(Employee employee) {
+        return employee.getId();
+    }
+
+    @Override
+    public Comparator<Employee> order() {
+        return Comparator.comparingInt(Employee::getId);
+    }
+
+    private static EmployeeStore store() {
+        return StorageManager.get().employees();
+    }
+
+    private static Metrics.Timer time(String operation) {
+        return Metrics.get().start(operation);
+    }
+
+    /** Screens resolve the department names of the rows they show. */
+    private static void loadDepartments() throws SQLException {
+        DepartmentRepository.getInstance().ensureDictionary();
+    }
+
+    @Override
+    protected List<Employee> loadAll() throws SQLException {
+        loadDepartments();
+        try (Metrics.Timer timer = time("employee.load")) {
+            return timer.rows(store().findAll());
+        }
+    }
+
+    /**
+     * Streams every row to {@code action} without caching them, for whole-table passes such as building
+     * an index.
+     */
+    public void forEach(Consumer<Employee> action) throws SQLException {
+        try (Metrics.Timer timer = time("employee.scan")) {
+            store().forEach(timer.counting(action));
+        }
+    }
+
+    /**
+     * Returns only the employees due for a salary increment as of {@code asOf}, letting the storage
+     * filter per policy. An employee is due once {@code policyMonths} whole months have passed since their
+     * last increment, or since joining if they never had one.
+     */
+    public List<Employee> findDueForIncrement(LocalDate asOf) throws SQLException {
+        loadDepartments();
+        try (Metrics.Timer timer = time("employee.due")) {
+            return timer.rows(store().findDueForIncrement(asOf));
+        }
+    }
+
+    /**
+     * Works out what {@link #applyIncrements} would do without writing anything.
+     * @param sampleSize how many of the raised salaries to return, lowest employee id first.
+     */
+    public IncrementResult previewIncrements(IncrementRule rule, LocalDate asOf, int sampleSize) throws SQLException {
+        try (Metrics.Timer timer = time("employee.incrementPreview")) {
+            return store().applyIncrements(rule, asOf, true, sampleSize);
+        }
+    }
+
+    /**
+     * Raises every salary due as of {@code asOf} by {@code rule} in one transaction and records each raise in
+     * the salary history. The rows change in bulk, so the cache is invalidated and every screen re-reads them.
+     */
+    public IncrementResult applyIncrements(IncrementRule rule, LocalDate asOf, int sampleSize) throws SQLException {
+        AuditTrail.Slot audit = AuditTrail.reserve();
+        IncrementResult result;
+        try (Metrics.Timer timer = time("employee.incrementRun")) {
+            result = store().applyIncrements(rule, asOf, false, sampleSize);
+        } catch (SQLException | RuntimeException e) {
+            audit.cancel();
+            throw e;
+        }
+        if (result.getCount() > 0) {
+            // The raises themselves are in the salary history; the trail records who ran it
+            Map<String, String> run = new LinkedHashMap<>();
+            run.put("rule", rule.toString());
+            run.put("asOf", asOf.toString());
+            run.put("employees", String.valueOf(result.getCount()));
+            run.put("totalBefore", result.getTotalBefore().toPlainString());
+            run.put("totalAfter", result.getTotalAfter().toPlainString());
+            audit.record(ChangeRecord.Table.EMPLOYEES, 0, AuditEntry.Action.INCREMENT, null, AuditEntry.encode(run));
+            invalidate();
+        } else {
+            audit.cancel();
+        }
+        return result;
+    }
+
+    public int countAll() throws SQLException {
+        try (Metrics.Timer timer = time("employee.count")) {
+            return store().countAll();
+        }
+    }
+
+    /** Headcount and salary total per group, computed by the storage without reading the rows out. */
+    public List<GroupTotal> groupTotals(EmployeeGrouping grouping) throws SQLException {
+        try (Metrics.Timer timer = time("employee.groupTotals")) {
+            return timer.rows(store().groupTotals(grouping));
+        }
+    }
+
+    /** Reads the given employees, e.g. one page of search results. Missing ids are skipped; order is not kept. */
+    public List<Employee> findByIds(int[] ids) throws SQLException {
+        loadDepartments();
+        try (Metrics.Timer timer = time("employee.byIds")) {
+            return timer.rows(store().findByIds(ids));
+        }
+    }
+
+    /**
+     * Reads employees in id order from just after {@code afterId}, e.g. one page of an API listing.
+     * @param departmentId the department to match, 0 for employees without one, or
+     * {@link EmployeeStore#ANY_DEPARTMENT}.
+     */
+    public List<Employee> findAfterId(int afterId, int departmentId, int limit) throws SQLException {
+        loadDepartments();
+        try (Metrics.Timer timer = time("employee.afterId")) {
+            return timer.rows(store().findAfterId(afterId, departmentId, limit));
+        }
+    }
+
+    /**
+     * Reads the rows that follow {@code after} in the given order, using the sort column and id as a keyset
+     * so the database seeks straight to the window instead of skipping rows.
+     * @param after the last row of the previous window, or null for the first window.
+     */
+    public List<Employee> findPageAfter(EmployeeSort sort, boolean ascending, Employee after, int limit) throws SQLException {
+        loadDepartments();
+        try (Metrics.Timer timer = time("employee.page")) {
+            return timer.rows(store().findPageAfter(sort, ascending, after, limit));
+        }
+    }
+
+    /**
+     * Counts the rows that come before {@code row} in the given order, i.e. the index it has in a table sorted
+     * that way. Used to slot a single inserted or moved row into a paged table without re-reading it.
+     */
+    public int countBefore(EmployeeSort sort, boolean ascending, Employee row) throws SQLException {
+        try (Metrics.Timer timer = time("employee.rank")) {
+            return store().countBefore(sort, ascending, row);
+        }
+    }
+
+    /**
+     * Reads a window by position. Only used when the user jumps to a part of the table whose preceding
+     * window has never been loaded, so there is no keyset to seek from.
+     */
+    public List<Employee> findPageAt(EmployeeSort sort, boolean ascending, int offset, int limit) throws SQLException {
+        loadDepartments();
+        try (Metrics.Timer timer = time("employee.pageAt")) {
+            return timer.rows(store().findPageAt(sort, ascending, offset, limit));
+        }
+    }
+
+    /**
+     * Opens a writer for bulk inserts, e.g. a CSV import.
+     * @param batchSize rows sent to the database per JDBC batch.
+     * @param chunkSize rows per transaction.
+     */
+    public EmployeeBulkWriter openBulkWriter(int batchSize, int chunkSize) throws SQLException {
+        AuditTrail.Slot audit = AuditTrail.reserve();
+        try {
+            return new EmployeeBulkWriter(this, store().openBulkInsert(batchSize, chunkSize), audit);
+        } catch (SQLException | RuntimeException e) {
+            audit.cancel();
+            throw e;
+        }
+    }
+
+    /** Re-reads one row and passes it on as an update, or as a removal if it no longer exists. */
+    void refresh(int id) throws SQLException {
+        List<Employee> rows = findByIds(new int[] {id});
+        if (rows.isEmpty()) {
+            cacheRemoved(id);
+        } else {
+            cacheUpdated(rows.get(0));
+        }
+    }
+
+    /**
+     * Checks if a department is assigned to any employee. Stops at the first match in the department index.
+     * @param departmentId The id of the department to check.
+     * @return true if the department is in use, false otherwise.
+     */
+    public boolean isDepartmentInUse(int departmentId) throws SQLException {
+        try (Metrics.Timer timer = time("employee.inUse")) {
+            return store().isDepartmentInUse(departmentId);
+        }
+    }
+}
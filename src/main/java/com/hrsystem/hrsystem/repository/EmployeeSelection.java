@@ -0,0 +1,13 @@
+package com.hrsystem.hrsystem.repository;
+
+/**
+ * An ordered set of employee ids, such as the matches of a search, that can be read by position without
+ * being copied into a list.
+ */
+public interface EmployeeSelection {
+
+    int size();
+
+    /** @return the id at {@code index}, where {@code 0 <= index < size()}. */
+    int idAt(int index);
+}
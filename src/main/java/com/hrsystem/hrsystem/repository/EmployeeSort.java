@@ -0,0 +1,56 @@
+package com.hrsystem.hrsystem.repository;
+
+import com.hrsystem.hrsystem.model.Employee;
+
+import java.sql.Date;
+import java.time.LocalDate;
+
+/**
+ * Columns the employee tables can be sorted by, pushed down to SQL as {@code ORDER BY <expression>, e.id}.
+ * Nullable columns are coalesced so keyset comparisons never meet a NULL.
+ *
+ * Queries select from {@link #getSource()}, which aliases {@code employees} as {@code e} and only joins
+ * {@code departments} as {@code d} when sorting by department name.
+ */
+public enum EmployeeSort {
+    ID("e.id"),
+    NAME("e.name"),
+    DEPARTMENT("COALESCE(d.name, '')"),
+    SALARY("e.salary"),
+    JOIN_DATE("COALESCE(e.join_date, DATE '1000-01-01')");
+
+    private static final LocalDate NO_DATE = LocalDate.of(1000, 1, 1);
+
+    private final String expression;
+
+    EmployeeSort(String expression) {
+        this.expression = expression;
+    }
+
+    public String getExpression() {
+        return expression;
+    }
+
+    /** The {@code FROM} clause for queries ordered this way. */
+    public String getSource() {
+        return this == DEPARTMENT
+                ? "employees e LEFT JOIN departments d ON d.id = e.department_id"
+                : "employees e";
+    }
+
+    /** The value of this sort column for a row, as bound in a keyset {@code WHERE} clause. */
+    public Object keyOf(Employee employee) {
+        switch (this) {
+            case NAME:
+                return employee.getName();
+            case DEPARTMENT:
+                return DepartmentRepository.getInstance().nameOf(employee.getDepartmentId());
+            case SALARY:
+                return employee.getSalary();
+            case JOIN_DATE:
+                return Date.valueOf(employee.getJoinDate() != null ? employee.getJoinDate() : NO_DATE);
+            default:
+                return employee.getId();
+        }
+    }
+}
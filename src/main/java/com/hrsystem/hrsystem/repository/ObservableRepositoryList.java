@@ -0,0 +1,124 @@
+package com.hrsystem.hrsystem.repository;
+
+import com.hrsystem.hrsystem.util.AsyncRunner;
+import javafx.application.Platform;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A per-screen {@link ObservableList} kept in sync with a {@link CachedRepository}. Each change is applied
+ * as a single-row add, replace or remove on the JavaFX thread, so tables never re-read the database.
+ *
+ * The list is kept in the repository's order; wrap it in a {@code SortedList} to let a table sort it.
+ */
+public class ObservableRepositoryList<T> implements RepositoryListener<T> {
+
+    private final CachedRepository<T> repository;
+    private final ObservableList<T> items = FXCollections.observableArrayList();
+    private final Map<Integer, T> current = new HashMap<>();
+
+    public ObservableRepositoryList(CachedRepository<T> repository) {
+        this.repository = repository;
+        repository.addListener(this);
+    }
+
+    public ObservableList<T> getItems() {
+        return items;
+    }
+
+    /**
+     * Fills the list from the repository cache, loading the table only if no screen has done so yet.
+     */
+    public void load() throws SQLException {
+        if (!repository.isLoaded()) {
+            // The first load notifies every registered list, including this one
+            repository.findAll();
+            return;
+        }
+        List<T> all = repository.findAll();
+        runOnFxThread(() -> replaceAll(all));
+    }
+
+    @Override
+    public void onReloaded(List<T> all) {
+        runOnFxThread(() -> replaceAll(all));
+    }
+
+    @Override
+    public void onInvalidated() {
+        AsyncRunner.executor().execute(() -> {
+            try {
+                load();
+            } catch (SQLException e) {
+                System.err.println("Could not reload after a bulk change: " + e.getMessage());
+            }
+        });
+    }
+
+    @Override
+    public void onAdded(T item) {
+        runOnFxThread(() -> {
+            current.put(repository.idOf(item), item);
+            items.add(insertionPoint(item), item);
+        });
+    }
+
+    @Override
+    public void onUpdated(T previous, T item) {
+        runOnFxThread(() -> {
+            T shown = current.put(repository.idOf(item), item);
+            int index = shown != null ? indexOf(shown) : -1;
+            if (index < 0) {
+                items.add(insertionPoint(item), item);
+                return;
+            }
+            if (repository.order().compare(shown, item) == 0) {
+                items.set(index, item);
+            } else {
+                items.remove(index);
+                items.add(insertionPoint(item), item);
+            }
+        });
+    }
+
+    @Override
+    public void onRemoved(int id, T previous) {
+        runOnFxThread(() -> {
+            T shown = current.remove(id);
+            int index = shown != null ? indexOf(shown) : -1;
+            if (index >= 0) items.remove(index);
+        });
+    }
+
+    private void replaceAll(List<T> all) {
+        current.clear();
+        for (T item : all) {
+            current.put(repository.idOf(item), item);
+        }
+        items.setAll(all);
+    }
+
+    private int indexOf(T item) {
+        int index = Collections.binarySearch(items, item, repository.order());
+        return index >= 0 ? index : items.indexOf(item);
+    }
+
+    private int insertionPoint(T item) {
+        int index = Collections.binarySearch(items, item, repository.order());
+        return index >= 0 ? index : -index - 1;
+    }
+
+    static void runOnFxThread(Runnable action) {
+        if (Platform.isFxApplicationThread()) {
+            action.run();
+        } else {
+            Platform.runLater(action);
+        }
+    }
+}
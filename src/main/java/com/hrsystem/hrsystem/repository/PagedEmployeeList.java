@@ -0,0 +1,524 @@
+package com.hrsystem.hrsystem.repository;
+
+import com.hrsystem.hrsystem.model.Department;
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.storage.EmployeeOrder;
+import com.hrsystem.hrsystem.util.AsyncRunner;
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * A read-only list over the whole {@code employees} table that only keeps the windows of rows the table is
+ * actually showing. Rows are fetched by keyset as the user scrolls, the neighbouring window is prefetched,
+ * and windows that scroll out of range are evicted, so memory stays flat however large the table grows.
+ *
+ * Single-row changes are patched in place: an update copies the new values into the row on screen, so only
+ * the cells whose field changed repaint, a delete removes one row, and an insert is slotted in at the index
+ * the database would give it. The table keeps its selection and scroll position.
+ *
+ * Rows only carry department ids. When a department is renamed the table redraws its cells with the new
+ * name, and re-reads the rows if it is sorted by department.
+ *
+ * Rows that are not loaded yet read as {@code null}; the table shows them as empty and fills them in once
+ * their window arrives. All state is owned by the JavaFX thread.
+ */
+public class PagedEmployeeList extends ObservableListBase<Employee> implements RepositoryListener<Employee> {
+
+    /** A run of consecutive loaded rows starting at table index {@code start}. */
+    private static class Segment {
+        int start;
+        final List<Employee> rows;
+        long lastUsed;
+
+        Segment(int start, List<Employee> rows) {
+            this.start = start;
+            this.rows = rows;
+        }
+
+        int end() {
+            return start + rows.size();
+        }
+    }
+
+    private final EmployeeRepository repository;
+    private final Executor loader;
+    // Where results and change events are handled; the JavaFX thread except in tests
+    private final Executor fxThread;
+    private final int pageSize;
+    private final int maxLoadedRows;
+
+    // Sorted by start and never overlapping
+    private final List<Segment> segments = new ArrayList<>();
+    private final Set<Integer> pending = new HashSet<>();
+    private TableView<Employee> table;
+
+    private EmployeeSort sort = EmployeeSort.ID;
+    private boolean ascending = true;
+    private int size;
+    // Bumped whenever rows shift, so loads and lookups computed against the old layout are dropped
+    private int generation;
+    private long clock;
+    private Consumer<Throwable> onError = e -> System.err.println("Could not load employees: " + e.getMessage());
+
+    public PagedEmployeeList(EmployeeRepository repository) {
+        this(repository, 200, 8);
+    }
+
+    public PagedEmployeeList(EmployeeRepository repository, int pageSize, int maxWindows) {
+        this(repository, pageSize, maxWindows, AsyncRunner.executor(), Platform::runLater);
+    }
+
+    /** Runs loads on {@code loader} and hands their results to {@code fxThread}, so tests can step both. */
+    PagedEmployeeList(EmployeeRepository repository, int pageSize, int maxWindows, Executor loader, Executor fxThread) {
+        this.repository = repository;
+        this.loader = loader;
+        this.fxThread = fxThread;
+        this.pageSize = pageSize;
+        this.maxLoadedRows = pageSize * maxWindows;
+        repository.addListener(this);
+        DepartmentRepository.getInstance().addListener(new DepartmentChanges());
+    }
+
+    /**
+     * Shows this list in {@code table} and pushes the table's sort order down to SQL, since the rows are not
+     * in memory to be sorted.
+     */
+    public void attach(TableView<Employee> table, Map<TableColumn<Employee, ?>, EmployeeSort> sortColumns) {
+        this.table = table;
+        table.setSortPolicy(t -> {
+            if (t.getSortOrder().isEmpty()) {
+                sortBy(EmployeeSort.ID, true);
+            } else {
+                TableColumn<Employee, ?> column = t.getSortOrder().get(0);
+                EmployeeSort columnSort = sortColumns.getOrDefault(column, EmployeeSort.ID);
+                sortBy(columnSort, column.getSortType() == TableColumn.SortType.ASCENDING);
+            }
+            return true;
+        });
+        table.setItems(this);
+    }
+
+    /** Receives load failures on the JavaFX thread. */
+    public void setOnError(Consumer<Throwable> onError) {
+        this.onError = onError;
+    }
+
+    public void sortBy(EmployeeSort sort, boolean ascending) {
+        if (this.sort == sort && this.ascending == ascending) return;
+        this.sort = sort;
+        this.ascending = ascending;
+        reset(size);
+    }
+
+    /** Re-counts the table and drops every loaded window. */
+    public void refresh() {
+        int expected = ++generation;
+        loader.execute(() -> {
+            try {
+                int count = repository.countAll();
+                fxThread.execute(() -> {
+                    if (expected == generation) reset(count);
+                });
+            } catch (SQLException e) {
+                fxThread.execute(() -> onError.accept(e));
+            }
+        });
+    }
+
+    private void reset(int newSize) {
+        generation++;
+        segments.clear();
+        pending.clear();
+        int oldSize = size;
+        size = newSize;
+        beginChange();
+        if (oldSize > 0) nextRemove(0, Collections.nCopies(oldSize, (Employee) null));
+        if (newSize > 0) nextAdd(0, newSize);
+        endChange();
+    }
+
+    @Override
+    public Employee get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        Segment segment = segmentAt(index);
+        if (segment == null) {
+            requestRange(index);
+            return null;
+        }
+        segment.lastUsed = ++clock;
+        // Prefetch in the direction the user is heading
+        if (index - segment.start >= segment.rows.size() / 2) {
+            requestRange(segment.end());
+        } else if (segment.start > 0) {
+            requestRange(segment.start - 1);
+        }
+        return segment.rows.get(index - segment.start);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    // --- Loading ---
+
+    private void requestRange(int index) {
+        if (index < 0 || index >= size || segmentAt(index) != null) return;
+
+        int slot = floorSlot(index);
+        Segment previous = slot >= 0 ? segments.get(slot) : null;
+        Segment next = slot + 1 < segments.size() ? segments.get(slot + 1) : null;
+        int gapStart = previous != null ? previous.end() : 0;
+        int gapEnd = next != null ? next.start : size;
+
+        int start;
+        int limit;
+        Employee after = null;
+        Employee before = null;
+        if (previous != null && index - gapStart < pageSize) {
+            // Continue downwards from the rows above
+            start = gapStart;
+            limit = Math.min(pageSize, gapEnd - start);
+            after = previous.rows.get(previous.rows.size() - 1);
+        } else if (next != null && gapEnd - index <= pageSize) {
+            // Continue upwards from the rows below, reading backwards
+            start = Math.max(gapStart, gapEnd - pageSize);
+            limit = gapEnd - start;
+            before = next.rows.get(0);
+        } else {
+            start = Math.max(gapStart, index - index % pageSize);
+            limit = Math.min(pageSize, gapEnd - start);
+        }
+        if (limit <= 0 || !pending.add(start)) return;
+
+        int expected = generation;
+        EmployeeSort currentSort = sort;
+        boolean currentAscending = ascending;
+        Employee afterRow = after;
+        Employee beforeRow = before;
+        int rangeStart = start;
+        int rangeLimit = limit;
+        loader.execute(() -> {
+            try {
+                List<Employee> rows;
+                if (beforeRow != null) {
+                    rows = repository.findPageAfter(currentSort, !currentAscending, beforeRow, rangeLimit);
+                    Collections.reverse(rows);
+                } else if (afterRow != null || rangeStart == 0) {
+                    rows = repository.findPageAfter(currentSort, currentAscending, afterRow, rangeLimit);
+                } else {
+                    rows = repository.findPageAt(currentSort, currentAscending, rangeStart, rangeLimit);
+                }
+                fxThread.execute(() -> rangeLoaded(expected, rangeStart, rows));
+            } catch (SQLException e) {
+                // The range stays pending so scrolling does not retry it in a tight loop; refresh() clears it
+                fxThread.execute(() -> {
+                    if (expected == generation) onError.accept(e);
+                });
+            }
+        });
+    }
+
+    private void rangeLoaded(int expected, int start, List<Employee> rows) {
+        if (expected != generation) return;
+        pending.remove(start);
+        int slot = floorSlot(start);
+        // Another load may have filled part of this range meanwhile; keep only the rows still missing
+        int skip = slot >= 0 ? Math.max(0, segments.get(slot).end() - start) : 0;
+        int limit = slot + 1 < segments.size() ? segments.get(slot + 1).start : size;
+        int keepTo = Math.min(rows.size(), limit - start);
+        if (skip >= keepTo) return;
+        List<Employee> kept = new ArrayList<>(rows.subList(skip, keepTo));
+        start += skip;
+
+        Segment segment = new Segment(start, kept);
+        segment.lastUsed = ++clock;
+        segments.add(slot + 1, segment);
+        evict(segment);
+
+        beginChange();
+        nextReplace(start, segment.end(), Arrays.asList(new Employee[kept.size()]));
+        endChange();
+    }
+
+    private void evict(Segment keep) {
+        int loaded = 0;
+        for (Segment segment : segments) loaded += segment.rows.size();
+        while (loaded > maxLoadedRows && segments.size() > 1) {
+            Segment oldest = null;
+            for (Segment segment : segments) {
+                if (segment != keep && (oldest == null || segment.lastUsed < oldest.lastUsed)) oldest = segment;
+            }
+            segments.remove(oldest);
+            loaded -= oldest.rows.size();
+        }
+    }
+
+    /** Index in {@link #segments} of the last segment starting at or before {@code index}, or -1. */
+    private int floorSlot(int index) {
+        int low = 0;
+        int high = segments.size() - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (segments.get(mid).start <= index) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    private Segment segmentAt(int index) {
+        int slot = floorSlot(index);
+        if (slot < 0) return null;
+        Segment segment = segments.get(slot);
+        return index < segment.end() ? segment : null;
+    }
+
+    private int indexOfId(int id) {
+        for (Segment segment : segments) {
+            for (int i = 0; i < segment.rows.size(); i++) {
+                if (segment.rows.get(i).getId() == id) return segment.start + i;
+            }
+        }
+        return -1;
+    }
+
+    // --- Patching ---
+
+    private void insertAt(int index, Employee employee) {
+        generation++;
+        pending.clear();
+        int slot = floorSlot(index);
+        Segment owner = null;
+        if (slot >= 0 && index <= segments.get(slot).end()) {
+            owner = segments.get(slot);
+            owner.rows.add(index - owner.start, employee);
+        } else if (slot + 1 < segments.size() && segments.get(slot + 1).start == index) {
+            owner = segments.get(slot + 1);
+            owner.rows.add(0, employee);
+        }
+        for (Segment segment : segments) {
+            if (segment != owner && segment.start >= index) segment.start++;
+        }
+        size++;
+        beginChange();
+        nextAdd(index, index + 1);
+        endChange();
+    }
+
+    private void removeAt(int index) {
+        generation++;
+        pending.clear();
+        Segment owner = segmentAt(index);
+        Employee removed = null;
+        if (owner != null) {
+            removed = owner.rows.remove(index - owner.start);
+            if (owner.rows.isEmpty()) segments.remove(owner);
+        }
+        for (Segment segment : segments) {
+            if (segment != owner && segment.start > index) segment.start--;
+        }
+        size--;
+        beginChange();
+        nextRemove(index, removed);
+        endChange();
+    }
+
+    /** Finds where the database would place {@code employee} and inserts it there. */
+    private void locateAndInsert(Employee employee) {
+        Integer known = knownPosition(employee);
+        if (known != null) {
+            insertAt(known, employee);
+            return;
+        }
+        int expected = generation;
+        EmployeeSort currentSort = sort;
+        boolean currentAscending = ascending;
+        loader.execute(() -> {
+            try {
+                int index = repository.countBefore(currentSort, currentAscending, employee);
+                fxThread.execute(() -> {
+                    if (expected != generation) {
+                        refresh();
+                    } else {
+                        keepingSelection(() -> insertAt(Math.min(index, size), employee));
+                    }
+                });
+            } catch (SQLException e) {
+                fxThread.execute(this::refresh);
+            }
+        });
+    }
+
+    /** Cheap answers for a new row ordered by id, which is where every insert lands by default. */
+    private Integer knownPosition(Employee employee) {
+        if (sort != EmployeeSort.ID) return null;
+        if (size == 0) return 0;
+        if (ascending && !segments.isEmpty()) {
+            Segment last = segments.get(segments.size() - 1);
+            if (last.end() == size && last.rows.get(last.rows.size() - 1).getId() < employee.getId()) return size;
+        }
+        if (!ascending && !segments.isEmpty()) {
+            Segment first = segments.get(0);
+            if (first.start == 0 && first.rows.get(0).getId() < employee.getId()) return 0;
+        }
+        return null;
+    }
+
+    /**
+     * Whether an update to a row that is not loaded changes what the loaded windows show: its new values fall
+     * inside a window, or it moved from one side of a window to the other. Without {@code previous}, i.e. when
+     * the repository does not cache rows, only the first can be told.
+     */
+    private boolean movesLoadedRows(Employee previous, Employee current) {
+        // Ids never change, so the row keeps its place
+        if (sort == EmployeeSort.ID) return false;
+        if (previous != null && Objects.equals(sort.keyOf(previous), sort.keyOf(current))) return false;
+        Comparator<Employee> ascendingOrder = EmployeeOrder.ascending(sort, DepartmentRepository.getInstance()::nameOf);
+        Comparator<Employee> order = ascending ? ascendingOrder : ascendingOrder.reversed();
+        for (Segment segment : segments) {
+            Employee first = segment.rows.get(0);
+            Employee last = segment.rows.get(segment.rows.size() - 1);
+            boolean before = order.compare(current, first) < 0;
+            boolean after = order.compare(current, last) > 0;
+            if (!before && !after) return true;
+            if (previous != null && (order.compare(previous, first) < 0) != before) return true;
+        }
+        return false;
+    }
+
+    private void locateAndRemove(Employee previous) {
+        int expected = generation;
+        EmployeeSort currentSort = sort;
+        boolean currentAscending = ascending;
+        loader.execute(() -> {
+            try {
+                int index = repository.countBefore(currentSort, currentAscending, previous);
+                fxThread.execute(() -> {
+                    if (expected != generation || index >= size) {
+                        refresh();
+                    } else {
+                        keepingSelection(() -> removeAt(index));
+                    }
+                });
+            } catch (SQLException e) {
+                fxThread.execute(this::refresh);
+            }
+        });
+    }
+
+    /** Runs a patch and re-selects the row that was selected before it, wherever it ended up. */
+    private void keepingSelection(Runnable patch) {
+        Employee selected = table != null ? table.getSelectionModel().getSelectedItem() : null;
+        patch.run();
+        if (selected == null) return;
+        Employee now = table.getSelectionModel().getSelectedItem();
+        if (now != null && now.getId() == selected.getId()) return;
+        int index = indexOfId(selected.getId());
+        if (index >= 0) {
+            table.getSelectionModel().select(index);
+        }
+    }
+
+    @Override
+    public void onReloaded(List<Employee> items) {
+        fxThread.execute(this::refresh);
+    }
+
+    @Override
+    public void onInvalidated() {
+        fxThread.execute(this::refresh);
+    }
+
+    @Override
+    public void onAdded(Employee item) {
+        fxThread.execute(() -> keepingSelection(() -> locateAndInsert(item)));
+    }
+
+    @Override
+    public void onUpdated(Employee previous, Employee current) {
+        fxThread.execute(() -> keepingSelection(() -> {
+            int index = indexOfId(current.getId());
+            if (index >= 0) {
+                Segment owner = segmentAt(index);
+                Employee shown = owner.rows.get(index - owner.start);
+                if (Objects.equals(sort.keyOf(shown), sort.keyOf(current))) {
+                    shown.updateFrom(current);
+                } else {
+                    // The row moves; take it out here and slot it in where the new sort key puts it
+                    removeAt(index);
+                    locateAndInsert(current);
+                }
+            } else if (movesLoadedRows(previous, current)) {
+                // Not on screen, but it moved into or across a loaded window
+                refresh();
+            }
+        }));
+    }
+
+    @Override
+    public void onRemoved(int id, Employee previous) {
+        fxThread.execute(() -> keepingSelection(() -> {
+            int index = indexOfId(id);
+            if (index >= 0) {
+                removeAt(index);
+            } else if (previous != null) {
+                locateAndRemove(previous);
+            } else {
+                refresh();
+            }
+        }));
+    }
+
+    private void departmentsChanged() {
+        if (sort == EmployeeSort.DEPARTMENT) {
+            refresh();
+        } else if (table != null) {
+            table.refresh();
+        }
+    }
+
+    private class DepartmentChanges implements RepositoryListener<Department> {
+        @Override
+        public void onReloaded(List<Department> items) {
+            fxThread.execute(PagedEmployeeList.this::departmentsChanged);
+        }
+
+        @Override
+        public void onInvalidated() {
+        }
+
+        @Override
+        public void onAdded(Department item) {
+        }
+
+        @Override
+        public void onUpdated(Department previous, Department current) {
+            fxThread.execute(PagedEmployeeList.this::departmentsChanged);
+        }
+
+        @Override
+        public void onRemoved(int id, Department previous) {
+            // Only unused departments can be deleted
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.hrsystem.hrsystem.repository;
+
+import java.util.List;
+
+/**
+ * Receives changes applied to a {@link CachedRepository}. Callbacks run on the thread that performed the
+ * change, so UI listeners must hop to the JavaFX thread themselves.
+ */
+public interface RepositoryListener<T> {
+
+    /** The whole cache was (re)loaded from the database. */
+    void onReloaded(List<T> items);
+
+    /** The table changed in bulk outside the repository; anything derived from it must be re-read. */
+    void onInvalidated();
+
+    void onAdded(T item);
+
+    /** @param previous the cached row before the change, or null if the cache was not loaded. */
+    void onUpdated(T previous, T current);
+
+    /** @param previous the cached row that was removed, or null if the cache was not loaded. */
+    void onRemoved(int id, T previous);
+}
@@ -0,0 +1,178 @@
+package com.hrsystem.hrsystem.repository;
+
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.util.AsyncRunner;
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * A read-only list of the employees in an {@link EmployeeSelection}, in selection order. Like
+ * {@link PagedEmployeeList} it only holds the pages the table is showing: a page's ids are read from the
+ * selection and its rows fetched by id as the user scrolls, and the least recently used pages are dropped.
+ *
+ * An update to a loaded row is copied into it, so only the changed cells repaint. Which rows belong to the
+ * selection is up to its owner, who passes in a new one when that changes.
+ *
+ * Rows that are not loaded yet read as {@code null}. All state is owned by the JavaFX thread.
+ */
+public class SelectedEmployeeList extends ObservableListBase<Employee> implements RepositoryListener<Employee> {
+
+    private final EmployeeRepository repository;
+    private final Executor loader = AsyncRunner.executor();
+    private final int pageSize;
+    private final int maxPages;
+
+    // Page number to rows, least recently used first
+    private final LinkedHashMap<Integer, Employee[]> pages = new LinkedHashMap<>(16, 0.75f, true);
+    private final Set<Integer> pending = new HashSet<>();
+    private EmployeeSelection selection = new EmployeeSelection() {
+        @Override
+        public int size() {
+            return 0;
+        }
+
+        @Override
+        public int idAt(int index) {
+            throw new IndexOutOfBoundsException();
+        }
+    };
+    // Bumped when the selection changes, so pages read for the old one are dropped
+    private int generation;
+    private Consumer<Throwable> onError = e -> System.err.println("Could not load employees: " + e.getMessage());
+
+    public SelectedEmployeeList(EmployeeRepository repository) {
+        this(repository, 200, 8);
+    }
+
+    public SelectedEmployeeList(EmployeeRepository repository, int pageSize, int maxPages) {
+        this.repository = repository;
+        this.pageSize = pageSize;
+        this.maxPages = maxPages;
+        repository.addListener(this);
+    }
+
+    /** Receives load failures on the JavaFX thread. */
+    public void setOnError(Consumer<Throwable> onError) {
+        this.onError = onError;
+    }
+
+    /** Shows another selection, e.g. the matches for the latest keystroke. Drops every loaded page unless the same employees match. */
+    public void setSelection(EmployeeSelection selection) {
+        if (selection.equals(this.selection)) return;
+        generation++;
+        pages.clear();
+        pending.clear();
+        int oldSize = this.selection.size();
+        this.selection = selection;
+        beginChange();
+        if (oldSize > 0) nextRemove(0, Collections.nCopies(oldSize, (Employee) null));
+        if (selection.size() > 0) nextAdd(0, selection.size());
+        endChange();
+    }
+
+    @Override
+    public Employee get(int index) {
+        if (index < 0 || index >= size()) throw new IndexOutOfBoundsException("Index " + index + ", size " + size());
+        int page = index / pageSize;
+        Employee[] rows = pages.get(page);
+        if (rows == null) {
+            requestPage(page);
+            return null;
+        }
+        // Prefetch the page the user is scrolling towards
+        requestPage(index % pageSize >= pageSize / 2 ? page + 1 : page - 1);
+        return rows[index % pageSize];
+    }
+
+    @Override
+    public int size() {
+        return selection.size();
+    }
+
+    @Override
+    public void onReloaded(List<Employee> items) {
+    }
+
+    @Override
+    public void onInvalidated() {
+    }
+
+    @Override
+    public void onAdded(Employee item) {
+    }
+
+    @Override
+    public void onUpdated(Employee previous, Employee current) {
+        Platform.runLater(() -> {
+            for (Employee[] rows : pages.values()) {
+                for (Employee row : rows) {
+                    if (row != null && row.getId() == current.getId()) {
+                        row.updateFrom(current);
+                        return;
+                    }
+                }
+            }
+        });
+    }
+
+    @Override
+    public void onRemoved(int id, Employee previous) {
+    }
+
+    private void requestPage(int page) {
+        int start = page * pageSize;
+        if (page < 0 || start >= size() || pages.containsKey(page) || !pending.add(page)) return;
+        int[] ids = new int[Math.min(pageSize, size() - start)];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = selection.idAt(start + i);
+        }
+        int expected = generation;
+        loader.execute(() -> {
+            try {
+                List<Employee> rows = repository.findByIds(ids);
+                Platform.runLater(() -> pageLoaded(expected, page, ids, rows));
+            } catch (SQLException e) {
+                Platform.runLater(() -> {
+                    if (expected == generation) onError.accept(e);
+                });
+            }
+        });
+    }
+
+    private void pageLoaded(int expected, int page, int[] ids, List<Employee> rows) {
+        if (expected != generation) return;
+        pending.remove(page);
+        Map<Integer, Employee> byId = new HashMap<>();
+        for (Employee row : rows) {
+            byId.put(row.getId(), row);
+        }
+        // An id deleted since the search ran stays as an empty row until the selection is refreshed
+        Employee[] ordered = new Employee[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            ordered[i] = byId.get(ids[i]);
+        }
+        pages.put(page, ordered);
+        Iterator<Integer> oldest = pages.keySet().iterator();
+        while (pages.size() > maxPages) {
+            oldest.next();
+            oldest.remove();
+        }
+        int start = page * pageSize;
+        beginChange();
+        nextReplace(start, start + ordered.length, Arrays.asList(new Employee[ordered.length]));
+        endChange();
+    }
+}
@@ -0,0 +1,37 @@
+package com.hrsystem.hrsystem.repository;
+
+import com.hrsystem.hrsystem.util.AppProperties;
+
+import java.util.Properties;
+
+/**
+ * How often {@link ChangePoller} looks for other clients' changes and how long the change log keeps them.
+ * Read from {@code hrsystem.properties} and {@code -D} overrides:
+ * <pre>
+ * hrsystem.sync.interval.millis=2000   (0: never pick up other clients' changes)
+ * hrsystem.sync.retention.days=7       (clients away for longer re-read everything)
+ * </pre>
+ */
+public class SyncConfig {
+
+    private long intervalMillis = 2000;
+    private long retentionDays = 7;
+
+    public static SyncConfig load() {
+        return from(AppProperties.load());
+    }
+
+    public static SyncConfig from(Properties properties) {
+        SyncConfig config = new SyncConfig();
+        config.setIntervalMillis(Long.parseLong(properties.getProperty("hrsystem.sync.interval.millis",
+                String.valueOf(config.intervalMillis)).trim()));
+        config.setRetentionDays(Long.parseLong(properties.getProperty("hrsystem.sync.retention.days",
+                String.valueOf(config.retentionDays)).trim()));
+        return config;
+    }
+
+    public long getIntervalMillis() { return intervalMillis; }
+    public void setIntervalMillis(long intervalMillis) { this.intervalMillis = intervalMillis; }
+    public long getRetentionDays() { return retentionDays; }
+    public void setRetentionDays(long retentionDays) { this.retentionDays = retentionDays; }
+}
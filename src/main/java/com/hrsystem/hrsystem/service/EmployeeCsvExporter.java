@@ -0,0 +1,59 @@
+package com.hrsystem.hrsystem.service;
+
+import com.hrsystem.hrsystem.repository.DepartmentRepository;
+import com.hrsystem.hrsystem.repository.EmployeeRepository;
+import com.hrsystem.hrsystem.util.CsvWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.function.LongConsumer;
+
+/**
+ * Streams the {@code employees} table to a CSV file row by row, so memory use does not grow with the table.
+ * The output can be read back by {@link EmployeeCsvImporter}.
+ */
+public class EmployeeCsvExporter {
+
+    private static final int PROGRESS_INTERVAL = 10_000;
+
+    private final EmployeeRepository employees;
+    private final DepartmentRepository departments;
+
+    public EmployeeCsvExporter(EmployeeRepository employees, DepartmentRepository departments) {
+        this.employees = employees;
+        this.departments = departments;
+    }
+
+    /** @return the number of rows written. */
+    public long exportFile(Path file, LongConsumer progress) throws IOException, SQLException {
+        departments.ensureDictionary();
+        long[] written = {0};
+        try (CsvWriter csv = new CsvWriter(Files.newBufferedWriter(file, StandardCharsets.UTF_8))) {
+            csv.writeRecord("id", "name", "department", "salary", "join_date", "increment_policy");
+            employees.forEach(employee -> {
+                try {
+                    csv.writeRecord(
+                            String.valueOf(employee.getId()),
+                            employee.getName(),
+                            departments.nameOf(employee.getDepartmentId()),
+                            BigDecimal.valueOf(employee.getSalary()).setScale(2, RoundingMode.HALF_UP).toPlainString(),
+                            employee.getJoinDate() != null ? employee.getJoinDate().toString() : "",
+                            employee.getIncrementPolicy());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                if (++written[0] % PROGRESS_INTERVAL == 0) progress.accept(written[0]);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        progress.accept(written[0]);
+        return written[0];
+    }
+}
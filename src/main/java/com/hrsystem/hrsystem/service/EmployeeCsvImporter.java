@@ -0,0 +1,164 @@
+package com.hrsystem.hrsystem.service;
+
+import com.hrsystem.hrsystem.model.Department;
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.repository.DepartmentRepository;
+import com.hrsystem.hrsystem.repository.EmployeeBulkWriter;
+import com.hrsystem.hrsystem.repository.EmployeeRepository;
+import com.hrsystem.hrsystem.util.CsvReader;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * Streams employees from a CSV file into the {@code employees} table.
+ *
+ * The file needs a header row naming the columns {@code name, department, salary, join_date,
+ * increment_policy} in any order; an {@code id} column or other extras are ignored. Each row is checked
+ * against the table definition and the known departments. Valid rows are inserted with batched statements
+ * in chunked transactions; invalid rows are skipped and reported with their line number.
+ */
+public class EmployeeCsvImporter {
+
+    public static final List<String> COLUMNS = List.of("name", "department", "salary", "join_date", "increment_policy");
+
+    private static final int MAX_NAME_LENGTH = 255;
+    // salary is DECIMAL(10, 2)
+    private static final BigDecimal MAX_SALARY = new BigDecimal("99999999.99");
+    private static final int PROGRESS_INTERVAL = 10_000;
+
+    private final EmployeeRepository employees;
+    private final DepartmentRepository departments;
+    private int batchSize = 500;
+    private int chunkSize = 5_000;
+
+    public EmployeeCsvImporter(EmployeeRepository employees, DepartmentRepository departments) {
+        this.employees = employees;
+        this.departments = departments;
+    }
+
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+    public void setChunkSize(int chunkSize) { this.chunkSize = chunkSize; }
+
+    public ImportReport importFile(Path file, LongConsumer progress) throws IOException, SQLException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importFrom(reader, progress);
+        }
+    }
+
+    /**
+     * Imports every valid row. If the database rejects a batch, the rows of the current chunk are rolled
+     * back and the import stops; chunks committed before that stay in the table.
+     * @param progress receives the number of rows read so far, every few thousand rows.
+     */
+    public ImportReport importFrom(Reader reader, LongConsumer progress) throws IOException, SQLException {
+        long started = System.currentTimeMillis();
+        Map<String, Department> departmentNames = knownDepartments();
+        ImportReport report = new ImportReport();
+
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) throw new IOException("The file is empty.");
+        int[] columns = resolveColumns(header);
+
+        try (EmployeeBulkWriter writer = employees.openBulkWriter(batchSize, chunkSize)) {
+            List<String> record;
+            while ((record = csv.next()) != null) {
+                if (record.size() == 1 && record.get(0).isBlank()) continue;
+                report.rowRead();
+                try {
+                    writer.add(parse(record, columns, departmentNames));
+                } catch (IllegalArgumentException e) {
+                    report.reject(csv.getRecordLine(), e.getMessage());
+                } catch (SQLException e) {
+                    throw new SQLException("Import stopped near line " + csv.getRecordLine() + " after "
+                            + writer.getCommitted() + " committed rows: " + e.getMessage(), e.getSQLState(), e);
+                }
+                if (report.getRowsRead() % PROGRESS_INTERVAL == 0) progress.accept(report.getRowsRead());
+            }
+            writer.commit();
+            report.finish(writer.getCommitted(), System.currentTimeMillis() - started);
+        }
+        progress.accept(report.getRowsRead());
+        return report;
+    }
+
+    /** Departments keyed by lower-case name, since MySQL compares names case-insensitively. */
+    private Map<String, Department> knownDepartments() throws SQLException {
+        Map<String, Department> names = new HashMap<>();
+        for (Department department : departments.findAll()) {
+            names.put(department.getName().toLowerCase(Locale.ROOT), department);
+        }
+        return names;
+    }
+
+    private static int[] resolveColumns(List<String> header) throws IOException {
+        int[] columns = new int[COLUMNS.size()];
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            columns[i] = -1;
+            for (int j = 0; j < header.size(); j++) {
+                // Excel prefixes UTF-8 files with a byte order mark
+                String name = header.get(j).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+                if (name.equals(COLUMNS.get(i))) columns[i] = j;
+            }
+            if (columns[i] < 0) throw new IOException("The header has no '" + COLUMNS.get(i) + "' column.");
+        }
+        return columns;
+    }
+
+    private static Employee parse(List<String> record, int[] columns, Map<String, Department> departmentNames) {
+        String name = field(record, columns[0]);
+        if (name.isEmpty()) throw new IllegalArgumentException("name is required");
+        if (name.length() > MAX_NAME_LENGTH) throw new IllegalArgumentException("name is longer than " + MAX_NAME_LENGTH + " characters");
+
+        String departmentField = field(record, columns[1]);
+        Department department = departmentNames.get(departmentField.toLowerCase(Locale.ROOT));
+        if (department == null) throw new IllegalArgumentException("unknown department '" + departmentField + "'");
+
+        String salaryField = field(record, columns[2]);
+        BigDecimal salary;
+        try {
+            salary = new BigDecimal(salaryField);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("salary '" + salaryField + "' is not a number");
+        }
+        if (salary.signum() < 0 || salary.compareTo(MAX_SALARY) > 0 || salary.stripTrailingZeros().scale() > 2) {
+            throw new IllegalArgumentException("salary '" + salaryField + "' does not fit DECIMAL(10,2)");
+        }
+
+        String joinField = field(record, columns[3]);
+        LocalDate joinDate = null;
+        if (!joinField.isEmpty()) {
+            try {
+                joinDate = LocalDate.parse(joinField);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("join_date '" + joinField + "' is not a yyyy-MM-dd date");
+            }
+        }
+
+        String policy = field(record, columns[4]);
+        if (policy.isEmpty()) {
+            policy = "Yearly";
+        } else if (!policy.equals("Yearly") && !policy.equals("Half-Yearly")) {
+            throw new IllegalArgumentException("increment_policy must be Yearly or Half-Yearly, not '" + policy + "'");
+        }
+
+        return new Employee(0, name, department.getId(), salary.doubleValue(), joinDate, policy);
+    }
+
+    private static String field(List<String> record, int column) {
+        return column < record.size() ? record.get(column).trim() : "";
+    }
+}
@@ -0,0 +1,413 @@
+package com.hrsystem.hrsystem.service;
+
+import com.hrsystem.hrsystem.model.Department;
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.repository.DepartmentRepository;
+import com.hrsystem.hrsystem.repository.EmployeeIndex;
+import com.hrsystem.hrsystem.repository.EmployeeRepository;
+import com.hrsystem.hrsystem.repository.EmployeeSelection;
+import com.hrsystem.hrsystem.repository.RepositoryListener;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * As-you-type search over employee names and department names.
+ *
+ * Both are split into lower-case words, and each word maps to the ids of the employees it occurs in. A query
+ * is split the same way; an employee matches if, for every query word, one of its words starts with it, so
+ * "jo fin" finds "John Smith" in Finance. Words are kept in a sorted map, so all words with a given prefix
+ * are one range read, and their id lists are OR-ed into a bitset over employee ids. One- and two-letter
+ * prefixes, which would span tens of thousands of distinct words, have id lists of their own. Large id lists
+ * keep a cached bitset, so any query over 500k employees takes well under a millisecond.
+ *
+ * Department words map to department ids rather than employees, so renaming a department only re-indexes
+ * its name. The index follows the employee and department repositories' change events.
+ */
+public class EmployeeSearchIndex extends EmployeeIndex {
+
+    // Query words up to this long are answered from the prefix lists instead of a range of words
+    private static final int SHORT_PREFIX = 2;
+
+    private static final EmployeeSearchIndex INSTANCE =
+            new EmployeeSearchIndex(EmployeeRepository.getInstance(), DepartmentRepository.getInstance());
+
+    public static EmployeeSearchIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /** The employees matching a query, in id order, readable by position. */
+    public static final class Matches implements EmployeeSelection {
+        private final long[] bits;
+        // Set bits in the words before each word
+        private final int[] rank;
+        private final int size;
+
+        Matches(long[] bits) {
+            this.bits = bits;
+            this.rank = new int[bits.length];
+            int count = 0;
+            for (int i = 0; i < bits.length; i++) {
+                rank[i] = count;
+                count += Long.bitCount(bits[i]);
+            }
+            this.size = count;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public int idAt(int index) {
+            if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+            int low = 0;
+            int high = rank.length - 1;
+            while (low < high) {
+                int mid = (low + high + 1) >>> 1;
+                if (rank[mid] <= index) {
+                    low = mid;
+                } else {
+                    high = mid - 1;
+                }
+            }
+            // Skip to the word holding the match; words without set bits share the next word's rank
+            while (bits[low] == 0 || rank[low] + Long.bitCount(bits[low]) <= index) low++;
+            long word = bits[low];
+            for (int skip = index - rank[low]; skip > 0; skip--) {
+                word &= word - 1;
+            }
+            return low * 64 + Long.numberOfTrailingZeros(word);
+        }
+
+        /** Equal when the same employees match, so re-running a query after an unrelated change is a no-op. */
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) return true;
+            if (!(other instanceof Matches)) return false;
+            Matches that = (Matches) other;
+            if (size != that.size) return false;
+            for (int i = 0; i < Math.max(bits.length, that.bits.length); i++) {
+                long mine = i < bits.length ? bits[i] : 0;
+                long theirs = i < that.bits.length ? that.bits[i] : 0;
+                if (mine != theirs) return false;
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = 1;
+            int end = bits.length;
+            while (end > 0 && bits[end - 1] == 0) end--;
+            for (int i = 0; i < end; i++) {
+                hash = 31 * hash + Long.hashCode(bits[i]);
+            }
+            return hash;
+        }
+
+        public boolean contains(int id) {
+            int word = id >>> 6;
+            return id >= 0 && word < bits.length && (bits[word] & (1L << id)) != 0;
+        }
+    }
+
+    /** The sorted ids one word occurs in. */
+    private static final class Posting {
+        // Above this many ids a cached bitset is cheaper to OR than setting bits one by one
+        private static final int DENSE = 2048;
+
+        private int[] ids = new int[2];
+        private int size;
+        private long[] bits;
+
+        void add(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index >= 0) return;
+            index = -index - 1;
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+            bits = null;
+        }
+
+        void remove(int id) {
+            int index = Arrays.binarySearch(ids, 0, size, id);
+            if (index < 0) return;
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            bits = null;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void orInto(long[] target) {
+            if (size < DENSE) {
+                for (int i = 0; i < size; i++) {
+                    target[ids[i] >>> 6] |= 1L << ids[i];
+                }
+                return;
+            }
+            if (bits == null || bits.length != target.length) {
+                bits = new long[target.length];
+                for (int i = 0; i < size; i++) {
+                    bits[ids[i] >>> 6] |= 1L << ids[i];
+                }
+            }
+            for (int i = 0; i < target.length; i++) {
+                target[i] |= bits[i];
+            }
+        }
+    }
+
+    private final EmployeeRepository employees;
+    private final DepartmentRepository departments;
+
+    private TreeMap<String, Posting> nameWords = new TreeMap<>();
+    private Map<String, Posting> namePrefixes = new HashMap<>();
+    // Per employee id: the indexed name (null if absent) and department id
+    private String[] nameOfId = new String[0];
+    private int[] departmentOfId = new int[0];
+    // Employees per department id, and department ids per word of the department name
+    private Map<Integer, Posting> employeesByDepartment = new HashMap<>();
+    private final TreeMap<String, Set<Integer>> departmentWords = new TreeMap<>();
+    private final Map<Integer, String> departmentNames = new HashMap<>();
+
+    EmployeeSearchIndex(EmployeeRepository employees, DepartmentRepository departments) {
+        this.employees = employees;
+        this.departments = departments;
+        employees.addListener(this);
+        departments.addListener(new DepartmentChanges());
+    }
+
+    /**
+     * Reads every employee once and indexes them. If the repository is invalidated meanwhile, e.g. by an
+     * import, the rows read so far are stale and the table is read again.
+     */
+    @Override
+    protected Runnable read() throws SQLException {
+        List<Department> allDepartments = departments.findAll();
+        TreeMap<String, Posting> words = new TreeMap<>();
+        Map<String, Posting> prefixes = new HashMap<>();
+        Map<Integer, Posting> byDepartment = new HashMap<>();
+        String[][] names = {new String[1024]};
+        int[][] departmentIds = {new int[1024]};
+        employees.forEach(employee -> {
+            int id = employee.getId();
+            if (id >= names[0].length) {
+                names[0] = Arrays.copyOf(names[0], Math.max(id + 1, names[0].length * 2));
+                departmentIds[0] = Arrays.copyOf(departmentIds[0], names[0].length);
+            }
+            names[0][id] = employee.getName() != null ? employee.getName() : "";
+            departmentIds[0][id] = employee.getDepartmentId();
+            index(words, prefixes, names[0][id], id);
+            byDepartment.computeIfAbsent(employee.getDepartmentId(), d -> new Posting()).add(id);
+        });
+        return () -> {
+            nameWords = words;
+            namePrefixes = prefixes;
+            nameOfId = names[0];
+            departmentOfId = departmentIds[0];
+            employeesByDepartment = byDepartment;
+            departmentWords.clear();
+            departmentNames.clear();
+            for (Department department : allDepartments) {
+                putDepartment(department);
+            }
+        };
+    }
+
+    /**
+     * @return the employees matching every word of {@code query}, or null if the query has no words or the
+     * index is not built.
+     */
+    public synchronized Matches search(String query) {
+        List<String> terms = words(query);
+        if (!isBuilt() || terms.isEmpty()) return null;
+        long[] result = null;
+        for (String term : terms) {
+            long[] matches = new long[(nameOfId.length >>> 6) + 1];
+            if (term.length() <= SHORT_PREFIX) {
+                Posting posting = namePrefixes.get(term);
+                if (posting != null) posting.orInto(matches);
+            } else {
+                for (Posting posting : withPrefix(nameWords, term).values()) {
+                    posting.orInto(matches);
+                }
+            }
+            Set<Integer> departmentIds = new HashSet<>();
+            for (Set<Integer> ids : withPrefix(departmentWords, term).values()) {
+                departmentIds.addAll(ids);
+            }
+            for (int departmentId : departmentIds) {
+                Posting posting = employeesByDepartment.get(departmentId);
+                if (posting != null) posting.orInto(matches);
+            }
+            if (result == null) {
+                result = matches;
+            } else {
+                for (int i = 0; i < result.length; i++) {
+                    result[i] &= matches[i];
+                }
+            }
+        }
+        return new Matches(result);
+    }
+
+    private static <V> NavigableMap<String, V> withPrefix(TreeMap<String, V> map, String prefix) {
+        return map.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    /** Lower-case words of letters and digits, e.g. "O'Neil-Smith" gives "o", "neil" and "smith". */
+    static List<String> words(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null) return words;
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean inWord = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (inWord && start < 0) {
+                start = i;
+            } else if (!inWord && start >= 0) {
+                words.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private static void index(TreeMap<String, Posting> words, Map<String, Posting> prefixes, String name, int id) {
+        for (String word : words(name)) {
+            words.computeIfAbsent(word, w -> new Posting()).add(id);
+            for (int length = 1; length <= Math.min(SHORT_PREFIX, word.length()); length++) {
+                prefixes.computeIfAbsent(word.substring(0, length), w -> new Posting()).add(id);
+            }
+        }
+    }
+
+    private static void unindex(Map<String, Posting> postings, String key, int id) {
+        Posting posting = postings.get(key);
+        if (posting == null) return;
+        posting.remove(id);
+        if (posting.isEmpty()) postings.remove(key);
+    }
+
+    private void put(Employee employee) {
+        int id = employee.getId();
+        remove(id);
+        if (id >= nameOfId.length) {
+            nameOfId = Arrays.copyOf(nameOfId, Math.max(id + 1, nameOfId.length * 2));
+            departmentOfId = Arrays.copyOf(departmentOfId, nameOfId.length);
+        }
+        nameOfId[id] = employee.getName() != null ? employee.getName() : "";
+        departmentOfId[id] = employee.getDepartmentId();
+        index(nameWords, namePrefixes, nameOfId[id], id);
+        employeesByDepartment.computeIfAbsent(employee.getDepartmentId(), d -> new Posting()).add(id);
+    }
+
+    private void remove(int id) {
+        if (id < 0 || id >= nameOfId.length || nameOfId[id] == null) return;
+        for (String word : words(nameOfId[id])) {
+            unindex(nameWords, word, id);
+            for (int length = 1; length <= Math.min(SHORT_PREFIX, word.length()); length++) {
+                unindex(namePrefixes, word.substring(0, length), id);
+            }
+        }
+        Posting department = employeesByDepartment.get(departmentOfId[id]);
+        if (department != null) department.remove(id);
+        nameOfId[id] = null;
+        departmentOfId[id] = 0;
+    }
+
+    private void putDepartment(Department department) {
+        removeDepartment(department.getId());
+        departmentNames.put(department.getId(), department.getName());
+        for (String word : words(department.getName())) {
+            departmentWords.computeIfAbsent(word, w -> new HashSet<>()).add(department.getId());
+        }
+    }
+
+    private void removeDepartment(int id) {
+        String name = departmentNames.remove(id);
+        if (name == null) return;
+        for (String word : words(name)) {
+            Set<Integer> ids = departmentWords.get(word);
+            if (ids == null) continue;
+            ids.remove(id);
+            if (ids.isEmpty()) departmentWords.remove(word);
+        }
+    }
+
+    @Override
+    protected boolean apply(int id, Employee current) {
+        if (current == null) {
+            remove(id);
+        } else {
+            put(current);
+        }
+        return true;
+    }
+
+    /** Drops the employee words; department names are kept, they follow the department repository. */
+    @Override
+    protected void clear() {
+        nameWords = new TreeMap<>();
+        namePrefixes = new HashMap<>();
+        nameOfId = new String[0];
+        departmentOfId = new int[0];
+        employeesByDepartment = new HashMap<>();
+    }
+
+    private class DepartmentChanges implements RepositoryListener<Department> {
+        @Override
+        public void onReloaded(List<Department> items) {
+            synchronized (EmployeeSearchIndex.this) {
+                departmentWords.clear();
+                departmentNames.clear();
+                for (Department department : items) {
+                    putDepartment(department);
+                }
+            }
+            fireChanged();
+        }
+
+        @Override
+        public void onInvalidated() {
+        }
+
+        @Override
+        public void onAdded(Department item) {
+            synchronized (EmployeeSearchIndex.this) {
+                putDepartment(item);
+            }
+        }
+
+        @Override
+        public void onUpdated(Department previous, Department current) {
+            synchronized (EmployeeSearchIndex.this) {
+                putDepartment(current);
+            }
+            fireChanged();
+        }
+
+        @Override
+        public void onRemoved(int id, Department previous) {
+            synchronized (EmployeeSearchIndex.this) {
+                removeDepartment(id);
+            }
+        }
+    }
+}
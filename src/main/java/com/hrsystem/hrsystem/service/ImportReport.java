@@ -0,0 +1,55 @@
+package com.hrsystem.hrsystem.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of a CSV import: how many rows were read, inserted and rejected, and how fast it went.
+ */
+public class ImportReport {
+
+    /** Only the first rejections are kept verbatim; the rest are just counted. */
+    static final int MAX_REJECTIONS_KEPT = 1000;
+
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsRejected;
+    private long elapsedMillis;
+    private final List<String> rejections = new ArrayList<>();
+
+    void rowRead() {
+        rowsRead++;
+    }
+
+    void reject(long line, String reason) {
+        rowsRejected++;
+        if (rejections.size() < MAX_REJECTIONS_KEPT) {
+            rejections.add("Line " + line + ": " + reason);
+        }
+    }
+
+    void finish(long imported, long elapsedMillis) {
+        this.rowsImported = imported;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getRowsRead() { return rowsRead; }
+    public long getRowsImported() { return rowsImported; }
+    public long getRowsRejected() { return rowsRejected; }
+    public long getElapsedMillis() { return elapsedMillis; }
+
+    public List<String> getRejections() {
+        return Collections.unmodifiableList(rejections);
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? rowsImported : rowsImported * 1000.0 / elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Imported %,d of %,d rows (%,d rejected) in %.1f s, %,.0f rows/s",
+                rowsImported, rowsRead, rowsRejected, elapsedMillis / 1000.0, getRowsPerSecond());
+    }
+}
@@ -0,0 +1,151 @@
+package com.hrsystem.hrsystem.service;
+
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.repository.EmployeeIndex;
+import com.hrsystem.hrsystem.repository.EmployeeRepository;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Keeps every employee's salary increment due date in a sorted index, so "who is due as of X" is a range
+ * read instead of a scan over all employees. The index follows the employee repository's change events.
+ *
+ * An employee is due once {@link #monthsRequired(String)} whole months have passed since their last increment,
+ * or since joining if they never had one, the rule the dashboard has always applied to join dates.
+ */
+public class IncrementSchedule extends EmployeeIndex {
+
+    /** One employee's place in the schedule. */
+    public static final class Entry {
+        private final int id;
+        private final String name;
+        private final String policy;
+        private final LocalDate dueDate;
+
+        Entry(int id, String name, String policy, LocalDate dueDate) {
+            this.id = id;
+            this.name = name;
+            this.policy = policy;
+            this.dueDate = dueDate;
+        }
+
+        public int getId() { return id; }
+        public String getName() { return name; }
+        public String getPolicy() { return policy; }
+        public LocalDate getDueDate() { return dueDate; }
+    }
+
+    private static final Comparator<Entry> BY_DUE_DATE =
+            Comparator.comparing(Entry::getDueDate).thenComparingInt(Entry::getId);
+
+    private static final IncrementSchedule INSTANCE = new IncrementSchedule(EmployeeRepository.getInstance());
+
+    private final EmployeeRepository repository;
+    private final NavigableSet<Entry> byDueDate = new TreeSet<>(BY_DUE_DATE);
+    private final Map<Integer, Entry> byId = new HashMap<>();
+
+    public static IncrementSchedule getInstance() {
+        return INSTANCE;
+    }
+
+    IncrementSchedule(EmployeeRepository repository) {
+        this.repository = repository;
+        repository.addListener(this);
+    }
+
+    /** "Yearly" is every 12 months; any other policy ("Half-Yearly") is every 6. */
+    public static int monthsRequired(String policy) {
+        return "Yearly".equals(policy) ? 12 : 6;
+    }
+
+    /**
+     * The first date on which {@code ChronoUnit.MONTHS.between(anchor, date) >= monthsRequired(policy)}.
+     * Month-end anchors roll to the following day, e.g. 31 Jan + 1 month is due on 1 Mar.
+     */
+    public static LocalDate firstDueDate(LocalDate anchor, String policy) {
+        LocalDate due = anchor.plusMonths(monthsRequired(policy));
+        return due.getDayOfMonth() < anchor.getDayOfMonth() ? due.plusDays(1) : due;
+    }
+
+    /** The date the next increment interval counts from: the last increment, or else the join date. */
+    public static LocalDate anchorOf(Employee employee) {
+        return employee.getLastIncrementDate() != null ? employee.getLastIncrementDate() : employee.getJoinDate();
+    }
+
+    /** Reads every employee and sorts them by due date. */
+    @Override
+    protected Runnable read() throws SQLException {
+        NavigableSet<Entry> entries = new TreeSet<>(BY_DUE_DATE);
+        repository.forEach(employee -> {
+            Entry entry = entryFor(employee);
+            if (entry != null) entries.add(entry);
+        });
+        return () -> {
+            clear();
+            byDueDate.addAll(entries);
+            for (Entry entry : entries) {
+                byId.put(entry.getId(), entry);
+            }
+        };
+    }
+
+    /** Employees due for an increment on {@code date}, earliest due first. */
+    public synchronized List<Entry> dueAsOf(LocalDate date) {
+        Entry probe = new Entry(Integer.MAX_VALUE, null, null, date);
+        return new ArrayList<>(byDueDate.headSet(probe, true));
+    }
+
+    /** The earliest upcoming due date after {@code date}, or null if nobody else is scheduled. */
+    public synchronized LocalDate nextDueAfter(LocalDate date) {
+        Entry probe = new Entry(Integer.MAX_VALUE, null, null, date);
+        Entry next = byDueDate.higher(probe);
+        return next != null ? next.getDueDate() : null;
+    }
+
+    private static Entry entryFor(Employee employee) {
+        // Skip if there is no date to count from or no policy
+        LocalDate anchor = anchorOf(employee);
+        if (anchor == null || employee.getIncrementPolicy() == null) return null;
+        return new Entry(employee.getId(), employee.getName(), employee.getIncrementPolicy(),
+                firstDueDate(anchor, employee.getIncrementPolicy()));
+    }
+
+    @Override
+    protected boolean apply(int id, Employee current) {
+        if (current == null) {
+            remove(id);
+        } else {
+            put(current);
+        }
+        return true;
+    }
+
+    /** Drops the index; callers fall back to the database until {@link #build()} runs again. */
+    @Override
+    protected void clear() {
+        byDueDate.clear();
+        byId.clear();
+    }
+
+    private void put(Employee employee) {
+        remove(employee.getId());
+        Entry entry = entryFor(employee);
+        if (entry != null) {
+            byDueDate.add(entry);
+            byId.put(entry.getId(), entry);
+        }
+    }
+
+    private void remove(int id) {
+        Entry previous = byId.remove(id);
+        if (previous != null) byDueDate.remove(previous);
+    }
+}
@@ -0,0 +1,66 @@
+package com.hrsystem.hrsystem.service;
+
+import com.hrsystem.hrsystem.analytics.PayrollProjection;
+import com.hrsystem.hrsystem.repository.DepartmentRepository;
+import com.hrsystem.hrsystem.util.CsvWriter;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Writes a {@link PayrollProjection} as CSV, one record per month and department, month by month. Records
+ * are written as they are formatted, so a long projection over many departments needs no more memory than
+ * the projection itself.
+ */
+public class ProjectionCsvExporter {
+
+    private final DepartmentRepository departments;
+
+    public ProjectionCsvExporter(DepartmentRepository departments) {
+        this.departments = departments;
+    }
+
+    /** @return the number of records written, not counting the header. */
+    public long exportFile(PayrollProjection projection, Path file) throws IOException, SQLException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            return export(projection, writer);
+        }
+    }
+
+    /** Writes to {@code out} and flushes it, leaving it open. */
+    public long export(PayrollProjection projection, Writer out) throws IOException, SQLException {
+        departments.ensureDictionary();
+        Integer[] order = new Integer[projection.departmentCount()];
+        String[] names = new String[order.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+            names[i] = projection.departmentId(i) == 0 ? "" : departments.nameOf(projection.departmentId(i));
+        }
+        Arrays.sort(order, Comparator.comparing((Integer i) -> names[i], String.CASE_INSENSITIVE_ORDER));
+
+        long written = 0;
+        CsvWriter csv = new CsvWriter(out);
+        csv.writeRecord("month", "department_id", "department", "headcount", "cost");
+        for (int month = 0; month < projection.getMonths(); month++) {
+            String label = projection.getFirstMonth().plusMonths(month).toString();
+            for (int index : order) {
+                csv.writeRecord(
+                        label,
+                        projection.departmentId(index) == 0 ? "" : String.valueOf(projection.departmentId(index)),
+                        names[index],
+                        String.valueOf(projection.headcount(index)),
+                        BigDecimal.valueOf(projection.costCents(index, month), 2).toPlainString());
+                written++;
+            }
+        }
+        csv.flush();
+        return written;
+    }
+}
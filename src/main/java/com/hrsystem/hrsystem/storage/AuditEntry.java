@@ -0,0 +1,106 @@
+package com.hrsystem.hrsystem.storage;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One entry of the {@link AuditLog}: who changed which row when, with the row as it was before and after.
+ *
+ * The images are the row's fields as {@code name=value} lines, encoded by {@link #encode(Map)}, so the log
+ * keeps its shape when columns are added. A bulk change, e.g. an import or an increment run, has row id 0
+ * and describes itself in the after image.
+ */
+public class AuditEntry {
+
+    public enum Action { INSERT, UPDATE, DELETE, IMPORT, INCREMENT }
+
+    private final long id;
+    private final ChangeRecord.Table table;
+    private final int rowId;
+    private final Action action;
+    private final String user;
+    private final Instant changedAt;
+    private final String before;
+    private final String after;
+
+    public AuditEntry(long id, ChangeRecord.Table table, int rowId, Action action, String user, Instant changedAt,
+                      String before, String after) {
+        this.id = id;
+        this.table = table;
+        this.rowId = rowId;
+        this.action = action;
+        this.user = user;
+        this.changedAt = changedAt;
+        this.before = before;
+        this.after = after;
+    }
+
+    /** A new entry, numbered by the log when it is written. */
+    public AuditEntry(ChangeRecord.Table table, int rowId, Action action, String user, String before, String after) {
+        this(0, table, rowId, action, user, Instant.now(), before, after);
+    }
+
+    /** Increases with every entry written; 0 until then. */
+    public long getId() { return id; }
+    public ChangeRecord.Table getTable() { return table; }
+    public int getRowId() { return rowId; }
+    public Action getAction() { return action; }
+    public String getUser() { return user; }
+    /** When the change was made, which can be a little before the entry was written. */
+    public Instant getChangedAt() { return changedAt; }
+    /** The encoded row before the change, or null if there was none. */
+    public String getBefore() { return before; }
+    /** The encoded row after the change, or null if there is none. */
+    public String getAfter() { return after; }
+
+    /** The same entry with the id the log gave it. */
+    public AuditEntry withId(long id) {
+        return new AuditEntry(id, table, rowId, action, user, changedAt, before, after);
+    }
+
+    /** Writes fields as {@code name=value} lines, escaping backslashes and line breaks in the values. */
+    public static String encode(Map<String, String> fields) {
+        StringBuilder image = new StringBuilder();
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            if (image.length() > 0) image.append('\n');
+            image.append(field.getKey()).append('=');
+            String value = field.getValue() != null ? field.getValue() : "";
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '\\') {
+                    image.append("\\\\");
+                } else if (c == '\n') {
+                    image.append("\\n");
+                } else if (c == '\r') {
+                    image.append("\\r");
+                } else {
+                    image.append(c);
+                }
+            }
+        }
+        return image.toString();
+    }
+
+    /** Reads an image written by {@link #encode(Map)}, keeping the field order. An empty map for null. */
+    public static Map<String, String> decode(String image) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        if (image == null || image.isEmpty()) return fields;
+        for (String line : image.split("\n")) {
+            int eq = line.indexOf('=');
+            if (eq < 0) continue;
+            StringBuilder value = new StringBuilder(line.length() - eq);
+            for (int i = eq + 1; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (c == '\\' && i + 1 < line.length()) {
+                    char next = line.charAt(++i);
+                    value.append(next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+                } else {
+                    value.append(c);
+                }
+            }
+            fields.put(line.substring(0, eq), value.toString());
+        }
+        return fields;
+    }
+}
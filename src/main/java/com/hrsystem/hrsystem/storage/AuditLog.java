@@ -0,0 +1,24 @@
+package com.hrsystem.hrsystem.storage;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * An append-only record of every change to the employee and department tables, for finding out who
+ * changed a salary, a policy or a department, and when. Entries are never updated or deleted.
+ */
+public interface AuditLog {
+
+    /**
+     * Writes the entries in one transaction, so either all of them are stored or none are. Writing a batch
+     * costs about as much as writing one entry, which is what lets the writer keep up with a burst of changes.
+     */
+    void append(List<AuditEntry> entries) throws SQLException;
+
+    /**
+     * Reads one row's history, newest first, a page at a time.
+     * @param beforeId only entries with a lower id; {@link Long#MAX_VALUE} for the first page, then the id of
+     * the last entry of the previous page.
+     */
+    List<AuditEntry> findByRow(ChangeRecord.Table table, int rowId, long beforeId, int limit) throws SQLException;
+}
@@ -0,0 +1,24 @@
+package com.hrsystem.hrsystem.storage;
+
+import com.hrsystem.hrsystem.model.Employee;
+
+import java.sql.SQLException;
+
+/**
+ * Inserts many employees in chunked transactions. Rows added since the last commit are discarded if the
+ * insert is closed without committing them.
+ */
+public interface BulkInsert extends AutoCloseable {
+
+    /** Commits on its own every {@code chunkSize} rows. */
+    void add(Employee employee) throws SQLException;
+
+    /** Commits everything added so far. */
+    void commit() throws SQLException;
+
+    /** Rows committed so far. */
+    long getCommitted();
+
+    @Override
+    void close() throws SQLException;
+}
@@ -0,0 +1,37 @@
+package com.hrsystem.hrsystem.storage;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A versioned log of every insert, update and delete, written in the same transaction as the change itself.
+ * Clients sharing a database read the entries after the last version they have seen to pick up each other's
+ * changes without re-reading the tables.
+ *
+ * Versions increase with every entry but can have gaps, e.g. where a transaction rolled back. They are
+ * handed out when a transaction writes its entry rather than when it commits, so an entry can still appear
+ * below a version a reader has already passed.
+ */
+public interface ChangeLog {
+
+    /** @return the newest version in the log, or 0 if it is empty. A new reader starts after it. */
+    long latestVersion() throws SQLException;
+
+    /** @return the oldest version still in the log, or 0 if it is empty. */
+    long oldestVersion() throws SQLException;
+
+    /** @return up to {@code limit} entries with a version above {@code after}, in version order. */
+    List<ChangeRecord> readAfter(long after, int limit) throws SQLException;
+
+    /** @return the entries with these versions that exist, in version order. */
+    List<ChangeRecord> readVersions(Collection<Long> versions) throws SQLException;
+
+    /**
+     * Deletes entries older than {@code maxAge}, always keeping the newest one so versions never restart
+     * below what readers have seen.
+     * @return the number of entries deleted.
+     */
+    int prune(Duration maxAge) throws SQLException;
+}
@@ -0,0 +1,35 @@
+package com.hrsystem.hrsystem.storage;
+
+/**
+ * One entry of the {@link ChangeLog}: a row was inserted, updated or deleted, or a table changed in bulk.
+ * Only the row id is recorded; readers fetch the current row themselves.
+ */
+public class ChangeRecord {
+
+    public enum Table { EMPLOYEES, DEPARTMENTS }
+
+    /** {@code RELOAD} marks a bulk change, e.g. an import, after which the whole table must be re-read. */
+    public enum Kind { INSERT, UPDATE, DELETE, RELOAD }
+
+    private final long version;
+    private final Table table;
+    private final int rowId;
+    private final Kind kind;
+    private final boolean local;
+
+    public ChangeRecord(long version, Table table, int rowId, Kind kind, boolean local) {
+        this.version = version;
+        this.table = table;
+        this.rowId = rowId;
+        this.kind = kind;
+        this.local = local;
+    }
+
+    public long getVersion() { return version; }
+    public Table getTable() { return table; }
+    /** The id of the changed row, or 0 for {@link Kind#RELOAD}. */
+    public int getRowId() { return rowId; }
+    public Kind getKind() { return kind; }
+    /** Whether this client wrote the entry, in which case its repositories have already applied it. */
+    public boolean isLocal() { return local; }
+}
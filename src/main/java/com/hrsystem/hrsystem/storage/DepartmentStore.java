@@ -0,0 +1,26 @@
+package com.hrsystem.hrsystem.storage;
+
+import com.hrsystem.hrsystem.model.Department;
+
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * The department operations the application performs.
+ */
+public interface DepartmentStore {
+
+    /** @return every department, ordered by name. */
+    List<Department> findAll() throws SQLException;
+
+    /**
+     * @return the generated id.
+     * @throws java.sql.SQLIntegrityConstraintViolationException if the name is taken.
+     */
+    int insert(String name) throws SQLException;
+
+    void rename(int id, String name) throws SQLException;
+
+    /** @throws java.sql.SQLIntegrityConstraintViolationException if employees still reference it. */
+    void delete(int id) throws SQLException;
+}
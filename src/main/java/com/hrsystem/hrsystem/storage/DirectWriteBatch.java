@@ -0,0 +1,59 @@
+package com.hrsystem.hrsystem.storage;
+
+import com.hrsystem.hrsystem.model.Employee;
+
+import java.sql.SQLException;
+
+/**
+ * A write batch for storage without transactions: each write goes straight to the stores and is kept at
+ * once, so {@link #commit()} has nothing left to do and {@link #close()} nothing to roll back. The stores
+ * already make each single write all-or-nothing.
+ */
+class DirectWriteBatch implements WriteBatch {
+
+    private final EmployeeStore employees;
+    private final DepartmentStore departments;
+
+    DirectWriteBatch(EmployeeStore employees, DepartmentStore departments) {
+        this.employees = employees;
+        this.departments = departments;
+    }
+
+    @Override
+    public int insertEmployee(Employee employee) throws SQLException {
+        return employees.insert(employee);
+    }
+
+    @Override
+    public void updateEmployee(Employee employee) throws SQLException {
+        employees.update(employee);
+    }
+
+    @Override
+    public void deleteEmployee(int id) throws SQLException {
+        employees.delete(id);
+    }
+
+    @Override
+    public int insertDepartment(String name) throws SQLException {
+        return departments.insert(name);
+    }
+
+    @Override
+    public void renameDepartment(int id, String name) throws SQLException {
+        departments.rename(id, name);
+    }
+
+    @Override
+    public void deleteDepartment(int id) throws SQLException {
+        departments.delete(id);
+    }
+
+    @Override
+    public void commit() {
+    }
+
+    @Override
+    public void close() {
+    }
+}
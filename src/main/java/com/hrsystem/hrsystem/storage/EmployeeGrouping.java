@@ -0,0 +1,13 @@
+package com.hrsystem.hrsystem.storage;
+
+/**
+ * Ways to group employees for totals computed by the storage engine itself.
+ */
+public enum EmployeeGrouping {
+    /** Keyed by department id, 0 for employees without a department. */
+    DEPARTMENT,
+    /** Keyed by increment policy, null for employees without one. */
+    POLICY,
+    /** Keyed by join year, null for employees without a join date. */
+    JOIN_YEAR
+}
@@ -0,0 +1,43 @@
+package com.hrsystem.hrsystem.storage;
+
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.repository.EmployeeSort;
+
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.function.IntFunction;
+
+/**
+ * The orders of {@link EmployeeSort} in Java, for the engines that sort rows themselves rather than in SQL, and
+ * for placing a changed row against rows already read. Names compare case-insensitively like MySQL's default
+ * collation.
+ */
+public final class EmployeeOrder {
+
+    private static final LocalDate NO_DATE = LocalDate.of(1000, 1, 1);
+
+    private EmployeeOrder() {
+    }
+
+    /**
+     * Ascending order for a sort column, with id as the tie-breaker like {@code ORDER BY <column>, id}.
+     * @param departmentName the name of a department id, or an empty string for none.
+     */
+    public static Comparator<Employee> ascending(EmployeeSort sort, IntFunction<String> departmentName) {
+        Comparator<Employee> byId = Comparator.comparingInt(Employee::getId);
+        switch (sort) {
+            case NAME:
+                return Comparator.comparing(Employee::getName, String.CASE_INSENSITIVE_ORDER).thenComparing(byId);
+            case DEPARTMENT:
+                return Comparator.comparing((Employee e) -> departmentName.apply(e.getDepartmentId()), String.CASE_INSENSITIVE_ORDER)
+                        .thenComparing(byId);
+            case SALARY:
+                return Comparator.comparingDouble(Employee::getSalary).thenComparing(byId);
+            case JOIN_DATE:
+                return Comparator.comparing((Employee e) -> e.getJoinDate() != null ? e.getJoinDate() : NO_DATE)
+                        .thenComparing(byId);
+            default:
+                return byId;
+        }
+    }
+}
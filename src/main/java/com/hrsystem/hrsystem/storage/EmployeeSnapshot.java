@@ -0,0 +1,316 @@
+package com.hrsystem.hrsystem.storage;
+
+import com.hrsystem.hrsystem.model.Department;
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.repository.EmployeeSort;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A copy of both tables in one local file, read through a memory mapping. Opening it reads only the header
+ * and the departments; an employee is decoded when it is asked for, and the operating system pages in only
+ * the parts of the file that are touched. Sorted views are stored as precomputed row orders, so a page in
+ * any order costs a binary search and the rows on the page.
+ *
+ * Layout, big-endian:
+ * <pre>
+ * header    magic, format, row count, creation time, section offsets, then the source database,
+ *           the departments and the distinct increment policies
+ * rows      one fixed-size record per employee in id order: id, department id, salary, join day,
+ *           last increment day, row version, offset of the name, policy number
+ * orders    per sorted column, the row numbers in ascending order
+ * names     length-prefixed UTF-8
+ * </pre>
+ * Instances are immutable and safe to share between threads.
+ */
+final class EmployeeSnapshot {
+
+    private static final long MAGIC = 0x4852534e41503031L; // "HRSNAP01"
+    private static final int FORMAT = 1;
+    private static final int FIXED_HEADER = 40;
+    private static final int ROW = 40;
+    private static final int ID = 0;
+    private static final int DEPARTMENT_ID = 4;
+    private static final int SALARY = 8;
+    private static final int JOIN_DAY = 16;
+    private static final int INCREMENT_DAY = 20;
+    private static final int VERSION = 24;
+    private static final int NAME = 28;
+    private static final int POLICY = 32;
+    private static final int NO_DAY = Integer.MIN_VALUE;
+    private static final List<EmployeeSort> ORDERED = List.of(EmployeeSort.NAME, EmployeeSort.DEPARTMENT,
+            EmployeeSort.SALARY, EmployeeSort.JOIN_DATE);
+
+    private final ByteBuffer data;
+    private final int size;
+    private final long createdAt;
+    private final int rowsAt;
+    private final int ordersAt;
+    private final String source;
+    private final List<Department> departments;
+    private final Map<Integer, String> departmentNames = new HashMap<>();
+    private final String[] policies;
+
+    private EmployeeSnapshot(ByteBuffer data) throws IOException {
+        this.data = data;
+        if (data.capacity() < FIXED_HEADER || data.getLong(0) != MAGIC || data.getInt(8) != FORMAT) {
+            throw new IOException("not a snapshot in a format this version reads");
+        }
+        size = data.getInt(12);
+        createdAt = data.getLong(16);
+        rowsAt = data.getInt(24);
+        ordersAt = data.getInt(28);
+        int namesAt = data.getInt(32);
+        int headerLength = data.getInt(36);
+        if (size < 0 || rowsAt < FIXED_HEADER + headerLength || ordersAt != rowsAt + size * ROW
+                || namesAt != ordersAt + ORDERED.size() * size * 4 || namesAt > data.capacity()) {
+            throw new IOException("snapshot is truncated or damaged");
+        }
+
+        byte[] header = new byte[headerLength];
+        data.get(FIXED_HEADER, header);
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(header));
+        source = in.readUTF();
+        int departmentCount = in.readInt();
+        List<Department> all = new ArrayList<>(departmentCount);
+        for (int i = 0; i < departmentCount; i++) {
+            Department department = new Department(in.readInt(), in.readUTF());
+            all.add(department);
+            departmentNames.put(department.getId(), department.getName());
+        }
+        departments = all;
+        policies = new String[in.readInt()];
+        for (int i = 0; i < policies.length; i++) {
+            policies[i] = in.readUTF();
+        }
+    }
+
+    /**
+     * Maps a snapshot file. A copy that a previous run wrote but could not move into place, because the old
+     * one was still mapped, is moved into place first.
+     * @throws IOException if the file is missing, damaged or in another format.
+     */
+    static EmployeeSnapshot open(Path file) throws IOException {
+        Path pending = pendingFile(file);
+        if (Files.exists(pending)) {
+            Files.move(pending, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("snapshot is too large");
+            // The mapping stays valid after the channel is closed
+            return new EmployeeSnapshot(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /** The database the rows were copied from, as {@link Storage#describe()} put it. */
+    String getSource() {
+        return source;
+    }
+
+    long getCreatedAt() {
+        return createdAt;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** @return the departments, ordered by name. */
+    List<Department> departments() {
+        List<Department> copies = new ArrayList<>(departments.size());
+        for (Department department : departments) {
+            copies.add(new Department(department.getId(), department.getName()));
+        }
+        return copies;
+    }
+
+    /** @return the name of the department, or an empty string if there is none. */
+    String departmentName(int id) {
+        return departmentNames.getOrDefault(id, "");
+    }
+
+    int idAt(int row) {
+        return data.getInt(rowsAt + row * ROW + ID);
+    }
+
+    int versionAt(int row) {
+        return data.getInt(rowsAt + row * ROW + VERSION);
+    }
+
+    int departmentIdAt(int row) {
+        return data.getInt(rowsAt + row * ROW + DEPARTMENT_ID);
+    }
+
+    /** Decodes one row into a fresh object. */
+    Employee rowAt(int row) {
+        int at = rowsAt + row * ROW;
+        int nameAt = data.getInt(at + NAME);
+        byte[] name = new byte[data.getInt(nameAt)];
+        data.get(nameAt + 4, name);
+        int policy = data.getInt(at + POLICY);
+        Employee employee = new Employee(data.getInt(at + ID), new String(name, StandardCharsets.UTF_8),
+                data.getInt(at + DEPARTMENT_ID), data.getDouble(at + SALARY), dateOf(data.getInt(at + JOIN_DAY)),
+                policy >= 0 ? policies[policy] : null);
+        employee.setLastIncrementDate(dateOf(data.getInt(at + INCREMENT_DAY)));
+        employee.setVersion(data.getInt(at + VERSION));
+        return employee;
+    }
+
+    /** @return the row number holding this id, or a negative number if there is none. */
+    int rowOf(int id) {
+        int low = 0;
+        int high = size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int midId = idAt(mid);
+            if (midId < id) {
+                low = mid + 1;
+            } else if (midId > id) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+
+    /** @return the row that comes {@code rank}th in ascending order of the sort column. */
+    int rowAtRank(EmployeeSort sort, int rank) {
+        if (sort == EmployeeSort.ID) return rank;
+        return data.getInt(ordersAt + (ORDERED.indexOf(sort) * size + rank) * 4);
+    }
+
+    private static LocalDate dateOf(int day) {
+        return day == NO_DAY ? null : LocalDate.ofEpochDay(day);
+    }
+
+    private static int dayOf(LocalDate date) {
+        return date == null ? NO_DAY : (int) date.toEpochDay();
+    }
+
+    static Path pendingFile(Path file) {
+        return file.resolveSibling(file.getFileName() + ".new");
+    }
+
+    /**
+     * Writes a new snapshot next to {@code file} and moves it into place. Readable only by the current user
+     * where the file system supports that, since it holds salaries.
+     * @param employees every employee, in ascending id order.
+     * @param departments every department, ordered by name.
+     */
+    static void write(Path file, String source, List<Department> departments, List<Employee> employees) throws IOException {
+        Map<String, Integer> policyNumbers = new LinkedHashMap<>();
+        byte[][] names = new byte[employees.size()][];
+        long namesLength = 0;
+        for (int i = 0; i < employees.size(); i++) {
+            Employee employee = employees.get(i);
+            if (employee.getIncrementPolicy() != null) policyNumbers.putIfAbsent(employee.getIncrementPolicy(), policyNumbers.size());
+            names[i] = employee.getName().getBytes(StandardCharsets.UTF_8);
+            namesLength += 4 + names[i].length;
+        }
+
+        ByteArrayOutputStream headerBytes = new ByteArrayOutputStream();
+        DataOutputStream header = new DataOutputStream(headerBytes);
+        header.writeUTF(source);
+        header.writeInt(departments.size());
+        Map<Integer, String> departmentNames = new HashMap<>();
+        for (Department department : departments) {
+            header.writeInt(department.getId());
+            header.writeUTF(department.getName());
+            departmentNames.put(department.getId(), department.getName());
+        }
+        header.writeInt(policyNumbers.size());
+        for (String policy : policyNumbers.keySet()) {
+            header.writeUTF(policy);
+        }
+        header.flush();
+
+        int size = employees.size();
+        long rowsAt = (FIXED_HEADER + headerBytes.size() + 7) & ~7L;
+        long ordersAt = rowsAt + (long) size * ROW;
+        long namesAt = ordersAt + (long) ORDERED.size() * size * 4;
+        if (namesAt + namesLength > Integer.MAX_VALUE) throw new IOException("too many rows for a snapshot");
+
+        Path pending = pendingFile(file);
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.deleteIfExists(pending);
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(pending, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        }
+        try (OutputStream stream = Files.newOutputStream(pending);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16))) {
+            out.writeLong(MAGIC);
+            out.writeInt(FORMAT);
+            out.writeInt(size);
+            out.writeLong(System.currentTimeMillis());
+            out.writeInt((int) rowsAt);
+            out.writeInt((int) ordersAt);
+            out.writeInt((int) namesAt);
+            out.writeInt(headerBytes.size());
+            headerBytes.writeTo(out);
+            out.write(new byte[(int) (rowsAt - FIXED_HEADER - headerBytes.size())]);
+
+            long nameAt = namesAt;
+            for (int i = 0; i < size; i++) {
+                Employee employee = employees.get(i);
+                Integer policy = employee.getIncrementPolicy() != null ? policyNumbers.get(employee.getIncrementPolicy()) : null;
+                out.writeInt(employee.getId());
+                out.writeInt(employee.getDepartmentId());
+                out.writeDouble(employee.getSalary());
+                out.writeInt(dayOf(employee.getJoinDate()));
+                out.writeInt(dayOf(employee.getLastIncrementDate()));
+                out.writeInt(employee.getVersion());
+                out.writeInt((int) nameAt);
+                out.writeInt(policy != null ? policy : -1);
+                out.writeInt(0);
+                nameAt += 4 + names[i].length;
+            }
+
+            Integer[] order = new Integer[size];
+            for (EmployeeSort sort : ORDERED) {
+                Comparator<Employee> ascending = EmployeeOrder.ascending(sort, id -> departmentNames.getOrDefault(id, ""));
+                for (int i = 0; i < size; i++) {
+                    order[i] = i;
+                }
+                Arrays.sort(order, (a, b) -> ascending.compare(employees.get(a), employees.get(b)));
+                for (int row : order) {
+                    out.writeInt(row);
+                }
+            }
+
+            for (byte[] name : names) {
+                out.writeInt(name.length);
+                out.write(name);
+            }
+        }
+        try {
+            Files.move(pending, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Windows refuses while the old copy is mapped; the next start moves the new one into place
+            System.err.println("Kept the new local copy as " + pending + " until the next start: " + e.getMessage());
+        }
+    }
+}
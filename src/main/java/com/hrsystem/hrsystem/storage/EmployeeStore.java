@@ -0,0 +1,87 @@
+package com.hrsystem.hrsystem.storage;
+
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.repository.EmployeeSort;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The employee operations the application performs. Rows are always returned as fresh {@link Employee}
+ * objects that the caller may keep or change.
+ */
+public interface EmployeeStore {
+
+    /** Passed as a department id to match employees in any department or none. */
+    int ANY_DEPARTMENT = -1;
+
+    /** @return every employee, ordered by id. */
+    List<Employee> findAll() throws SQLException;
+
+    /** Streams every employee to {@code action} in id order without holding them all in memory. */
+    void forEach(Consumer<Employee> action) throws SQLException;
+
+    /**
+     * @return the employees whose policy interval has passed as of {@code asOf}, counting from their last
+     * increment or, if they never had one, from joining. Ordered by that date and id.
+     */
+    List<Employee> findDueForIncrement(LocalDate asOf) throws SQLException;
+
+    /**
+     * Raises the salary of every employee due as of {@code asOf} by {@code rule} in one transaction, records
+     * each raise in the salary history, and makes {@code asOf} the date their next interval counts from.
+     * @param dryRun compute the same result without writing anything.
+     * @param sampleSize how many of the raised salaries to return, lowest employee id first.
+     */
+    IncrementResult applyIncrements(IncrementRule rule, LocalDate asOf, boolean dryRun, int sampleSize) throws SQLException;
+
+    int countAll() throws SQLException;
+
+    /** @return the id and version of every employee, ordered by id. */
+    RowVersions findVersions() throws SQLException;
+
+    /** @return the employees with these ids that exist, in no particular order. */
+    List<Employee> findByIds(int[] ids) throws SQLException;
+
+    /**
+     * @param departmentId the department to match, 0 for employees without one, or {@link #ANY_DEPARTMENT}.
+     * @return up to {@code limit} employees with an id above {@code afterId}, ordered by id.
+     */
+    List<Employee> findAfterId(int afterId, int departmentId, int limit) throws SQLException;
+
+    /** @param after the last row of the previous window, or null for the first window. */
+    List<Employee> findPageAfter(EmployeeSort sort, boolean ascending, Employee after, int limit) throws SQLException;
+
+    /** @return the number of rows that come before {@code row} in the given order. */
+    int countBefore(EmployeeSort sort, boolean ascending, Employee row) throws SQLException;
+
+    List<Employee> findPageAt(EmployeeSort sort, boolean ascending, int offset, int limit) throws SQLException;
+
+    /**
+     * The id and version of {@code employee} are ignored; new rows start at version 0.
+     * @return the generated id.
+     */
+    int insert(Employee employee) throws SQLException;
+
+    /**
+     * Writes {@code employee} if the stored row is still at {@code employee.getVersion()}, and bumps the stored
+     * version by one.
+     * @throws StaleRowException if the row was changed or deleted since that version was read.
+     */
+    void update(Employee employee) throws SQLException;
+
+    void delete(int id) throws SQLException;
+
+    boolean isDepartmentInUse(int departmentId) throws SQLException;
+
+    /** Headcount and salary total per group, computed where the data lives. Groups come in no particular order. */
+    List<GroupTotal> groupTotals(EmployeeGrouping grouping) throws SQLException;
+
+    /**
+     * @param batchSize rows sent to the engine at once.
+     * @param chunkSize rows per transaction.
+     */
+    BulkInsert openBulkInsert(int batchSize, int chunkSize) throws SQLException;
+}
@@ -0,0 +1,190 @@
+package com.hrsystem.hrsystem.storage;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * An audit log in a local file instead of the database, one tab-separated line per entry:
+ * <pre>
+ * id  changed-at (epoch millis)  user  table  row id  action  before image  after image
+ * </pre>
+ * Tabs, line breaks and backslashes inside a field are escaped; {@code \N} stands for a missing image.
+ * A batch is appended with one write and one {@code fsync}. The file is only ever appended to; a line
+ * cut short by a crash is dropped when the file is next opened.
+ *
+ * Reading a row's history scans the whole file, which suits a log kept by one workstation. Like the local
+ * copy of the tables, it is readable only by the current user where the file system supports that.
+ */
+public class FileAuditLog implements AuditLog, AutoCloseable {
+
+    private final Path file;
+    private final FileChannel channel;
+    private long lastId;
+
+    public FileAuditLog(Path file) throws IOException {
+        this.file = file;
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        if (!Files.exists(file) && FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(file, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        }
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            recover();
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** Finds the last id and cuts off a last line that was not written completely. */
+    private void recover() throws IOException {
+        long complete = 0;
+        long position = 0;
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16);
+        channel.position(0);
+        while (channel.read(buffer) > 0) {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position++;
+                if (buffer.get() == '\n') complete = position;
+            }
+            buffer.clear();
+        }
+        if (complete < channel.size()) {
+            System.err.println("Dropping an incomplete last entry from the audit log " + file);
+            channel.truncate(complete);
+        }
+        channel.position(channel.size());
+        try (BufferedReader reader = reader()) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int tab = line.indexOf('\t');
+                if (tab > 0) lastId = Long.parseLong(line.substring(0, tab));
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("not an audit log: " + file);
+        }
+    }
+
+    @Override
+    public synchronized void append(List<AuditEntry> entries) throws SQLException {
+        if (entries.isEmpty()) return;
+        StringBuilder lines = new StringBuilder(entries.size() * 256);
+        long id = lastId;
+        for (AuditEntry entry : entries) {
+            lines.append(++id).append('\t')
+                    .append(entry.getChangedAt().toEpochMilli()).append('\t');
+            escape(lines, entry.getUser()).append('\t')
+                    .append(entry.getTable().name().toLowerCase(Locale.ROOT)).append('\t')
+                    .append(entry.getRowId()).append('\t')
+                    .append(entry.getAction().name()).append('\t');
+            escape(lines, entry.getBefore()).append('\t');
+            escape(lines, entry.getAfter()).append('\n');
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        try {
+            long start = channel.size();
+            try {
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes, channel.size());
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                // Leave no half batch behind for the next attempt to append to
+                channel.truncate(start);
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new SQLException("Could not write the audit log " + file + ": " + e.getMessage(), e);
+        }
+        lastId = id;
+    }
+
+    @Override
+    public List<AuditEntry> findByRow(ChangeRecord.Table table, int rowId, long beforeId, int limit) throws SQLException {
+        String tableName = table.name().toLowerCase(Locale.ROOT);
+        String rowKey = Integer.toString(rowId);
+        Deque<AuditEntry> newest = new ArrayDeque<>(limit);
+        try (BufferedReader reader = reader()) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t", -1);
+                if (fields.length != 8 || !fields[3].equals(tableName) || !fields[4].equals(rowKey)) continue;
+                long id = Long.parseLong(fields[0]);
+                if (id >= beforeId) break;
+                if (newest.size() == limit) newest.removeFirst();
+                newest.addLast(new AuditEntry(id, table, rowId, AuditEntry.Action.valueOf(fields[5]), unescape(fields[2]),
+                        Instant.ofEpochMilli(Long.parseLong(fields[1])), unescape(fields[6]), unescape(fields[7])));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            throw new SQLException("Could not read the audit log " + file + ": " + e.getMessage(), e);
+        }
+        List<AuditEntry> page = new ArrayList<>(newest.size());
+        newest.descendingIterator().forEachRemaining(page::add);
+        return page;
+    }
+
+    /** Reads from the start without moving the append position. */
+    private BufferedReader reader() throws IOException {
+        return new BufferedReader(new InputStreamReader(Channels.newInputStream(
+                FileChannel.open(file, StandardOpenOption.READ)), StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    private static StringBuilder escape(StringBuilder out, String value) {
+        if (value == null) return out.append("\\N");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\': out.append("\\\\"); break;
+                case '\t': out.append("\\t"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                default: out.append(c);
+            }
+        }
+        return out;
+    }
+
+    private static String unescape(String field) {
+        if (field.equals("\\N")) return null;
+        if (field.indexOf('\\') < 0) return field;
+        StringBuilder value = new StringBuilder(field.length());
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == '\\' && i + 1 < field.length()) {
+                char next = field.charAt(++i);
+                value.append(next == 't' ? '\t' : next == 'n' ? '\n' : next == 'r' ? '\r' : next);
+            } else {
+                value.append(c);
+            }
+        }
+        return value.toString();
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Could not close the audit log " + file + ": " + e.getMessage());
+        }
+    }
+}
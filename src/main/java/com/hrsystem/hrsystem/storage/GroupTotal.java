@@ -0,0 +1,22 @@
+package com.hrsystem.hrsystem.storage;
+
+/**
+ * Headcount and salary total of one group of employees.
+ */
+public class GroupTotal {
+
+    private final Object key;
+    private final long headcount;
+    private final long salaryCents;
+
+    public GroupTotal(Object key, long headcount, long salaryCents) {
+        this.key = key;
+        this.headcount = headcount;
+        this.salaryCents = salaryCents;
+    }
+
+    /** The group key; see {@link EmployeeGrouping} for its type. */
+    public Object getKey() { return key; }
+    public long getHeadcount() { return headcount; }
+    public long getSalaryCents() { return salaryCents; }
+}
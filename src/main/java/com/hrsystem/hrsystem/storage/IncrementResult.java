@@ -0,0 +1,35 @@
+package com.hrsystem.hrsystem.storage;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of an increment run, or of its dry run: how many salaries go up, the salary totals before and
+ * after, and the first few changes for the user to check.
+ */
+public class IncrementResult {
+
+    private final boolean applied;
+    private final int count;
+    private final BigDecimal totalBefore;
+    private final BigDecimal totalAfter;
+    private final List<SalaryChange> sample;
+
+    public IncrementResult(boolean applied, int count, BigDecimal totalBefore, BigDecimal totalAfter, List<SalaryChange> sample) {
+        this.applied = applied;
+        this.count = count;
+        this.totalBefore = totalBefore;
+        this.totalAfter = totalAfter;
+        this.sample = Collections.unmodifiableList(sample);
+    }
+
+    /** False for a dry run, which writes nothing. */
+    public boolean isApplied() { return applied; }
+    public int getCount() { return count; }
+    /** Salary total of the affected employees before the run. */
+    public BigDecimal getTotalBefore() { return totalBefore; }
+    public BigDecimal getTotalAfter() { return totalAfter; }
+    /** The affected employees with the lowest ids. */
+    public List<SalaryChange> getSample() { return sample; }
+}
@@ -0,0 +1,61 @@
+package com.hrsystem.hrsystem.storage;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * How much a due employee's salary goes up: a percentage of it, or a fixed amount.
+ */
+public class IncrementRule {
+
+    public enum Type { PERCENT, AMOUNT }
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final Type type;
+    private final BigDecimal value;
+
+    private IncrementRule(Type type, BigDecimal value) {
+        if (value.signum() <= 0) throw new IllegalArgumentException("An increment must be greater than zero.");
+        this.type = type;
+        this.value = value;
+    }
+
+    public static IncrementRule percent(BigDecimal percent) {
+        return new IncrementRule(Type.PERCENT, percent);
+    }
+
+    public static IncrementRule amount(BigDecimal amount) {
+        return new IncrementRule(Type.AMOUNT, amount.setScale(2, RoundingMode.HALF_UP));
+    }
+
+    /**
+     * Reads "5%" as a percentage and "1500" as an amount.
+     * @throws IllegalArgumentException if the text is neither.
+     */
+    public static IncrementRule parse(String text) {
+        String trimmed = text.trim();
+        try {
+            if (trimmed.endsWith("%")) {
+                return percent(new BigDecimal(trimmed.substring(0, trimmed.length() - 1).trim()));
+            }
+            return amount(new BigDecimal(trimmed));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Enter a percentage such as 5% or an amount such as 1500.");
+        }
+    }
+
+    public Type getType() { return type; }
+    public BigDecimal getValue() { return value; }
+
+    /** The raised salary, rounded half up to cents as MySQL rounds DECIMAL values. */
+    public BigDecimal apply(BigDecimal salary) {
+        if (type == Type.AMOUNT) return salary.add(value);
+        return salary.multiply(HUNDRED.add(value)).divide(HUNDRED, 2, RoundingMode.HALF_UP);
+    }
+
+    @Override
+    public String toString() {
+        return type == Type.PERCENT ? value.stripTrailingZeros().toPlainString() + "%" : String.format("%,.2f", value);
+    }
+}
@@ -0,0 +1,574 @@
+package com.hrsystem.hrsystem.storage;
+
+import com.hrsystem.hrsystem.model.Department;
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.repository.EmployeeSort;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * A pure-Java storage engine that keeps both tables in memory, for running the application, tools and
+ * benchmarks without a database server. Nothing survives a restart.
+ *
+ * It enforces what the MySQL schema enforces: unique department names (case-insensitively, like MySQL's
+ * default collation) and the employee-to-department foreign key. Sorted pages are served from a sorted copy
+ * of the table per sort column, rebuilt only after a change, so paging is a binary search plus a copy.
+ */
+public class MemoryStorage implements Storage {
+
+    private static final String[] SAMPLE_DEPARTMENTS = {"IT", "Human Resources", "Finance", "Marketing"};
+
+    private final boolean seed;
+    private final TreeMap<Integer, Employee> employeeRows = new TreeMap<>();
+    private final TreeMap<Integer, Department> departmentRows = new TreeMap<>();
+    private final Map<Integer, Integer> employeesPerDepartment = new HashMap<>();
+    private final List<SalaryChange> salaryHistory = new ArrayList<>();
+    private int nextEmployeeId = 1;
+    private int nextDepartmentId = 1;
+    // Bumped by every change; a sorted copy built at an older version is stale
+    private long version;
+    private final Map<EmployeeSort, Employee[]> sortedRows = new EnumMap<>(EmployeeSort.class);
+    private final Map<EmployeeSort, Long> sortedVersions = new EnumMap<>(EmployeeSort.class);
+
+    private final EmployeeStore employees = new Employees();
+    private final DepartmentStore departments = new Departments();
+    private final ChangeLog changeLog = new NoChangeLog();
+    private final AuditLog auditLog = new MemoryAuditLog();
+
+    /** @param seed whether {@link #bootstrap()} adds the sample departments to an empty store. */
+    public MemoryStorage(boolean seed) {
+        this.seed = seed;
+    }
+
+    @Override
+    public EmployeeStore employees() {
+        return employees;
+    }
+
+    @Override
+    public DepartmentStore departments() {
+        return departments;
+    }
+
+    @Override
+    public ChangeLog changeLog() {
+        return changeLog;
+    }
+
+    /** Each write is kept as soon as it is made; there is no rollback. */
+    @Override
+    public WriteBatch openWriteBatch() {
+        return new DirectWriteBatch(employees, departments);
+    }
+
+    @Override
+    public AuditLog auditLog() {
+        return auditLog;
+    }
+
+    @Override
+    public synchronized void bootstrap() throws SQLException {
+        if (seed && departmentRows.isEmpty()) {
+            for (String name : SAMPLE_DEPARTMENTS) {
+                departments.insert(name);
+            }
+        }
+    }
+
+    @Override
+    public String describe() {
+        return "in-memory storage";
+    }
+
+    @Override
+    public void close() {
+    }
+
+    private static Employee copy(Employee employee) {
+        Employee copy = new Employee(employee.getId(), employee.getName(), employee.getDepartmentId(), employee.getSalary(),
+                employee.getJoinDate(), employee.getIncrementPolicy());
+        copy.setVersion(employee.getVersion());
+        copy.setLastIncrementDate(employee.getLastIncrementDate());
+        return copy;
+    }
+
+    private static List<Employee> copyAll(Employee[] rows, int from, int to) {
+        List<Employee> copies = new ArrayList<>(Math.max(0, to - from));
+        for (int i = from; i < to; i++) {
+            copies.add(copy(rows[i]));
+        }
+        return copies;
+    }
+
+    private static List<Employee> copyAllReversed(Employee[] rows, int from, int to) {
+        List<Employee> copies = new ArrayList<>(Math.max(0, to - from));
+        for (int i = to - 1; i >= from; i--) {
+            copies.add(copy(rows[i]));
+        }
+        return copies;
+    }
+
+    private Comparator<Employee> comparator(EmployeeSort sort) {
+        return EmployeeOrder.ascending(sort, this::departmentName);
+    }
+
+    private String departmentName(int departmentId) {
+        Department department = departmentRows.get(departmentId);
+        return department != null ? department.getName() : "";
+    }
+
+    private Employee[] sorted(EmployeeSort sort) {
+        Long builtAt = sortedVersions.get(sort);
+        if (builtAt == null || builtAt != version) {
+            Employee[] rows = employeeRows.values().toArray(new Employee[0]);
+            if (sort != EmployeeSort.ID) Arrays.sort(rows, comparator(sort));
+            sortedRows.put(sort, rows);
+            sortedVersions.put(sort, version);
+        }
+        return sortedRows.get(sort);
+    }
+
+    /** @return the number of rows that sort before {@code key} (or not after it, if {@code inclusive}). */
+    private static int rank(Employee[] rows, Employee key, Comparator<Employee> order, boolean inclusive) {
+        int low = 0;
+        int high = rows.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int c = order.compare(rows[mid], key);
+            if (c < 0 || (inclusive && c == 0)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** The last increment, or the join date for employees who never had one. */
+    static LocalDate incrementAnchor(Employee row) {
+        return row.getLastIncrementDate() != null ? row.getLastIncrementDate() : row.getJoinDate();
+    }
+
+    /** The stored rows due for an increment as of {@code asOf}, in no particular order. */
+    private List<Employee> dueRows(LocalDate asOf) {
+        List<Employee> due = new ArrayList<>();
+        for (Employee row : employeeRows.values()) {
+            if (isDue(row, asOf)) due.add(row);
+        }
+        return due;
+    }
+
+    /** Whether the row's policy interval has passed as of {@code asOf}, like {@code DUE} in the SQL engine. */
+    static boolean isDue(Employee row, LocalDate asOf) {
+        LocalDate anchor = incrementAnchor(row);
+        if (anchor == null || row.getIncrementPolicy() == null) return false;
+        LocalDate cutoff = row.getIncrementPolicy().equals("Yearly") ? asOf.minusMonths(12) : asOf.minusMonths(6);
+        return !anchor.isAfter(cutoff);
+    }
+
+    /** Headcount and salary total in cents per group of {@code rows}. */
+    static List<GroupTotal> totalsOf(Iterable<Employee> rows, EmployeeGrouping grouping) {
+        Map<Object, long[]> totals = new HashMap<>();
+        for (Employee row : rows) {
+            Object key;
+            if (grouping == EmployeeGrouping.DEPARTMENT) {
+                key = row.getDepartmentId();
+            } else if (grouping == EmployeeGrouping.POLICY) {
+                key = row.getIncrementPolicy();
+            } else {
+                key = row.getJoinDate() != null ? row.getJoinDate().getYear() : null;
+            }
+            long[] total = totals.computeIfAbsent(key, k -> new long[2]);
+            total[0]++;
+            total[1] += Math.round(row.getSalary() * 100);
+        }
+        List<GroupTotal> result = new ArrayList<>();
+        totals.forEach((key, total) -> result.add(new GroupTotal(key, total[0], total[1])));
+        return result;
+    }
+
+    private void checkDepartment(int departmentId) throws SQLException {
+        if (departmentId > 0 && !departmentRows.containsKey(departmentId)) {
+            throw new SQLIntegrityConstraintViolationException(
+                    "Cannot add or update a child row: department " + departmentId + " does not exist", "23000");
+        }
+    }
+
+    private void countDepartment(int departmentId, int delta) {
+        if (departmentId > 0) employeesPerDepartment.merge(departmentId, delta, Integer::sum);
+    }
+
+    private int insertRow(Employee employee) {
+        Employee row = copy(employee);
+        row.setId(nextEmployeeId++);
+        row.setVersion(0);
+        employeeRows.put(row.getId(), row);
+        countDepartment(row.getDepartmentId(), 1);
+        version++;
+        return row.getId();
+    }
+
+    private class Employees implements EmployeeStore {
+
+        @Override
+        public List<Employee> findAll() {
+            synchronized (MemoryStorage.this) {
+                Employee[] rows = sorted(EmployeeSort.ID);
+                return copyAll(rows, 0, rows.length);
+            }
+        }
+
+        @Override
+        public void forEach(Consumer<Employee> action) {
+            Employee[] rows;
+            synchronized (MemoryStorage.this) {
+                rows = sorted(EmployeeSort.ID);
+            }
+            // Sorted copies are never modified, so the action runs without holding the lock
+            for (Employee row : rows) {
+                action.accept(copy(row));
+            }
+        }
+
+        @Override
+        public List<Employee> findDueForIncrement(LocalDate asOf) {
+            synchronized (MemoryStorage.this) {
+                List<Employee> due = new ArrayList<>();
+                for (Employee row : dueRows(asOf)) {
+                    due.add(copy(row));
+                }
+                due.sort(Comparator.comparing(MemoryStorage::incrementAnchor).thenComparingInt(Employee::getId));
+                return due;
+            }
+        }
+
+        @Override
+        public IncrementResult applyIncrements(IncrementRule rule, LocalDate asOf, boolean dryRun, int sampleSize) {
+            synchronized (MemoryStorage.this) {
+                List<Employee> due = dueRows(asOf);
+                due.sort(Comparator.comparingInt(Employee::getId));
+                List<SalaryChange> changes = new ArrayList<>(due.size());
+                BigDecimal before = BigDecimal.ZERO;
+                BigDecimal after = BigDecimal.ZERO;
+                for (Employee row : due) {
+                    BigDecimal oldSalary = BigDecimal.valueOf(row.getSalary()).setScale(2, RoundingMode.HALF_UP);
+                    BigDecimal newSalary = rule.apply(oldSalary);
+                    before = before.add(oldSalary);
+                    after = after.add(newSalary);
+                    changes.add(new SalaryChange(row.getId(), row.getName(), oldSalary, newSalary, asOf));
+                }
+                if (!dryRun && !due.isEmpty()) {
+                    for (int i = 0; i < due.size(); i++) {
+                        Employee row = due.get(i);
+                        row.setSalary(changes.get(i).getNewSalary().doubleValue());
+                        row.setLastIncrementDate(asOf);
+                        row.setVersion(row.getVersion() + 1);
+                    }
+                    salaryHistory.addAll(changes);
+                    version++;
+                }
+                return new IncrementResult(!dryRun, due.size(), before, after,
+                        new ArrayList<>(changes.subList(0, Math.min(sampleSize, changes.size()))));
+            }
+        }
+
+        @Override
+        public int countAll() {
+            synchronized (MemoryStorage.this) {
+                return employeeRows.size();
+            }
+        }
+
+        @Override
+        public RowVersions findVersions() {
+            synchronized (MemoryStorage.this) {
+                RowVersions versions = new RowVersions();
+                for (Employee row : employeeRows.values()) {
+                    versions.add(row.getId(), row.getVersion());
+                }
+                return versions;
+            }
+        }
+
+        @Override
+        public List<Employee> findByIds(int[] ids) {
+            synchronized (MemoryStorage.this) {
+                List<Employee> rows = new ArrayList<>(ids.length);
+                for (int id : ids) {
+                    Employee row = employeeRows.get(id);
+                    if (row != null) rows.add(copy(row));
+                }
+                return rows;
+            }
+        }
+
+        /** Walks the id-ordered rows, so a filter on a small department reads past the others. */
+        @Override
+        public List<Employee> findAfterId(int afterId, int departmentId, int limit) {
+            synchronized (MemoryStorage.this) {
+                List<Employee> rows = new ArrayList<>();
+                for (Employee row : employeeRows.tailMap(afterId, false).values()) {
+                    if (rows.size() >= limit) break;
+                    if (departmentId == ANY_DEPARTMENT || row.getDepartmentId() == departmentId) rows.add(copy(row));
+                }
+                return rows;
+            }
+        }
+
+        @Override
+        public List<Employee> findPageAfter(EmployeeSort sort, boolean ascending, Employee after, int limit) {
+            synchronized (MemoryStorage.this) {
+                Employee[] rows = sorted(sort);
+                Comparator<Employee> order = comparator(sort);
+                if (ascending) {
+                    int from = after == null ? 0 : rank(rows, after, order, true);
+                    return copyAll(rows, from, Math.min(rows.length, from + limit));
+                }
+                int to = after == null ? rows.length : rank(rows, after, order, false);
+                return copyAllReversed(rows, Math.max(0, to - limit), to);
+            }
+        }
+
+        @Override
+        public int countBefore(EmployeeSort sort, boolean ascending, Employee row) {
+            synchronized (MemoryStorage.this) {
+                Employee[] rows = sorted(sort);
+                Comparator<Employee> order = comparator(sort);
+                return ascending ? rank(rows, row, order, false) : rows.length - rank(rows, row, order, true);
+            }
+        }
+
+        @Override
+        public List<Employee> findPageAt(EmployeeSort sort, boolean ascending, int offset, int limit) {
+            synchronized (MemoryStorage.this) {
+                Employee[] rows = sorted(sort);
+                if (ascending) {
+                    int from = Math.min(rows.length, offset);
+                    return copyAll(rows, from, Math.min(rows.length, from + limit));
+                }
+                int to = Math.max(0, rows.length - offset);
+                return copyAllReversed(rows, Math.max(0, to - limit), to);
+            }
+        }
+
+        @Override
+        public int insert(Employee employee) throws SQLException {
+            synchronized (MemoryStorage.this) {
+                checkDepartment(employee.getDepartmentId());
+                return insertRow(employee);
+            }
+        }
+
+        @Override
+        public void update(Employee employee) throws SQLException {
+            synchronized (MemoryStorage.this) {
+                Employee previous = employeeRows.get(employee.getId());
+                if (previous == null || previous.getVersion() != employee.getVersion()) {
+                    throw new StaleRowException("Employee " + employee.getName()
+                            + " was changed or deleted by someone else since it was read.");
+                }
+                checkDepartment(employee.getDepartmentId());
+                countDepartment(previous.getDepartmentId(), -1);
+                countDepartment(employee.getDepartmentId(), 1);
+                Employee row = copy(employee);
+                row.setVersion(previous.getVersion() + 1);
+                employeeRows.put(employee.getId(), row);
+                version++;
+            }
+        }
+
+        @Override
+        public void delete(int id) {
+            synchronized (MemoryStorage.this) {
+                Employee previous = employeeRows.remove(id);
+                if (previous == null) return;
+                countDepartment(previous.getDepartmentId(), -1);
+                version++;
+            }
+        }
+
+        @Override
+        public boolean isDepartmentInUse(int departmentId) {
+            synchronized (MemoryStorage.this) {
+                return employeesPerDepartment.getOrDefault(departmentId, 0) > 0;
+            }
+        }
+
+        @Override
+        public List<GroupTotal> groupTotals(EmployeeGrouping grouping) {
+            synchronized (MemoryStorage.this) {
+                return totalsOf(employeeRows.values(), grouping);
+            }
+        }
+
+        @Override
+        public BulkInsert openBulkInsert(int batchSize, int chunkSize) {
+            return new MemoryBulkInsert(chunkSize);
+        }
+    }
+
+    /** Buffers rows and applies each chunk atomically, so a failed chunk leaves nothing behind. */
+    private class MemoryBulkInsert implements BulkInsert {
+
+        private final int chunkSize;
+        private final List<Employee> pending = new ArrayList<>();
+        private long committed;
+
+        MemoryBulkInsert(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        @Override
+        public void add(Employee employee) throws SQLException {
+            pending.add(copy(employee));
+            if (pending.size() >= chunkSize) commit();
+        }
+
+        @Override
+        public void commit() throws SQLException {
+            synchronized (MemoryStorage.this) {
+                for (Employee row : pending) {
+                    checkDepartment(row.getDepartmentId());
+                }
+                for (Employee row : pending) {
+                    insertRow(row);
+                }
+            }
+            committed += pending.size();
+            pending.clear();
+        }
+
+        @Override
+        public long getCommitted() {
+            return committed;
+        }
+
+        @Override
+        public void close() {
+            pending.clear();
+        }
+    }
+
+    private class Departments implements DepartmentStore {
+
+        @Override
+        public List<Department> findAll() {
+            synchronized (MemoryStorage.this) {
+                List<Department> all = new ArrayList<>();
+                for (Department row : departmentRows.values()) {
+                    all.add(new Department(row.getId(), row.getName()));
+                }
+                all.sort(Comparator.comparing(Department::getName, String.CASE_INSENSITIVE_ORDER));
+                return all;
+            }
+        }
+
+        @Override
+        public int insert(String name) throws SQLException {
+            synchronized (MemoryStorage.this) {
+                checkUnique(0, name);
+                int id = nextDepartmentId++;
+                departmentRows.put(id, new Department(id, name));
+                return id;
+            }
+        }
+
+        @Override
+        public void rename(int id, String name) throws SQLException {
+            synchronized (MemoryStorage.this) {
+                if (!departmentRows.containsKey(id)) return;
+                checkUnique(id, name);
+                departmentRows.put(id, new Department(id, name));
+                // The department sort order may change
+                version++;
+            }
+        }
+
+        @Override
+        public void delete(int id) throws SQLException {
+            synchronized (MemoryStorage.this) {
+                if (employeesPerDepartment.getOrDefault(id, 0) > 0) {
+                    throw new SQLIntegrityConstraintViolationException(
+                            "Cannot delete or update a parent row: department " + id + " is referenced by employees", "23000");
+                }
+                departmentRows.remove(id);
+            }
+        }
+
+        private void checkUnique(int id, String name) throws SQLException {
+            for (Department row : departmentRows.values()) {
+                if (row.getId() != id && row.getName().equalsIgnoreCase(name)) {
+                    throw new SQLIntegrityConstraintViolationException("Duplicate entry '" + name + "' for key 'departments.name'", "23000");
+                }
+            }
+        }
+    }
+
+    /** Only this process can reach the tables, so there are never changes from other clients to pick up. */
+    private static class NoChangeLog implements ChangeLog {
+
+        @Override
+        public long latestVersion() {
+            return 0;
+        }
+
+        @Override
+        public long oldestVersion() {
+            return 0;
+        }
+
+        @Override
+        public List<ChangeRecord> readAfter(long after, int limit) {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public List<ChangeRecord> readVersions(Collection<Long> versions) {
+            return new ArrayList<>();
+        }
+
+        @Override
+        public int prune(Duration maxAge) {
+            return 0;
+        }
+    }
+
+    /** Entries in id order, so a row's history is read backwards from the first id below the cursor. */
+    private static class MemoryAuditLog implements AuditLog {
+
+        private final List<AuditEntry> entries = new ArrayList<>();
+
+        @Override
+        public synchronized void append(List<AuditEntry> batch) {
+            for (AuditEntry entry : batch) {
+                entries.add(entry.withId(entries.size() + 1));
+            }
+        }
+
+        @Override
+        public synchronized List<AuditEntry> findByRow(ChangeRecord.Table table, int rowId, long beforeId, int limit) {
+            List<AuditEntry> page = new ArrayList<>();
+            // Ids are positions plus one
+            for (int i = (int) Math.min(beforeId - 1, entries.size()) - 1; i >= 0 && page.size() < limit; i--) {
+                AuditEntry entry = entries.get(i);
+                if (entry.getTable() == table && entry.getRowId() == rowId) page.add(entry);
+            }
+            return page;
+        }
+    }
+}
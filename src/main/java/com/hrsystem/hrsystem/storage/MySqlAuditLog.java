@@ -0,0 +1,76 @@
+package com.hrsystem.hrsystem.storage;
+
+import com.hrsystem.hrsystem.util.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The {@code audit_log} table in MySQL. A batch goes out as one JDBC batch in one transaction; the connection
+ * URL sets {@code rewriteBatchedStatements}, so that is a single multi-row INSERT and a single commit.
+ * History is read newest first through the (table, row, id) index.
+ */
+class MySqlAuditLog implements AuditLog {
+
+    @Override
+    public void append(List<AuditEntry> entries) throws SQLException {
+        if (entries.isEmpty()) return;
+        String sql = "INSERT INTO audit_log(table_name, row_id, action, user_name, changed_at, before_image, after_image)"
+                + " VALUES(?,?,?,?,?,?,?)";
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                for (AuditEntry entry : entries) {
+                    pstmt.setString(1, entry.getTable().name().toLowerCase(Locale.ROOT));
+                    pstmt.setInt(2, entry.getRowId());
+                    pstmt.setString(3, entry.getAction().name());
+                    pstmt.setString(4, entry.getUser());
+                    pstmt.setTimestamp(5, Timestamp.from(entry.getChangedAt()));
+                    pstmt.setString(6, entry.getBefore());
+                    pstmt.setString(7, entry.getAfter());
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
+    @Override
+    public List<AuditEntry> findByRow(ChangeRecord.Table table, int rowId, long beforeId, int limit) throws SQLException {
+        String sql = "SELECT id, action, user_name, changed_at, before_image, after_image FROM audit_log"
+                + " WHERE table_name = ? AND row_id = ? AND id < ? ORDER BY id DESC LIMIT ?";
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, table.name().toLowerCase(Locale.ROOT));
+            ps.setInt(2, rowId);
+            ps.setLong(3, beforeId);
+            ps.setInt(4, limit);
+            List<AuditEntry> entries = new ArrayList<>();
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    entries.add(new AuditEntry(
+                            rs.getLong("id"),
+                            table,
+                            rowId,
+                            AuditEntry.Action.valueOf(rs.getString("action")),
+                            rs.getString("user_name"),
+                            rs.getTimestamp("changed_at").toInstant(),
+                            rs.getString("before_image"),
+                            rs.getString("after_image")
+                    ));
+                }
+            }
+            return entries;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.hrsystem.hrsystem.storage;
+
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.util.Database;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Inserts employees over one connection using JDBC batches, committing every {@code chunkSize} rows.
+ * The connection URL sets {@code rewriteBatchedStatements}, so each batch goes out as multi-row INSERTs.
+ * Each commit logs one bulk change rather than an entry per row, telling other clients to re-read the table.
+ */
+class MySqlBulkInsert implements BulkInsert {
+
+    private static final String SQL =
+            "INSERT INTO employees(name, department_id, salary, join_date, increment_policy) VALUES(?,?,?,?,?)";
+
+    private final MySqlChangeLog changeLog;
+    private final Connection conn;
+    private final PreparedStatement pstmt;
+    private final int batchSize;
+    private final int chunkSize;
+    private int batched;
+    private int uncommitted;
+    private long committed;
+
+    MySqlBulkInsert(MySqlChangeLog changeLog, int batchSize, int chunkSize) throws SQLException {
+        this.changeLog = changeLog;
+        this.batchSize = batchSize;
+        this.chunkSize = chunkSize;
+        this.conn = Database.getConnection();
+        try {
+            conn.setAutoCommit(false);
+            this.pstmt = conn.prepareStatement(SQL);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void add(Employee employee) throws SQLException {
+        pstmt.setString(1, employee.getName());
+        MySqlEmployeeStore.bindDepartment(pstmt, 2, employee.getDepartmentId());
+        // DECIMAL(10,2) values survive the double round trip exactly; BigDecimal keeps the driver from re-rounding
+        pstmt.setBigDecimal(3, BigDecimal.valueOf(employee.getSalary()));
+        pstmt.setDate(4, employee.getJoinDate() != null ? Date.valueOf(employee.getJoinDate()) : null);
+        pstmt.setString(5, employee.getIncrementPolicy());
+        pstmt.addBatch();
+        batched++;
+        uncommitted++;
+        if (batched >= batchSize) flushBatch();
+        if (uncommitted >= chunkSize) commit();
+    }
+
+    private void flushBatch() throws SQLException {
+        if (batched == 0) return;
+        pstmt.executeBatch();
+        batched = 0;
+    }
+
+    @Override
+    public void commit() throws SQLException {
+        flushBatch();
+        if (uncommitted > 0) changeLog.record(conn, ChangeRecord.Table.EMPLOYEES, 0, ChangeRecord.Kind.RELOAD);
+        conn.commit();
+        committed += uncommitted;
+        uncommitted = 0;
+    }
+
+    @Override
+    public long getCommitted() {
+        return committed;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            if (uncommitted > 0) conn.rollback();
+            pstmt.close();
+        } finally {
+            conn.close();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.hrsystem.hrsystem.storage;
+
+import com.hrsystem.hrsystem.util.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * The {@code change_log} table in MySQL. The stores call {@link #record} on the connection of the change they
+ * are making, inside its transaction, so an entry exists exactly when the change committed.
+ */
+class MySqlChangeLog implements ChangeLog {
+
+    // Tells this client's entries apart from everyone else's
+    private final String origin = UUID.randomUUID().toString();
+
+    void record(Connection conn, ChangeRecord.Table table, int rowId, ChangeRecord.Kind kind) throws SQLException {
+        String sql = "INSERT INTO change_log(table_name, row_id, kind, origin) VALUES(?,?,?,?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, table.name().toLowerCase(Locale.ROOT));
+            pstmt.setInt(2, rowId);
+            pstmt.setString(3, kind.name().substring(0, 1));
+            pstmt.setString(4, origin);
+            pstmt.executeUpdate();
+        }
+    }
+
+    @Override
+    public long latestVersion() throws SQLException {
+        return queryLong("SELECT MAX(version) FROM change_log");
+    }
+
+    @Override
+    public long oldestVersion() throws SQLException {
+        return queryLong("SELECT MIN(version) FROM change_log");
+    }
+
+    /** A range scan on the primary key, so polling an idle log costs next to nothing. */
+    @Override
+    public List<ChangeRecord> readAfter(long after, int limit) throws SQLException {
+        String sql = "SELECT version, table_name, row_id, kind, origin FROM change_log WHERE version > ? ORDER BY version LIMIT ?";
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setLong(1, after);
+            ps.setInt(2, limit);
+            return readRecords(ps);
+        }
+    }
+
+    @Override
+    public List<ChangeRecord> readVersions(Collection<Long> versions) throws SQLException {
+        if (versions.isEmpty()) return new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT version, table_name, row_id, kind, origin FROM change_log WHERE version IN (?");
+        for (int i = 1; i < versions.size(); i++) {
+            sql.append(", ?");
+        }
+        sql.append(") ORDER BY version");
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            for (long version : versions) {
+                ps.setLong(index++, version);
+            }
+            return readRecords(ps);
+        }
+    }
+
+    @Override
+    public int prune(Duration maxAge) throws SQLException {
+        long latest = latestVersion();
+        String sql = "DELETE FROM change_log WHERE changed_at < ? AND version < ?";
+        try (Connection conn = Database.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setTimestamp(1, Timestamp.valueOf(LocalDateTime.now().minus(maxAge)));
+            pstmt.setLong(2, latest);
+            return pstmt.executeUpdate();
+        }
+    }
+
+    private static long queryLong(String sql) throws SQLException {
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private List<ChangeRecord> readRecords(PreparedStatement ps) throws SQLException {
+        List<ChangeRecord> records = new ArrayList<>();
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                records.add(new ChangeRecord(
+                        rs.getLong("version"),
+                        ChangeRecord.Table.valueOf(rs.getString("table_name").toUpperCase(Locale.ROOT)),
+                        rs.getInt("row_id"),
+                        kindOf(rs.getString("kind")),
+                        origin.equals(rs.getString("origin"))
+                ));
+            }
+        }
+        return records;
+    }
+
+    private static ChangeRecord.Kind kindOf(String code) throws SQLException {
+        for (ChangeRecord.Kind kind : ChangeRecord.Kind.values()) {
+            if (kind.name().startsWith(code)) return kind;
+        }
+        throw new SQLException("Unknown change_log kind '" + code + "'.");
+    }
+}
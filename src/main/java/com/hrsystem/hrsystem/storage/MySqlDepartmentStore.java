@@ -0,0 +1,104 @@
+package com.hrsystem.hrsystem.storage;
+
+import com.hrsystem.hrsystem.model.Department;
+import com.hrsystem.hrsystem.util.Database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code departments} table in MySQL. Every write also logs itself in the change log, in the same
+ * transaction.
+ */
+class MySqlDepartmentStore implements DepartmentStore {
+
+    private final MySqlChangeLog changeLog;
+
+    MySqlDepartmentStore(MySqlChangeLog changeLog) {
+        this.changeLog = changeLog;
+    }
+
+    @Override
+    public List<Department> findAll() throws SQLException {
+        List<Department> departments = new ArrayList<>();
+        String query = "SELECT * FROM departments ORDER BY name";
+        try (Connection conn = Database.getConnection();
+             PreparedStatement preparedStatement = conn.prepareStatement(query);
+             ResultSet resultSet = preparedStatement.executeQuery()) {
+            while (resultSet.next()) {
+                departments.add(new Department(
+                        resultSet.getInt("id"),
+                        resultSet.getString("name")
+                ));
+            }
+        }
+        return departments;
+    }
+
+    @Override
+    public int insert(String name) throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            int id = insert(conn, name);
+            conn.commit();
+            return id;
+        }
+    }
+
+    @Override
+    public void rename(int id, String name) throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            rename(conn, id, name);
+            conn.commit();
+        }
+    }
+
+    @Override
+    public void delete(int id) throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            delete(conn, id);
+            conn.commit();
+        }
+    }
+
+    /** The writes below log themselves on a connection whose transaction the caller commits. */
+    int insert(Connection conn, String name) throws SQLException {
+        int id;
+        try (PreparedStatement pstmt = conn.prepareStatement("INSERT INTO departments(name) VALUES(?)", Statement.RETURN_GENERATED_KEYS)) {
+            pstmt.setString(1, name);
+            pstmt.executeUpdate();
+            try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                if (!keys.next()) throw new SQLException("Insert into departments returned no generated id.");
+                id = keys.getInt(1);
+            }
+        }
+        changeLog.record(conn, ChangeRecord.Table.DEPARTMENTS, id, ChangeRecord.Kind.INSERT);
+        return id;
+    }
+
+    void rename(Connection conn, int id, String name) throws SQLException {
+        int renamed;
+        try (PreparedStatement pstmt = conn.prepareStatement("UPDATE departments SET name = ? WHERE id = ?")) {
+            pstmt.setString(1, name);
+            pstmt.setInt(2, id);
+            renamed = pstmt.executeUpdate();
+        }
+        if (renamed > 0) changeLog.record(conn, ChangeRecord.Table.DEPARTMENTS, id, ChangeRecord.Kind.UPDATE);
+    }
+
+    void delete(Connection conn, int id) throws SQLException {
+        int deleted;
+        try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM departments WHERE id = ?")) {
+            pstmt.setInt(1, id);
+            deleted = pstmt.executeUpdate();
+        }
+        if (deleted > 0) changeLog.record(conn, ChangeRecord.Table.DEPARTMENTS, id, ChangeRecord.Kind.DELETE);
+    }
+}
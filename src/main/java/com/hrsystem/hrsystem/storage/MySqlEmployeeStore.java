@@ -0,0 +1,462 @@
+package com.hrsystem.hrsystem.storage;
+
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.repository.EmployeeSort;
+import com.hrsystem.hrsystem.util.Database;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * The {@code employees} table in MySQL. Every write also logs itself in the change log, in the same
+ * transaction. A connection handed back to the pool with its transaction still open is rolled back, so a
+ * write that fails halfway leaves neither the row nor the entry behind.
+ */
+class MySqlEmployeeStore implements EmployeeStore {
+
+    /**
+     * An employee is due once {@code policyMonths} whole months have passed since their anchor date, i.e. when
+     * the anchor is on or before {@code asOf} minus that many months, which the policy/anchor index can answer.
+     * The anchor is the last increment, or the join date for employees who never had one.
+     */
+    private static final String DUE = "increment_anchor IS NOT NULL AND increment_policy IS NOT NULL"
+            + " AND ((increment_policy = 'Yearly' AND increment_anchor <= ?) OR (increment_policy <> 'Yearly' AND increment_anchor <= ?))";
+
+    private final MySqlChangeLog changeLog;
+
+    MySqlEmployeeStore(MySqlChangeLog changeLog) {
+        this.changeLog = changeLog;
+    }
+
+    @Override
+    public List<Employee> findAll() throws SQLException {
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT * FROM employees ORDER BY id")) {
+            return readRows(ps);
+        }
+    }
+
+    @Override
+    public void forEach(Consumer<Employee> action) throws SQLException {
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT * FROM employees ORDER BY id")) {
+            Database.enableStreaming(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    action.accept(mapRow(rs));
+                }
+            }
+        }
+    }
+
+    @Override
+    public List<Employee> findDueForIncrement(LocalDate asOf) throws SQLException {
+        String sql = "SELECT * FROM employees WHERE " + DUE + " ORDER BY increment_anchor, id";
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            bindDue(ps, 1, asOf);
+            return readRows(ps);
+        }
+    }
+
+    /**
+     * A dry run reads the totals and sample straight from the due rows. A real run first copies the due rows
+     * with their new salaries into {@code salary_history} under a fresh run id, then updates employees from
+     * exactly those history rows, so both statements agree on who was raised and by how much. It is logged as
+     * one bulk change, after which other clients re-read the table.
+     */
+    @Override
+    public IncrementResult applyIncrements(IncrementRule rule, LocalDate asOf, boolean dryRun, int sampleSize) throws SQLException {
+        String raised = rule.getType() == IncrementRule.Type.PERCENT ? "ROUND(salary * (100 + ?) / 100, 2)" : "salary + ?";
+        try (Connection conn = Database.getConnection()) {
+            if (dryRun) {
+                IncrementResult totals;
+                try (PreparedStatement ps = conn.prepareStatement("SELECT COUNT(*), SUM(salary), SUM(" + raised + ")"
+                        + " FROM employees WHERE " + DUE)) {
+                    ps.setBigDecimal(1, rule.getValue());
+                    bindDue(ps, 2, asOf);
+                    totals = readTotals(ps, false);
+                }
+                try (PreparedStatement ps = conn.prepareStatement("SELECT id, name, salary, " + raised
+                        + " FROM employees WHERE " + DUE + " ORDER BY id LIMIT ?")) {
+                    ps.setBigDecimal(1, rule.getValue());
+                    int index = bindDue(ps, 2, asOf);
+                    ps.setInt(index, sampleSize);
+                    return withSample(totals, ps, asOf);
+                }
+            }
+
+            String runId = UUID.randomUUID().toString();
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement("INSERT INTO salary_history"
+                    + " (employee_id, old_salary, new_salary, effective_date, run_id)"
+                    + " SELECT id, salary, " + raised + ", ?, ? FROM employees WHERE " + DUE)) {
+                ps.setBigDecimal(1, rule.getValue());
+                ps.setDate(2, Date.valueOf(asOf));
+                ps.setString(3, runId);
+                bindDue(ps, 4, asOf);
+                ps.executeUpdate();
+            }
+            try (PreparedStatement ps = conn.prepareStatement("UPDATE employees e"
+                    + " JOIN salary_history h ON h.run_id = ? AND h.employee_id = e.id"
+                    + " SET e.salary = h.new_salary, e.last_increment_date = h.effective_date,"
+                    + " e.row_version = e.row_version + 1")) {
+                ps.setString(1, runId);
+                ps.executeUpdate();
+            }
+            IncrementResult totals;
+            try (PreparedStatement ps = conn.prepareStatement("SELECT COUNT(*), SUM(old_salary), SUM(new_salary)"
+                    + " FROM salary_history WHERE run_id = ?")) {
+                ps.setString(1, runId);
+                totals = readTotals(ps, true);
+            }
+            IncrementResult result;
+            try (PreparedStatement ps = conn.prepareStatement("SELECT h.employee_id, e.name, h.old_salary, h.new_salary"
+                    + " FROM salary_history h JOIN employees e ON e.id = h.employee_id"
+                    + " WHERE h.run_id = ? ORDER BY h.employee_id LIMIT ?")) {
+                ps.setString(1, runId);
+                ps.setInt(2, sampleSize);
+                result = withSample(totals, ps, asOf);
+            }
+            if (result.getCount() > 0) {
+                changeLog.record(conn, ChangeRecord.Table.EMPLOYEES, 0, ChangeRecord.Kind.RELOAD);
+            }
+            conn.commit();
+            return result;
+        }
+    }
+
+    private static IncrementResult readTotals(PreparedStatement ps, boolean applied) throws SQLException {
+        try (ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            int count = rs.getInt(1);
+            BigDecimal before = rs.getBigDecimal(2);
+            BigDecimal after = rs.getBigDecimal(3);
+            return new IncrementResult(applied, count, before != null ? before : BigDecimal.ZERO,
+                    after != null ? after : BigDecimal.ZERO, new ArrayList<>());
+        }
+    }
+
+    private static IncrementResult withSample(IncrementResult totals, PreparedStatement ps, LocalDate asOf) throws SQLException {
+        List<SalaryChange> sample = new ArrayList<>();
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                sample.add(new SalaryChange(rs.getInt(1), rs.getString(2), rs.getBigDecimal(3), rs.getBigDecimal(4), asOf));
+            }
+        }
+        return new IncrementResult(totals.isApplied(), totals.getCount(), totals.getTotalBefore(), totals.getTotalAfter(), sample);
+    }
+
+    @Override
+    public int countAll() throws SQLException {
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT COUNT(*) FROM employees");
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    @Override
+    public RowVersions findVersions() throws SQLException {
+        RowVersions versions = new RowVersions();
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT id, row_version FROM employees ORDER BY id")) {
+            Database.enableStreaming(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    versions.add(rs.getInt(1), rs.getInt(2));
+                }
+            }
+        }
+        return versions;
+    }
+
+    @Override
+    public List<Employee> findByIds(int[] ids) throws SQLException {
+        if (ids.length == 0) return new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT * FROM employees WHERE id IN (?");
+        for (int i = 1; i < ids.length; i++) {
+            sql.append(", ?");
+        }
+        sql.append(')');
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+            for (int i = 0; i < ids.length; i++) {
+                ps.setInt(i + 1, ids[i]);
+            }
+            return readRows(ps);
+        }
+    }
+
+    /** Seeks on the primary key, or on the department/id index when filtering by department. */
+    @Override
+    public List<Employee> findAfterId(int afterId, int departmentId, int limit) throws SQLException {
+        String filter = departmentId == ANY_DEPARTMENT ? "" : departmentId == 0 ? " AND department_id IS NULL" : " AND department_id = ?";
+        String sql = "SELECT * FROM employees WHERE id > ?" + filter + " ORDER BY id LIMIT ?";
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            int index = 1;
+            ps.setInt(index++, afterId);
+            if (departmentId > 0) ps.setInt(index++, departmentId);
+            ps.setInt(index, limit);
+            return readRows(ps);
+        }
+    }
+
+    /** Uses the sort column and id as a keyset so the database seeks straight to the window. */
+    @Override
+    public List<Employee> findPageAfter(EmployeeSort sort, boolean ascending, Employee after, int limit) throws SQLException {
+        String direction = ascending ? "ASC" : "DESC";
+        String op = ascending ? ">" : "<";
+        String expr = sort.getExpression();
+        StringBuilder sql = new StringBuilder("SELECT e.* FROM ").append(sort.getSource());
+        if (after != null) {
+            if (sort == EmployeeSort.ID) {
+                sql.append(" WHERE e.id ").append(op).append(" ?");
+            } else {
+                sql.append(" WHERE (").append(expr).append(' ').append(op).append(" ? OR (")
+                        .append(expr).append(" = ? AND e.id ").append(op).append(" ?))");
+            }
+        }
+        sql.append(" ORDER BY ");
+        if (sort != EmployeeSort.ID) sql.append(expr).append(' ').append(direction).append(", ");
+        sql.append("e.id ").append(direction).append(" LIMIT ?");
+
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql.toString())) {
+            int index = 1;
+            if (after != null) {
+                if (sort != EmployeeSort.ID) {
+                    Object key = sort.keyOf(after);
+                    ps.setObject(index++, key);
+                    ps.setObject(index++, key);
+                }
+                ps.setInt(index++, after.getId());
+            }
+            ps.setInt(index, limit);
+            return readRows(ps);
+        }
+    }
+
+    @Override
+    public int countBefore(EmployeeSort sort, boolean ascending, Employee row) throws SQLException {
+        String op = ascending ? "<" : ">";
+        String expr = sort.getExpression();
+        String sql = sort == EmployeeSort.ID
+                ? "SELECT COUNT(*) FROM employees e WHERE e.id " + op + " ?"
+                : "SELECT COUNT(*) FROM " + sort.getSource()
+                        + " WHERE (" + expr + " " + op + " ? OR (" + expr + " = ? AND e.id " + op + " ?))";
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            int index = 1;
+            if (sort != EmployeeSort.ID) {
+                Object key = sort.keyOf(row);
+                ps.setObject(index++, key);
+                ps.setObject(index++, key);
+            }
+            ps.setInt(index, row.getId());
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    @Override
+    public List<Employee> findPageAt(EmployeeSort sort, boolean ascending, int offset, int limit) throws SQLException {
+        String direction = ascending ? "ASC" : "DESC";
+        String order = sort == EmployeeSort.ID ? "e.id " + direction
+                : sort.getExpression() + " " + direction + ", e.id " + direction;
+        String sql = "SELECT e.* FROM " + sort.getSource() + " ORDER BY " + order + " LIMIT ? OFFSET ?";
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, limit);
+            ps.setInt(2, offset);
+            return readRows(ps);
+        }
+    }
+
+    @Override
+    public int insert(Employee employee) throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            int id = insert(conn, employee);
+            conn.commit();
+            return id;
+        }
+    }
+
+    /** Inserts and logs the row on a connection whose transaction the caller commits. */
+    int insert(Connection conn, Employee employee) throws SQLException {
+        String sql = "INSERT INTO employees(name, department_id, salary, join_date, increment_policy, last_increment_date)"
+                + " VALUES(?,?,?,?,?,?)";
+        int id;
+        try (PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            bindFields(pstmt, employee);
+            pstmt.executeUpdate();
+            try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                if (!keys.next()) throw new SQLException("Insert into employees returned no generated id.");
+                id = keys.getInt(1);
+            }
+        }
+        changeLog.record(conn, ChangeRecord.Table.EMPLOYEES, id, ChangeRecord.Kind.INSERT);
+        return id;
+    }
+
+    @Override
+    public void update(Employee employee) throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            update(conn, employee);
+            conn.commit();
+        }
+    }
+
+    /** Updates and logs the row on a connection whose transaction the caller commits. */
+    void update(Connection conn, Employee employee) throws SQLException {
+        String sql = "UPDATE employees SET name = ?, department_id = ?, salary = ?, join_date = ?, increment_policy = ?,"
+                + " last_increment_date = ?, row_version = row_version + 1 WHERE id = ? AND row_version = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            bindFields(pstmt, employee);
+            pstmt.setInt(7, employee.getId());
+            pstmt.setInt(8, employee.getVersion());
+            if (pstmt.executeUpdate() == 0) {
+                throw new StaleRowException("Employee " + employee.getName()
+                        + " was changed or deleted by someone else since it was read.");
+            }
+        }
+        changeLog.record(conn, ChangeRecord.Table.EMPLOYEES, employee.getId(), ChangeRecord.Kind.UPDATE);
+    }
+
+    @Override
+    public void delete(int id) throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            conn.setAutoCommit(false);
+            delete(conn, id);
+            conn.commit();
+        }
+    }
+
+    /** Deletes and logs the row on a connection whose transaction the caller commits. */
+    void delete(Connection conn, int id) throws SQLException {
+        int deleted;
+        try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM employees WHERE id = ?")) {
+            pstmt.setInt(1, id);
+            deleted = pstmt.executeUpdate();
+        }
+        if (deleted > 0) changeLog.record(conn, ChangeRecord.Table.EMPLOYEES, id, ChangeRecord.Kind.DELETE);
+    }
+
+    /** Stops at the first match in the department index. */
+    @Override
+    public boolean isDepartmentInUse(int departmentId) throws SQLException {
+        String sql = "SELECT 1 FROM employees WHERE department_id = ? LIMIT 1";
+        try (Connection conn = Database.getConnection(); PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, departmentId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next();
+            }
+        }
+    }
+
+    @Override
+    public List<GroupTotal> groupTotals(EmployeeGrouping grouping) throws SQLException {
+        String key;
+        switch (grouping) {
+            case DEPARTMENT:
+                key = "department_id";
+                break;
+            case POLICY:
+                key = "increment_policy";
+                break;
+            default:
+                key = "YEAR(join_date)";
+        }
+        String sql = "SELECT " + key + ", COUNT(*), SUM(salary) FROM employees GROUP BY " + key;
+        List<GroupTotal> totals = new ArrayList<>();
+        try (Connection conn = Database.getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                Object value;
+                if (grouping == EmployeeGrouping.DEPARTMENT) {
+                    value = rs.getInt(1);
+                } else if (grouping == EmployeeGrouping.POLICY) {
+                    value = rs.getString(1);
+                } else {
+                    int year = rs.getInt(1);
+                    value = rs.wasNull() ? null : year;
+                }
+                // SUM over DECIMAL(10,2) is exact; keep it exact in cents
+                totals.add(new GroupTotal(value, rs.getLong(2), rs.getBigDecimal(3).movePointRight(2).longValueExact()));
+            }
+        }
+        return totals;
+    }
+
+    @Override
+    public BulkInsert openBulkInsert(int batchSize, int chunkSize) throws SQLException {
+        return new MySqlBulkInsert(changeLog, batchSize, chunkSize);
+    }
+
+    private static List<Employee> readRows(PreparedStatement ps) throws SQLException {
+        List<Employee> rows = new ArrayList<>();
+        try (ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                rows.add(mapRow(rs));
+            }
+        }
+        return rows;
+    }
+
+    static Employee mapRow(ResultSet rs) throws SQLException {
+        Date joinSqlDate = rs.getDate("join_date");
+        LocalDate joinLocalDate = (joinSqlDate != null) ? joinSqlDate.toLocalDate() : null;
+        Employee employee = new Employee(
+                rs.getInt("id"),
+                rs.getString("name"),
+                rs.getInt("department_id"),
+                rs.getDouble("salary"),
+                joinLocalDate,
+                rs.getString("increment_policy")
+        );
+        employee.setVersion(rs.getInt("row_version"));
+        Date lastIncrement = rs.getDate("last_increment_date");
+        employee.setLastIncrementDate(lastIncrement != null ? lastIncrement.toLocalDate() : null);
+        return employee;
+    }
+
+    private static void bindFields(PreparedStatement pstmt, Employee employee) throws SQLException {
+        pstmt.setString(1, employee.getName());
+        bindDepartment(pstmt, 2, employee.getDepartmentId());
+        pstmt.setDouble(3, employee.getSalary());
+        pstmt.setDate(4, employee.getJoinDate() != null ? Date.valueOf(employee.getJoinDate()) : null);
+        pstmt.setString(5, employee.getIncrementPolicy());
+        pstmt.setDate(6, employee.getLastIncrementDate() != null ? Date.valueOf(employee.getLastIncrementDate()) : null);
+    }
+
+    /** Binds the two cutoff dates of {@link #DUE} starting at {@code index} and returns the next index. */
+    private static int bindDue(PreparedStatement ps, int index, LocalDate asOf) throws SQLException {
+        ps.setDate(index++, Date.valueOf(asOf.minusMonths(12)));
+        ps.setDate(index++, Date.valueOf(asOf.minusMonths(6)));
+        return index;
+    }
+
+    static void bindDepartment(PreparedStatement pstmt, int index, int departmentId) throws SQLException {
+        if (departmentId > 0) {
+            pstmt.setInt(index, departmentId);
+        } else {
+            pstmt.setNull(index, Types.INTEGER);
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package com.hrsystem.hrsystem.storage;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates the tables in an empty MySQL database and brings an existing one up to the schema the
+ * application expects. Every step checks the current schema first, so it is safe to run on each start
+ * and to re-run after an interrupted migration.
+ *
+ * The statements for an empty database are also available on their own, for the benchmarks' embedded H2
+ * database; the migrations use MySQL-only {@code ALTER TABLE} syntax.
+ */
+public final class MySqlSchema {
+
+    // Table, index name and columns of every secondary index
+    private static final String[][] INDEXES = {
+            {"employees", "idx_employees_department", "(department_id, id)"},
+            {"employees", "idx_employees_name", "(name, id)"},
+            {"employees", "idx_employees_salary", "(salary, id)"},
+            {"employees", "idx_employees_policy_anchor", "(increment_policy, increment_anchor)"},
+            {"change_log", "idx_change_log_changed_at", "(changed_at)"},
+            {"salary_history", "idx_salary_history_employee", "(employee_id, effective_date)"},
+            {"salary_history", "idx_salary_history_run", "(run_id, employee_id)"},
+            {"audit_log", "idx_audit_log_row", "(table_name, row_id, id)"}};
+    private static final String DEPARTMENT_FOREIGN_KEY =
+            "ADD CONSTRAINT fk_employees_department FOREIGN KEY (department_id) REFERENCES departments (id)";
+
+    private MySqlSchema() {
+    }
+
+    static void apply(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            for (String table : createTables(true)) {
+                stmt.executeUpdate(table);
+            }
+            if (!hasColumn(conn, "employees", "row_version")) {
+                stmt.executeUpdate("ALTER TABLE employees ADD COLUMN row_version INT NOT NULL DEFAULT 0");
+            }
+        }
+        migrateDepartmentId(conn);
+        migrateIncrementAnchor(conn);
+        for (String[] index : INDEXES) {
+            createIndex(conn, index[0], index[1], index[2]);
+        }
+    }
+
+    /**
+     * Creates any missing table, without secondary indexes or foreign keys.
+     * @param storedColumns whether generated columns are declared {@code STORED}, which H2 does not accept; MySQL
+     * would otherwise compute them on every read.
+     */
+    public static List<String> createTables(boolean storedColumns) {
+        return List.of(
+                "CREATE TABLE IF NOT EXISTS departments ("
+                        + " id INT AUTO_INCREMENT PRIMARY KEY,"
+                        + " name VARCHAR(255) NOT NULL UNIQUE)",
+                "CREATE TABLE IF NOT EXISTS employees ("
+                        + " id INT AUTO_INCREMENT PRIMARY KEY,"
+                        + " name VARCHAR(255) NOT NULL,"
+                        + " department_id INT NULL,"
+                        + " salary DECIMAL(10, 2) NOT NULL,"
+                        + " join_date DATE,"
+                        + " increment_policy VARCHAR(20) DEFAULT 'Yearly',"
+                        + " row_version INT NOT NULL DEFAULT 0,"
+                        + " last_increment_date DATE NULL,"
+                        + " increment_anchor DATE GENERATED ALWAYS AS (COALESCE(last_increment_date, join_date))"
+                        + (storedColumns ? " STORED)" : ")"),
+                "CREATE TABLE IF NOT EXISTS change_log ("
+                        + " version BIGINT AUTO_INCREMENT PRIMARY KEY,"
+                        + " table_name VARCHAR(20) NOT NULL,"
+                        + " row_id INT NOT NULL,"
+                        + " kind CHAR(1) NOT NULL,"
+                        + " origin CHAR(36) NOT NULL,"
+                        + " changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)",
+                "CREATE TABLE IF NOT EXISTS salary_history ("
+                        + " id BIGINT AUTO_INCREMENT PRIMARY KEY,"
+                        + " employee_id INT NOT NULL,"
+                        + " old_salary DECIMAL(10, 2) NOT NULL,"
+                        + " new_salary DECIMAL(10, 2) NOT NULL,"
+                        + " effective_date DATE NOT NULL,"
+                        + " run_id CHAR(36) NOT NULL)",
+                "CREATE TABLE IF NOT EXISTS audit_log ("
+                        + " id BIGINT AUTO_INCREMENT PRIMARY KEY,"
+                        + " table_name VARCHAR(20) NOT NULL,"
+                        + " row_id INT NOT NULL,"
+                        + " action VARCHAR(10) NOT NULL,"
+                        + " user_name VARCHAR(100) NOT NULL,"
+                        + " changed_at TIMESTAMP(3) NOT NULL,"
+                        + " before_image TEXT NULL,"
+                        + " after_image TEXT NULL)");
+    }
+
+    /** Adds the secondary indexes and the department foreign key to tables just made by {@link #createTables}. */
+    public static List<String> createIndexes() {
+        List<String> statements = new ArrayList<>();
+        for (String[] index : INDEXES) {
+            statements.add("CREATE INDEX " + index[1] + " ON " + index[0] + " " + index[2]);
+        }
+        statements.add("ALTER TABLE employees " + DEPARTMENT_FOREIGN_KEY);
+        return statements;
+    }
+
+    /**
+     * Adds {@code last_increment_date} and the stored {@code increment_anchor} the due check filters on: the
+     * last increment, or the join date for employees who never had one. The policy/anchor index replaces the
+     * policy/join-date one.
+     */
+    private static void migrateIncrementAnchor(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            if (!hasColumn(conn, "employees", "last_increment_date")) {
+                stmt.executeUpdate("ALTER TABLE employees ADD COLUMN last_increment_date DATE NULL");
+            }
+            if (!hasColumn(conn, "employees", "increment_anchor")) {
+                stmt.executeUpdate("ALTER TABLE employees ADD COLUMN increment_anchor DATE"
+                        + " GENERATED ALWAYS AS (COALESCE(last_increment_date, join_date)) STORED");
+            }
+            // Before dropping the index it replaces, so the due check is never left without one
+            createIndex(conn, "employees", "idx_employees_policy_anchor", "(increment_policy, increment_anchor)");
+            if (hasIndex(conn, "employees", "idx_employees_policy_join")) {
+                stmt.executeUpdate("DROP INDEX idx_employees_policy_join ON employees");
+            }
+        }
+    }
+
+    /**
+     * Replaces the free-text {@code employees.department} name with an indexed {@code department_id}
+     * foreign key. Names without a matching department (e.g. left behind by an old rename) are added as
+     * departments so no employee loses its assignment.
+     */
+    private static void migrateDepartmentId(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            if (!hasColumn(conn, "employees", "department_id")) {
+                stmt.executeUpdate("ALTER TABLE employees ADD COLUMN department_id INT NULL AFTER name");
+            }
+            if (hasColumn(conn, "employees", "department")) {
+                stmt.executeUpdate("INSERT INTO departments (name)"
+                        + " SELECT DISTINCT e.department FROM employees e"
+                        + " LEFT JOIN departments d ON d.name = e.department"
+                        + " WHERE e.department IS NOT NULL AND e.department <> '' AND d.id IS NULL");
+                stmt.executeUpdate("UPDATE employees e JOIN departments d ON d.name = e.department"
+                        + " SET e.department_id = d.id WHERE e.department_id IS NULL");
+                stmt.executeUpdate("ALTER TABLE employees DROP COLUMN department");
+            }
+            if (!hasIndex(conn, "employees", "idx_employees_department")) {
+                stmt.executeUpdate("ALTER TABLE employees"
+                        + " ADD INDEX idx_employees_department (department_id, id),"
+                        + " " + DEPARTMENT_FOREIGN_KEY);
+            }
+        }
+    }
+
+    private static void createIndex(Connection conn, String table, String index, String columns) throws SQLException {
+        if (hasIndex(conn, table, index)) return;
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("CREATE INDEX " + index + " ON " + table + " " + columns);
+        }
+    }
+
+    private static boolean hasColumn(Connection conn, String table, String column) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getColumns(conn.getCatalog(), null, table, column)) {
+            return rs.next();
+        }
+    }
+
+    private static boolean hasIndex(Connection conn, String table, String index) throws SQLException {
+        DatabaseMetaData meta = conn.getMetaData();
+        try (ResultSet rs = meta.getIndexInfo(conn.getCatalog(), null, table, false, false)) {
+            while (rs.next()) {
+                if (index.equalsIgnoreCase(rs.getString("INDEX_NAME"))) return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,69 @@
+package com.hrsystem.hrsystem.storage;
+
+import com.hrsystem.hrsystem.util.Database;
+import com.hrsystem.hrsystem.util.PoolConfig;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * Storage in a MySQL database, reached through the shared connection pool in {@link Database}.
+ */
+public class MySqlStorage implements Storage {
+
+    private final String url;
+    private final MySqlChangeLog changeLog = new MySqlChangeLog();
+    private final MySqlEmployeeStore employees = new MySqlEmployeeStore(changeLog);
+    private final MySqlDepartmentStore departments = new MySqlDepartmentStore(changeLog);
+    private final AuditLog auditLog = new MySqlAuditLog();
+
+    public MySqlStorage(StorageConfig config) {
+        this.url = config.getJdbcUrl();
+        String user = config.getJdbcUser();
+        String password = config.getJdbcPassword();
+        Database.configure(() -> DriverManager.getConnection(url, user, password), new PoolConfig());
+    }
+
+    @Override
+    public EmployeeStore employees() {
+        return employees;
+    }
+
+    @Override
+    public DepartmentStore departments() {
+        return departments;
+    }
+
+    @Override
+    public ChangeLog changeLog() {
+        return changeLog;
+    }
+
+    @Override
+    public WriteBatch openWriteBatch() throws SQLException {
+        return new MySqlWriteBatch(employees, departments);
+    }
+
+    @Override
+    public AuditLog auditLog() {
+        return auditLog;
+    }
+
+    @Override
+    public void bootstrap() throws SQLException {
+        try (Connection conn = Database.getConnection()) {
+            MySqlSchema.apply(conn);
+        }
+    }
+
+    @Override
+    public String describe() {
+        return url;
+    }
+
+    @Override
+    public void close() {
+        Database.shutdown();
+    }
+}
@@ -0,0 +1,125 @@
+package com.hrsystem.hrsystem.storage;
+
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.util.Database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+
+/**
+ * A transaction on one pooled connection. Every write runs behind its own savepoint, which a failure rolls
+ * back to, so the failed write alone is undone. InnoDB rolls back the whole transaction on a deadlock or a
+ * lost lock, which no savepoint survives; the batch then refuses everything else.
+ */
+class MySqlWriteBatch implements WriteBatch {
+
+    private interface Write<T> {
+        T run() throws SQLException;
+    }
+
+    private final MySqlEmployeeStore employees;
+    private final MySqlDepartmentStore departments;
+    private final Connection conn;
+    private SQLException aborted;
+    private boolean pending;
+
+    MySqlWriteBatch(MySqlEmployeeStore employees, MySqlDepartmentStore departments) throws SQLException {
+        this.employees = employees;
+        this.departments = departments;
+        this.conn = Database.getConnection();
+        try {
+            conn.setAutoCommit(false);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public int insertEmployee(Employee employee) throws SQLException {
+        return isolated(() -> employees.insert(conn, employee));
+    }
+
+    @Override
+    public void updateEmployee(Employee employee) throws SQLException {
+        isolated(() -> {
+            employees.update(conn, employee);
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteEmployee(int id) throws SQLException {
+        isolated(() -> {
+            employees.delete(conn, id);
+            return null;
+        });
+    }
+
+    @Override
+    public int insertDepartment(String name) throws SQLException {
+        return isolated(() -> departments.insert(conn, name));
+    }
+
+    @Override
+    public void renameDepartment(int id, String name) throws SQLException {
+        isolated(() -> {
+            departments.rename(conn, id, name);
+            return null;
+        });
+    }
+
+    @Override
+    public void deleteDepartment(int id) throws SQLException {
+        isolated(() -> {
+            departments.delete(conn, id);
+            return null;
+        });
+    }
+
+    private <T> T isolated(Write<T> write) throws SQLException {
+        if (aborted != null) throw new SQLException("The transaction was rolled back by the database.", aborted);
+        Savepoint savepoint = conn.setSavepoint();
+        try {
+            T result = write.run();
+            conn.releaseSavepoint(savepoint);
+            pending = true;
+            return result;
+        } catch (SQLException e) {
+            if (isTransactionRollback(e)) {
+                aborted = e;
+            } else {
+                conn.rollback(savepoint);
+            }
+            throw e;
+        }
+    }
+
+    /** SQL state class 40: deadlock (1213), or a lock wait timeout with innodb_rollback_on_timeout. */
+    private static boolean isTransactionRollback(SQLException e) {
+        return e.getSQLState() != null && e.getSQLState().startsWith("40");
+    }
+
+    @Override
+    public void commit() throws SQLException {
+        if (aborted != null) throw new SQLException("The transaction was rolled back by the database.", aborted);
+        conn.commit();
+        pending = false;
+    }
+
+    @Override
+    public void close() {
+        try {
+            if (pending || aborted != null) conn.rollback();
+        } catch (SQLException e) {
+            System.err.println("Could not roll back a write batch: " + e.getMessage());
+        } finally {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                System.err.println("Could not return a connection: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.hrsystem.hrsystem.storage;
+
+import java.sql.SQLException;
+
+/**
+ * A write was refused because the application is showing its local copy of the tables, either while it
+ * catches up with the database after starting or because the database cannot be reached. Nothing was
+ * written.
+ */
+public class ReadOnlyException extends SQLException {
+
+    public ReadOnlyException(String message) {
+        super(message);
+    }
+}
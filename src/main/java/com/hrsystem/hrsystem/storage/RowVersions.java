@@ -0,0 +1,36 @@
+package com.hrsystem.hrsystem.storage;
+
+import java.util.Arrays;
+
+/**
+ * The id and row version of every employee, in id order, as two primitive columns. Narrow enough to read
+ * a large table over a slow link, to find the rows a local copy is missing.
+ */
+public class RowVersions {
+
+    private int[] ids = new int[1024];
+    private int[] versions = new int[1024];
+    private int size;
+
+    public void add(int id, int version) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+            versions = Arrays.copyOf(versions, size * 2);
+        }
+        ids[size] = id;
+        versions[size] = version;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int idAt(int index) {
+        return ids[index];
+    }
+
+    public int versionAt(int index) {
+        return versions[index];
+    }
+}
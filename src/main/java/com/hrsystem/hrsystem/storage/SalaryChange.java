@@ -0,0 +1,30 @@
+package com.hrsystem.hrsystem.storage;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One employee's salary before and after an increment.
+ */
+public class SalaryChange {
+
+    private final int employeeId;
+    private final String name;
+    private final BigDecimal oldSalary;
+    private final BigDecimal newSalary;
+    private final LocalDate effectiveDate;
+
+    public SalaryChange(int employeeId, String name, BigDecimal oldSalary, BigDecimal newSalary, LocalDate effectiveDate) {
+        this.employeeId = employeeId;
+        this.name = name;
+        this.oldSalary = oldSalary;
+        this.newSalary = newSalary;
+        this.effectiveDate = effectiveDate;
+    }
+
+    public int getEmployeeId() { return employeeId; }
+    public String getName() { return name; }
+    public BigDecimal getOldSalary() { return oldSalary; }
+    public BigDecimal getNewSalary() { return newSalary; }
+    public LocalDate getEffectiveDate() { return effectiveDate; }
+}
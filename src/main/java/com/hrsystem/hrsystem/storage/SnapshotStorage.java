@@ -0,0 +1,679 @@
+package com.hrsystem.hrsystem.storage;
+
+import com.hrsystem.hrsystem.model.Department;
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.repository.EmployeeSort;
+
+import java.io.IOException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.text.DateFormat;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Puts a local copy of both tables, an {@link EmployeeSnapshot}, in front of another storage, normally
+ * MySQL over a slow link. On start the screens read the copy straight away while a background thread
+ * catches up: it compares the row versions in the database with the copy's, fetches only the rows that
+ * differ, writes a fresh copy, and then switches reads to the database. The copy is refreshed the same
+ * way at an interval, so it is never far behind.
+ *
+ * When the database cannot be reached, reads fall back to the copy and writes are refused with a
+ * {@link ReadOnlyException} until a periodic retry gets through again. {@link #isLive()} tells the change
+ * poller when to resynchronise.
+ */
+public class SnapshotStorage implements Storage {
+
+    public enum Mode {
+        /** Reads come from the local copy while the database is compared with it; writes are refused. */
+        CATCHING_UP,
+        /** Reads and writes go to the database. */
+        LIVE,
+        /** The database cannot be reached; reads come from the local copy and writes are refused. */
+        OFFLINE
+    }
+
+    @FunctionalInterface
+    private interface Call<S, T> {
+        T on(S store) throws SQLException;
+    }
+
+    private static final int FETCH_BATCH = 1000;
+
+    private final Storage primary;
+    private final Path file;
+    private final long retryMillis;
+    private final long refreshMillis;
+    private final List<Consumer<Mode>> listeners = new CopyOnWriteArrayList<>();
+    private final EmployeeStore employees = new Employees();
+    private final DepartmentStore departments = new Departments();
+    private final EmployeeStore snapshotEmployees = new SnapshotEmployees();
+    private final DepartmentStore snapshotDepartments = new SnapshotDepartments();
+    private volatile EmployeeSnapshot snapshot;
+    private volatile Mode mode;
+    private ScheduledExecutorService worker;
+    private ScheduledFuture<?> nextRefresh;
+
+    /**
+     * @param file where the copy is kept; a copy of another database is ignored and replaced.
+     * @param retryMillis how often to try the database again while it cannot be reached.
+     * @param refreshMillis how often to bring the copy up to date while the database is reachable; 0 for
+     * only at start.
+     */
+    public SnapshotStorage(Storage primary, Path file, long retryMillis, long refreshMillis) {
+        this.primary = primary;
+        this.file = file;
+        this.retryMillis = retryMillis;
+        this.refreshMillis = refreshMillis;
+        try {
+            EmployeeSnapshot existing = EmployeeSnapshot.open(file);
+            if (existing.getSource().equals(primary.describe())) {
+                snapshot = existing;
+            } else {
+                System.err.println("Ignoring the local copy " + file + ": it was taken from " + existing.getSource());
+            }
+        } catch (NoSuchFileException e) {
+            // First start against this database
+        } catch (IOException e) {
+            System.err.println("Ignoring the local copy " + file + ": " + e.getMessage());
+        }
+        mode = snapshot != null ? Mode.CATCHING_UP : Mode.LIVE;
+    }
+
+    @Override
+    public EmployeeStore employees() {
+        return employees;
+    }
+
+    @Override
+    public DepartmentStore departments() {
+        return departments;
+    }
+
+    @Override
+    public ChangeLog changeLog() {
+        return primary.changeLog();
+    }
+
+    /** Refused unless live, like every other write. */
+    @Override
+    public WriteBatch openWriteBatch() throws SQLException {
+        return write(primary, Storage::openWriteBatch);
+    }
+
+    /** Always the database's; while it cannot be reached, writing and reading the history fail. */
+    @Override
+    public AuditLog auditLog() {
+        return primary.auditLog();
+    }
+
+    /**
+     * With a local copy, returns at once and prepares the database in the background. Without one, prepares
+     * the database first and writes the first copy in the background.
+     */
+    @Override
+    public synchronized void bootstrap() throws SQLException {
+        if (worker == null) {
+            worker = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "snapshot");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        if (snapshot == null) primary.bootstrap();
+        worker.execute(this::connect);
+    }
+
+    @Override
+    public boolean isLive() {
+        return mode == Mode.LIVE;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    /** @return when the local copy was taken, in epoch milliseconds, or 0 if there is none. */
+    public long getSnapshotTime() {
+        EmployeeSnapshot copy = snapshot;
+        return copy != null ? copy.getCreatedAt() : 0;
+    }
+
+    /** Called on the snapshot thread, or on the thread whose read failed, whenever the mode changes. */
+    public void addModeListener(Consumer<Mode> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public String describe() {
+        return primary.describe();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (worker != null) {
+            worker.shutdownNow();
+            worker = null;
+        }
+        primary.close();
+    }
+
+    /** Whether the failure means the database is unreachable, rather than that the statement was wrong. */
+    static boolean isConnectionFailure(SQLException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLNonTransientConnectionException || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+            if (cause instanceof SQLException) {
+                String state = ((SQLException) cause).getSQLState();
+                if (state != null && state.startsWith("08")) return true;
+            }
+        }
+        return false;
+    }
+
+    /** Runs on the snapshot thread: catches up with the database, or schedules another try. */
+    private void connect() {
+        try {
+            if (snapshot != null) primary.bootstrap();
+            refresh();
+        } catch (SQLException e) {
+            if (isConnectionFailure(e) && snapshot != null) {
+                if (setMode(Mode.OFFLINE) != Mode.OFFLINE) {
+                    System.err.println("Cannot reach " + primary.describe() + ", showing the local copy: " + e.getMessage());
+                }
+                schedule(this::connect, retryMillis);
+                return;
+            }
+            System.err.println("Could not bring the local copy up to date: " + e.getMessage());
+        }
+        setMode(Mode.LIVE);
+        if (refreshMillis > 0) {
+            synchronized (this) {
+                // A refresh scheduled before a short outage may still be pending
+                if (nextRefresh != null) nextRefresh.cancel(false);
+                nextRefresh = schedule(this::periodicRefresh, refreshMillis);
+            }
+        }
+    }
+
+    private void periodicRefresh() {
+        if (mode != Mode.LIVE) return;
+        try {
+            refresh();
+        } catch (SQLException e) {
+            if (isConnectionFailure(e) && snapshot != null) {
+                wentOffline(e);
+                return;
+            }
+            System.err.println("Could not bring the local copy up to date: " + e.getMessage());
+        }
+        synchronized (this) {
+            nextRefresh = schedule(this::periodicRefresh, refreshMillis);
+        }
+    }
+
+    private synchronized ScheduledFuture<?> schedule(Runnable task, long delayMillis) {
+        return worker != null ? worker.schedule(task, delayMillis, TimeUnit.MILLISECONDS) : null;
+    }
+
+    /**
+     * Brings the local copy up to date: reads the id and version of every row, fetches the rows that are
+     * new or changed since the copy was taken, and writes a new copy from those and the unchanged rows.
+     */
+    private void refresh() throws SQLException {
+        EmployeeSnapshot old = snapshot;
+        EmployeeStore store = primary.employees();
+        List<Department> currentDepartments = primary.departments().findAll();
+        RowVersions versions = store.findVersions();
+
+        List<Integer> changed = new ArrayList<>();
+        int row = 0;
+        for (int i = 0; i < versions.size(); i++) {
+            int id = versions.idAt(i);
+            // Both lists are in id order, so one walk pairs them up
+            while (old != null && row < old.size() && old.idAt(row) < id) row++;
+            if (old == null || row >= old.size() || old.idAt(row) != id || old.versionAt(row) != versions.versionAt(i)) {
+                changed.add(id);
+            }
+        }
+        Map<Integer, Employee> fetched = new HashMap<>();
+        for (int from = 0; from < changed.size(); from += FETCH_BATCH) {
+            int[] ids = changed.subList(from, Math.min(changed.size(), from + FETCH_BATCH)).stream().mapToInt(Integer::intValue).toArray();
+            for (Employee employee : store.findByIds(ids)) {
+                fetched.put(employee.getId(), employee);
+            }
+        }
+
+        List<Employee> rows = new ArrayList<>(versions.size());
+        row = 0;
+        for (int i = 0; i < versions.size(); i++) {
+            int id = versions.idAt(i);
+            Employee employee = fetched.get(id);
+            if (employee == null && old != null) {
+                while (row < old.size() && old.idAt(row) < id) row++;
+                // Deleted between the two reads if it is in neither
+                if (row < old.size() && old.idAt(row) == id) employee = old.rowAt(row);
+            }
+            if (employee != null) rows.add(employee);
+        }
+        try {
+            EmployeeSnapshot.write(file, primary.describe(), currentDepartments, rows);
+            snapshot = EmployeeSnapshot.open(file);
+        } catch (IOException e) {
+            System.err.println("Could not write the local copy " + file + ": " + e.getMessage());
+        }
+    }
+
+    private Mode setMode(Mode next) {
+        Mode previous;
+        synchronized (this) {
+            previous = mode;
+            mode = next;
+        }
+        if (previous != next) {
+            for (Consumer<Mode> listener : listeners) {
+                listener.accept(next);
+            }
+        }
+        return previous;
+    }
+
+    /** A read or write found the database unreachable; serve the copy and keep trying in the background. */
+    private void wentOffline(SQLException e) {
+        if (setMode(Mode.OFFLINE) == Mode.LIVE) {
+            System.err.println("Lost " + primary.describe() + ", showing the local copy: " + e.getMessage());
+            schedule(this::connect, retryMillis);
+        }
+    }
+
+    private ReadOnlyException readOnly() {
+        if (mode == Mode.CATCHING_UP) {
+            return new ReadOnlyException("Still catching up with the database; try again in a moment.");
+        }
+        String taken = DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT).format(new Date(getSnapshotTime()));
+        return new ReadOnlyException("The database cannot be reached; showing the local copy from " + taken + ", read-only.");
+    }
+
+    /** Runs a read against the database, or against the copy when not live or the database just went away. */
+    private <S, T> T read(S live, S local, Call<S, T> call) throws SQLException {
+        if (mode != Mode.LIVE && snapshot != null) return call.on(local);
+        try {
+            return call.on(live);
+        } catch (SQLException e) {
+            if (snapshot == null || !isConnectionFailure(e)) throw e;
+            wentOffline(e);
+            return call.on(local);
+        }
+    }
+
+    /** Runs a write against the database, or refuses it when not live. */
+    private <S, T> T write(S live, Call<S, T> call) throws SQLException {
+        if (mode != Mode.LIVE) throw readOnly();
+        try {
+            return call.on(live);
+        } catch (SQLException e) {
+            if (snapshot != null && isConnectionFailure(e)) wentOffline(e);
+            throw e;
+        }
+    }
+
+    private class Employees implements EmployeeStore {
+
+        private <T> T read(Call<EmployeeStore, T> call) throws SQLException {
+            return SnapshotStorage.this.read(primary.employees(), snapshotEmployees, call);
+        }
+
+        private <T> T write(Call<EmployeeStore, T> call) throws SQLException {
+            return SnapshotStorage.this.write(primary.employees(), call);
+        }
+
+        @Override
+        public List<Employee> findAll() throws SQLException {
+            return read(EmployeeStore::findAll);
+        }
+
+        @Override
+        public void forEach(Consumer<Employee> action) throws SQLException {
+            if (mode != Mode.LIVE && snapshot != null) {
+                snapshotEmployees.forEach(action);
+                return;
+            }
+            long[] delivered = new long[1];
+            try {
+                primary.employees().forEach(employee -> {
+                    delivered[0]++;
+                    action.accept(employee);
+                });
+            } catch (SQLException e) {
+                // Starting over from the copy would hand the action some rows twice
+                if (snapshot == null || !isConnectionFailure(e) || delivered[0] > 0) throw e;
+                wentOffline(e);
+                snapshotEmployees.forEach(action);
+            }
+        }
+
+        @Override
+        public List<Employee> findDueForIncrement(LocalDate asOf) throws SQLException {
+            return read(store -> store.findDueForIncrement(asOf));
+        }
+
+        @Override
+        public IncrementResult applyIncrements(IncrementRule rule, LocalDate asOf, boolean dryRun, int sampleSize) throws SQLException {
+            // Even a dry run is refused: its figures would be taken from a copy the run itself cannot change
+            return write(store -> store.applyIncrements(rule, asOf, dryRun, sampleSize));
+        }
+
+        @Override
+        public int countAll() throws SQLException {
+            return read(EmployeeStore::countAll);
+        }
+
+        @Override
+        public RowVersions findVersions() throws SQLException {
+            return read(EmployeeStore::findVersions);
+        }
+
+        @Override
+        public List<Employee> findByIds(int[] ids) throws SQLException {
+            return read(store -> store.findByIds(ids));
+        }
+
+        @Override
+        public List<Employee> findAfterId(int afterId, int departmentId, int limit) throws SQLException {
+            return read(store -> store.findAfterId(afterId, departmentId, limit));
+        }
+
+        @Override
+        public List<Employee> findPageAfter(EmployeeSort sort, boolean ascending, Employee after, int limit) throws SQLException {
+            return read(store -> store.findPageAfter(sort, ascending, after, limit));
+        }
+
+        @Override
+        public int countBefore(EmployeeSort sort, boolean ascending, Employee row) throws SQLException {
+            return read(store -> store.countBefore(sort, ascending, row));
+        }
+
+        @Override
+        public List<Employee> findPageAt(EmployeeSort sort, boolean ascending, int offset, int limit) throws SQLException {
+            return read(store -> store.findPageAt(sort, ascending, offset, limit));
+        }
+
+        @Override
+        public int insert(Employee employee) throws SQLException {
+            return write(store -> store.insert(employee));
+        }
+
+        @Override
+        public void update(Employee employee) throws SQLException {
+            write(store -> {
+                store.update(employee);
+                return null;
+            });
+        }
+
+        @Override
+        public void delete(int id) throws SQLException {
+            write(store -> {
+                store.delete(id);
+                return null;
+            });
+        }
+
+        @Override
+        public boolean isDepartmentInUse(int departmentId) throws SQLException {
+            return read(store -> store.isDepartmentInUse(departmentId));
+        }
+
+        @Override
+        public List<GroupTotal> groupTotals(EmployeeGrouping grouping) throws SQLException {
+            return read(store -> store.groupTotals(grouping));
+        }
+
+        @Override
+        public BulkInsert openBulkInsert(int batchSize, int chunkSize) throws SQLException {
+            return write(store -> store.openBulkInsert(batchSize, chunkSize));
+        }
+    }
+
+    private class Departments implements DepartmentStore {
+
+        @Override
+        public List<Department> findAll() throws SQLException {
+            return read(primary.departments(), snapshotDepartments, DepartmentStore::findAll);
+        }
+
+        @Override
+        public int insert(String name) throws SQLException {
+            return write(primary.departments(), store -> store.insert(name));
+        }
+
+        @Override
+        public void rename(int id, String name) throws SQLException {
+            write(primary.departments(), store -> {
+                store.rename(id, name);
+                return null;
+            });
+        }
+
+        @Override
+        public void delete(int id) throws SQLException {
+            write(primary.departments(), store -> {
+                store.delete(id);
+                return null;
+            });
+        }
+    }
+
+    /** Reads from the local copy; rows are decoded only as they are returned. */
+    private class SnapshotEmployees implements EmployeeStore {
+
+        private List<Employee> rowsAt(EmployeeSnapshot copy, int from, int to) {
+            List<Employee> rows = new ArrayList<>(Math.max(0, to - from));
+            for (int i = from; i < to; i++) {
+                rows.add(copy.rowAt(i));
+            }
+            return rows;
+        }
+
+        /** Rows at ranks {@code from} to {@code to} of the sort column, in ascending or descending order. */
+        private List<Employee> ranked(EmployeeSnapshot copy, EmployeeSort sort, boolean ascending, int from, int to) {
+            List<Employee> rows = new ArrayList<>(Math.max(0, to - from));
+            if (ascending) {
+                for (int rank = from; rank < to; rank++) {
+                    rows.add(copy.rowAt(copy.rowAtRank(sort, rank)));
+                }
+            } else {
+                for (int rank = to - 1; rank >= from; rank--) {
+                    rows.add(copy.rowAt(copy.rowAtRank(sort, rank)));
+                }
+            }
+            return rows;
+        }
+
+        /** @return the number of rows that sort before {@code key} (or not after it, if {@code inclusive}). */
+        private int rank(EmployeeSnapshot copy, EmployeeSort sort, Employee key, boolean inclusive) {
+            Comparator<Employee> order = EmployeeOrder.ascending(sort, copy::departmentName);
+            int low = 0;
+            int high = copy.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                int c = order.compare(copy.rowAt(copy.rowAtRank(sort, mid)), key);
+                if (c < 0 || (inclusive && c == 0)) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        @Override
+        public List<Employee> findAll() {
+            EmployeeSnapshot copy = snapshot;
+            return rowsAt(copy, 0, copy.size());
+        }
+
+        @Override
+        public void forEach(Consumer<Employee> action) {
+            EmployeeSnapshot copy = snapshot;
+            for (int i = 0; i < copy.size(); i++) {
+                action.accept(copy.rowAt(i));
+            }
+        }
+
+        @Override
+        public List<Employee> findDueForIncrement(LocalDate asOf) {
+            EmployeeSnapshot copy = snapshot;
+            List<Employee> due = new ArrayList<>();
+            for (int i = 0; i < copy.size(); i++) {
+                Employee row = copy.rowAt(i);
+                if (MemoryStorage.isDue(row, asOf)) due.add(row);
+            }
+            due.sort(Comparator.comparing(MemoryStorage::incrementAnchor).thenComparingInt(Employee::getId));
+            return due;
+        }
+
+        @Override
+        public IncrementResult applyIncrements(IncrementRule rule, LocalDate asOf, boolean dryRun, int sampleSize) throws SQLException {
+            throw readOnly();
+        }
+
+        @Override
+        public int countAll() {
+            return snapshot.size();
+        }
+
+        @Override
+        public RowVersions findVersions() {
+            EmployeeSnapshot copy = snapshot;
+            RowVersions versions = new RowVersions();
+            for (int i = 0; i < copy.size(); i++) {
+                versions.add(copy.idAt(i), copy.versionAt(i));
+            }
+            return versions;
+        }
+
+        @Override
+        public List<Employee> findByIds(int[] ids) {
+            EmployeeSnapshot copy = snapshot;
+            List<Employee> rows = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                int row = copy.rowOf(id);
+                if (row >= 0) rows.add(copy.rowAt(row));
+            }
+            return rows;
+        }
+
+        @Override
+        public List<Employee> findAfterId(int afterId, int departmentId, int limit) {
+            EmployeeSnapshot copy = snapshot;
+            int row = copy.rowOf(afterId);
+            row = row >= 0 ? row + 1 : -row - 1;
+            List<Employee> rows = new ArrayList<>();
+            for (; row < copy.size() && rows.size() < limit; row++) {
+                if (departmentId == ANY_DEPARTMENT || copy.departmentIdAt(row) == departmentId) rows.add(copy.rowAt(row));
+            }
+            return rows;
+        }
+
+        @Override
+        public List<Employee> findPageAfter(EmployeeSort sort, boolean ascending, Employee after, int limit) {
+            EmployeeSnapshot copy = snapshot;
+            if (ascending) {
+                int from = after == null ? 0 : rank(copy, sort, after, true);
+                return ranked(copy, sort, true, from, Math.min(copy.size(), from + limit));
+            }
+            int to = after == null ? copy.size() : rank(copy, sort, after, false);
+            return ranked(copy, sort, false, Math.max(0, to - limit), to);
+        }
+
+        @Override
+        public int countBefore(EmployeeSort sort, boolean ascending, Employee row) {
+            EmployeeSnapshot copy = snapshot;
+            return ascending ? rank(copy, sort, row, false) : copy.size() - rank(copy, sort, row, true);
+        }
+
+        @Override
+        public List<Employee> findPageAt(EmployeeSort sort, boolean ascending, int offset, int limit) {
+            EmployeeSnapshot copy = snapshot;
+            if (ascending) {
+                int from = Math.min(copy.size(), offset);
+                return ranked(copy, sort, true, from, Math.min(copy.size(), from + limit));
+            }
+            int to = Math.max(0, copy.size() - offset);
+            return ranked(copy, sort, false, Math.max(0, to - limit), to);
+        }
+
+        @Override
+        public int insert(Employee employee) throws SQLException {
+            throw readOnly();
+        }
+
+        @Override
+        public void update(Employee employee) throws SQLException {
+            throw readOnly();
+        }
+
+        @Override
+        public void delete(int id) throws SQLException {
+            throw readOnly();
+        }
+
+        @Override
+        public boolean isDepartmentInUse(int departmentId) {
+            EmployeeSnapshot copy = snapshot;
+            for (int i = 0; i < copy.size(); i++) {
+                if (copy.departmentIdAt(i) == departmentId) return true;
+            }
+            return false;
+        }
+
+        @Override
+        public List<GroupTotal> groupTotals(EmployeeGrouping grouping) {
+            return MemoryStorage.totalsOf(findAll(), grouping);
+        }
+
+        @Override
+        public BulkInsert openBulkInsert(int batchSize, int chunkSize) throws SQLException {
+            throw readOnly();
+        }
+    }
+
+    private class SnapshotDepartments implements DepartmentStore {
+
+        @Override
+        public List<Department> findAll() {
+            return snapshot.departments();
+        }
+
+        @Override
+        public int insert(String name) throws SQLException {
+            throw readOnly();
+        }
+
+        @Override
+        public void rename(int id, String name) throws SQLException {
+            throw readOnly();
+        }
+
+        @Override
+        public void delete(int id) throws SQLException {
+            throw readOnly();
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.hrsystem.hrsystem.storage;
+
+import java.sql.SQLException;
+
+/**
+ * An update was refused because the row was changed or deleted by someone else since it was read. Nothing
+ * was written; the caller should re-read the row and let the user decide again.
+ */
+public class StaleRowException extends SQLException {
+
+    public StaleRowException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,43 @@
+package com.hrsystem.hrsystem.storage;
+
+import java.sql.SQLException;
+
+/**
+ * A place the employee and department tables live. The repositories go through this interface, so the
+ * application can run against MySQL or against the in-memory engine without a database server.
+ *
+ * Every operation reports failures as {@link SQLException}, whichever engine is behind it, so callers
+ * handle errors the same way.
+ */
+public interface Storage extends AutoCloseable {
+
+    EmployeeStore employees();
+
+    DepartmentStore departments();
+
+    /** The log of committed changes that other clients of the same storage poll. */
+    ChangeLog changeLog();
+
+    /** Starts a transaction for several writes to either table, see {@link WriteBatch}. */
+    WriteBatch openWriteBatch() throws SQLException;
+
+    /** Where the audit trail of who changed what is kept. */
+    AuditLog auditLog();
+
+    /** Creates missing tables and upgrades older schemas. Safe to call on every start. */
+    void bootstrap() throws SQLException;
+
+    /**
+     * False while reads are served from a local copy instead of the tables themselves, because the storage is
+     * still catching up after starting or cannot reach the tables; writes are refused meanwhile.
+     */
+    default boolean isLive() {
+        return true;
+    }
+
+    /** A short description for logs and status messages, e.g. the JDBC URL. */
+    String describe();
+
+    @Override
+    void close();
+}
@@ -0,0 +1,78 @@
+package com.hrsystem.hrsystem.storage;
+
+import com.hrsystem.hrsystem.util.AppProperties;
+import com.hrsystem.hrsystem.util.Database;
+
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * Which storage engine to use and how to reach it. {@link #load()} reads {@code hrsystem.properties} from the
+ * working directory if there is one, then lets {@code -D} system properties of the same names override it:
+ * <pre>
+ * hrsystem.storage=mysql|memory
+ * hrsystem.jdbc.url=jdbc:mysql://localhost:3306/hrsystem?rewriteBatchedStatements=true
+ * hrsystem.jdbc.user=root
+ * hrsystem.jdbc.password=admin
+ * hrsystem.memory.seed=true
+ * hrsystem.snapshot.dir=~/.hrsystem            (mysql only; empty: no local copy)
+ * hrsystem.snapshot.retry.seconds=30
+ * hrsystem.snapshot.refresh.minutes=30
+ * </pre>
+ */
+public class StorageConfig {
+
+    public enum Engine { MYSQL, MEMORY }
+
+    private Engine engine = Engine.MYSQL;
+    private String jdbcUrl = Database.DEFAULT_URL;
+    private String jdbcUser = Database.DEFAULT_USER;
+    private String jdbcPassword = Database.DEFAULT_PASSWORD;
+    // Adds the sample departments from the README to an empty in-memory store
+    private boolean seedMemory = true;
+    private String snapshotDir = Path.of(System.getProperty("user.home"), ".hrsystem").toString();
+    private long snapshotRetrySeconds = 30;
+    private long snapshotRefreshMinutes = 30;
+
+    public static StorageConfig load() {
+        return from(AppProperties.load());
+    }
+
+    public static StorageConfig from(Properties properties) {
+        StorageConfig config = new StorageConfig();
+        String engine = properties.getProperty("hrsystem.storage");
+        if (engine != null) config.setEngine(Engine.valueOf(engine.trim().toUpperCase()));
+        config.setJdbcUrl(properties.getProperty("hrsystem.jdbc.url", config.jdbcUrl));
+        config.setJdbcUser(properties.getProperty("hrsystem.jdbc.user", config.jdbcUser));
+        config.setJdbcPassword(properties.getProperty("hrsystem.jdbc.password", config.jdbcPassword));
+        config.setSeedMemory(Boolean.parseBoolean(properties.getProperty("hrsystem.memory.seed", String.valueOf(config.seedMemory))));
+        config.setSnapshotDir(properties.getProperty("hrsystem.snapshot.dir", config.snapshotDir).trim());
+        config.setSnapshotRetrySeconds(Long.parseLong(properties.getProperty("hrsystem.snapshot.retry.seconds",
+                String.valueOf(config.snapshotRetrySeconds)).trim()));
+        config.setSnapshotRefreshMinutes(Long.parseLong(properties.getProperty("hrsystem.snapshot.refresh.minutes",
+                String.valueOf(config.snapshotRefreshMinutes)).trim()));
+        return config;
+    }
+
+    /** The local copy of this database, named after the URL so copies of different databases never mix. */
+    public Path getSnapshotFile() {
+        return Path.of(snapshotDir, "snapshot-" + Integer.toHexString(jdbcUrl.hashCode()) + ".bin");
+    }
+
+    public Engine getEngine() { return engine; }
+    public void setEngine(Engine engine) { this.engine = engine; }
+    public String getJdbcUrl() { return jdbcUrl; }
+    public void setJdbcUrl(String jdbcUrl) { this.jdbcUrl = jdbcUrl; }
+    public String getJdbcUser() { return jdbcUser; }
+    public void setJdbcUser(String jdbcUser) { this.jdbcUser = jdbcUser; }
+    public String getJdbcPassword() { return jdbcPassword; }
+    public void setJdbcPassword(String jdbcPassword) { this.jdbcPassword = jdbcPassword; }
+    public boolean isSeedMemory() { return seedMemory; }
+    public void setSeedMemory(boolean seedMemory) { this.seedMemory = seedMemory; }
+    public String getSnapshotDir() { return snapshotDir; }
+    public void setSnapshotDir(String snapshotDir) { this.snapshotDir = snapshotDir; }
+    public long getSnapshotRetrySeconds() { return snapshotRetrySeconds; }
+    public void setSnapshotRetrySeconds(long snapshotRetrySeconds) { this.snapshotRetrySeconds = snapshotRetrySeconds; }
+    public long getSnapshotRefreshMinutes() { return snapshotRefreshMinutes; }
+    public void setSnapshotRefreshMinutes(long snapshotRefreshMinutes) { this.snapshotRefreshMinutes = snapshotRefreshMinutes; }
+}
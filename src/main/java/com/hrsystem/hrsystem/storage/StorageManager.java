@@ -0,0 +1,55 @@
+package com.hrsystem.hrsystem.storage;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the storage the repositories use. It is opened from {@link StorageConfig#load()} on first use;
+ * tools and benchmarks can {@link #install} another one before touching any repository.
+ */
+public final class StorageManager {
+
+    private static volatile Storage storage;
+
+    private StorageManager() {
+    }
+
+    public static Storage get() {
+        Storage current = storage;
+        if (current == null) {
+            synchronized (StorageManager.class) {
+                current = storage;
+                if (current == null) {
+                    current = open(StorageConfig.load());
+                    storage = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    public static Storage open(StorageConfig config) {
+        switch (config.getEngine()) {
+            case MEMORY:
+                return new MemoryStorage(config.isSeedMemory());
+            default:
+                Storage mysql = new MySqlStorage(config);
+                if (config.getSnapshotDir().isEmpty()) return mysql;
+                return new SnapshotStorage(mysql, config.getSnapshotFile(),
+                        TimeUnit.SECONDS.toMillis(config.getSnapshotRetrySeconds()),
+                        TimeUnit.MINUTES.toMillis(config.getSnapshotRefreshMinutes()));
+        }
+    }
+
+    /** Replaces the current storage, closing the previous one. Repositories cached before keep stale rows. */
+    public static synchronized void install(Storage replacement) {
+        shutdown();
+        storage = replacement;
+    }
+
+    public static synchronized void shutdown() {
+        if (storage != null) {
+            storage.close();
+            storage = null;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.hrsystem.hrsystem.storage;
+
+import com.hrsystem.hrsystem.model.Employee;
+
+import java.sql.SQLException;
+
+/**
+ * Several writes to either table in one transaction, committed together. Each write succeeds or fails on
+ * its own: a failed one leaves no trace and the others go on, so one bad row does not cost the rest of the
+ * batch. {@link #close()} rolls back everything not yet committed.
+ *
+ * If the database gives up on the whole transaction, e.g. to break a deadlock, every later call and
+ * {@link #commit()} fail and nothing is stored; the caller can then repeat the writes one batch each.
+ */
+public interface WriteBatch extends AutoCloseable {
+
+    /** @return the generated id. */
+    int insertEmployee(Employee employee) throws SQLException;
+
+    /** @throws StaleRowException if the row is no longer at the version of {@code employee}. */
+    void updateEmployee(Employee employee) throws SQLException;
+
+    void deleteEmployee(int id) throws SQLException;
+
+    /** @return the generated id. */
+    int insertDepartment(String name) throws SQLException;
+
+    void renameDepartment(int id, String name) throws SQLException;
+
+    void deleteDepartment(int id) throws SQLException;
+
+    void commit() throws SQLException;
+
+    @Override
+    void close();
+}
@@ -0,0 +1,34 @@
+package com.hrsystem.hrsystem.util;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * The application settings: {@code hrsystem.properties} from the working directory if there is one, with
+ * {@code -D} system properties of the same names taking precedence.
+ */
+public final class AppProperties {
+
+    public static final String FILE_NAME = "hrsystem.properties";
+
+    private AppProperties() {
+    }
+
+    public static Properties load() {
+        Properties properties = new Properties();
+        Path file = Path.of(FILE_NAME);
+        if (Files.isRegularFile(file)) {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            } catch (IOException e) {
+                System.err.println("Could not read " + file.toAbsolutePath() + ": " + e.getMessage());
+            }
+        }
+        properties.putAll(System.getProperties());
+        return properties;
+    }
+}
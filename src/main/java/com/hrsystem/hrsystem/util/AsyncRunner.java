@@ -0,0 +1,128 @@
+package com.hrsystem.hrsystem.util;
+
+import javafx.application.Platform;
+import javafx.beans.binding.Bindings;
+import javafx.beans.binding.BooleanBinding;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Runs database work off the JavaFX application thread and hands the outcome back on it.
+ *
+ * Every task has a key. Submitting a task under a key that still has one queued or running cancels the
+ * older one, and its result is never delivered, so clicking "reload" twice only paints the newest data.
+ * All instances share one bounded worker pool; each controller keeps its own runner so keys do not clash.
+ */
+public class AsyncRunner {
+
+    /** A unit of background work, typically one repository call. */
+    @FunctionalInterface
+    public interface DbCall<T> {
+        T call() throws Exception;
+    }
+
+    private static final int WORKERS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+    // Bounded so a stuck database backs up into rejected submissions instead of unbounded memory
+    private static final ExecutorService EXECUTOR = new ThreadPoolExecutor(WORKERS, WORKERS, 30, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(512), r -> {
+                Thread t = new Thread(r, "db-worker-" + THREAD_COUNT.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+
+    private final Map<String, Future<?>> latest = new HashMap<>();
+    private final IntegerProperty running = new SimpleIntegerProperty();
+    private final BooleanBinding busy = Bindings.greaterThan(running, 0);
+
+    /** The shared worker pool, for components that manage their own staleness checks. */
+    public static ExecutorService executor() {
+        return EXECUTOR;
+    }
+
+    /** True while any task submitted through this runner is queued or running. Bind progress indicators to it. */
+    public BooleanBinding busyProperty() {
+        return busy;
+    }
+
+    /**
+     * Runs {@code call} in the background. Must be called on the JavaFX thread.
+     * @param key tasks with the same key supersede each other.
+     * @param onSuccess receives the result on the JavaFX thread.
+     * @param onError receives the failure on the JavaFX thread.
+     */
+    public <T> void submit(String key, DbCall<T> call, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        Future<?> previous = latest.remove(key);
+        if (previous != null) {
+            previous.cancel(true);
+        }
+
+        FutureTask<T> task = new FutureTask<>(call::call) {
+            @Override
+            protected void done() {
+                Platform.runLater(() -> {
+                    running.set(running.get() - 1);
+                    // Superseded or cancelled; the result is stale
+                    if (latest.get(key) != this) return;
+                    latest.remove(key);
+                    try {
+                        onSuccess.accept(get());
+                    } catch (ExecutionException e) {
+                        onError.accept(e.getCause());
+                    } catch (CancellationException | InterruptedException ignored) {
+                        // Cancelled after completion; nothing to deliver
+                    }
+                });
+            }
+        };
+        try {
+            EXECUTOR.execute(task);
+        } catch (RejectedExecutionException e) {
+            onError.accept(new IllegalStateException("Too many database requests are queued. Please try again.", e));
+            return;
+        }
+        running.set(running.get() + 1);
+        latest.put(key, task);
+    }
+
+    /**
+     * Hands the outcome of work that runs elsewhere, e.g. a queued command, back on the JavaFX thread, and
+     * counts it as busy until then. It has no key and is never superseded or cancelled. Must be called on the
+     * JavaFX thread.
+     */
+    public <T> void track(CompletableFuture<T> future, Consumer<T> onSuccess, Consumer<Throwable> onError) {
+        running.set(running.get() + 1);
+        future.whenComplete((result, e) -> Platform.runLater(() -> {
+            running.set(running.get() - 1);
+            if (e == null) {
+                onSuccess.accept(result);
+            } else {
+                onError.accept(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+            }
+        }));
+    }
+
+    /** Cancels every task this runner has queued or running. */
+    public void cancelAll() {
+        for (Future<?> future : latest.values()) {
+            future.cancel(true);
+        }
+        latest.clear();
+    }
+}
@@ -0,0 +1,425 @@
+package com.hrsystem.hrsystem.util;
+
+import com.hrsystem.hrsystem.metrics.Metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded JDBC connection pool.
+ *
+ * Connections handed out by {@link #getConnection()} are proxies: calling {@code close()} returns the
+ * physical connection to the pool instead of closing it, so callers keep using try-with-resources as before.
+ * Single-argument {@code prepareStatement(sql)} calls are served from a small per-connection cache.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    /** Opens a new physical connection. Lets the pool run against any JDBC driver, including embedded ones. */
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    private final ConnectionFactory factory;
+    private final PoolConfig config;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final ScheduledExecutorService evictor;
+    private volatile boolean closed;
+
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicLong acquireCount = new AtomicLong();
+    private final AtomicLong acquireWaitNanos = new AtomicLong();
+    private final AtomicLong maxAcquireWaitNanos = new AtomicLong();
+    private final AtomicLong acquireTimeouts = new AtomicLong();
+    private final AtomicLong connectionsCreated = new AtomicLong();
+    private final AtomicLong connectionOpenNanos = new AtomicLong();
+    private final AtomicLong connectionsEvicted = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong statementCacheHits = new AtomicLong();
+    private final AtomicLong statementCacheMisses = new AtomicLong();
+
+    public ConnectionPool(ConnectionFactory factory, PoolConfig config) {
+        config.validate();
+        this.factory = factory;
+        this.config = config;
+        this.permits = new Semaphore(config.getMaxSize(), true);
+        this.evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-evictor");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = config.getEvictionIntervalMillis();
+        if (interval > 0) {
+            evictor.scheduleWithFixedDelay(this::evictAndReplenish, interval, interval, TimeUnit.MILLISECONDS);
+        }
+        // Warm up to the minimum size in the background so the first screen does not pay for it
+        evictor.execute(this::evictAndReplenish);
+    }
+
+    /**
+     * Borrows a connection, waiting up to the configured acquire timeout for one to become free.
+     * @return a pooled connection; close it to give it back.
+     * @throws SQLTransientConnectionException if no connection became available in time.
+     */
+    public Connection getConnection() throws SQLException {
+        if (closed) throw new SQLException("Connection pool is closed.");
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(config.getAcquireTimeoutMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection.", e);
+        }
+        if (!acquired) {
+            acquireTimeouts.incrementAndGet();
+            throw new SQLTransientConnectionException("Timed out after " + config.getAcquireTimeoutMillis()
+                    + " ms waiting for a database connection (" + inUse.get() + " in use).");
+        }
+        try {
+            PooledConnection pooled = borrowIdle();
+            if (pooled == null) {
+                pooled = openConnection();
+            }
+            inUse.incrementAndGet();
+            recordAcquireWait(System.nanoTime() - start);
+            return pooled.handle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection borrowIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isUsable(pooled)) return pooled;
+            validationFailures.incrementAndGet();
+            destroy(pooled);
+        }
+        return null;
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        long idleFor = System.currentTimeMillis() - pooled.lastReturned;
+        if (idleFor < config.getValidationBypassMillis()) return true;
+        try {
+            return pooled.physical.isValid(config.getValidationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private PooledConnection openConnection() throws SQLException {
+        long start = System.nanoTime();
+        Connection physical = factory.create();
+        if (physical == null) throw new SQLException("Connection factory returned no connection.");
+        long nanos = System.nanoTime() - start;
+        connectionOpenNanos.addAndGet(nanos);
+        Metrics.get().record("connection.open", nanos, 0);
+        connectionsCreated.incrementAndGet();
+        totalConnections.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    private void release(PooledConnection pooled) {
+        inUse.decrementAndGet();
+        try {
+            // The background warm-up can race a borrower and briefly open one connection too many
+            if (closed || pooled.physical.isClosed() || totalConnections.get() > config.getMaxSize()) {
+                destroy(pooled);
+            } else {
+                if (!pooled.physical.getAutoCommit()) {
+                    pooled.physical.rollback();
+                    pooled.physical.setAutoCommit(true);
+                }
+                pooled.lastReturned = System.currentTimeMillis();
+                // Most recently used first, so the idle tail ages out and gets evicted
+                idle.offerFirst(pooled);
+            }
+        } catch (SQLException e) {
+            destroy(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void evictAndReplenish() {
+        if (closed) return;
+        long now = System.currentTimeMillis();
+        Iterator<PooledConnection> it = idle.descendingIterator();
+        while (it.hasNext() && totalConnections.get() > config.getMinSize()) {
+            PooledConnection pooled = it.next();
+            if (now - pooled.lastReturned >= config.getIdleTimeoutMillis() && idle.removeLastOccurrence(pooled)) {
+                connectionsEvicted.incrementAndGet();
+                destroy(pooled);
+            }
+        }
+        while (!closed && totalConnections.get() < config.getMinSize() && permits.tryAcquire()) {
+            try {
+                PooledConnection pooled = openConnection();
+                pooled.lastReturned = System.currentTimeMillis();
+                idle.offerLast(pooled);
+            } catch (SQLException e) {
+                System.err.println("Connection pool could not open a connection: " + e.getMessage());
+                break;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    private void destroy(PooledConnection pooled) {
+        totalConnections.decrementAndGet();
+        pooled.closeStatements();
+        try {
+            pooled.physical.close();
+        } catch (SQLException ignored) {
+            // The connection is being discarded anyway
+        }
+    }
+
+    private void recordAcquireWait(long nanos) {
+        acquireCount.incrementAndGet();
+        acquireWaitNanos.addAndGet(nanos);
+        maxAcquireWaitNanos.accumulateAndGet(nanos, Math::max);
+        Metrics.get().record("connection.acquire", nanos, 0);
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        evictor.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            destroy(pooled);
+        }
+    }
+
+    // --- Counters ---
+    public int getTotalConnections() { return totalConnections.get(); }
+    public int getIdleConnections() { return idle.size(); }
+    public int getInUseConnections() { return inUse.get(); }
+    public long getAcquireCount() { return acquireCount.get(); }
+    public long getAcquireTimeouts() { return acquireTimeouts.get(); }
+    public long getConnectionsCreated() { return connectionsCreated.get(); }
+    public long getConnectionsEvicted() { return connectionsEvicted.get(); }
+    public long getValidationFailures() { return validationFailures.get(); }
+    public long getStatementCacheHits() { return statementCacheHits.get(); }
+    public long getStatementCacheMisses() { return statementCacheMisses.get(); }
+
+    public double getAverageAcquireWaitMillis() {
+        long count = acquireCount.get();
+        return count == 0 ? 0 : acquireWaitNanos.get() / 1_000_000.0 / count;
+    }
+
+    public double getMaxAcquireWaitMillis() {
+        return maxAcquireWaitNanos.get() / 1_000_000.0;
+    }
+
+    public double getAverageConnectionOpenMillis() {
+        long count = connectionsCreated.get();
+        return count == 0 ? 0 : connectionOpenNanos.get() / 1_000_000.0 / count;
+    }
+
+    /**
+     * One physical connection plus its statement cache. A fresh proxy is handed out per borrow so a stale
+     * reference kept by a caller cannot be used after it has been closed.
+     */
+    private class PooledConnection {
+        final Connection physical;
+        final Map<String, PreparedStatement> statements;
+        // Cached statements currently handed out; a second prepare of the same SQL gets its own statement
+        final Set<PreparedStatement> leased = Collections.newSetFromMap(new IdentityHashMap<>());
+        volatile long lastReturned = System.currentTimeMillis();
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+            int capacity = config.getStatementCacheSize();
+            this.statements = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                    if (size() <= capacity) return false;
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+            };
+        }
+
+        Connection handle() {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new ConnectionHandler(this));
+        }
+
+        PreparedStatement cachedStatement(String sql) throws SQLException {
+            PreparedStatement stmt = statements.get(sql);
+            if (stmt != null && leased.contains(stmt)) {
+                statementCacheMisses.incrementAndGet();
+                return physical.prepareStatement(sql);
+            }
+            if (stmt != null && !stmt.isClosed()) {
+                statementCacheHits.incrementAndGet();
+            } else {
+                statementCacheMisses.incrementAndGet();
+                stmt = physical.prepareStatement(sql);
+                statements.put(sql, stmt);
+            }
+            leased.add(stmt);
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, new StatementHandler(this, stmt));
+        }
+
+        void closeStatements() {
+            for (PreparedStatement stmt : statements.values()) {
+                closeQuietly(stmt);
+            }
+            statements.clear();
+            leased.clear();
+        }
+    }
+
+    private class ConnectionHandler implements InvocationHandler {
+        private final PooledConnection pooled;
+        private boolean logicallyClosed;
+
+        ConnectionHandler(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!logicallyClosed) {
+                        logicallyClosed = true;
+                        release(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return logicallyClosed || pooled.physical.isClosed();
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(pooled.physical)) return pooled.physical;
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + pooled.physical + "]";
+                default:
+                    break;
+            }
+            if (logicallyClosed) throw new SQLException("Connection has already been returned to the pool.");
+            if ("prepareStatement".equals(method.getName()) && args.length == 1 && config.getStatementCacheSize() > 0) {
+                return pooled.cachedStatement((String) args[0]);
+            }
+            return invokeTarget(pooled.physical, method, args);
+        }
+    }
+
+    /**
+     * Keeps a cached statement open when the caller closes it; only its last result set is closed. Settings a
+     * caller changed for one query, such as the fetch size a streamed read uses, are put back to the driver
+     * defaults so the next borrower of the same SQL does not inherit them.
+     */
+    private static class StatementHandler implements InvocationHandler {
+        private final PooledConnection owner;
+        private final PreparedStatement target;
+        private ResultSet lastResult;
+        private boolean logicallyClosed;
+        private boolean limitsChanged;
+
+        StatementHandler(PooledConnection owner, PreparedStatement target) {
+            this.owner = owner;
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!logicallyClosed) {
+                        logicallyClosed = true;
+                        closeQuietly(lastResult);
+                        try {
+                            target.clearParameters();
+                            target.clearBatch();
+                            if (limitsChanged) {
+                                target.setFetchSize(0);
+                                target.setMaxRows(0);
+                                target.setQueryTimeout(0);
+                            }
+                        } catch (SQLException e) {
+                            // Closed, so the next prepare of this SQL replaces it
+                            closeQuietly(target);
+                        }
+                        owner.leased.remove(target);
+                    }
+                    return null;
+                case "isClosed":
+                    return logicallyClosed || target.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+            if (logicallyClosed) throw new SQLException("Statement has already been closed.");
+            switch (method.getName()) {
+                case "setFetchSize":
+                case "setMaxRows":
+                case "setLargeMaxRows":
+                case "setQueryTimeout":
+                    limitsChanged = true;
+                    break;
+                default:
+                    break;
+            }
+            Object result = invokeTarget(target, method, args);
+            if (result instanceof ResultSet) {
+                lastResult = (ResultSet) result;
+            }
+            return result;
+        }
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        if (closeable == null) return;
+        try {
+            closeable.close();
+        } catch (Exception ignored) {
+            // Nothing useful to do when discarding a resource
+        }
+    }
+}
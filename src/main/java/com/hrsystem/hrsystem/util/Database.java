@@ -3,22 +3,66 @@ package com.hrsystem.hrsystem.util;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.sql.Statement;
 
+/**
+ * The shared JDBC connection pool. The MySQL storage configures it from {@code hrsystem.properties};
+ * the defaults below are used when nothing else is configured.
+ */
 public class Database {
-    private static final String URL = "jdbc:mysql://localhost:3306/hrsystem";
-    private static final String USER = "root";
-    private static final String PASSWORD = "admin";
-    private static Connection connection;
-
-    public static Connection getConnection() {
-        try {
-            Connection conn = DriverManager.getConnection(URL, USER, PASSWORD);
-            System.out.println("✅ Connected to MySQL database!");
-            return conn;
-        } catch (SQLException e) {
-            System.err.println("❌ Database connection failed: " + e.getMessage());
-            e.printStackTrace();
-            return null;
+    public static final String DEFAULT_URL = "jdbc:mysql://localhost:3306/hrsystem?rewriteBatchedStatements=true";
+    public static final String DEFAULT_USER = "root";
+    public static final String DEFAULT_PASSWORD = "admin";
+    private static volatile ConnectionPool pool;
+
+    /**
+     * Borrows a connection from the shared pool. Closing the returned connection hands it back.
+     * @throws SQLException if the database is unreachable or the pool is exhausted.
+     */
+    public static Connection getConnection() throws SQLException {
+        return getPool().getConnection();
+    }
+
+    /**
+     * Asks the driver to stream a large result set row by row instead of buffering all of it in memory.
+     * MySQL Connector/J only streams when the fetch size is {@code Integer.MIN_VALUE}.
+     */
+    public static void enableStreaming(Statement statement) throws SQLException {
+        String product = statement.getConnection().getMetaData().getDatabaseProductName();
+        statement.setFetchSize("MySQL".equalsIgnoreCase(product) ? Integer.MIN_VALUE : 1000);
+    }
+
+    public static ConnectionPool getPool() {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (Database.class) {
+                current = pool;
+                if (current == null) {
+                    current = new ConnectionPool(() -> DriverManager.getConnection(DEFAULT_URL, DEFAULT_USER, DEFAULT_PASSWORD), new PoolConfig());
+                    pool = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /** The shared pool if one is open, without opening the default one. */
+    public static ConnectionPool currentPool() {
+        return pool;
+    }
+
+    /**
+     * Replaces the shared pool, e.g. to point the application at an embedded or in-memory JDBC database.
+     */
+    public static synchronized void configure(ConnectionPool.ConnectionFactory factory, PoolConfig config) {
+        shutdown();
+        pool = new ConnectionPool(factory, config);
+    }
+
+    public static synchronized void shutdown() {
+        if (pool != null) {
+            pool.close();
+            pool = null;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,43 @@
+package com.hrsystem.hrsystem.util;
+
+/**
+ * Settings for {@link ConnectionPool}. Defaults are sized for a single desktop client.
+ */
+public class PoolConfig {
+
+    private int minSize = 2;
+    private int maxSize = 10;
+    private long acquireTimeoutMillis = 5_000;
+    private long idleTimeoutMillis = 300_000;
+    private long evictionIntervalMillis = 30_000;
+    // Connections idle for less than this are handed out without a round trip to validate them
+    private long validationBypassMillis = 500;
+    private int validationTimeoutSeconds = 2;
+    private int statementCacheSize = 32;
+
+    public int getMinSize() { return minSize; }
+    public void setMinSize(int minSize) { this.minSize = minSize; }
+    public int getMaxSize() { return maxSize; }
+    public void setMaxSize(int maxSize) { this.maxSize = maxSize; }
+    public long getAcquireTimeoutMillis() { return acquireTimeoutMillis; }
+    public void setAcquireTimeoutMillis(long acquireTimeoutMillis) { this.acquireTimeoutMillis = acquireTimeoutMillis; }
+    public long getIdleTimeoutMillis() { return idleTimeoutMillis; }
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) { this.idleTimeoutMillis = idleTimeoutMillis; }
+    public long getEvictionIntervalMillis() { return evictionIntervalMillis; }
+    public void setEvictionIntervalMillis(long evictionIntervalMillis) { this.evictionIntervalMillis = evictionIntervalMillis; }
+    public long getValidationBypassMillis() { return validationBypassMillis; }
+    public void setValidationBypassMillis(long validationBypassMillis) { this.validationBypassMillis = validationBypassMillis; }
+    public int getValidationTimeoutSeconds() { return validationTimeoutSeconds; }
+    public void setValidationTimeoutSeconds(int validationTimeoutSeconds) { this.validationTimeoutSeconds = validationTimeoutSeconds; }
+    public int getStatementCacheSize() { return statementCacheSize; }
+    public void setStatementCacheSize(int statementCacheSize) { this.statementCacheSize = statementCacheSize; }
+
+    void validate() {
+        if (minSize < 0 || maxSize < 1 || minSize > maxSize) {
+            throw new IllegalArgumentException("Pool size must satisfy 0 <= min <= max and max >= 1 (min=" + minSize + ", max=" + maxSize + ")");
+        }
+        if (acquireTimeoutMillis < 0 || idleTimeoutMillis < 0 || statementCacheSize < 0) {
+            throw new IllegalArgumentException("Pool timeouts and cache size cannot be negative.");
+        }
+    }
+}
@@ -3,9 +3,12 @@ module com.hrsystem.hrsystem {
     requires javafx.fxml;
 
 //    requires org.kordamp.bootstrapfx.core;
-    opens com.hrsystem.hrsystem.model to javafx.base;
     requires java.sql;
+    requires java.management;
+    requires jdk.httpserver;
 
     opens com.hrsystem.hrsystem.controller to javafx.fxml;
     exports com.hrsystem.hrsystem;
+    // The MXBean interface and its row type are read reflectively by JMX
+    exports com.hrsystem.hrsystem.metrics to java.management;
 }
\ No newline at end of file
@@ -0,0 +1,133 @@
+package com.hrsystem.hrsystem.analytics;
+
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.storage.IncrementRule;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PayrollProjectionTest {
+
+    private static final YearMonth JANUARY = YearMonth.of(2026, 1);
+
+    private final EmployeeColumns columns = new EmployeeColumns();
+    private final ProjectionConfig config = new ProjectionConfig();
+    private int nextId = 1;
+
+    private Employee add(int departmentId, double salary, LocalDate joinDate, String policy) {
+        int id = nextId++;
+        Employee employee = new Employee(id, "Employee " + id, departmentId, salary, joinDate, policy);
+        columns.add(employee);
+        return employee;
+    }
+
+    private PayrollProjection project(int years) {
+        config.setYears(years);
+        return PayrollProjection.project(columns, config, JANUARY);
+    }
+
+    @Test
+    void monthlyCostIsATwelfthOfTheYearlySalariesPerDepartment() {
+        add(7, 100_000, null, "Yearly");
+        add(7, 23_000, null, "Half-Yearly");
+        add(3, 100.02, LocalDate.of(2020, 1, 1), null);
+        PayrollProjection projection = project(1);
+
+        assertEquals(12, projection.getMonths());
+        assertEquals(2, projection.departmentCount());
+        assertEquals(7, projection.departmentId(0));
+        assertEquals(2, projection.headcount(0));
+        assertEquals(3, projection.departmentId(1));
+        assertEquals(3, projection.totalHeadcount());
+        // Without a date or a policy nobody is raised
+        for (int month = 0; month < 12; month++) {
+            assertEquals(1_025_000, projection.costCents(0, month));
+            // 10,002 cents a year is 833.5 a month, rounded half up
+            assertEquals(834, projection.costCents(1, month));
+            assertEquals(1_025_834, projection.monthCostCents(month));
+            assertEquals(0, projection.raises(month));
+        }
+        assertEquals(12 * 1_025_000, projection.yearCostCents(0, 0));
+    }
+
+    @Test
+    void raiseCountsFromTheMonthItFallsDueAndRepeats() {
+        add(1, 1_000, LocalDate.of(2025, 3, 15), "Yearly");
+        PayrollProjection projection = project(2);
+
+        // Due on 15 March, the third month, and every twelve months after
+        assertEquals(8_333, projection.costCents(0, 0));
+        assertEquals(8_333, projection.costCents(0, 1));
+        assertEquals(8_750, projection.costCents(0, 2));
+        assertEquals(8_750, projection.costCents(0, 13));
+        assertEquals(9_188, projection.costCents(0, 14));
+        assertEquals(1, projection.raises(2));
+        assertEquals(1, projection.raises(14));
+        assertEquals(0, projection.raises(3));
+        assertEquals(2 * 8_333 + 10 * 8_750, projection.yearCostCents(0));
+        assertEquals(2 * 8_750 + 10 * 9_188, projection.yearCostCents(1));
+    }
+
+    @Test
+    void overdueRaiseCountsFromTheFirstMonth() {
+        Employee employee = add(1, 30_000, LocalDate.of(2020, 6, 1), "Half-Yearly");
+        employee.setLastIncrementDate(LocalDate.of(2024, 1, 10));
+        columns.update(employee);
+        config.setHalfYearlyRaise(IncrementRule.parse("1500"));
+        PayrollProjection projection = project(1);
+
+        // Due since July 2024, so raised in January and again six months later
+        assertEquals(262_500, projection.costCents(0, 0));
+        assertEquals(262_500, projection.costCents(0, 5));
+        assertEquals(275_000, projection.costCents(0, 6));
+        assertEquals(1, projection.raises(0));
+        assertEquals(0, projection.raises(1));
+        assertEquals(1, projection.raises(6));
+    }
+
+    @Test
+    void monthEndAnchorFallsDueOnTheFollowingDay() {
+        add(1, 1_200, LocalDate.of(2025, 8, 31), "Half-Yearly");
+        PayrollProjection projection = project(1);
+
+        // 31 August plus six months is due on 1 March, not in February
+        assertEquals(0, projection.raises(1));
+        assertEquals(1, projection.raises(2));
+        assertEquals(1, projection.raises(8));
+    }
+
+    @Test
+    void compoundedPercentRaisesRoundLikeTheStoredSalary() {
+        add(1, 12_345.67, LocalDate.of(2025, 1, 1), "Yearly");
+        config.setYearlyRaise(IncrementRule.parse("3.3%"));
+        PayrollProjection projection = project(10);
+
+        // Each raise rounds to cents before the next is applied, as the database would store it
+        BigDecimal salary = new BigDecimal("12345.67");
+        for (int year = 0; year < 10; year++) {
+            salary = config.getYearlyRaise().apply(salary);
+            long yearlyCents = salary.movePointRight(2).longValueExact();
+            assertEquals(Math.floorDiv(yearlyCents + 6, 12), projection.costCents(0, year * 12));
+            assertEquals(1, projection.raises(year * 12));
+        }
+    }
+
+    @Test
+    void partsSplitAcrossThreadsAddUpLikeOne() {
+        // Enough rows to be split across the fork-join pool; one twelfth join in each month of 2025
+        for (int i = 0; i < 60_000; i++) {
+            add(1, 1_200, LocalDate.of(2025, 1 + i % 12, 1), "Yearly");
+        }
+        PayrollProjection projection = project(1);
+
+        for (int month = 0; month < 12; month++) {
+            assertEquals(5_000, projection.raises(month));
+        }
+        assertEquals(602_500_000, projection.costCents(0, 0));
+        assertEquals(630_000_000, projection.costCents(0, 11));
+    }
+}
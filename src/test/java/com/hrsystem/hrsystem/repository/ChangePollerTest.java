@@ -0,0 +1,252 @@
+package com.hrsystem.hrsystem.repository;
+
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.storage.AuditLog;
+import com.hrsystem.hrsystem.storage.ChangeLog;
+import com.hrsystem.hrsystem.storage.ChangeRecord;
+import com.hrsystem.hrsystem.storage.DepartmentStore;
+import com.hrsystem.hrsystem.storage.EmployeeStore;
+import com.hrsystem.hrsystem.storage.MemoryStorage;
+import com.hrsystem.hrsystem.storage.Storage;
+import com.hrsystem.hrsystem.storage.StorageManager;
+import com.hrsystem.hrsystem.storage.WriteBatch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChangePollerTest {
+
+    private final MemoryStorage memory = new MemoryStorage(false);
+    private final FakeChangeLog log = new FakeChangeLog();
+    private final List<String> events = new ArrayList<>();
+    private final RepositoryListener<Employee> recorder = new RepositoryListener<>() {
+        @Override
+        public void onReloaded(List<Employee> items) {
+        }
+
+        @Override
+        public void onInvalidated() {
+            events.add("invalidated");
+        }
+
+        @Override
+        public void onAdded(Employee item) {
+            events.add("added " + item.getId());
+        }
+
+        @Override
+        public void onUpdated(Employee previous, Employee current) {
+            events.add("updated " + current.getId());
+        }
+
+        @Override
+        public void onRemoved(int id, Employee previous) {
+            events.add("removed " + id);
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        StorageManager.install(new LoggedStorage());
+        EmployeeRepository.getInstance().invalidate();
+        DepartmentRepository.getInstance().invalidate();
+        EmployeeRepository.getInstance().addListener(recorder);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ChangePoller.stop();
+        EmployeeRepository.getInstance().removeListener(recorder);
+        StorageManager.shutdown();
+    }
+
+    /** Starts from whatever the log holds now; polls are run by the test, not the scheduler. */
+    private void start() {
+        SyncConfig config = new SyncConfig();
+        config.setIntervalMillis(3_600_000);
+        ChangePoller.start(config);
+    }
+
+    private int addEmployee(String name) throws SQLException {
+        return memory.employees().insert(new Employee(0, name, 0, 50_000, null, "Yearly"));
+    }
+
+    private void logged(long version, int id, ChangeRecord.Kind kind) {
+        log.entries.put(version, new ChangeRecord(version, ChangeRecord.Table.EMPLOYEES, id, kind, false));
+    }
+
+    private List<String> poll() {
+        events.clear();
+        ChangePoller.poll();
+        return new ArrayList<>(events);
+    }
+
+    @Test
+    void appliesEntriesAfterTheLastVersionSeen() throws SQLException {
+        int seen = addEmployee("Already Seen");
+        logged(1, seen, ChangeRecord.Kind.INSERT);
+        start();
+
+        int added = addEmployee("Added Elsewhere");
+        logged(2, added, ChangeRecord.Kind.INSERT);
+        logged(3, seen, ChangeRecord.Kind.UPDATE);
+        assertEquals(List.of("added " + added, "updated " + seen), poll());
+        assertEquals(List.of(), poll());
+    }
+
+    @Test
+    void entryCommittedInAGapIsPickedUpLater() throws SQLException {
+        start();
+        int first = addEmployee("First");
+        int late = addEmployee("Late");
+        logged(1, first, ChangeRecord.Kind.INSERT);
+        logged(3, first, ChangeRecord.Kind.UPDATE);
+        assertEquals(List.of("added " + first), poll());
+
+        // Version 2 was handed out before 3 but committed after it was read
+        logged(2, late, ChangeRecord.Kind.INSERT);
+        assertEquals(List.of("added " + late), poll());
+        assertEquals(List.of(), poll());
+    }
+
+    @Test
+    void lateEntryFoldsIntoTheNextBatch() throws SQLException {
+        start();
+        int kept = addEmployee("Kept");
+        logged(1, kept, ChangeRecord.Kind.INSERT);
+        logged(4, kept, ChangeRecord.Kind.UPDATE);
+        poll();
+
+        // A row inserted in a gap and deleted in the next batch never reaches the screens
+        logged(3, 99, ChangeRecord.Kind.INSERT);
+        logged(5, 99, ChangeRecord.Kind.DELETE);
+        assertEquals(List.of(), poll());
+    }
+
+    @Test
+    void onlyTheMostRecentGapsAreTracked() throws SQLException {
+        start();
+        int first = addEmployee("First");
+        logged(1, first, ChangeRecord.Kind.INSERT);
+        logged(5_001, first, ChangeRecord.Kind.UPDATE);
+        poll();
+
+        int near = addEmployee("Near");
+        int far = addEmployee("Far");
+        logged(4_500, near, ChangeRecord.Kind.INSERT);
+        logged(10, far, ChangeRecord.Kind.INSERT);
+        assertEquals(List.of("added " + near), poll());
+    }
+
+    @Test
+    void ownEntriesAreSkipped() throws SQLException {
+        start();
+        int id = addEmployee("Mine");
+        log.entries.put(1L, new ChangeRecord(1, ChangeRecord.Table.EMPLOYEES, id, ChangeRecord.Kind.INSERT, true));
+        assertEquals(List.of(), poll());
+    }
+
+    @Test
+    void prunedEntriesForceAResync() throws SQLException {
+        int id = addEmployee("Someone");
+        logged(1, id, ChangeRecord.Kind.INSERT);
+        start();
+
+        // Versions 2 to 9 were pruned before this client read them
+        log.entries.clear();
+        logged(10, id, ChangeRecord.Kind.UPDATE);
+        logged(11, id, ChangeRecord.Kind.UPDATE);
+        assertEquals(List.of("invalidated"), poll());
+        assertEquals(List.of(), poll());
+    }
+
+    private static final class FakeChangeLog implements ChangeLog {
+        final TreeMap<Long, ChangeRecord> entries = new TreeMap<>();
+
+        @Override
+        public long latestVersion() {
+            return entries.isEmpty() ? 0 : entries.lastKey();
+        }
+
+        @Override
+        public long oldestVersion() {
+            return entries.isEmpty() ? 0 : entries.firstKey();
+        }
+
+        @Override
+        public List<ChangeRecord> readAfter(long after, int limit) {
+            List<ChangeRecord> records = new ArrayList<>();
+            for (ChangeRecord record : entries.tailMap(after, false).values()) {
+                if (records.size() == limit) break;
+                records.add(record);
+            }
+            return records;
+        }
+
+        @Override
+        public List<ChangeRecord> readVersions(Collection<Long> versions) {
+            List<ChangeRecord> records = new ArrayList<>();
+            for (long version : versions) {
+                ChangeRecord record = entries.get(version);
+                if (record != null) records.add(record);
+            }
+            return records;
+        }
+
+        @Override
+        public int prune(Duration maxAge) {
+            return 0;
+        }
+    }
+
+    /** The in-memory engine with a change log the test writes to. */
+    private final class LoggedStorage implements Storage {
+        @Override
+        public EmployeeStore employees() {
+            return memory.employees();
+        }
+
+        @Override
+        public DepartmentStore departments() {
+            return memory.departments();
+        }
+
+        @Override
+        public ChangeLog changeLog() {
+            return log;
+        }
+
+        @Override
+        public WriteBatch openWriteBatch() {
+            return memory.openWriteBatch();
+        }
+
+        @Override
+        public AuditLog auditLog() {
+            return memory.auditLog();
+        }
+
+        @Override
+        public void bootstrap() throws SQLException {
+            memory.bootstrap();
+        }
+
+        @Override
+        public String describe() {
+            return "in-memory storage with a test change log";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.hrsystem.hrsystem.repository;
+
+import com.hrsystem.hrsystem.model.Department;
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.storage.AuditLog;
+import com.hrsystem.hrsystem.storage.ChangeLog;
+import com.hrsystem.hrsystem.storage.DepartmentStore;
+import com.hrsystem.hrsystem.storage.EmployeeStore;
+import com.hrsystem.hrsystem.storage.MemoryStorage;
+import com.hrsystem.hrsystem.storage.StaleRowException;
+import com.hrsystem.hrsystem.storage.Storage;
+import com.hrsystem.hrsystem.storage.StorageManager;
+import com.hrsystem.hrsystem.storage.WriteBatch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommandQueueTest {
+
+    private final MemoryStorage memory = new MemoryStorage(false);
+    private final AtomicInteger batchesOpened = new AtomicInteger();
+    private final AtomicInteger commits = new AtomicInteger();
+    // Writes of employees with this name fail once with a deadlock, which rolls back their whole batch
+    private volatile String deadlockOnce;
+    private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+    private final RepositoryListener<Employee> recorder = new RepositoryListener<>() {
+        @Override
+        public void onReloaded(List<Employee> items) {
+        }
+
+        @Override
+        public void onInvalidated() {
+        }
+
+        @Override
+        public void onAdded(Employee item) {
+            events.add("added " + item.getName());
+        }
+
+        @Override
+        public void onUpdated(Employee previous, Employee current) {
+            events.add("updated " + current.getName());
+        }
+
+        @Override
+        public void onRemoved(int id, Employee previous) {
+            events.add("removed " + id);
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        StorageManager.install(new ScriptedStorage());
+        EmployeeRepository.getInstance().invalidate();
+        DepartmentRepository.getInstance().invalidate();
+        EmployeeRepository.getInstance().addListener(recorder);
+    }
+
+    @AfterEach
+    void tearDown() {
+        CommandQueue.stop();
+        EmployeeRepository.getInstance().removeListener(recorder);
+        StorageManager.shutdown();
+    }
+
+    /** Saves wait up to {@code windowMillis} for each other, and at most {@code batchSize} share a commit. */
+    private static void startQueue(long windowMillis, int batchSize) {
+        CommandConfig config = new CommandConfig();
+        config.setWindowMillis(windowMillis);
+        config.setBatchSize(batchSize);
+        CommandQueue.start(config);
+    }
+
+    private static Employee employee(String name) {
+        return new Employee(0, name, 0, 50_000, null, "Yearly");
+    }
+
+    private Employee stored(int id) throws SQLException {
+        return memory.employees().findByIds(new int[]{id}).get(0);
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws Exception {
+        return future.get(10, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void savesArrivingTogetherShareOneCommit() throws Exception {
+        startQueue(5_000, 3);
+        CompletableFuture<Employee> a = CommandQueue.insertEmployee(employee("A"));
+        CompletableFuture<Employee> b = CommandQueue.insertEmployee(employee("B"));
+        CompletableFuture<Employee> c = CommandQueue.insertEmployee(employee("C"));
+
+        assertEquals("A", stored(await(a).getId()).getName());
+        assertEquals("B", stored(await(b).getId()).getName());
+        assertEquals("C", stored(await(c).getId()).getName());
+        assertEquals(1, batchesOpened.get());
+        // Screens hear about the saves only once they are committed
+        assertEquals(List.of("commit", "added A", "added B", "added C"), events);
+    }
+
+    @Test
+    void oneFailedSaveDoesNotFailTheOthers() throws Exception {
+        int id = memory.employees().insert(employee("Stale"));
+        Employee stale = stored(id);
+        Employee current = stored(id);
+        current.setSalary(60_000);
+        memory.employees().update(current);
+        stale.setSalary(70_000);
+
+        startQueue(5_000, 3);
+        CompletableFuture<Employee> a = CommandQueue.insertEmployee(employee("A"));
+        CompletableFuture<Employee> update = CommandQueue.updateEmployee(stale, stored(id));
+        CompletableFuture<Employee> b = CommandQueue.insertEmployee(employee("B"));
+
+        await(a);
+        await(b);
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> await(update));
+        assertInstanceOf(StaleRowException.class, failure.getCause());
+        assertEquals(60_000, stored(id).getSalary());
+        assertEquals(1, batchesOpened.get());
+        // The screens were given the row as it is now
+        assertTrue(events.contains("updated Stale"), events.toString());
+    }
+
+    @Test
+    void groupRolledBackByTheDatabaseIsRepeatedOneSaveAtATime() throws Exception {
+        deadlockOnce = "Victim";
+        startQueue(5_000, 3);
+        CompletableFuture<Employee> victim = CommandQueue.insertEmployee(employee("Victim"));
+        CompletableFuture<Employee> a = CommandQueue.insertEmployee(employee("A"));
+        CompletableFuture<Employee> b = CommandQueue.insertEmployee(employee("B"));
+
+        assertEquals("Victim", stored(await(victim).getId()).getName());
+        await(a);
+        await(b);
+        assertEquals(3, memory.employees().countAll());
+        // The group, then each save alone
+        assertEquals(4, batchesOpened.get());
+        assertEquals(3, commits.get());
+    }
+
+    @Test
+    void laterEditOfAWaitingSaveReplacesIt() throws Exception {
+        int id = memory.employees().insert(employee("Edited"));
+        Employee read = stored(id);
+        Employee first = stored(id);
+        first.setSalary(51_000);
+        Employee second = stored(id);
+        second.setSalary(52_000);
+
+        startQueue(300, 10);
+        CompletableFuture<Employee> one = CommandQueue.updateEmployee(first, read);
+        CompletableFuture<Employee> two = CommandQueue.updateEmployee(second, read);
+
+        assertSame(second, await(one));
+        assertSame(second, await(two));
+        assertEquals(52_000, stored(id).getSalary());
+        assertEquals(1, stored(id).getVersion());
+        assertEquals(1, batchesOpened.get());
+    }
+
+    @Test
+    void departmentSavesGoThroughTheSameQueue() throws Exception {
+        startQueue(0, 10);
+        Department finance = await(CommandQueue.insertDepartment("Finance"));
+        Department renamed = await(CommandQueue.renameDepartment(finance, "Accounts"));
+        assertEquals("Accounts", memory.departments().findAll().get(0).getName());
+        assertEquals("Accounts", DepartmentRepository.getInstance().nameOf(renamed.getId()));
+        await(CommandQueue.deleteDepartment(renamed));
+        assertTrue(memory.departments().findAll().isEmpty());
+    }
+
+    @Test
+    void savesAreRefusedWhenTheQueueIsNotRunning() {
+        ExecutionException failure = assertThrows(ExecutionException.class,
+                () -> await(CommandQueue.insertEmployee(employee("Nobody"))));
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+    }
+
+    /** Writes straight to the in-memory tables, but fails like a transaction the database rolled back. */
+    private final class ScriptedBatch implements WriteBatch {
+        private final WriteBatch target = memory.openWriteBatch();
+        private SQLException aborted;
+
+        ScriptedBatch() {
+            batchesOpened.incrementAndGet();
+        }
+
+        private void check(String name) throws SQLException {
+            if (aborted != null) throw new SQLException("The transaction was rolled back by the database.", aborted);
+            if (name != null && name.equals(deadlockOnce)) {
+                deadlockOnce = null;
+                aborted = new SQLTransactionRollbackException("Deadlock found when trying to get lock", "40001");
+                throw aborted;
+            }
+        }
+
+        @Override
+        public int insertEmployee(Employee employee) throws SQLException {
+            check(employee.getName());
+            return target.insertEmployee(employee);
+        }
+
+        @Override
+        public void updateEmployee(Employee employee) throws SQLException {
+            check(employee.getName());
+            target.updateEmployee(employee);
+        }
+
+        @Override
+        public void deleteEmployee(int id) throws SQLException {
+            check(null);
+            target.deleteEmployee(id);
+        }
+
+        @Override
+        public int insertDepartment(String name) throws SQLException {
+            check(null);
+            return target.insertDepartment(name);
+        }
+
+        @Override
+        public void renameDepartment(int id, String name) throws SQLException {
+            check(null);
+            target.renameDepartment(id, name);
+        }
+
+        @Override
+        public void deleteDepartment(int id) throws SQLException {
+            check(null);
+            target.deleteDepartment(id);
+        }
+
+        @Override
+        public void commit() throws SQLException {
+            check(null);
+            target.commit();
+            commits.incrementAndGet();
+            events.add("commit");
+        }
+
+        @Override
+        public void close() {
+            target.close();
+        }
+    }
+
+    private final class ScriptedStorage implements Storage {
+        @Override
+        public EmployeeStore employees() {
+            return memory.employees();
+        }
+
+        @Override
+        public DepartmentStore departments() {
+            return memory.departments();
+        }
+
+        @Override
+        public ChangeLog changeLog() {
+            return memory.changeLog();
+        }
+
+        @Override
+        public WriteBatch openWriteBatch() {
+            return new ScriptedBatch();
+        }
+
+        @Override
+        public AuditLog auditLog() {
+            return memory.auditLog();
+        }
+
+        @Override
+        public void bootstrap() throws SQLException {
+            memory.bootstrap();
+        }
+
+        @Override
+        public String describe() {
+            return "in-memory storage with scripted transactions";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
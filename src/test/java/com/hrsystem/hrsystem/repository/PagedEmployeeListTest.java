@@ -0,0 +1,282 @@
+package com.hrsystem.hrsystem.repository;
+
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.storage.EmployeeStore;
+import com.hrsystem.hrsystem.storage.MemoryStorage;
+import com.hrsystem.hrsystem.storage.StorageManager;
+import javafx.collections.ListChangeListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PagedEmployeeListTest {
+
+    private static final int ROWS = 100;
+    private static final int PAGE = 10;
+
+    private final EmployeeRepository repository = EmployeeRepository.getInstance();
+    // Loads and their results queue here instead of running on the loader and JavaFX threads
+    private final Deque<Runnable> loads = new ArrayDeque<>();
+    private final Deque<Runnable> fxEvents = new ArrayDeque<>();
+    private EmployeeStore store;
+    private PagedEmployeeList list;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        StorageManager.install(new MemoryStorage(false));
+        repository.invalidate();
+        DepartmentRepository.getInstance().invalidate();
+        store = StorageManager.get().employees();
+        for (int i = 1; i <= ROWS; i++) {
+            store.insert(new Employee(0, String.format("Employee %03d", i), 0, 1000 + i, null, "Yearly"));
+        }
+        list = new PagedEmployeeList(repository, PAGE, 2, loads::add, fxEvents::add);
+        list.refresh();
+        settle();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.removeListener(list);
+        StorageManager.shutdown();
+    }
+
+    private Employee stored(int id) throws SQLException {
+        return store.findByIds(new int[]{id}).get(0);
+    }
+
+    /** Runs every queued load and every result it hands back, until nothing is left. */
+    private void settle() {
+        while (!loads.isEmpty() || !fxEvents.isEmpty()) {
+            while (!loads.isEmpty()) loads.poll().run();
+            while (!fxEvents.isEmpty()) fxEvents.poll().run();
+        }
+    }
+
+    @Test
+    void rowsReadAsNullUntilTheirWindowLoads() {
+        assertEquals(ROWS, list.size());
+        assertNull(list.get(0));
+        settle();
+        assertEquals(1, list.get(0).getId());
+        assertEquals(PAGE, list.get(PAGE - 1).getId());
+    }
+
+    @Test
+    void jumpLoadsTheWindowAroundTheRow() {
+        assertNull(list.get(35));
+        settle();
+        for (int i = 30; i < 40; i++) {
+            assertEquals(i + 1, list.get(i).getId());
+        }
+    }
+
+    @Test
+    void readingTheLowerHalfPrefetchesTheNextWindow() {
+        list.get(0);
+        settle();
+        list.get(2);
+        assertTrue(loads.isEmpty());
+        list.get(PAGE - 3);
+        assertEquals(1, loads.size());
+        settle();
+        assertEquals(PAGE + 1, list.get(PAGE).getId());
+    }
+
+    @Test
+    void readingTheUpperHalfPrefetchesThePreviousWindow() {
+        list.get(55);
+        settle();
+        list.get(51);
+        settle();
+        for (int i = 40; i < 50; i++) {
+            assertEquals(i + 1, list.get(i).getId());
+        }
+    }
+
+    @Test
+    void leastRecentlyUsedWindowIsEvicted() {
+        list.get(0);
+        settle();
+        list.get(55);
+        settle();
+        // Touch the first window so the one at 50 is now the oldest
+        assertEquals(3, list.get(2).getId());
+        list.get(95);
+        settle();
+
+        assertEquals(96, list.get(95).getId());
+        assertEquals(3, list.get(2).getId());
+        assertNull(list.get(55));
+    }
+
+    @Test
+    void loadStartedBeforeASortChangeIsDropped() {
+        list.get(0);
+        list.sortBy(EmployeeSort.NAME, false);
+        settle();
+        assertNull(list.get(0));
+        settle();
+        assertEquals("Employee 100", list.get(0).getName());
+        assertEquals("Employee 091", list.get(9).getName());
+    }
+
+    @Test
+    void updateKeepingTheSortKeyPatchesTheShownRow() throws SQLException {
+        list.get(0);
+        settle();
+        Employee shown = list.get(3);
+        int[] changes = {0};
+        list.addListener((ListChangeListener<Employee>) c -> changes[0]++);
+
+        Employee previous = stored(4);
+        Employee current = stored(4);
+        current.setSalary(5000);
+        store.update(current);
+        list.onUpdated(previous, current);
+        settle();
+
+        assertSame(shown, list.get(3));
+        assertEquals(5000, shown.getSalary());
+        assertEquals(0, changes[0]);
+    }
+
+    @Test
+    void updateChangingTheSortKeyMovesTheRow() throws SQLException {
+        list.sortBy(EmployeeSort.SALARY, true);
+        list.get(0);
+        settle();
+
+        Employee previous = stored(1);
+        Employee current = stored(1);
+        current.setSalary(1005.5);
+        store.update(current);
+        list.onUpdated(previous, current);
+        settle();
+
+        assertEquals(ROWS, list.size());
+        assertEquals(2, list.get(0).getId());
+        assertEquals(5, list.get(3).getId());
+        assertEquals(1, list.get(4).getId());
+        assertEquals(6, list.get(5).getId());
+    }
+
+    @Test
+    void updateOffScreenOutsideTheLoadedWindowsDoesNotReload() throws SQLException {
+        list.get(0);
+        settle();
+
+        Employee current = stored(50);
+        current.setName("Renamed");
+        store.update(current);
+        list.onUpdated(null, current);
+        fxEvents.poll().run();
+        assertTrue(loads.isEmpty());
+
+        list.sortBy(EmployeeSort.SALARY, true);
+        list.get(0);
+        settle();
+        Employee previous = stored(60);
+        current = stored(60);
+        current.setSalary(1055.5);
+        store.update(current);
+        list.onUpdated(previous, current);
+        fxEvents.poll().run();
+        assertTrue(loads.isEmpty());
+    }
+
+    @Test
+    void updateOffScreenIntoALoadedWindowReloads() throws SQLException {
+        list.sortBy(EmployeeSort.SALARY, true);
+        list.get(0);
+        settle();
+
+        Employee current = stored(50);
+        current.setSalary(1005.5);
+        store.update(current);
+        list.onUpdated(null, current);
+        fxEvents.poll().run();
+        assertEquals(1, loads.size());
+        settle();
+        list.get(0);
+        settle();
+
+        assertEquals(5, list.get(4).getId());
+        assertEquals(50, list.get(5).getId());
+        assertEquals(6, list.get(6).getId());
+    }
+
+    @Test
+    void removingAShownRowShiftsTheRowsBelowIt() throws SQLException {
+        list.get(0);
+        settle();
+        list.get(55);
+        settle();
+
+        Employee previous = stored(4);
+        store.delete(4);
+        list.onRemoved(4, previous);
+        settle();
+
+        assertEquals(ROWS - 1, list.size());
+        assertEquals(3, list.get(2).getId());
+        assertEquals(5, list.get(3).getId());
+        assertEquals(56, list.get(54).getId());
+    }
+
+    @Test
+    void removingARowOffScreenIsPlacedByCount() throws SQLException {
+        list.get(55);
+        settle();
+
+        Employee previous = stored(10);
+        store.delete(10);
+        list.onRemoved(10, previous);
+        settle();
+
+        assertEquals(ROWS - 1, list.size());
+        for (int i = 49; i < 59; i++) {
+            assertEquals(i + 2, list.get(i).getId());
+        }
+    }
+
+    @Test
+    void insertAfterTheLastIdIsAppended() throws SQLException {
+        list.get(95);
+        settle();
+
+        int id = store.insert(new Employee(0, "Employee 101", 0, 2000, null, "Yearly"));
+        list.onAdded(stored(id));
+        assertEquals(1, fxEvents.size());
+        settle();
+
+        assertEquals(ROWS + 1, list.size());
+        assertEquals(id, list.get(ROWS).getId());
+        assertEquals(ROWS, list.get(ROWS - 1).getId());
+    }
+
+    @Test
+    void insertSortedByNameIsPlacedByCount() throws SQLException {
+        list.sortBy(EmployeeSort.NAME, true);
+        list.get(0);
+        settle();
+
+        int id = store.insert(new Employee(0, "Aaron", 0, 2000, null, "Yearly"));
+        list.onAdded(stored(id));
+        settle();
+
+        assertEquals(ROWS + 1, list.size());
+        assertEquals("Aaron", list.get(0).getName());
+        assertEquals("Employee 001", list.get(1).getName());
+        assertEquals("Employee 009", list.get(9).getName());
+    }
+}
@@ -0,0 +1,102 @@
+package com.hrsystem.hrsystem.service;
+
+import com.hrsystem.hrsystem.model.Department;
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.repository.DepartmentRepository;
+import com.hrsystem.hrsystem.repository.EmployeeRepository;
+import com.hrsystem.hrsystem.storage.MemoryStorage;
+import com.hrsystem.hrsystem.storage.Storage;
+import com.hrsystem.hrsystem.storage.StorageManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EmployeeCsvImporterTest {
+
+    private static final String HEADER = "name,department,salary,join_date,increment_policy\n";
+
+    private final EmployeeCsvImporter importer =
+            new EmployeeCsvImporter(EmployeeRepository.getInstance(), DepartmentRepository.getInstance());
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        Storage storage = new MemoryStorage(false);
+        storage.departments().insert("Finance");
+        storage.departments().insert("Human Resources");
+        StorageManager.install(storage);
+        EmployeeRepository.getInstance().invalidate();
+        DepartmentRepository.getInstance().invalidate();
+    }
+
+    @AfterEach
+    void tearDown() {
+        StorageManager.shutdown();
+    }
+
+    private ImportReport importText(String csv) throws IOException, SQLException {
+        return importer.importFrom(new StringReader(csv), rows -> { });
+    }
+
+    private static List<String> storedRows() throws SQLException {
+        Map<Integer, String> departmentNames = new HashMap<>();
+        for (Department department : StorageManager.get().departments().findAll()) {
+            departmentNames.put(department.getId(), department.getName());
+        }
+        List<String> rows = new ArrayList<>();
+        for (Employee employee : StorageManager.get().employees().findAll()) {
+            rows.add(employee.getName() + "|" + departmentNames.get(employee.getDepartmentId()) + "|"
+                    + BigDecimal.valueOf(employee.getSalary()).setScale(2).toPlainString() + "|"
+                    + employee.getIncrementPolicy());
+        }
+        return rows;
+    }
+
+    @Test
+    void invalidRowsAreSkippedAndReportedByLine() throws Exception {
+        ImportReport report = importText(HEADER
+                + "Ann,finance,50000.00,2024-01-15,Yearly\n"
+                + "Bob,Marketing,40000,,Yearly\n"
+                + "Cy,Finance,100.125,,Yearly\n"
+                + "Di,Finance,100.10,,Quarterly\n"
+                + "\"Eve\nSmith\",Human Resources,100.500,,\n"
+                + "Zed,Nowhere,1,,\n");
+
+        assertEquals(6, report.getRowsRead());
+        assertEquals(2, report.getRowsImported());
+        assertEquals(4, report.getRowsRejected());
+        assertEquals(List.of(
+                "Line 3: unknown department 'Marketing'",
+                "Line 4: salary '100.125' does not fit DECIMAL(10,2)",
+                "Line 5: increment_policy must be Yearly or Half-Yearly, not 'Quarterly'",
+                "Line 8: unknown department 'Nowhere'"), report.getRejections());
+        // Department names take the stored spelling; a blank policy means Yearly
+        assertEquals(List.of("Ann|Finance|50000.00|Yearly", "Eve\nSmith|Human Resources|100.50|Yearly"), storedRows());
+    }
+
+    @Test
+    void columnsAreMatchedByHeaderName() throws Exception {
+        ImportReport report = importText("increment_policy,salary,id,name,join_date,department\n"
+                + "Half-Yearly,2500,17,Ann,,Finance\n");
+        assertEquals(1, report.getRowsImported());
+        assertEquals(List.of("Ann|Finance|2500.00|Half-Yearly"), storedRows());
+    }
+
+    @Test
+    void missingColumnStopsTheImportBeforeAnyRow() {
+        IOException e = assertThrows(IOException.class,
+                () -> importText("name,department,salary,join_date\nAnn,Finance,1,\n"));
+        assertEquals("The header has no 'increment_policy' column.", e.getMessage());
+    }
+}
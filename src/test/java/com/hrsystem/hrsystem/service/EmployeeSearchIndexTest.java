@@ -0,0 +1,173 @@
+package com.hrsystem.hrsystem.service;
+
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.repository.DepartmentRepository;
+import com.hrsystem.hrsystem.repository.EmployeeRepository;
+import com.hrsystem.hrsystem.storage.EmployeeStore;
+import com.hrsystem.hrsystem.storage.MemoryStorage;
+import com.hrsystem.hrsystem.storage.Storage;
+import com.hrsystem.hrsystem.storage.StorageManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmployeeSearchIndexTest {
+
+    private MemoryStorage storage;
+    private EmployeeStore store;
+    private int finance;
+    private int humanResources;
+    private EmployeeSearchIndex index;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        storage = new MemoryStorage(false);
+        StorageManager.install(storage);
+        EmployeeRepository.getInstance().invalidate();
+        DepartmentRepository.getInstance().invalidate();
+        store = storage.employees();
+        finance = storage.departments().insert("Finance");
+        humanResources = storage.departments().insert("Human Resources");
+        index = new EmployeeSearchIndex(EmployeeRepository.getInstance(), DepartmentRepository.getInstance());
+    }
+
+    @AfterEach
+    void tearDown() {
+        StorageManager.shutdown();
+    }
+
+    private int add(String name, int departmentId) throws SQLException {
+        return store.insert(new Employee(0, name, departmentId, 50_000, null, "Yearly"));
+    }
+
+    private static Object call(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** {@link #storage}, except that the first full read is followed by an insert and an invalidation. */
+    private Storage invalidatedDuringFirstRead() {
+        boolean[] done = {false};
+        EmployeeStore employees = (EmployeeStore) Proxy.newProxyInstance(EmployeeStore.class.getClassLoader(),
+                new Class<?>[]{EmployeeStore.class}, (proxy, method, args) -> {
+                    Object result = call(store, method, args);
+                    if (method.getName().equals("forEach") && !done[0]) {
+                        done[0] = true;
+                        add("Late Joiner", finance);
+                        EmployeeRepository.getInstance().invalidate();
+                    }
+                    return result;
+                });
+        return (Storage) Proxy.newProxyInstance(Storage.class.getClassLoader(), new Class<?>[]{Storage.class},
+                (proxy, method, args) -> method.getName().equals("employees") ? employees : call(storage, method, args));
+    }
+
+    private static List<Integer> ids(EmployeeSearchIndex.Matches matches) {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < matches.size(); i++) {
+            ids.add(matches.idAt(i));
+        }
+        return ids;
+    }
+
+    @Test
+    void splitsIntoLowerCaseWords() {
+        assertEquals(List.of("o", "neil", "smith"), EmployeeSearchIndex.words("O'Neil-Smith"));
+        assertEquals(List.of("jo", "fin"), EmployeeSearchIndex.words("  Jo   FIN "));
+        assertTrue(EmployeeSearchIndex.words(null).isEmpty());
+    }
+
+    @Test
+    void everyQueryWordMustMatchANameOrDepartmentWord() throws SQLException {
+        int john = add("John Smith", finance);
+        int joanna = add("Joanna Brown", humanResources);
+        int mary = add("Mary Johnson", finance);
+        int bob = add("Bob Jones", finance);
+        index.build();
+
+        assertEquals(List.of(john, joanna, mary, bob), ids(index.search("jo")));
+        assertEquals(List.of(john, mary, bob), ids(index.search("jo fin")));
+        assertEquals(List.of(john, mary), ids(index.search("john finance")));
+        assertEquals(List.of(joanna), ids(index.search("hum res jo")));
+        assertEquals(List.of(john), ids(index.search("SMITH")));
+        assertEquals(0, index.search("smith hum").size());
+        assertEquals(0, index.search("nobody").size());
+    }
+
+    @Test
+    void shortAndLongPrefixesAgree() throws SQLException {
+        int anna = add("Anna Lee", finance);
+        int andrew = add("Andrew Lane", humanResources);
+        int leo = add("Leo Andersen", finance);
+        index.build();
+
+        // Up to two letters are answered from the prefix lists, longer words from a range of words
+        assertEquals(List.of(anna, andrew, leo), ids(index.search("an")));
+        assertEquals(List.of(andrew, leo), ids(index.search("and")));
+        assertEquals(List.of(anna, andrew, leo), ids(index.search("l")));
+        assertEquals(List.of(anna, leo), ids(index.search("le an")));
+        assertEquals(List.of(leo), ids(index.search("leo and")));
+    }
+
+    @Test
+    void denseListsIntersectLikeSparseOnes() throws SQLException {
+        List<Integer> financeClerks = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            int id = add("Clerk " + i, i % 2 == 0 ? finance : humanResources);
+            if (i % 2 == 0) financeClerks.add(id);
+        }
+        int manager = add("Manager Clerkson", finance);
+        index.build();
+
+        assertEquals(5_001, index.search("clerk").size());
+        EmployeeSearchIndex.Matches matches = index.search("clerk fin");
+        List<Integer> expected = new ArrayList<>(financeClerks);
+        expected.add(manager);
+        assertEquals(expected, ids(matches));
+        assertTrue(matches.contains(manager));
+        assertFalse(matches.contains(financeClerks.get(0) + 1));
+        assertEquals(List.of(manager), ids(index.search("clerk man")));
+        // Searching again reuses the cached bitsets and finds the same rows
+        assertEquals(matches, index.search("fin clerk"));
+    }
+
+    @Test
+    void noResultUntilBuiltOrForAnEmptyQuery() throws SQLException {
+        add("John Smith", finance);
+        assertNull(index.search("john"));
+        index.build();
+        assertTrue(index.isBuilt());
+        assertNull(index.search(" - "));
+
+        EmployeeRepository.getInstance().invalidate();
+        assertFalse(index.isBuilt());
+        assertNull(index.search("john"));
+        index.build();
+        assertEquals(1, index.search("john").size());
+    }
+
+    @Test
+    void buildThatOverlapsAnInvalidationReadsTheTableAgain() throws SQLException {
+        add("John Smith", finance);
+        StorageManager.install(invalidatedDuringFirstRead());
+        index.build();
+
+        assertTrue(index.isBuilt());
+        assertEquals(1, index.search("late").size());
+    }
+}
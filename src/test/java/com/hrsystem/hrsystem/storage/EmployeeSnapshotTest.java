@@ -0,0 +1,101 @@
+package com.hrsystem.hrsystem.storage;
+
+import com.hrsystem.hrsystem.model.Department;
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.repository.EmployeeSort;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmployeeSnapshotTest {
+
+    private Path directory;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("snapshot");
+        file = directory.resolve("employees.snapshot");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private static Employee employee(int id, String name, int departmentId, double salary, LocalDate joinDate, String policy) {
+        return new Employee(id, name, departmentId, salary, joinDate, policy);
+    }
+
+    @Test
+    void writtenRowsReadBackAsTheyWere() throws IOException {
+        Employee raised = employee(3, "Zoë Ångström", 2, 4321.09, LocalDate.of(2019, 2, 28), "Half-Yearly");
+        raised.setLastIncrementDate(LocalDate.of(2025, 3, 1));
+        raised.setVersion(7);
+        List<Employee> rows = List.of(
+                employee(1, "Bob", 1, 1000, null, null),
+                raised,
+                employee(8, "Ann", 0, 2500.5, LocalDate.of(2020, 1, 1), "Yearly"));
+        EmployeeSnapshot.write(file, "jdbc:test", List.of(new Department(1, "Finance"), new Department(2, "IT")), rows);
+
+        EmployeeSnapshot snapshot = EmployeeSnapshot.open(file);
+        assertEquals("jdbc:test", snapshot.getSource());
+        assertEquals(3, snapshot.size());
+        assertEquals(2, snapshot.departments().size());
+        assertEquals("IT", snapshot.departmentName(2));
+        assertEquals("", snapshot.departmentName(0));
+
+        Employee read = snapshot.rowAt(snapshot.rowOf(3));
+        assertEquals("Zoë Ångström", read.getName());
+        assertEquals(2, read.getDepartmentId());
+        assertEquals(4321.09, read.getSalary());
+        assertEquals(LocalDate.of(2019, 2, 28), read.getJoinDate());
+        assertEquals(LocalDate.of(2025, 3, 1), read.getLastIncrementDate());
+        assertEquals("Half-Yearly", read.getIncrementPolicy());
+        assertEquals(7, read.getVersion());
+
+        Employee bare = snapshot.rowAt(0);
+        assertEquals(1, bare.getId());
+        assertNull(bare.getJoinDate());
+        assertNull(bare.getLastIncrementDate());
+        assertNull(bare.getIncrementPolicy());
+        assertTrue(snapshot.rowOf(5) < 0);
+
+        // Sorted orders are stored with the rows: Ann, Bob, Zoë by name
+        assertEquals(8, snapshot.idAt(snapshot.rowAtRank(EmployeeSort.NAME, 0)));
+        assertEquals(3, snapshot.idAt(snapshot.rowAtRank(EmployeeSort.NAME, 2)));
+        assertEquals(1, snapshot.idAt(snapshot.rowAtRank(EmployeeSort.SALARY, 0)));
+    }
+
+    @Test
+    void pendingCopyLeftByAnEarlierRunIsMovedIntoPlaceOnOpen() throws IOException {
+        EmployeeSnapshot.write(file, "jdbc:test", List.of(), List.of(employee(1, "Old", 0, 1, null, null)));
+        // A run that could not replace the mapped file leaves the new copy next to it
+        Path newer = directory.resolve("newer.snapshot");
+        EmployeeSnapshot.write(newer, "jdbc:test", List.of(), List.of(
+                employee(1, "New", 0, 1, null, null), employee(2, "Added", 0, 1, null, null)));
+        Files.move(newer, EmployeeSnapshot.pendingFile(file));
+
+        EmployeeSnapshot snapshot = EmployeeSnapshot.open(file);
+        assertEquals(2, snapshot.size());
+        assertEquals("New", snapshot.rowAt(0).getName());
+        assertFalse(Files.exists(EmployeeSnapshot.pendingFile(file)));
+    }
+}
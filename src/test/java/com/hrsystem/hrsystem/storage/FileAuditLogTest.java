@@ -0,0 +1,110 @@
+package com.hrsystem.hrsystem.storage;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class FileAuditLogTest {
+
+    private Path directory;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("audit");
+        file = directory.resolve("audit.log");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+        Files.delete(directory);
+    }
+
+    private static AuditEntry entry(ChangeRecord.Table table, int rowId, String after) {
+        return new AuditEntry(table, rowId, AuditEntry.Action.UPDATE, "tester", null, after);
+    }
+
+    private static List<Long> ids(List<AuditEntry> entries) {
+        List<Long> ids = new ArrayList<>();
+        for (AuditEntry entry : entries) {
+            ids.add(entry.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    void fieldsWithTabsLineBreaksAndBackslashesReadBackUnchanged() throws IOException, SQLException {
+        String before = "name=Ann\tSmith\nnote=C:\\temp\\n is not a line break\r\n";
+        AuditEntry written = new AuditEntry(ChangeRecord.Table.EMPLOYEES, 4, AuditEntry.Action.UPDATE,
+                "dom\\ann\t(admin)", before, null);
+        try (FileAuditLog log = new FileAuditLog(file)) {
+            log.append(List.of(written));
+        }
+        assertEquals(1, Files.readAllLines(file, StandardCharsets.UTF_8).size());
+
+        try (FileAuditLog log = new FileAuditLog(file)) {
+            List<AuditEntry> read = log.findByRow(ChangeRecord.Table.EMPLOYEES, 4, Long.MAX_VALUE, 10);
+            assertEquals(1, read.size());
+            AuditEntry entry = read.get(0);
+            assertEquals(1, entry.getId());
+            assertEquals("dom\\ann\t(admin)", entry.getUser());
+            assertEquals(before, entry.getBefore());
+            assertNull(entry.getAfter());
+            assertEquals(AuditEntry.Action.UPDATE, entry.getAction());
+            assertEquals(written.getChangedAt().toEpochMilli(), entry.getChangedAt().toEpochMilli());
+        }
+    }
+
+    @Test
+    void lineCutShortByACrashIsDroppedOnOpen() throws IOException, SQLException {
+        try (FileAuditLog log = new FileAuditLog(file)) {
+            log.append(List.of(entry(ChangeRecord.Table.EMPLOYEES, 1, "a"), entry(ChangeRecord.Table.EMPLOYEES, 1, "b")));
+        }
+        long complete = Files.size(file);
+        Files.write(file, "3\t1700000000000\ttester\temployees\t1\tUPD".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        try (FileAuditLog log = new FileAuditLog(file)) {
+            assertEquals(complete, Files.size(file));
+            // Numbering carries on from the last complete entry
+            log.append(List.of(entry(ChangeRecord.Table.EMPLOYEES, 1, "c")));
+            List<AuditEntry> read = log.findByRow(ChangeRecord.Table.EMPLOYEES, 1, Long.MAX_VALUE, 10);
+            assertEquals(List.of(3L, 2L, 1L), ids(read));
+            assertEquals("c", read.get(0).getAfter());
+        }
+    }
+
+    @Test
+    void historyIsPagedNewestFirstByBeforeId() throws IOException, SQLException {
+        try (FileAuditLog log = new FileAuditLog(file)) {
+            for (int i = 0; i < 5; i++) {
+                // Entries for other rows and for the department with the same id are interleaved
+                log.append(List.of(entry(ChangeRecord.Table.EMPLOYEES, 7, "v" + i),
+                        entry(ChangeRecord.Table.EMPLOYEES, 8, "other"),
+                        entry(ChangeRecord.Table.DEPARTMENTS, 7, "department")));
+            }
+
+            List<AuditEntry> first = log.findByRow(ChangeRecord.Table.EMPLOYEES, 7, Long.MAX_VALUE, 2);
+            assertEquals(List.of(13L, 10L), ids(first));
+            assertEquals("v4", first.get(0).getAfter());
+            List<AuditEntry> second = log.findByRow(ChangeRecord.Table.EMPLOYEES, 7, 10, 2);
+            assertEquals(List.of(7L, 4L), ids(second));
+            List<AuditEntry> last = log.findByRow(ChangeRecord.Table.EMPLOYEES, 7, 4, 2);
+            assertEquals(List.of(1L), ids(last));
+            assertEquals(List.of(), log.findByRow(ChangeRecord.Table.EMPLOYEES, 7, 1, 2));
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.hrsystem.hrsystem.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IncrementRuleTest {
+
+    private static BigDecimal money(String value) {
+        return new BigDecimal(value);
+    }
+
+    @Test
+    void parsesAPercentageOrAnAmount() {
+        IncrementRule percent = IncrementRule.parse("5%");
+        assertEquals(IncrementRule.Type.PERCENT, percent.getType());
+        assertEquals(money("5"), percent.getValue());
+        assertEquals("5%", percent.toString());
+
+        IncrementRule amount = IncrementRule.parse("1500");
+        assertEquals(IncrementRule.Type.AMOUNT, amount.getType());
+        assertEquals(money("1500.00"), amount.getValue());
+        assertEquals("1,500.00", amount.toString());
+
+        assertEquals(money("7.5"), IncrementRule.parse(" 7.5 % ").getValue());
+        // Amounts are kept to cents like the salary column
+        assertEquals(money("1500.01"), IncrementRule.parse("1500.005").getValue());
+    }
+
+    @Test
+    void rejectsTextThatIsNeither() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> IncrementRule.parse("five"));
+        assertEquals("Enter a percentage such as 5% or an amount such as 1500.", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> IncrementRule.parse("%"));
+        assertThrows(IllegalArgumentException.class, () -> IncrementRule.parse("0"));
+        assertThrows(IllegalArgumentException.class, () -> IncrementRule.parse("-5%"));
+    }
+
+    @Test
+    void percentRoundsHalfUpToCents() {
+        assertEquals(money("1050.00"), IncrementRule.parse("5%").apply(money("1000.00")));
+        // 12,345.67 x 1.033 = 12,753.07711
+        assertEquals(money("12753.08"), IncrementRule.parse("3.3%").apply(money("12345.67")));
+        // 0.505 rounds up, as MySQL rounds a DECIMAL(10,2)
+        assertEquals(money("0.51"), IncrementRule.parse("1%").apply(money("0.50")));
+    }
+
+    @Test
+    void amountIsAddedAsIs() {
+        assertEquals(money("2500.00"), IncrementRule.parse("1500").apply(money("1000.00")));
+        assertEquals(money("1000.50"), IncrementRule.parse("0.5").apply(money("1000.00")));
+    }
+}
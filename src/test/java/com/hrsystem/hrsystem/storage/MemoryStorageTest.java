@@ -0,0 +1,84 @@
+package com.hrsystem.hrsystem.storage;
+
+import com.hrsystem.hrsystem.model.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MemoryStorageTest {
+
+    private static final LocalDate RUN_DATE = LocalDate.of(2025, 6, 1);
+
+    private final EmployeeStore store = new MemoryStorage(false).employees();
+    private int yearly;
+    private int notYetDue;
+    private int halfYearly;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        yearly = store.insert(new Employee(0, "Yearly Due", 0, 1000, LocalDate.of(2024, 1, 10), "Yearly"));
+        notYetDue = store.insert(new Employee(0, "Joined Recently", 0, 2000, LocalDate.of(2025, 1, 1), "Half-Yearly"));
+        halfYearly = store.insert(new Employee(0, "Half-Yearly Due", 0, 3000.10, LocalDate.of(2024, 11, 15), "Half-Yearly"));
+        store.insert(new Employee(0, "No Join Date", 0, 4000, null, "Yearly"));
+    }
+
+    private Employee stored(int id) throws SQLException {
+        return store.findByIds(new int[]{id}).get(0);
+    }
+
+    private List<Integer> dueIds(LocalDate asOf) throws SQLException {
+        List<Integer> ids = new ArrayList<>();
+        for (Employee employee : store.findDueForIncrement(asOf)) {
+            ids.add(employee.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    void dryRunReportsTheRaisesWithoutWritingThem() throws SQLException {
+        IncrementResult result = store.applyIncrements(IncrementRule.parse("10%"), RUN_DATE, true, 10);
+
+        assertFalse(result.isApplied());
+        assertEquals(2, result.getCount());
+        assertEquals(new BigDecimal("4000.10"), result.getTotalBefore());
+        assertEquals(new BigDecimal("4400.11"), result.getTotalAfter());
+        assertEquals(2, result.getSample().size());
+        assertEquals(yearly, result.getSample().get(0).getEmployeeId());
+        assertEquals(new BigDecimal("3300.11"), result.getSample().get(1).getNewSalary());
+
+        assertEquals(1000, stored(yearly).getSalary());
+        assertNull(stored(yearly).getLastIncrementDate());
+        assertEquals(List.of(yearly, halfYearly), dueIds(RUN_DATE));
+    }
+
+    @Test
+    void applyRaisesTheSalariesAndRestartsTheInterval() throws SQLException {
+        long versionBefore = stored(halfYearly).getVersion();
+        IncrementResult result = store.applyIncrements(IncrementRule.parse("1500"), RUN_DATE, false, 1);
+
+        assertTrue(result.isApplied());
+        assertEquals(2, result.getCount());
+        assertEquals(1, result.getSample().size());
+        assertEquals(yearly, result.getSample().get(0).getEmployeeId());
+        assertEquals(2500, stored(yearly).getSalary());
+        assertEquals(4500.10, stored(halfYearly).getSalary());
+        assertEquals(2000, stored(notYetDue).getSalary());
+        assertEquals(RUN_DATE, stored(halfYearly).getLastIncrementDate());
+        assertEquals(versionBefore + 1, stored(halfYearly).getVersion());
+
+        // Nobody raised is due again until a full interval has passed since the run
+        assertEquals(List.of(), dueIds(RUN_DATE));
+        assertEquals(List.of(notYetDue, halfYearly), dueIds(RUN_DATE.plusMonths(6)));
+        assertEquals(List.of(notYetDue, yearly, halfYearly), dueIds(RUN_DATE.plusMonths(12)));
+    }
+}
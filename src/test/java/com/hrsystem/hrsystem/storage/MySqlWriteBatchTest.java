@@ -0,0 +1,176 @@
+package com.hrsystem.hrsystem.storage;
+
+import com.hrsystem.hrsystem.model.Employee;
+import com.hrsystem.hrsystem.util.Database;
+import com.hrsystem.hrsystem.util.PoolConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLTransactionRollbackException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MySqlWriteBatchTest {
+
+    // What the connection and the store were asked to do, in order
+    private final List<String> log = new ArrayList<>();
+    private final MySqlEmployeeStore employees = new ScriptedEmployees();
+    private final MySqlDepartmentStore departments = new MySqlDepartmentStore(null);
+
+    @BeforeEach
+    void setUp() {
+        PoolConfig config = new PoolConfig();
+        config.setMinSize(0);
+        config.setMaxSize(1);
+        config.setEvictionIntervalMillis(0);
+        Database.configure(this::connection, config);
+    }
+
+    @AfterEach
+    void tearDown() {
+        Database.shutdown();
+    }
+
+    private static Employee employee(String name) {
+        return new Employee(0, name, 0, 50_000, null, "Yearly");
+    }
+
+    @Test
+    void eachWriteRunsBehindItsOwnSavepoint() throws SQLException {
+        try (MySqlWriteBatch batch = new MySqlWriteBatch(employees, departments)) {
+            assertEquals(1, batch.insertEmployee(employee("A")));
+            assertEquals(2, batch.insertEmployee(employee("B")));
+            batch.commit();
+            assertEquals(List.of("autoCommit false",
+                    "savepoint 1", "insert A", "release 1",
+                    "savepoint 2", "insert B", "release 2",
+                    "commit"), log);
+        }
+    }
+
+    @Test
+    void failedWriteIsRolledBackAloneAndTheOthersCommit() throws SQLException {
+        try (MySqlWriteBatch batch = new MySqlWriteBatch(employees, departments)) {
+            batch.insertEmployee(employee("A"));
+            assertThrows(SQLIntegrityConstraintViolationException.class, () -> batch.insertEmployee(employee("Duplicate")));
+            batch.insertEmployee(employee("B"));
+            batch.commit();
+            assertEquals(List.of("autoCommit false",
+                    "savepoint 1", "insert A", "release 1",
+                    "savepoint 2", "insert Duplicate", "rollback to 2",
+                    "savepoint 3", "insert B", "release 3",
+                    "commit"), log);
+        }
+    }
+
+    @Test
+    void transactionRolledBackByTheDatabaseRefusesTheRest() throws SQLException {
+        SQLTransactionRollbackException deadlock;
+        try (MySqlWriteBatch batch = new MySqlWriteBatch(employees, departments)) {
+            batch.insertEmployee(employee("A"));
+            deadlock = assertThrows(SQLTransactionRollbackException.class, () -> batch.insertEmployee(employee("Deadlock")));
+            SQLException refused = assertThrows(SQLException.class, () -> batch.insertEmployee(employee("B")));
+            assertSame(deadlock, refused.getCause());
+            SQLException commit = assertThrows(SQLException.class, batch::commit);
+            assertSame(deadlock, commit.getCause());
+        }
+        // No savepoint survives the database's rollback, so none is rolled back to; closing rolls back the rest
+        assertEquals(List.of("autoCommit false",
+                "savepoint 1", "insert A", "release 1",
+                "savepoint 2", "insert Deadlock",
+                "rollback"), log.subList(0, 7));
+    }
+
+    @Test
+    void closingWithoutCommitRollsBack() throws SQLException {
+        try (MySqlWriteBatch batch = new MySqlWriteBatch(employees, departments)) {
+            batch.insertEmployee(employee("A"));
+        }
+        assertEquals(List.of("autoCommit false",
+                "savepoint 1", "insert A", "release 1",
+                "rollback"), log.subList(0, 5));
+    }
+
+    /** A connection that only logs the transaction calls made on it. */
+    private Connection connection() {
+        boolean[] autoCommit = {true};
+        boolean[] closed = {false};
+        int[] savepoints = {0};
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "setAutoCommit":
+                            autoCommit[0] = (Boolean) args[0];
+                            log.add("autoCommit " + args[0]);
+                            return null;
+                        case "getAutoCommit":
+                            return autoCommit[0];
+                        case "setSavepoint":
+                            int id = ++savepoints[0];
+                            log.add("savepoint " + id);
+                            return savepoint(id);
+                        case "releaseSavepoint":
+                            log.add("release " + ((Savepoint) args[0]).getSavepointId());
+                            return null;
+                        case "rollback":
+                            log.add(args == null ? "rollback" : "rollback to " + ((Savepoint) args[0]).getSavepointId());
+                            return null;
+                        case "commit":
+                            log.add("commit");
+                            return null;
+                        case "close":
+                            closed[0] = true;
+                            return null;
+                        case "isClosed":
+                            return closed[0];
+                        case "isValid":
+                            return !closed[0];
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static Savepoint savepoint(int id) {
+        return (Savepoint) Proxy.newProxyInstance(Savepoint.class.getClassLoader(),
+                new Class<?>[]{Savepoint.class}, (proxy, method, args) -> {
+                    if (method.getName().equals("getSavepointId")) return id;
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /** Inserts succeed with increasing ids, except names that start with the failure they should cause. */
+    private final class ScriptedEmployees extends MySqlEmployeeStore {
+        private int nextId = 1;
+
+        ScriptedEmployees() {
+            super(null);
+        }
+
+        @Override
+        int insert(Connection conn, Employee employee) throws SQLException {
+            log.add("insert " + employee.getName());
+            if (employee.getName().startsWith("Duplicate")) {
+                throw new SQLIntegrityConstraintViolationException("Duplicate entry for key 'name'", "23000");
+            }
+            if (employee.getName().startsWith("Deadlock")) {
+                throw new SQLTransactionRollbackException("Deadlock found when trying to get lock", "40001");
+            }
+            return nextId++;
+        }
+    }
+}
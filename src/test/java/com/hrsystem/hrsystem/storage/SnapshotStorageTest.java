@@ -0,0 +1,168 @@
+package com.hrsystem.hrsystem.storage;
+
+import com.hrsystem.hrsystem.model.Employee;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotStorageTest {
+
+    private final MemoryStorage memory = new MemoryStorage(false);
+    private final UnreachableStorage primary = new UnreachableStorage();
+    private final BlockingQueue<SnapshotStorage.Mode> modes = new ArrayBlockingQueue<>(10);
+    private Path directory;
+    private Path file;
+    private SnapshotStorage storage;
+
+    @BeforeEach
+    void setUp() throws IOException, SQLException {
+        directory = Files.createTempDirectory("snapshot");
+        file = directory.resolve("employees.snapshot");
+        int finance = memory.departments().insert("Finance");
+        memory.employees().insert(new Employee(0, "Ann", finance, 1000, LocalDate.of(2020, 1, 1), "Yearly"));
+        memory.employees().insert(new Employee(0, "Bob", finance, 2000, null, "Half-Yearly"));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        if (storage != null) storage.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private SnapshotStorage open() {
+        storage = new SnapshotStorage(primary, file, 3_600_000, 0);
+        storage.addModeListener(modes::add);
+        return storage;
+    }
+
+    private void awaitMode(SnapshotStorage.Mode expected) throws InterruptedException {
+        assertEquals(expected, modes.poll(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void firstStartWritesACopyThatTheNextStartOpens() throws Exception {
+        open().bootstrap();
+        assertEquals(SnapshotStorage.Mode.LIVE, storage.getMode());
+        // The first copy is written on the snapshot thread
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (storage.getSnapshotTime() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(storage.getSnapshotTime() > 0);
+        storage.close();
+
+        primary.down = true;
+        open();
+        assertEquals(SnapshotStorage.Mode.CATCHING_UP, storage.getMode());
+        assertFalse(storage.isLive());
+        List<Employee> rows = storage.employees().findAll();
+        assertEquals(2, rows.size());
+        assertEquals("Bob", rows.get(1).getName());
+        assertEquals("Finance", storage.departments().findAll().get(0).getName());
+    }
+
+    @Test
+    void offlineReadsComeFromTheCopyAndWritesAreRefused() throws Exception {
+        EmployeeSnapshot.write(file, primary.describe(), memory.departments().findAll(), memory.employees().findAll());
+        primary.down = true;
+        open().bootstrap();
+        awaitMode(SnapshotStorage.Mode.OFFLINE);
+
+        assertEquals(2, storage.employees().countAll());
+        assertEquals("Ann", storage.employees().findAll().get(0).getName());
+        ReadOnlyException e = assertThrows(ReadOnlyException.class,
+                () -> storage.employees().insert(new Employee(0, "Cy", 0, 1, null, "Yearly")));
+        assertTrue(e.getMessage().startsWith("The database cannot be reached"), e.getMessage());
+        assertThrows(ReadOnlyException.class, () -> storage.departments().insert("IT"));
+        assertEquals(2, memory.employees().countAll());
+    }
+
+    @Test
+    void copyOfAnotherDatabaseIsIgnored() throws Exception {
+        EmployeeSnapshot.write(file, "jdbc:mysql://elsewhere/hr", List.of(), List.of());
+        open();
+        assertEquals(SnapshotStorage.Mode.LIVE, storage.getMode());
+        assertEquals(0, storage.getSnapshotTime());
+    }
+
+    /** The in-memory engine behind a switch that makes every call fail as if the server went away. */
+    private final class UnreachableStorage implements Storage {
+        volatile boolean down;
+
+        @SuppressWarnings("unchecked")
+        private <T> T guarded(Class<T> type, T target) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+                if (down) throw new SQLException("Communications link failure", "08S01");
+                try {
+                    return method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        }
+
+        @Override
+        public EmployeeStore employees() {
+            return guarded(EmployeeStore.class, memory.employees());
+        }
+
+        @Override
+        public DepartmentStore departments() {
+            return guarded(DepartmentStore.class, memory.departments());
+        }
+
+        @Override
+        public ChangeLog changeLog() {
+            return guarded(ChangeLog.class, memory.changeLog());
+        }
+
+        @Override
+        public WriteBatch openWriteBatch() throws SQLException {
+            if (down) throw new SQLException("Communications link failure", "08S01");
+            return memory.openWriteBatch();
+        }
+
+        @Override
+        public AuditLog auditLog() {
+            return guarded(AuditLog.class, memory.auditLog());
+        }
+
+        @Override
+        public void bootstrap() throws SQLException {
+            if (down) throw new SQLException("Communications link failure", "08S01");
+            memory.bootstrap();
+        }
+
+        @Override
+        public String describe() {
+            return "jdbc:mysql://localhost/hr";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
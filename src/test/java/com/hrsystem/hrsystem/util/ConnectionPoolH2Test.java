@@ -0,0 +1,114 @@
+package com.hrsystem.hrsystem.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/** The pool in front of a real driver: an in-memory H2 database per test. */
+class ConnectionPoolH2Test {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private ConnectionPool pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        String url = "jdbc:h2:mem:pool" + DATABASES.incrementAndGet() + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+        PoolConfig config = new PoolConfig();
+        config.setMinSize(0);
+        config.setMaxSize(2);
+        config.setEvictionIntervalMillis(0);
+        pool = new ConnectionPool(() -> DriverManager.getConnection(url, "sa", ""), config);
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE employees (id INT PRIMARY KEY, name VARCHAR(100) NOT NULL)");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.close();
+    }
+
+    private void insert(Connection connection, int id, String name) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO employees (id, name) VALUES (?, ?)")) {
+            insert.setInt(1, id);
+            insert.setString(2, name);
+            insert.executeUpdate();
+        }
+    }
+
+    private int count() throws SQLException {
+        try (Connection connection = pool.getConnection();
+             PreparedStatement select = connection.prepareStatement("SELECT COUNT(*) FROM employees");
+             ResultSet rs = select.executeQuery()) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    @Test
+    void preparedStatementIsReusedAcrossBorrows() throws SQLException {
+        for (int id = 1; id <= 3; id++) {
+            try (Connection connection = pool.getConnection()) {
+                insert(connection, id, "Employee " + id);
+            }
+        }
+        assertEquals(3, count());
+        assertEquals(1, pool.getConnectionsCreated());
+        // One miss for the insert and one for the count; the second and third insert reuse the first
+        assertEquals(2, pool.getStatementCacheHits());
+        assertEquals(2, pool.getStatementCacheMisses());
+    }
+
+    @Test
+    void uncommittedWorkIsRolledBackWhenTheConnectionIsReturned() throws SQLException {
+        try (Connection connection = pool.getConnection()) {
+            connection.setAutoCommit(false);
+            insert(connection, 1, "Never Committed");
+        }
+        try (Connection connection = pool.getConnection()) {
+            assertTrue(connection.getAutoCommit());
+        }
+        assertEquals(0, count());
+    }
+
+    @Test
+    void connectionClosedBehindThePoolsBackIsReplaced() throws SQLException {
+        pool.close();
+        PoolConfig config = new PoolConfig();
+        config.setMinSize(0);
+        config.setMaxSize(1);
+        config.setEvictionIntervalMillis(0);
+        config.setValidationBypassMillis(0);
+        String url = "jdbc:h2:mem:pool" + DATABASES.incrementAndGet() + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+        pool = new ConnectionPool(() -> DriverManager.getConnection(url, "sa", ""), config);
+
+        Connection physical;
+        try (Connection connection = pool.getConnection()) {
+            physical = connection.unwrap(Connection.class);
+        }
+        physical.close();
+
+        try (Connection connection = pool.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT 1")) {
+            assertNotSame(physical, connection.unwrap(Connection.class));
+            assertTrue(rs.next());
+        }
+        assertEquals(1, pool.getValidationFailures());
+        assertEquals(2, pool.getConnectionsCreated());
+    }
+}
@@ -0,0 +1,283 @@
+package com.hrsystem.hrsystem.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectionPoolTest {
+
+    private final FakeDatabase database = new FakeDatabase();
+    private ConnectionPool pool;
+
+    @AfterEach
+    void closePool() {
+        if (pool != null) pool.close();
+    }
+
+    private static PoolConfig config() {
+        PoolConfig config = new PoolConfig();
+        config.setMinSize(0);
+        config.setMaxSize(2);
+        config.setAcquireTimeoutMillis(1_000);
+        // No background eviction unless a test asks for it
+        config.setEvictionIntervalMillis(0);
+        return config;
+    }
+
+    @Test
+    void returnedConnectionIsReused() throws SQLException {
+        pool = new ConnectionPool(database, config());
+        Connection first = pool.getConnection();
+        Connection physical = first.unwrap(Connection.class);
+        first.close();
+        assertTrue(first.isClosed());
+        assertThrows(SQLException.class, () -> first.createStatement());
+
+        try (Connection second = pool.getConnection()) {
+            assertSame(physical, second.unwrap(Connection.class));
+        }
+        assertEquals(1, pool.getConnectionsCreated());
+        assertEquals(1, pool.getIdleConnections());
+    }
+
+    @Test
+    void acquireTimesOutWhenAllConnectionsAreInUse() throws SQLException {
+        PoolConfig config = config();
+        config.setMaxSize(1);
+        config.setAcquireTimeoutMillis(50);
+        pool = new ConnectionPool(database, config);
+
+        Connection held = pool.getConnection();
+        long start = System.nanoTime();
+        assertThrows(SQLTransientConnectionException.class, () -> pool.getConnection());
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+        assertEquals(1, pool.getAcquireTimeouts());
+
+        held.close();
+        try (Connection next = pool.getConnection()) {
+            assertFalse(next.isClosed());
+        }
+        assertEquals(1, pool.getConnectionsCreated());
+    }
+
+    @Test
+    void invalidIdleConnectionIsReplaced() throws SQLException {
+        PoolConfig config = config();
+        // Validate on every borrow
+        config.setValidationBypassMillis(0);
+        pool = new ConnectionPool(database, config);
+
+        Connection first = pool.getConnection();
+        Connection physical = first.unwrap(Connection.class);
+        first.close();
+        database.valid = false;
+
+        try (Connection second = pool.getConnection()) {
+            assertNotSame(physical, second.unwrap(Connection.class));
+        }
+        assertEquals(1, pool.getValidationFailures());
+        assertEquals(2, pool.getConnectionsCreated());
+        assertTrue(physical.isClosed());
+        assertEquals(1, pool.getTotalConnections());
+    }
+
+    @Test
+    void recentlyReturnedConnectionSkipsValidation() throws SQLException {
+        PoolConfig config = config();
+        config.setValidationBypassMillis(60_000);
+        pool = new ConnectionPool(database, config);
+
+        pool.getConnection().close();
+        database.valid = false;
+        pool.getConnection().close();
+        assertEquals(0, pool.getValidationFailures());
+        assertEquals(1, pool.getConnectionsCreated());
+    }
+
+    @Test
+    void idleConnectionsAboveMinimumAreEvicted() throws Exception {
+        PoolConfig config = config();
+        config.setMinSize(1);
+        config.setIdleTimeoutMillis(20);
+        config.setEvictionIntervalMillis(10);
+        pool = new ConnectionPool(database, config);
+
+        Connection a = pool.getConnection();
+        Connection b = pool.getConnection();
+        a.close();
+        b.close();
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (pool.getConnectionsEvicted() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, pool.getConnectionsEvicted());
+        // The minimum stays open
+        assertEquals(1, pool.getTotalConnections());
+        assertEquals(1, pool.getIdleConnections());
+        assertEquals(1, database.closedConnections.get());
+    }
+
+    @Test
+    void borrowersNeverExceedMaximumSize() throws Exception {
+        PoolConfig config = config();
+        config.setMaxSize(3);
+        config.setAcquireTimeoutMillis(5_000);
+        pool = new ConnectionPool(database, config);
+
+        int threads = 12;
+        AtomicInteger holding = new AtomicInteger();
+        AtomicInteger mostHeld = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> borrowers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                borrowers.add(executor.submit(() -> {
+                    start.await();
+                    for (int round = 0; round < 20; round++) {
+                        try (Connection ignored = pool.getConnection()) {
+                            mostHeld.accumulateAndGet(holding.incrementAndGet(), Math::max);
+                            Thread.sleep(1);
+                            holding.decrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> borrower : borrowers) {
+                borrower.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertTrue(mostHeld.get() <= 3, "held " + mostHeld.get() + " at once");
+        assertTrue(pool.getConnectionsCreated() <= 3, "opened " + pool.getConnectionsCreated());
+        assertEquals(0, pool.getInUseConnections());
+        assertEquals(0, pool.getAcquireTimeouts());
+    }
+
+    @Test
+    void cachedStatementIsResetWhenClosed() throws SQLException {
+        pool = new ConnectionPool(database, config());
+        try (Connection connection = pool.getConnection()) {
+            PreparedStatement streamed = connection.prepareStatement("SELECT * FROM employees");
+            streamed.setFetchSize(Integer.MIN_VALUE);
+            streamed.setMaxRows(10);
+            streamed.setQueryTimeout(30);
+            streamed.close();
+        }
+        try (Connection connection = pool.getConnection();
+             PreparedStatement again = connection.prepareStatement("SELECT * FROM employees")) {
+            assertEquals(1, pool.getStatementCacheHits());
+            assertEquals(0, again.getFetchSize());
+            assertEquals(0, again.getMaxRows());
+            assertEquals(0, again.getQueryTimeout());
+        }
+        assertEquals(1, database.preparedStatements.get());
+    }
+
+    @Test
+    void sameSqlPreparedTwiceAtOnceGetsSeparateStatements() throws SQLException {
+        pool = new ConnectionPool(database, config());
+        try (Connection connection = pool.getConnection();
+             PreparedStatement outer = connection.prepareStatement("SELECT 1");
+             PreparedStatement inner = connection.prepareStatement("SELECT 1")) {
+            inner.setFetchSize(5);
+            assertEquals(0, outer.getFetchSize());
+        }
+        assertEquals(2, database.preparedStatements.get());
+        assertEquals(2, pool.getStatementCacheMisses());
+    }
+
+    /** An in-memory stand-in for a JDBC driver: connections and statements that only remember their settings. */
+    private static final class FakeDatabase implements ConnectionPool.ConnectionFactory {
+        volatile boolean valid = true;
+        final AtomicInteger closedConnections = new AtomicInteger();
+        final AtomicInteger preparedStatements = new AtomicInteger();
+
+        @Override
+        public Connection create() {
+            boolean[] closed = {false};
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "close":
+                                if (!closed[0]) closedConnections.incrementAndGet();
+                                closed[0] = true;
+                                return null;
+                            case "isClosed":
+                                return closed[0];
+                            case "isValid":
+                                return valid && !closed[0];
+                            case "getAutoCommit":
+                                return true;
+                            case "prepareStatement":
+                                preparedStatements.incrementAndGet();
+                                return statement();
+                            case "unwrap":
+                                return proxy;
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            default:
+                                return null;
+                        }
+                    });
+        }
+
+        private static PreparedStatement statement() {
+            Map<String, Object> settings = new HashMap<>();
+            boolean[] closed = {false};
+            return (PreparedStatement) Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class}, (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.startsWith("set") && args != null && args.length == 1) {
+                            settings.put(name.substring(3), args[0]);
+                            return null;
+                        }
+                        if (name.startsWith("get") && (args == null || args.length == 0)
+                                && method.getReturnType() == int.class) {
+                            return settings.getOrDefault(name.substring(3), 0);
+                        }
+                        switch (name) {
+                            case "close":
+                                closed[0] = true;
+                                return null;
+                            case "isClosed":
+                                return closed[0];
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            default:
+                                return null;
+                        }
+                    });
+        }
+    }
+}
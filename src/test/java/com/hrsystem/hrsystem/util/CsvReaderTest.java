@@ -0,0 +1,70 @@
+package com.hrsystem.hrsystem.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CsvReaderTest {
+
+    private static CsvReader reader(String text) {
+        return new CsvReader(new StringReader(text));
+    }
+
+    @Test
+    void quotedFieldsKeepCommasAndDoubledQuotes() throws IOException {
+        CsvReader csv = reader("plain,\"Smith, John\",\"say \"\"hi\"\"\",\"\"\n");
+        assertEquals(List.of("plain", "Smith, John", "say \"hi\"", ""), csv.next());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void quoteInsideAnUnquotedFieldIsKept() throws IOException {
+        assertEquals(List.of("O\"Neil", "x"), reader("O\"Neil,x").next());
+    }
+
+    @Test
+    void emptyFieldsAndALastLineWithoutBreak() throws IOException {
+        CsvReader csv = reader("a,,\n,b");
+        assertEquals(List.of("a", "", ""), csv.next());
+        assertEquals(List.of("", "b"), csv.next());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void embeddedLineBreaksBelongToTheFieldAndCountTowardsLaterLines() throws IOException {
+        CsvReader csv = reader("name,note\nAnn,\"first\nsecond\nthird\"\nBob,short\n");
+        assertEquals(List.of("name", "note"), csv.next());
+        assertEquals(1, csv.getRecordLine());
+        assertEquals(List.of("Ann", "first\nsecond\nthird"), csv.next());
+        assertEquals(2, csv.getRecordLine());
+        assertEquals(List.of("Bob", "short"), csv.next());
+        assertEquals(5, csv.getRecordLine());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void crlfEndsARecordButStaysInsideQuotes() throws IOException {
+        CsvReader csv = reader("a,b\r\n\"c\r\nd\",e\r\nf,g\r\n");
+        assertEquals(List.of("a", "b"), csv.next());
+        assertEquals(List.of("c\r\nd", "e"), csv.next());
+        assertEquals(2, csv.getRecordLine());
+        assertEquals(List.of("f", "g"), csv.next());
+        assertEquals(4, csv.getRecordLine());
+        assertNull(csv.next());
+    }
+
+    @Test
+    void unterminatedQuoteNamesTheLineItStartedOn() throws IOException {
+        CsvReader csv = reader("a,b\nc,\"never closed\nmore\n");
+        csv.next();
+        IOException e = assertThrows(IOException.class, csv::next);
+        assertTrue(e.getMessage().contains("line 2"), e.getMessage());
+    }
+}